@@ -0,0 +1,195 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.jmh;
+
+
+import java.io.StringReader;
+import java.util.List;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModIntegerRing;
+import edu.jas.arith.ModLongRing;
+import edu.jas.gb.Cyclic;
+import edu.jas.gb.Katsura;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.ExpVectorByte;
+import edu.jas.poly.ExpVectorInteger;
+import edu.jas.poly.ExpVectorLong;
+import edu.jas.poly.ExpVectorPacked;
+import edu.jas.poly.ExpVectorShort;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialStreamParser;
+import edu.jas.poly.Monomial;
+import edu.jas.poly.PolyUtil;
+import edu.jas.poly.TermOrder;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Common set up for the benchmarks. All random data is generated with fixed
+ * seeds, so the benchmarks see the same input in every run.
+ * @author Heinz Kredel
+ */
+public class BenchmarkUtil {
+
+
+    /**
+     * Seed for random data.
+     */
+    public static final long SEED = 20240117L;
+
+
+    /**
+     * Prime for modular coefficients.
+     */
+    public static final long PRIME = 2147483647L; // 2^31 - 1
+
+
+    /**
+     * Names of the term orders, the position + 1 is the TermOrder constant.
+     */
+    public static final String[] ORDERS = new String[] { "LEX", "INVLEX", "GRLEX", "IGRLEX", "REVLEX",
+            "REVILEX", "REVTDEG", "REVITDG", "ITDEGLEX", "REVITDEG" };
+
+
+    /**
+     * Coefficient ring by name.
+     * @param name one of BigRational, BigInteger, ModLong or ModInteger.
+     * @return coefficient ring factory.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends RingElem<C>> RingFactory<C> coefficientRing(String name) {
+        switch (name) {
+        case "BigRational":
+            return (RingFactory<C>) (RingFactory) new BigRational();
+        case "BigInteger":
+            return (RingFactory<C>) (RingFactory) new BigInteger();
+        case "ModLong":
+            return (RingFactory<C>) (RingFactory) new ModLongRing(PRIME);
+        case "ModInteger":
+            return (RingFactory<C>) (RingFactory) new ModIntegerRing(PRIME);
+        default:
+            throw new IllegalArgumentException("unknown coefficient ring " + name);
+        }
+    }
+
+
+    /**
+     * Term order by name.
+     * @param name one of ORDERS.
+     * @return term order.
+     */
+    public static TermOrder termOrder(String name) {
+        for (int i = 0; i < ORDERS.length; i++) {
+            if (ORDERS[i].equals(name)) {
+                return new TermOrder(i + 1);
+            }
+        }
+        throw new IllegalArgumentException("unknown term order " + name);
+    }
+
+
+    /**
+     * Exponent vector with given storage width.
+     * @param e exponent vector.
+     * @param width one of LONG, INT, SHORT, BYTE or PACKED.
+     * @return exponent vector of the given width equal to e.
+     */
+    public static ExpVector toWidth(ExpVector e, String width) {
+        long[] v = e.getVal().clone();
+        switch (width) {
+        case "LONG":
+            return new ExpVectorLong(v);
+        case "INT":
+            return new ExpVectorInteger(v);
+        case "SHORT":
+            return new ExpVectorShort(v);
+        case "BYTE":
+            return new ExpVectorByte(v);
+        case "PACKED":
+            return new ExpVectorPacked(v);
+        default:
+            throw new IllegalArgumentException("unknown exponent width " + width);
+        }
+    }
+
+
+    /**
+     * Polynomial with exponent vectors of given storage width. Only for
+     * arithmetic between polynomials of the same width, the ring still
+     * creates exponent vectors with the default width.
+     * @param p polynomial.
+     * @param width one of LONG, INT, SHORT, BYTE or PACKED.
+     * @return polynomial equal to p.
+     */
+    public static <C extends RingElem<C>> GenPolynomial<C> toWidth(GenPolynomial<C> p, String width) {
+        GenPolynomial<C> q = p.ring.getZERO().copy();
+        for (Monomial<C> m : p) {
+            q.doPutToMap(toWidth(m.e, width), m.c);
+        }
+        return q;
+    }
+
+
+    /**
+     * Katsura system.
+     * @param cf coefficient ring.
+     * @param n problem size.
+     * @param to term order.
+     * @return list of Katsura polynomials in n+1 variables.
+     */
+    public static <C extends RingElem<C>> List<GenPolynomial<C>> katsura(RingFactory<C> cf, int n,
+                    TermOrder to) {
+        String[] vars = new String[n + 1];
+        for (int i = 0; i <= n; i++) {
+            vars[i] = "u" + (n - i);
+        }
+        GenPolynomialRing<C> ring = new GenPolynomialRing<C>(cf, to, vars);
+        Katsura k = new Katsura("u", n);
+        GenPolynomialStreamParser<C> sp = new GenPolynomialStreamParser<C>(ring,
+                        new StringReader(k.polyList()));
+        return sp.toList();
+    }
+
+
+    /**
+     * Cyclic n-roots system.
+     * @param cf coefficient ring.
+     * @param n problem size.
+     * @param to term order.
+     * @return list of cyclic polynomials in n variables.
+     */
+    public static <C extends RingElem<C>> List<GenPolynomial<C>> cyclic(RingFactory<C> cf, int n,
+                    TermOrder to) {
+        Cyclic c = new Cyclic(n);
+        GenPolynomialRing<C> ring = new GenPolynomialRing<C>(cf, to, c.ring.getVars());
+        return PolyUtil.<C> fromIntegerCoefficients(ring, c.cyclicPolys());
+    }
+
+
+    /**
+     * Polynomial system by name.
+     * @param cf coefficient ring.
+     * @param name Katsura or Cyclic.
+     * @param n problem size.
+     * @param to term order.
+     * @return list of polynomials.
+     */
+    public static <C extends RingElem<C>> List<GenPolynomial<C>> system(RingFactory<C> cf, String name, int n,
+                    TermOrder to) {
+        switch (name) {
+        case "Katsura":
+            return katsura(cf, n, to);
+        case "Cyclic":
+            return cyclic(cf, n, to);
+        default:
+            throw new IllegalArgumentException("unknown system " + name);
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.jmh;
+
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.TermOrder;
+
+
+/**
+ * Benchmarks for exponent vector comparisons with all term orders.
+ * @author Heinz Kredel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class ExpVectorBenchmark {
+
+
+    @Param({ "LEX", "INVLEX", "GRLEX", "IGRLEX", "REVLEX", "REVILEX", "REVTDEG", "REVITDG", "ITDEGLEX",
+            "REVITDEG" })
+    public String order;
+
+
+    @Param({ "LONG", "INT", "SHORT", "BYTE", "PACKED" })
+    public String width;
+
+
+    @Param({ "4", "16" })
+    public int vars;
+
+
+    static final int N = 1024;
+
+
+    ExpVector[] E;
+
+
+    TermOrder.EVComparator cmp;
+
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(BenchmarkUtil.SEED);
+        E = new ExpVector[N];
+        for (int i = 0; i < N; i++) {
+            E[i] = BenchmarkUtil.toWidth(ExpVector.random(vars, 20L, 0.7f, rnd), width);
+        }
+        cmp = BenchmarkUtil.termOrder(order).getDescendComparator();
+    }
+
+
+    /**
+     * Compare N pairs of exponent vectors.
+     * @return sum of the comparison results.
+     */
+    @Benchmark
+    public int compare() {
+        int s = 0;
+        for (int i = 1; i < N; i++) {
+            s += cmp.compare(E[i - 1], E[i]);
+        }
+        return s + cmp.compare(E[N - 1], E[0]);
+    }
+
+}
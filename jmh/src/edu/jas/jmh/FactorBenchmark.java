@@ -0,0 +1,92 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.jmh;
+
+
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.ModLong;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.ufd.FactorInteger;
+
+
+/**
+ * Benchmarks for the factorization of integer polynomials, products of
+ * random factors and a Swinnerton-Dyer polynomial with many modular
+ * factors.
+ * @author Heinz Kredel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class FactorBenchmark {
+
+
+    @Param({ "random1", "random2", "swinnerton-dyer" })
+    public String input;
+
+
+    @Param({ "3" })
+    public int factors;
+
+
+    @Param({ "6" })
+    public int degree;
+
+
+    GenPolynomial<BigInteger> p;
+
+
+    FactorInteger<ModLong> engine;
+
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(BenchmarkUtil.SEED);
+        engine = new FactorInteger<ModLong>();
+        if (input.equals("swinnerton-dyer")) { // sqrt(2), sqrt(3), sqrt(5), degree 8
+            GenPolynomialRing<BigInteger> ring = new GenPolynomialRing<BigInteger>(new BigInteger(),
+                            new String[] { "x" });
+            p = ring.parse("x^8 - 40 x^6 + 352 x^4 - 960 x^2 + 576");
+            return;
+        }
+        int vars = (input.equals("random1") ? 1 : 2);
+        GenPolynomialRing<BigInteger> ring = new GenPolynomialRing<BigInteger>(new BigInteger(), vars);
+        p = ring.getONE();
+        for (int i = 0; i < factors; i++) {
+            GenPolynomial<BigInteger> f = ring.random(10, degree + 2, degree, 0.7f, rnd);
+            if (f.isConstant()) {
+                f = f.sum(ring.univariate(0));
+            }
+            p = p.multiply(f);
+        }
+    }
+
+
+    @Benchmark
+    public SortedMap<GenPolynomial<BigInteger>, Long> factors() {
+        return engine.factors(p);
+    }
+
+}
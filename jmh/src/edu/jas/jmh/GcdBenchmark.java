@@ -0,0 +1,93 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.jmh;
+
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.ModLong;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.ufd.GreatestCommonDivisorAbstract;
+import edu.jas.ufd.GreatestCommonDivisorHensel;
+import edu.jas.ufd.GreatestCommonDivisorModular;
+import edu.jas.ufd.GreatestCommonDivisorSubres;
+
+
+/**
+ * Benchmarks for integer polynomial gcds with the modular and the Hensel
+ * algorithm, the subresultant algorithm for comparison.
+ * @author Heinz Kredel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class GcdBenchmark {
+
+
+    @Param({ "modular", "hensel", "subres" })
+    public String algorithm;
+
+
+    @Param({ "1", "3" })
+    public int vars;
+
+
+    @Param({ "5", "10" })
+    public int degree;
+
+
+    GenPolynomial<BigInteger> a, b;
+
+
+    GreatestCommonDivisorAbstract<BigInteger> engine;
+
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(BenchmarkUtil.SEED);
+        GenPolynomialRing<BigInteger> ring = new GenPolynomialRing<BigInteger>(new BigInteger(), vars);
+        GenPolynomial<BigInteger> c = ring.random(20, 2 * degree, degree, 0.6f, rnd);
+        a = ring.random(20, 2 * degree, degree, 0.6f, rnd).multiply(c);
+        b = ring.random(20, 2 * degree, degree, 0.6f, rnd).multiply(c);
+        switch (algorithm) {
+        case "modular":
+            engine = new GreatestCommonDivisorModular<ModLong>();
+            break;
+        case "hensel":
+            engine = new GreatestCommonDivisorHensel<ModLong>();
+            break;
+        case "subres":
+            engine = new GreatestCommonDivisorSubres<BigInteger>();
+            break;
+        default:
+            throw new IllegalArgumentException("unknown algorithm " + algorithm);
+        }
+    }
+
+
+    @Benchmark
+    public GenPolynomial<BigInteger> gcd() {
+        return engine.gcd(a, b);
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.jmh;
+
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.jas.gb.GroebnerBaseAbstract;
+import edu.jas.gb.GroebnerBaseParallel;
+import edu.jas.gb.GroebnerBaseSeq;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.TermOrder;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Benchmarks for the sequential and parallel Buchberger algorithm on the
+ * Katsura and Cyclic systems.
+ * @author Heinz Kredel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class GroebnerBaseBenchmark {
+
+
+    @Param({ "BigRational", "ModLong" })
+    public String coeff;
+
+
+    @Param({ "Katsura", "Cyclic" })
+    public String system;
+
+
+    @Param({ "4", "5" })
+    public int n;
+
+
+    @Param({ "IGRLEX" })
+    public String order;
+
+
+    /**
+     * Number of threads, 0 for the sequential algorithm.
+     */
+    @Param({ "0", "2", "4" })
+    public int threads;
+
+
+    List<GenPolynomial> F;
+
+
+    GroebnerBaseAbstract bb;
+
+
+    @Setup
+    public void setup() {
+        RingFactory cf = BenchmarkUtil.coefficientRing(coeff);
+        TermOrder to = BenchmarkUtil.termOrder(order);
+        F = BenchmarkUtil.system(cf, system, n, to);
+        if (threads == 0) {
+            bb = new GroebnerBaseSeq();
+        } else {
+            bb = new GroebnerBaseParallel(threads);
+        }
+    }
+
+
+    @TearDown
+    public void tearDown() {
+        bb.terminate();
+    }
+
+
+    @Benchmark
+    public List<GenPolynomial> GB() {
+        return bb.GB(F);
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.jmh;
+
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Benchmarks for polynomial multiplication, sum and subtractMultiple. The
+ * coefficient ring is selected at run time, so raw types are used.
+ * @author Heinz Kredel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class PolynomialBenchmark {
+
+
+    @Param({ "BigRational", "BigInteger", "ModLong" })
+    public String coeff;
+
+
+    @Param({ "LONG", "INT", "SHORT", "BYTE", "PACKED" })
+    public String width;
+
+
+    @Param({ "4" })
+    public int vars;
+
+
+    @Param({ "100", "1000" })
+    public int terms;
+
+
+    GenPolynomial a, b;
+
+
+    RingElem c;
+
+
+    ExpVector e;
+
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(BenchmarkUtil.SEED);
+        RingFactory cf = BenchmarkUtil.coefficientRing(coeff);
+        GenPolynomialRing ring = new GenPolynomialRing(cf, vars);
+        a = BenchmarkUtil.toWidth(ring.random(10, terms, 8, 0.5f, rnd), width);
+        b = BenchmarkUtil.toWidth(ring.random(10, terms, 8, 0.5f, rnd), width);
+        c = (RingElem) cf.random(10, rnd);
+        e = BenchmarkUtil.toWidth(ExpVector.random(vars, 4L, 0.5f, rnd), width);
+    }
+
+
+    @Benchmark
+    public GenPolynomial multiply() {
+        return a.multiply(b);
+    }
+
+
+    @Benchmark
+    public GenPolynomial sum() {
+        return a.sum(b);
+    }
+
+
+    @Benchmark
+    public GenPolynomial subtractMultiple() {
+        return a.subtractMultiple(c, e, b);
+    }
+
+}
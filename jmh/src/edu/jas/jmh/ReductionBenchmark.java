@@ -0,0 +1,96 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.jmh;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.jas.gb.GroebnerBaseSeq;
+import edu.jas.gb.ReductionSeq;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.TermOrder;
+import edu.jas.structure.GcdRingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Benchmarks for the normalform with respect to a Groebner base of the
+ * Katsura system.
+ * @author Heinz Kredel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class ReductionBenchmark {
+
+
+    @Param({ "BigRational", "ModLong" })
+    public String coeff;
+
+
+    @Param({ "IGRLEX", "INVLEX" })
+    public String order;
+
+
+    @Param({ "4", "5" })
+    public int n;
+
+
+    List<GenPolynomial> G;
+
+
+    List<GenPolynomial> P;
+
+
+    ReductionSeq red;
+
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(BenchmarkUtil.SEED);
+        RingFactory cf = BenchmarkUtil.coefficientRing(coeff);
+        TermOrder to = BenchmarkUtil.termOrder(order);
+        List<GenPolynomial> F = BenchmarkUtil.katsura(cf, n, to);
+        GroebnerBaseSeq bb = new GroebnerBaseSeq();
+        G = bb.GB(F);
+        P = new ArrayList<GenPolynomial>();
+        for (int i = 0; i < 16; i++) { // products of random polynomials with the generators
+            GenPolynomial f = F.get(i % F.size());
+            GenPolynomial g = F.get((i + 1) % F.size());
+            GenPolynomial p = f.multiply(g).sum(f.ring.random(5, 10, 4, 0.5f, rnd));
+            P.add(p);
+        }
+        red = new ReductionSeq();
+    }
+
+
+    @Benchmark
+    public void normalform(Blackhole bh) {
+        for (GenPolynomial p : P) {
+            bh.consume(red.normalform(G, p));
+        }
+    }
+
+}
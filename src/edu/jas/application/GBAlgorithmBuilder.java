@@ -21,6 +21,8 @@ import edu.jas.gb.GroebnerBaseGGVSigSeqIter;
 import edu.jas.gb.GroebnerBaseParIter;
 import edu.jas.gb.GroebnerBaseParallel;
 import edu.jas.gb.GroebnerBaseSeqIter;
+import edu.jas.gb.GroebnerBaseSigParIter;
+import edu.jas.gb.GroebnerBaseSigSeqIter;
 import edu.jas.gb.OrderedMinPairlist;
 import edu.jas.gb.OrderedPairlist;
 import edu.jas.gb.OrderedSyzPairlist;
@@ -354,6 +356,11 @@ public class GBAlgorithmBuilder<C extends GcdRingElem<C>> implements Serializabl
             bb = (GroebnerBaseAbstract) new GroebnerBaseParIter<C>(threads, strategy);
             GroebnerBaseAbstract<C> pbb = new GBProxy<C>(algo, bb);
             return new GBAlgorithmBuilder<C>(ring, pbb, strategy);
+        } else if (algo instanceof GroebnerBaseSigSeqIter) { // signature based requested
+            GroebnerBaseAbstract<C> bb;
+            bb = new GroebnerBaseSigParIter<C>(threads, (GroebnerBaseSigSeqIter<C>) algo);
+            GroebnerBaseAbstract<C> pbb = new GBProxy<C>(algo, bb);
+            return new GBAlgorithmBuilder<C>(ring, pbb, strategy);
         } else if (((RingFactory) ring.coFac) instanceof BigRational) {
             GroebnerBaseAbstract<C> bb;
             if (algo instanceof GroebnerBaseRational) { // fraction free requested
@@ -310,12 +310,12 @@ public class LocalSolvablePolynomial<C extends GcdRingElem<C>> extends
                                 } else {
                                     g4 = g2.subtract(rel.e);
                                 }
-                                ring.table.update(g4, f2, Ds);
+                                ring.table.memoize(g4, f2, Ds);
                             }
                             if (rel.e != null) {
                                 D1 = new LocalSolvablePolynomial<C>(ring, one, rel.e);
                                 Ds = D1.multiply(Ds);
-                                ring.table.update(g2, f2, Ds);
+                                ring.table.memoize(g2, f2, Ds);
                             }
                             if (!f1.isZERO()) {
                                 D2 = new LocalSolvablePolynomial<C>(ring, one, f1);
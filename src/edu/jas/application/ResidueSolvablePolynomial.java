@@ -278,12 +278,12 @@ public class ResidueSolvablePolynomial<C extends GcdRingElem<C>> extends
                                 } else {
                                     g4 = g2.subtract(rel.e);
                                 }
-                                ring.table.update(g4, f2, Ds);
+                                ring.table.memoize(g4, f2, Ds);
                             }
                             if (rel.e != null) {
                                 D1 = new ResidueSolvablePolynomial<C>(ring, one, rel.e);
                                 Ds = D1.multiply(Ds);
-                                ring.table.update(g2, f2, Ds);
+                                ring.table.memoize(g2, f2, Ds);
                             }
                             if (!f1.isZERO()) {
                                 D2 = new ResidueSolvablePolynomial<C>(ring, one, f1);
@@ -931,7 +931,9 @@ public final class PrimeInteger {
      * Integer factorization. n is a positive integer. F is a list (q(1),
      * q(2),...,q(h)) of the prime factors of n, q(1) le q(2) le ... le q(h),
      * with n equal to the product of the q(i). <br /> In JAS F is a map.
-     * See also SACPRIM.IFACT, uses Pollards rho method.
+     * See also SACPRIM.IFACT, uses Pollards rho and the elliptic curve method
+     * alternately in the calling thread, see PrimeIntegerParallel for the
+     * concurrent version.
      * @param n integer to factor.
      * @return a map of pairs of numbers (p,e) with p**e divides n.
      */
@@ -941,8 +943,11 @@ public final class PrimeInteger {
         if (n.compareTo(b) > 0) {
             n = smallPrimeDivisors(n, F);
             if (n.compareTo(b) > 0) {
-                logger.info("run factorsPollardRho on n = {}", n);
-                factorsPollardRho(n, F); 
+                logger.info("run PrimeIntegerParallel on n = {}", n);
+                for (Map.Entry<java.math.BigInteger, Integer> m : new PrimeIntegerParallel(1).factors(n)
+                                .entrySet()) {
+                    PrimeIntegerParallel.add(F, m.getKey(), m.getValue());
+                }
                 return F;
             }
         }
@@ -0,0 +1,820 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.kern.ComputerThreads;
+import edu.jas.kern.Metrics;
+import edu.jas.kern.TimeExceededException;
+import edu.jas.kern.TimeStatus;
+
+
+/**
+ * Integer factorization with concurrent Pollard rho and elliptic curve
+ * methods. A composite number is split by a Pollard rho search in Brent's
+ * variant and by Lenstra's elliptic curve method (ECM) with Montgomery curves
+ * in Suyama's parametrization on several threads, the rho searches use
+ * distinct constants and the elliptic curves distinct parameters. The first
+ * divisor found cancels the other searches, the factors are then split
+ * recursively. With one thread the rho search and the elliptic curves are run
+ * alternately. Progress is reported to an optional listener, which can also
+ * cancel the factorization, and a time limit can be set.
+ * @see edu.jas.arith.PrimeInteger
+ * @author Heinz Kredel
+ */
+
+public class PrimeIntegerParallel {
+
+
+    private static final Logger logger = LogManager.getLogger(PrimeIntegerParallel.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Progress listener.
+     */
+    public static interface Progress {
+
+
+        /**
+         * Report progress of a divisor search.
+         * @param method "rho" or "ecm".
+         * @param n number to split.
+         * @param work number of rho iterations or elliptic curves done so
+         *            far by the reporting search.
+         * @return true to continue, false to cancel the factorization.
+         */
+        public boolean progress(String method, BigInteger n, long work);
+
+    }
+
+
+    /**
+     * Stage 1 bounds B1 of the elliptic curve method and the number of curves
+     * to run with each bound, suitable for factors with 15, 20, 25, 30 and 35
+     * decimal digits.
+     */
+    static final int[] ECM_B1 = new int[] { 2000, 11000, 50000, 250000, 1000000 };
+
+
+    static final int[] ECM_CURVES = new int[] { 25, 90, 300, 700, 1800 };
+
+
+    /**
+     * Ratio of stage 2 and stage 1 bounds.
+     */
+    static final int ECM_B2_RATIO = 50;
+
+
+    /**
+     * Half step width of the stage 2 continuation.
+     */
+    static final int ECM_D = 105;
+
+
+    /**
+     * Number of rho iterations between gcd computations and progress
+     * reports.
+     */
+    static final int RHO_BATCH = 256;
+
+
+    /**
+     * Number of rho iterations between two elliptic curves of a single
+     * search.
+     */
+    static final int RHO_ROUND = 1 << 15;
+
+
+    /**
+     * Metrics for the rho iterations, the elliptic curves and the time for
+     * factorizations.
+     */
+    protected static final Metrics.Counter rhoSteps = Metrics.counter("prime.rho.steps");
+
+
+    protected static final Metrics.Counter ecmCurves = Metrics.counter("prime.ecm.curves");
+
+
+    protected static final Metrics.Timer factorTimer = Metrics.timer("prime.factors");
+
+
+    /**
+     * Number of concurrent divisor searches.
+     */
+    public final int threads;
+
+
+    /**
+     * Time limit in milliseconds.
+     */
+    protected long timeLimit = Long.MAX_VALUE;
+
+
+    /**
+     * Progress listener, may be null.
+     */
+    protected Progress progress;
+
+
+    /**
+     * Random number generator for curves and rho constants.
+     */
+    protected final Random random;
+
+
+    /**
+     * Cached prime sieve.
+     */
+    private static BitSet sieve = new BitSet();
+
+
+    /**
+     * Bound of the cached prime sieve.
+     */
+    private static long sieveBound = 0L;
+
+
+    /**
+     * Constructor, uses one search per cpu.
+     */
+    public PrimeIntegerParallel() {
+        this(ComputerThreads.N_CPUS);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of concurrent searches, 1 for the sequential
+     *            algorithm.
+     */
+    public PrimeIntegerParallel(int threads) {
+        this(threads, new Random());
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of concurrent searches, 1 for the sequential
+     *            algorithm.
+     * @param random random number generator for the curves.
+     */
+    public PrimeIntegerParallel(int threads, Random random) {
+        this.threads = (threads < 1 ? 1 : threads);
+        this.random = random;
+    }
+
+
+    /**
+     * Set the time limit.
+     * @param t time limit in milliseconds for each call of factors or
+     *            divisor, Long.MAX_VALUE for no limit.
+     */
+    public void setTimeLimit(long t) {
+        timeLimit = t;
+    }
+
+
+    /**
+     * Get the time limit.
+     * @return time limit in milliseconds.
+     */
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+
+    /**
+     * Set the progress listener.
+     * @param p progress listener or null.
+     */
+    public void setProgress(Progress p) {
+        progress = p;
+    }
+
+
+    /**
+     * String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "PrimeIntegerParallel(" + threads + ")";
+    }
+
+
+    /**
+     * Integer factorization.
+     * @param n positive integer.
+     * @return a map of pairs of numbers (p,e) with p**e divides n and p is
+     *         probable prime.
+     * @throws TimeExceededException if the time limit is exceeded.
+     * @throws CancellationException if the progress listener cancelled.
+     */
+    public SortedMap<BigInteger, Integer> factors(BigInteger n) {
+        if (n.signum() <= 0) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+        long ts = factorTimer.start();
+        long deadline = deadline();
+        SortedMap<BigInteger, Integer> F = new TreeMap<BigInteger, Integer>();
+        try {
+            BigInteger b = BigInteger.valueOf(PrimeInteger.BETA);
+            if (n.compareTo(b) > 0) {
+                n = PrimeInteger.smallPrimeDivisors(n, F);
+            }
+            LinkedList<BigInteger> work = new LinkedList<BigInteger>();
+            LinkedList<Integer> exps = new LinkedList<Integer>();
+            if (!n.equals(BigInteger.ONE)) {
+                work.add(n);
+                exps.add(1);
+            }
+            while (!work.isEmpty()) {
+                BigInteger m = work.removeFirst();
+                int e = exps.removeFirst();
+                if (m.compareTo(b) <= 0) {
+                    for (Map.Entry<Long, Integer> me : PrimeInteger.factors(m.longValue()).entrySet()) {
+                        add(F, BigInteger.valueOf(me.getKey()), e * me.getValue());
+                    }
+                    continue;
+                }
+                if (m.isProbablePrime(32)) {
+                    add(F, m, e);
+                    continue;
+                }
+                BigInteger[] pw = perfectPower(m);
+                if (pw != null) {
+                    work.addFirst(pw[0]);
+                    exps.addFirst(e * pw[1].intValue());
+                    continue;
+                }
+                BigInteger d = divisor(m, deadline);
+                BigInteger c = m.divide(d);
+                if (debug) {
+                    logger.debug("split {} = {} * {}", m, d, c);
+                }
+                work.addFirst(c);
+                exps.addFirst(e);
+                work.addFirst(d);
+                exps.addFirst(e);
+            }
+        } finally {
+            factorTimer.stop(ts);
+        }
+        return F;
+    }
+
+
+    /**
+     * Add a prime power to a factorization.
+     */
+    static void add(SortedMap<BigInteger, Integer> F, BigInteger p, int e) {
+        Integer c = F.get(p);
+        F.put(p, (c == null ? e : c + e));
+    }
+
+
+    /**
+     * Absolute deadline from the time limit.
+     */
+    long deadline() {
+        if (timeLimit == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return System.currentTimeMillis() + timeLimit;
+    }
+
+
+    /**
+     * Non trivial divisor of a composite integer.
+     * @param n composite positive integer, not a prime power.
+     * @return d with 1 &lt; d &lt; n and d | n.
+     * @throws TimeExceededException if the time limit is exceeded.
+     * @throws CancellationException if the progress listener cancelled.
+     */
+    public BigInteger divisor(BigInteger n) {
+        return divisor(n, deadline());
+    }
+
+
+    /**
+     * Non trivial divisor of a composite integer.
+     * @param n composite positive integer.
+     * @param deadline absolute time limit in milliseconds.
+     * @return d with 1 &lt; d &lt; n and d | n.
+     */
+    BigInteger divisor(BigInteger n, long deadline) {
+        if (!n.testBit(0)) {
+            return BigInteger.valueOf(2L);
+        }
+        final AtomicBoolean stop = new AtomicBoolean(false);
+        final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+        if (threads == 1 || ComputerThreads.NO_THREADS) {
+            return new Search(n, 0, 1, stop, failure, deadline).call();
+        }
+        List<Callable<BigInteger>> cs = new ArrayList<Callable<BigInteger>>(threads);
+        for (int i = 0; i < threads; i++) {
+            cs.add(new Search(n, i, threads, stop, failure, deadline));
+        }
+        try {
+            if (deadline == Long.MAX_VALUE) {
+                return ComputerThreads.getPool().invokeAny(cs);
+            }
+            long t = Math.max(1L, deadline - System.currentTimeMillis());
+            return ComputerThreads.getPool().invokeAny(cs, t, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("interrupted " + e);
+        } catch (TimeoutException e) {
+            throw new TimeExceededException("PrimeIntegerParallel, elapsed time >= " + timeLimit + " ms");
+        } catch (ExecutionException e) {
+            // the search which stopped the others knows the reason
+            RuntimeException f = failure.get();
+            if (f != null) {
+                throw f;
+            }
+            if (deadline != Long.MAX_VALUE && System.currentTimeMillis() >= deadline) {
+                throw new TimeExceededException("PrimeIntegerParallel, elapsed time >= " + timeLimit + " ms");
+            }
+            Throwable c = e.getCause();
+            if (c instanceof RuntimeException) {
+                throw (RuntimeException) c;
+            }
+            throw new RuntimeException(c);
+        } finally {
+            stop.set(true);
+        }
+    }
+
+
+    /**
+     * Divisor search task. Of several searches the even numbered ones run
+     * Pollard rho with distinct constants c, the odd numbered ones run
+     * distinct elliptic curves. A single search alternates between both
+     * methods.
+     */
+    class Search implements Callable<BigInteger> {
+
+
+        final BigInteger n;
+
+
+        final int index;
+
+
+        final int count;
+
+
+        final AtomicBoolean stop;
+
+
+        final AtomicReference<RuntimeException> failure;
+
+
+        final long deadline;
+
+
+        Search(BigInteger n, int index, int count, AtomicBoolean stop, AtomicReference<RuntimeException> failure,
+                        long deadline) {
+            this.n = n;
+            this.index = index;
+            this.count = count;
+            this.stop = stop;
+            this.failure = failure;
+            this.deadline = deadline;
+        }
+
+
+        public BigInteger call() {
+            boolean rho = (index % 2 == 0);
+            boolean ecm = (count == 1 || !rho);
+            // rho constants c = index/2 + 1 + j * ceil(count/2), curves
+            // index/2 + j * floor(count/2) for j = 0, 1, ...
+            long rhos = (count + 1) / 2;
+            long curves = Math.max(1, count / 2);
+            long c = index / 2 + 1;
+            long curve = index / 2;
+            BigInteger[] state = null;
+            while (!stop.get()) {
+                if (rho) {
+                    if (state == null) {
+                        state = rhoStart(n, BigInteger.valueOf(c), random);
+                        c += rhos;
+                    }
+                    long steps = (ecm ? RHO_ROUND : Long.MAX_VALUE);
+                    BigInteger d = rhoBrent(n, state, steps, this);
+                    if (d != null) {
+                        if (d.compareTo(n) < 0) {
+                            return found(d, "rho");
+                        }
+                        state = null; // cycle without divisor, next constant
+                    }
+                    if (!ecm) {
+                        continue;
+                    }
+                }
+                BigInteger sigma = new BigInteger(n.bitLength(), random).mod(n.subtract(BigInteger.valueOf(7L)))
+                                .add(BigInteger.valueOf(6L));
+                int B1 = bound(curve);
+                BigInteger d = ecm(n, sigma, B1, (long) ECM_B2_RATIO * B1, this);
+                ecmCurves.inc();
+                curve += curves;
+                if (d != null && d.compareTo(n) < 0) {
+                    return found(d, "ecm");
+                }
+                check("ecm", curve);
+            }
+            throw new CancellationException("search stopped");
+        }
+
+
+        BigInteger found(BigInteger d, String method) {
+            stop.set(true);
+            logger.info("{} found divisor {} of {}", method, d, n);
+            return d;
+        }
+
+
+        /**
+         * Check for cancellation and time limit and report progress.
+         */
+        void check(String method, long work) {
+            checkStop(method);
+            if (progress != null && !progress.progress(method, n, work)) {
+                throw fail(new CancellationException("cancelled by progress listener"));
+            }
+        }
+
+
+        /**
+         * Check for cancellation and time limit.
+         */
+        void checkStop(String method) {
+            if (stop.get() || Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("search stopped");
+            }
+            if (deadline != Long.MAX_VALUE && System.currentTimeMillis() > deadline) {
+                throw fail(new TimeExceededException("PrimeIntegerParallel, elapsed time >= " + timeLimit
+                                + " ms"));
+            }
+            try {
+                TimeStatus.checkTime("PrimeIntegerParallel " + method);
+            } catch (TimeExceededException e) {
+                throw fail(e);
+            }
+        }
+
+
+        /**
+         * Record the reason to stop all searches.
+         */
+        RuntimeException fail(RuntimeException e) {
+            failure.compareAndSet(null, e);
+            stop.set(true);
+            return e;
+        }
+
+    }
+
+
+    /**
+     * Stage 1 bound for a curve.
+     * @param curve number of the curve.
+     * @return B1.
+     */
+    static int bound(long curve) {
+        long c = 0;
+        for (int i = 0; i < ECM_B1.length; i++) {
+            c += ECM_CURVES[i];
+            if (curve < c) {
+                return ECM_B1[i];
+            }
+        }
+        return ECM_B1[ECM_B1.length - 1];
+    }
+
+
+    /**
+     * Initial state of a rho search.
+     * @param n integer.
+     * @param c constant of x^2 + c.
+     * @param random for the start value.
+     * @return [x, y, c, q, r, steps].
+     */
+    static BigInteger[] rhoStart(BigInteger n, BigInteger c, Random random) {
+        BigInteger y = new BigInteger(n.bitLength(), random).mod(n);
+        return new BigInteger[] { y, y, c.mod(n), BigInteger.ONE, BigInteger.ONE, BigInteger.ZERO };
+    }
+
+
+    /**
+     * Pollard rho search in Brent's variant with x^2 + c. The products of
+     * the differences are accumulated, gcds are computed in batches.
+     * @param n odd composite integer.
+     * @param s state [x, y, c, q, r, k] of the search, modified.
+     * @param steps maximal number of iterations.
+     * @param search for cancellation and progress.
+     * @return d &gt; 1 with d | n, or null if the iterations are used up.
+     */
+    static BigInteger rhoBrent(BigInteger n, BigInteger[] s, long steps, Search search) {
+        BigInteger x = s[0], y = s[1], c = s[2], q = s[3];
+        long r = s[4].longValue();
+        long k = s[5].longValue();
+        long done = 0;
+        long batches = 0;
+        while (done < steps) {
+            // y runs from x over r steps, x is y at the power of two
+            if (k >= r) {
+                x = y;
+                r <<= 1;
+                k = 0;
+            }
+            BigInteger ys = y;
+            BigInteger qs = q;
+            int m = (int) Math.min(RHO_BATCH, r - k);
+            for (int i = 0; i < m; i++) {
+                y = y.multiply(y).add(c).mod(n);
+                q = q.multiply(x.subtract(y)).mod(n);
+            }
+            k += m;
+            done += m;
+            rhoSteps.add(m);
+            BigInteger d = q.gcd(n);
+            if (!d.equals(BigInteger.ONE)) {
+                if (d.equals(n)) { // backtrack the batch
+                    y = ys;
+                    q = qs;
+                    do {
+                        y = y.multiply(y).add(c).mod(n);
+                        d = x.subtract(y).gcd(n);
+                    } while (d.equals(BigInteger.ONE));
+                }
+                return d;
+            }
+            s[0] = x;
+            s[1] = y;
+            s[3] = q;
+            s[4] = BigInteger.valueOf(r);
+            s[5] = BigInteger.valueOf(k);
+            if (search != null && (++batches & 0x3f) == 0) {
+                search.check("rho", done);
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Elliptic curve method with one curve. Montgomery curve with Suyama's
+     * parametrization, stage 2 with the standard continuation.
+     * @param n odd composite integer, not a prime power.
+     * @param sigma curve parameter, 5 &lt; sigma &lt; n-1.
+     * @param B1 stage 1 bound.
+     * @param B2 stage 2 bound.
+     * @param search for cancellation, may be null.
+     * @return d &gt; 1 with d | n, or null if no divisor was found.
+     */
+    static BigInteger ecm(BigInteger n, BigInteger sigma, int B1, long B2, Search search) {
+        // Suyama: u = sigma^2 - 5, v = 4 sigma, Q = (u^3 : v^3)
+        BigInteger u = sigma.multiply(sigma).subtract(BigInteger.valueOf(5L)).mod(n);
+        BigInteger v = sigma.shiftLeft(2).mod(n);
+        BigInteger x = u.modPow(BigInteger.valueOf(3L), n);
+        BigInteger z = v.modPow(BigInteger.valueOf(3L), n);
+        // a24 = (A+2)/4 = (v-u)^3 (3u+v) / (16 u^3 v)
+        BigInteger num = v.subtract(u).modPow(BigInteger.valueOf(3L), n)
+                        .multiply(u.multiply(BigInteger.valueOf(3L)).add(v)).mod(n);
+        BigInteger den = x.multiply(v).shiftLeft(4).mod(n);
+        BigInteger g = den.gcd(n);
+        if (!g.equals(BigInteger.ONE)) {
+            return (g.equals(n) ? null : g);
+        }
+        Curve E = new Curve(n, num.multiply(den.modInverse(n)).mod(n));
+        BitSet P = primes(B2);
+        // stage 1
+        BigInteger[] Q = new BigInteger[] { x, z };
+        int cnt = 0;
+        for (int p = 2; p > 0 && p <= B1; p = P.nextSetBit(p + 1)) {
+            long pp = p;
+            while (pp * p <= B1) {
+                pp *= p;
+            }
+            Q = E.multiply(pp, Q);
+            if (search != null && (++cnt & 0x3ff) == 0) {
+                search.checkStop("ecm");
+            }
+        }
+        g = Q[1].gcd(n);
+        if (!g.equals(BigInteger.ONE)) {
+            return (g.equals(n) ? null : g);
+        }
+        // stage 2: S[d] = [2d]Q, R = [r]Q, T = [r-2D]Q, primes r < q <= r+2D
+        BigInteger[][] S = new BigInteger[ECM_D + 1][];
+        S[1] = E.dbl(Q);
+        S[2] = E.dbl(S[1]);
+        for (int d = 3; d <= ECM_D; d++) {
+            S[d] = E.add(S[d - 1], S[1], S[d - 2]);
+        }
+        long step = 2L * ECM_D;
+        long r = (B1 / step) * step + 1L;
+        if (r <= step) {
+            r += step;
+        }
+        BigInteger[] R = E.multiply(r, Q);
+        BigInteger[] T = E.multiply(r - step, Q);
+        BigInteger acc = BigInteger.ONE;
+        cnt = 0;
+        while (r < B2) {
+            for (int q = P.nextSetBit((int) r + 1); q > 0 && q <= r + step; q = P.nextSetBit(q + 1)) {
+                int d = (int) ((q - r) >> 1);
+                acc = acc.multiply(R[0].multiply(S[d][1]).subtract(S[d][0].multiply(R[1]))).mod(n);
+            }
+            BigInteger[] Rn = E.add(R, S[ECM_D], T);
+            T = R;
+            R = Rn;
+            r += step;
+            if ((++cnt & 0xff) == 0) {
+                g = acc.gcd(n);
+                if (!g.equals(BigInteger.ONE)) {
+                    return (g.equals(n) ? null : g);
+                }
+                if (search != null) {
+                    search.checkStop("ecm");
+                }
+            }
+        }
+        g = acc.gcd(n);
+        if (!g.equals(BigInteger.ONE) && !g.equals(n)) {
+            return g;
+        }
+        return null;
+    }
+
+
+    /**
+     * Montgomery curve B y^2 = x^3 + A x^2 + x in projective (X:Z)
+     * coordinates modulo n.
+     */
+    static final class Curve {
+
+
+        final BigInteger n;
+
+
+        /**
+         * (A+2)/4.
+         */
+        final BigInteger a24;
+
+
+        Curve(BigInteger n, BigInteger a24) {
+            this.n = n;
+            this.a24 = a24;
+        }
+
+
+        /**
+         * Doubling.
+         */
+        BigInteger[] dbl(BigInteger[] P) {
+            BigInteger s = P[0].add(P[1]);
+            BigInteger d = P[0].subtract(P[1]);
+            BigInteger t1 = s.multiply(s).mod(n);
+            BigInteger t2 = d.multiply(d).mod(n);
+            BigInteger t3 = t1.subtract(t2);
+            BigInteger X = t1.multiply(t2).mod(n);
+            BigInteger Z = t3.multiply(t2.add(a24.multiply(t3))).mod(n);
+            return new BigInteger[] { X, Z };
+        }
+
+
+        /**
+         * Differential addition P + Q with known difference P - Q.
+         */
+        BigInteger[] add(BigInteger[] P, BigInteger[] Q, BigInteger[] D) {
+            BigInteger u = P[0].subtract(P[1]).multiply(Q[0].add(Q[1]));
+            BigInteger v = P[0].add(P[1]).multiply(Q[0].subtract(Q[1]));
+            BigInteger s = u.add(v).mod(n);
+            BigInteger d = u.subtract(v).mod(n);
+            BigInteger X = D[1].multiply(s.multiply(s)).mod(n);
+            BigInteger Z = D[0].multiply(d.multiply(d)).mod(n);
+            return new BigInteger[] { X, Z };
+        }
+
+
+        /**
+         * Montgomery ladder.
+         * @return [k]P.
+         */
+        BigInteger[] multiply(long k, BigInteger[] P) {
+            if (k == 1L) {
+                return P;
+            }
+            BigInteger[] R0 = P;
+            BigInteger[] R1 = dbl(P);
+            for (int i = 62 - Long.numberOfLeadingZeros(k); i >= 0; i--) {
+                if (((k >>> i) & 1L) != 0L) {
+                    R0 = add(R1, R0, P);
+                    R1 = dbl(R1);
+                } else {
+                    R1 = add(R1, R0, P);
+                    R0 = dbl(R0);
+                }
+            }
+            return R0;
+        }
+
+    }
+
+
+    /**
+     * Prime sieve.
+     * @param m bound.
+     * @return bit set with bit p set for all primes p &le; m.
+     */
+    static synchronized BitSet primes(long m) {
+        if (sieveBound >= m) {
+            return sieve;
+        }
+        int M = (int) Math.min(Integer.MAX_VALUE - 1L, m + 1L);
+        BitSet s = new BitSet(M + 1);
+        s.set(2, M + 1);
+        for (int p = 2; (long) p * p <= M; p = s.nextSetBit(p + 1)) {
+            for (int q = p * p; q <= M && q > 0; q += p) {
+                s.clear(q);
+            }
+        }
+        sieve = s;
+        sieveBound = M;
+        return s;
+    }
+
+
+    /**
+     * Test for perfect powers.
+     * @param n integer &gt; 1.
+     * @return [r, k] with r^k == n and k &gt; 1 maximal, or null if n is no
+     *         perfect power.
+     */
+    public static BigInteger[] perfectPower(BigInteger n) {
+        BigInteger[] res = null;
+        for (int k = 2; k <= n.bitLength(); k++) {
+            BigInteger r = root(n, k);
+            if (r.pow(k).equals(n)) {
+                BigInteger[] s = perfectPower(r);
+                if (s != null) {
+                    return new BigInteger[] { s[0], s[1].multiply(BigInteger.valueOf(k)) };
+                }
+                return new BigInteger[] { r, BigInteger.valueOf(k) };
+            }
+        }
+        return res;
+    }
+
+
+    /**
+     * Integer root.
+     * @param n integer &ge; 0.
+     * @param k exponent &gt; 0.
+     * @return floor(n^(1/k)).
+     */
+    public static BigInteger root(BigInteger n, int k) {
+        if (n.signum() == 0 || k == 1) {
+            return n;
+        }
+        BigInteger K = BigInteger.valueOf(k);
+        BigInteger K1 = BigInteger.valueOf(k - 1);
+        BigInteger x = BigInteger.ONE.shiftLeft((n.bitLength() + k - 1) / k); // x >= root
+        while (true) {
+            BigInteger y = K1.multiply(x).add(n.divide(x.pow(k - 1))).divide(K);
+            if (y.compareTo(x) >= 0) {
+                return x;
+            }
+            x = y;
+        }
+    }
+
+}
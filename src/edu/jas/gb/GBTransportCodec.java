@@ -0,0 +1,140 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialCodec;
+import edu.jas.util.ChannelCodec;
+import edu.jas.util.TaggedChannelCodec;
+
+
+/**
+ * Distributed GB transport codec. Encodes the GBTransportMess messages in a
+ * compact binary format instead of object serialization. Polynomials are
+ * written with a GenPolynomialCodec, so the polynomial ring is transmitted
+ * only once per channel. Other objects are sent with object serialization.
+ * Use with <code>ChannelFactory.setCodec()</code> on both ends.
+ * @author Heinz Kredel
+ */
+
+public class GBTransportCodec extends TaggedChannelCodec {
+
+
+    /**
+     * Message kinds.
+     */
+    static final byte OBJECT = 0, MESS = 1, REQ = 2, END = 3, POLY = 4, PAIR = 5, PAIRINDEX = 6;
+
+
+    /**
+     * Polynomial codec with the ring tables of this channel.
+     */
+    protected final GenPolynomialCodec pc;
+
+
+    /**
+     * Constructor.
+     */
+    public GBTransportCodec() {
+        pc = new GenPolynomialCodec();
+    }
+
+
+    /**
+     * Create a codec for a new channel.
+     * @return new GBTransportCodec.
+     */
+    public ChannelCodec create() {
+        return new GBTransportCodec();
+    }
+
+
+    /**
+     * Write a message body.
+     * @param out stream to the socket.
+     * @param v message to send.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeMessage(ObjectOutputStream out, Object v) throws IOException {
+        if (v == null || !(v instanceof GBTransportMess)) {
+            out.writeByte(OBJECT);
+            out.writeObject(v);
+            return;
+        }
+        Class c = v.getClass();
+        if (c == GBTransportMessPoly.class) {
+            out.writeByte(POLY);
+            pc.write(out, ((GBTransportMessPoly) v).pol);
+        } else if (c == GBTransportMessPairIndex.class) {
+            GBTransportMessPairIndex pi = (GBTransportMessPairIndex) v;
+            out.writeByte(PAIRINDEX);
+            GenPolynomialCodec.writeUnsigned(out, pi.i);
+            GenPolynomialCodec.writeUnsigned(out, pi.j);
+            GenPolynomialCodec.writeUnsigned(out, pi.s);
+        } else if (c == GBTransportMessPair.class) {
+            Pair p = ((GBTransportMessPair) v).pair;
+            out.writeByte(PAIR);
+            pc.write(out, p.pi);
+            pc.write(out, p.pj);
+            GenPolynomialCodec.writeUnsigned(out, p.i);
+            GenPolynomialCodec.writeUnsigned(out, p.j);
+            GenPolynomialCodec.writeUnsigned(out, p.s);
+        } else if (c == GBTransportMessReq.class) {
+            out.writeByte(REQ);
+        } else if (c == GBTransportMessEnd.class) {
+            out.writeByte(END);
+        } else if (c == GBTransportMess.class) {
+            out.writeByte(MESS);
+        } else {
+            out.writeByte(OBJECT);
+            out.writeObject(v);
+        }
+    }
+
+
+    /**
+     * Read a message body.
+     * @param in stream from the socket.
+     * @return message received.
+     */
+    @Override
+    @SuppressWarnings({ "unchecked", "cast" })
+    protected Object readMessage(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        byte kind = in.readByte();
+        switch (kind) {
+        case OBJECT:
+            return in.readObject();
+        case MESS:
+            return new GBTransportMess();
+        case REQ:
+            return new GBTransportMessReq();
+        case END:
+            return new GBTransportMessEnd();
+        case POLY:
+            return new GBTransportMessPoly(pc.read(in));
+        case PAIRINDEX:
+            int i = (int) GenPolynomialCodec.readUnsigned(in);
+            int j = (int) GenPolynomialCodec.readUnsigned(in);
+            int s = (int) GenPolynomialCodec.readUnsigned(in);
+            return new GBTransportMessPairIndex(i, j, s);
+        case PAIR:
+            GenPolynomial pi = pc.read(in);
+            GenPolynomial pj = pc.read(in);
+            i = (int) GenPolynomialCodec.readUnsigned(in);
+            j = (int) GenPolynomialCodec.readUnsigned(in);
+            s = (int) GenPolynomialCodec.readUnsigned(in);
+            return new GBTransportMessPair(new Pair(pi, pj, i, j, s));
+        default:
+            throw new IOException("unknown message kind " + kind);
+        }
+    }
+
+}
@@ -17,6 +17,7 @@ import java.util.TreeMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import edu.jas.kern.Metrics;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
@@ -49,6 +50,21 @@ public abstract class GroebnerBaseAbstract<C extends RingElem<C>> implements Gro
     private static final boolean debug = logger.isDebugEnabled();
 
 
+    /**
+     * Metrics for the phases of Groebner base computations.
+     */
+    protected static final Metrics.Timer gbTimer = Metrics.timer("gb.time");
+
+
+    protected static final Metrics.Timer reductionTimer = Metrics.timer("gb.reductions");
+
+
+    protected static final Metrics.Counter reductionsZero = Metrics.counter("gb.reductions.zero");
+
+
+    protected static final Metrics.Timer minimalTimer = Metrics.timer("gb.minimal");
+
+
     /**
      * Reduction engine.
      */
@@ -122,14 +122,7 @@ public class GroebnerBaseArriSigSeqIter<C extends RingElem<C>> extends GroebnerB
             if (f == null) {
                 continue;
             }
-            boolean div = false;
-            for (ExpVector e : syz) {
-                if (f.multipleOf(e)) {
-                    div = true;
-                    break;
-                }
-            }
-            if (div) {
+            if (SyzygyList.hasDivisor(syz, f)) {
                 continue;
             }
             res.add(p);
@@ -155,17 +148,10 @@ public class GroebnerBaseArriSigSeqIter<C extends RingElem<C>> extends GroebnerB
             if (f == null) {
                 continue;
             }
-            boolean div = false;
-            for (ExpVector e : syz) {
-                if (f.multipleOf(e)) {
-                    div = true;
-                    break;
-                }
-            }
-            if (div) {
+            if (SyzygyList.hasDivisor(syz, f)) {
                 continue;
             }
-            div = false;
+            boolean div = false;
             for (SigPair<C> q : S) {
                 if (p.sigma.equals(q.sigma)) {
                     if (p.pi.poly.compareTo(q.pi.poly) > 0) {
@@ -214,7 +200,7 @@ public class GroebnerBaseArriSigSeqIter<C extends RingElem<C>> extends GroebnerB
      */
     @Override
     List<ExpVector> initializeSyz(List<GenPolynomial<C>> F, List<SigPoly<C>> G) {
-        List<ExpVector> P = new ArrayList<ExpVector>();
+        List<ExpVector> P = new SyzygyList();
         for (GenPolynomial<C> p : F) {
             if (p.isZERO()) {
                 continue;
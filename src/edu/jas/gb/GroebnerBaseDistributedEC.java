@@ -258,6 +258,7 @@ public class GroebnerBaseDistributedEC<C extends RingElem<C>> extends GroebnerBa
      */
     List<GenPolynomial<C>> GBMaster(int modv, List<GenPolynomial<C>> F) {
         ChannelFactory cf = new ChannelFactory(port);
+        cf.setCodec(new GBTransportCodec());
         cf.init();
         logger.info("GBMaster on {}", cf);
 
@@ -380,6 +381,7 @@ public class GroebnerBaseDistributedEC<C extends RingElem<C>> extends GroebnerBa
     public static <C extends RingElem<C>> void clientPart(String host, int port, int dhtport)
                     throws IOException {
         ChannelFactory cf = new ChannelFactory(port + 10); // != port for localhost
+        cf.setCodec(new GBTransportCodec());
         cf.init();
         logger.info("clientPart connecting to {}, port = {}, dhtport = {}", host, port, dhtport);
         SocketChannel pairChannel = cf.getChannel(host, port);
@@ -331,6 +331,7 @@ public class GroebnerBaseDistributedHybridEC<C extends RingElem<C>> extends Groe
     List<GenPolynomial<C>> GBMaster(int modv, List<GenPolynomial<C>> F) {
         long t = System.currentTimeMillis();
         ChannelFactory cf = new ChannelFactory(port);
+        cf.setCodec(new GBTransportCodec());
         cf.init();
 
         List<GenPolynomial<C>> G = F;
@@ -410,6 +411,7 @@ public class GroebnerBaseDistributedHybridEC<C extends RingElem<C>> extends Groe
     public static <C extends RingElem<C>> void clientPart(String host, int threadsPerNode, int port,
                     int dhtport) throws IOException {
         ChannelFactory cf = new ChannelFactory(port + 10); // != port for localhost
+        cf.setCodec(new GBTransportCodec());
         cf.init();
         logger.info("clientPart connecting to {}, port = {}, dhtport = {}", host, port, dhtport);
         SocketChannel channel = cf.getChannel(host, port);
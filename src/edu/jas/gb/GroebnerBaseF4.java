@@ -0,0 +1,517 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.poly.DenseModPolynomial;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.Monomial;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Groebner Base sequential F4 style algorithm. Critical pairs of the lowest
+ * lcm degree are selected in batches, the multiples of the pair polynomials
+ * are completed by symbolic preprocessing and the resulting sparse Macaulay
+ * matrix is row reduced. Rows with new leading terms are added to the Groebner
+ * base. Coefficients must be from a field, prime fields like ModLong or
+ * ModInt are the main target.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ *
+ * @see edu.jas.gb.GroebnerBaseSeq
+ */
+
+public class GroebnerBaseF4<C extends RingElem<C>> extends GroebnerBaseAbstract<C> {
+
+
+    private static final Logger logger = LogManager.getLogger(GroebnerBaseF4.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Constructor.
+     */
+    public GroebnerBaseF4() {
+        super();
+    }
+
+
+    /**
+     * Constructor.
+     * @param red Reduction engine
+     */
+    public GroebnerBaseF4(Reduction<C> red) {
+        super(red);
+    }
+
+
+    /**
+     * Constructor.
+     * @param pl pair selection strategy
+     */
+    public GroebnerBaseF4(PairList<C> pl) {
+        super(pl);
+    }
+
+
+    /**
+     * Constructor.
+     * @param red Reduction engine
+     * @param pl pair selection strategy
+     */
+    public GroebnerBaseF4(Reduction<C> red, PairList<C> pl) {
+        super(red, pl);
+    }
+
+
+    /**
+     * Groebner base using pairlist class and matrix reduction.
+     * @param modv module variable number.
+     * @param F polynomial list.
+     * @return GB(F) a Groebner base of F.
+     */
+    public List<GenPolynomial<C>> GB(int modv, List<GenPolynomial<C>> F) {
+        List<GenPolynomial<C>> G = normalizeZerosOnes(F);
+        G = PolyUtil.<C> monic(G);
+        if (G.size() <= 1) {
+            return G;
+        }
+        GenPolynomialRing<C> ring = G.get(0).ring;
+        if (!ring.coFac.isField()) {
+            throw new IllegalArgumentException("coefficients not from a field");
+        }
+        PairList<C> pairlist = strategy.create(modv, ring);
+        pairlist.put(G);
+        logger.info("start {}", pairlist);
+
+        Pair<C> carry = null;
+        List<Pair<C>> batch = new ArrayList<Pair<C>>();
+        while (carry != null || pairlist.hasNext()) {
+            // select pairs up to the lcm degree of the first pair
+            batch.clear();
+            long d = -1L;
+            if (carry != null) {
+                batch.add(carry);
+                d = lcmDegree(carry);
+                carry = null;
+            }
+            while (pairlist.hasNext()) {
+                Pair<C> pair = pairlist.removeNext();
+                if (pair == null) {
+                    continue;
+                }
+                long e = lcmDegree(pair);
+                if (d < 0L) {
+                    d = e;
+                }
+                if (e > d) {
+                    carry = pair;
+                    break;
+                }
+                batch.add(pair);
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            List<GenPolynomial<C>> H = reduceBatch(G, batch);
+            if (debug) {
+                logger.debug("degree = {}, #pairs = {}, #new = {}", d, batch.size(), H.size());
+            }
+            for (GenPolynomial<C> h : H) {
+                if (h.isONE()) {
+                    G.clear();
+                    G.add(h);
+                    pairlist.putOne();
+                    logger.info("end {}", pairlist);
+                    return G;
+                }
+                G.add(h);
+                pairlist.put(h);
+            }
+        }
+        logger.debug("#sequential list = {}", G.size());
+        G = minimalGB(G);
+        logger.info("end {}", pairlist);
+        return G;
+    }
+
+
+    /**
+     * Total degree of the lcm of a critical pair.
+     * @param pair critical pair.
+     * @return deg(lcm(ht(pi),ht(pj))).
+     */
+    static <C extends RingElem<C>> long lcmDegree(Pair<C> pair) {
+        ExpVector ei = pair.pi.leadingExpVector();
+        ExpVector ej = pair.pj.leadingExpVector();
+        return ei.lcm(ej).totalDeg();
+    }
+
+
+    /**
+     * Reduce a batch of critical pairs. The pair polynomials are multiplied
+     * to the lcm of their leading terms, reducers from G are added for all
+     * occurring terms and the Macaulay matrix of all rows is row reduced.
+     * @param G polynomial list, all elements monic.
+     * @param batch list of critical pairs.
+     * @return list of monic polynomials with new leading terms.
+     */
+    protected List<GenPolynomial<C>> reduceBatch(List<GenPolynomial<C>> G, List<Pair<C>> batch) {
+        GenPolynomialRing<C> ring = G.get(0).ring;
+        Map<GenPolynomial<C>, Set<ExpVector>> used = new IdentityHashMap<GenPolynomial<C>, Set<ExpVector>>();
+        List<GenPolynomial<C>> prows = new ArrayList<GenPolynomial<C>>();
+        List<GenPolynomial<C>> rrows = new ArrayList<GenPolynomial<C>>();
+        Set<ExpVector> monos = new HashSet<ExpVector>();
+        Set<ExpVector> done = new HashSet<ExpVector>();
+        Deque<ExpVector> todo = new ArrayDeque<ExpVector>();
+
+        // rows of the pair polynomials
+        for (Pair<C> pair : batch) {
+            ExpVector g = pair.pi.leadingExpVector().lcm(pair.pj.leadingExpVector());
+            for (GenPolynomial<C> p : Arrays.asList(pair.pi, pair.pj)) {
+                ExpVector f = g.subtract(p.leadingExpVector());
+                Set<ExpVector> fs = used.get(p);
+                if (fs == null) {
+                    fs = new HashSet<ExpVector>();
+                    used.put(p, fs);
+                }
+                if (!fs.add(f)) {
+                    continue;
+                }
+                GenPolynomial<C> r = p.multiply(f);
+                prows.add(r);
+                done.add(g);
+                addTerms(r, monos, todo);
+            }
+        }
+
+        // symbolic preprocessing
+        while (!todo.isEmpty()) {
+            ExpVector m = todo.poll();
+            if (done.contains(m)) {
+                continue;
+            }
+            done.add(m);
+            GenPolynomial<C> q = null;
+            for (GenPolynomial<C> p : G) {
+                if (m.multipleOf(p.leadingExpVector())) {
+                    if (q == null || p.length() < q.length()) {
+                        q = p;
+                    }
+                }
+            }
+            if (q == null) {
+                continue;
+            }
+            GenPolynomial<C> r = q.multiply(m.subtract(q.leadingExpVector()));
+            rrows.add(r);
+            addTerms(r, monos, todo);
+        }
+
+        // columns in descending term order
+        ExpVector[] cols = monos.toArray(new ExpVector[monos.size()]);
+        Comparator<ExpVector> cmp = ring.tord.getDescendComparator();
+        Arrays.sort(cols, cmp);
+        Map<ExpVector, Integer> index = new HashMap<ExpVector, Integer>(2 * cols.length);
+        for (int i = 0; i < cols.length; i++) {
+            index.put(cols[i], i);
+        }
+        if (debug) {
+            logger.debug("matrix = {} + {} x {}", prows.size(), rrows.size(), cols.length);
+        }
+
+        // reducer rows have distinct leading terms and are monic
+        SparseRow<C>[] pivots = newRows(cols.length);
+        BitSet leads = new BitSet(cols.length);
+        for (GenPolynomial<C> r : rrows) {
+            SparseRow<C> s = new SparseRow<C>(r, index);
+            pivots[s.cols[0]] = s;
+            leads.set(s.cols[0]);
+        }
+        List<SparseRow<C>> rows = new ArrayList<SparseRow<C>>(prows.size());
+        for (GenPolynomial<C> r : prows) {
+            SparseRow<C> s = new SparseRow<C>(r, index);
+            rows.add(s);
+            leads.set(s.cols[0]);
+        }
+        rows.sort((a, b) -> {
+            int t = Integer.compare(a.cols[0], b.cols[0]);
+            if (t != 0) {
+                return t;
+            }
+            return Integer.compare(a.cols.length, b.cols.length);
+        });
+
+        // row reduction of the pair rows
+        List<SparseRow<C>> fresh;
+        if (DenseModPolynomial.isApplicable(ring.coFac)) {
+            fresh = eliminateModular(pivots, rows, leads, ring.coFac);
+        } else {
+            fresh = eliminate(pivots, rows, leads);
+        }
+
+        // convert rows with new leading terms
+        List<GenPolynomial<C>> H = new ArrayList<GenPolynomial<C>>(fresh.size());
+        for (SparseRow<C> s : fresh) {
+            GenPolynomial<C> h = ring.getZERO().copy();
+            for (int k = 0; k < s.cols.length; k++) {
+                h.doPutToMap(cols[s.cols[k]], s.vals[k]);
+            }
+            H.add(h);
+        }
+        return H;
+    }
+
+
+    /**
+     * Row reduction of the pair rows with generic field coefficients.
+     * @param pivots monic reducer rows indexed by their leading column,
+     *            extended by the reduced pair rows.
+     * @param rows pair rows in ascending order of their leading column.
+     * @param leads leading columns of all matrix rows.
+     * @return reduced rows with leading columns not in leads.
+     */
+    static <C extends RingElem<C>> List<SparseRow<C>> eliminate(SparseRow<C>[] pivots, List<SparseRow<C>> rows,
+                    BitSet leads) {
+        int n = pivots.length;
+        @SuppressWarnings("unchecked")
+        C[] acc = (C[]) new RingElem[n];
+        List<SparseRow<C>> fresh = new ArrayList<SparseRow<C>>();
+        for (SparseRow<C> s : rows) {
+            for (int k = 0; k < s.cols.length; k++) {
+                acc[s.cols[k]] = s.vals[k];
+            }
+            int lead = -1;
+            int len = 0;
+            for (int c = s.cols[0]; c < n; c++) {
+                C a = acc[c];
+                if (a == null) {
+                    continue;
+                }
+                if (a.isZERO()) {
+                    acc[c] = null;
+                    continue;
+                }
+                SparseRow<C> p = pivots[c];
+                if (p == null) {
+                    if (lead < 0) {
+                        lead = c;
+                    }
+                    len++;
+                    continue;
+                }
+                acc[c] = null;
+                for (int k = 1; k < p.cols.length; k++) {
+                    int j = p.cols[k];
+                    C b = p.vals[k].multiply(a);
+                    acc[j] = (acc[j] == null) ? b.negate() : acc[j].subtract(b);
+                }
+            }
+            if (lead < 0) {
+                continue;
+            }
+            int[] rc = new int[len];
+            @SuppressWarnings("unchecked")
+            C[] rv = (C[]) new RingElem[len];
+            C li = acc[lead].inverse();
+            int i = 0;
+            for (int c = lead; c < n && i < len; c++) {
+                C a = acc[c];
+                if (a == null) {
+                    continue;
+                }
+                acc[c] = null;
+                if (a.isZERO()) {
+                    continue;
+                }
+                rc[i] = c;
+                rv[i] = a.multiply(li);
+                i++;
+            }
+            SparseRow<C> t = new SparseRow<C>(rc, rv);
+            pivots[lead] = t;
+            if (!leads.get(lead)) {
+                fresh.add(t);
+            }
+        }
+        return fresh;
+    }
+
+
+    /**
+     * Row reduction of the pair rows with unboxed ModLong or ModInt
+     * coefficients.
+     * @param pivots monic reducer rows indexed by their leading column,
+     *            extended by the reduced pair rows.
+     * @param rows pair rows in ascending order of their leading column.
+     * @param leads leading columns of all matrix rows.
+     * @param cf ModLongRing or ModIntRing coefficient factory.
+     * @return reduced rows with leading columns not in leads.
+     */
+    static <C extends RingElem<C>> List<SparseRow<C>> eliminateModular(SparseRow<C>[] pivots,
+                    List<SparseRow<C>> rows, BitSet leads, RingFactory<C> cf) {
+        int n = pivots.length;
+        long m = DenseModPolynomial.modul(cf);
+        long[][] pv = new long[n][];
+        for (int c = 0; c < n; c++) {
+            if (pivots[c] != null) {
+                pv[c] = pivots[c].values();
+            }
+        }
+        long[] acc = new long[n];
+        List<SparseRow<C>> fresh = new ArrayList<SparseRow<C>>();
+        for (SparseRow<C> s : rows) {
+            long[] sv = s.values();
+            for (int k = 0; k < s.cols.length; k++) {
+                acc[s.cols[k]] = sv[k];
+            }
+            int lead = -1;
+            int len = 0;
+            for (int c = s.cols[0]; c < n; c++) {
+                long a = acc[c];
+                if (a == 0L) {
+                    continue;
+                }
+                long[] p = pv[c];
+                if (p == null) {
+                    if (lead < 0) {
+                        lead = c;
+                    }
+                    len++;
+                    continue;
+                }
+                acc[c] = 0L;
+                int[] pc = pivots[c].cols;
+                long na = m - a;
+                for (int k = 1; k < pc.length; k++) {
+                    int j = pc[k];
+                    acc[j] = (acc[j] + na * p[k]) % m;
+                }
+            }
+            if (lead < 0) {
+                continue;
+            }
+            int[] rc = new int[len];
+            long[] rv = new long[len];
+            long li = DenseModPolynomial.inverse(acc[lead], m);
+            int i = 0;
+            for (int c = lead; c < n && i < len; c++) {
+                long a = acc[c];
+                if (a == 0L) {
+                    continue;
+                }
+                acc[c] = 0L;
+                rc[i] = c;
+                rv[i] = (a * li) % m;
+                i++;
+            }
+            @SuppressWarnings("unchecked")
+            C[] cv = (C[]) new RingElem[len];
+            for (int k = 0; k < len; k++) {
+                cv[k] = cf.fromInteger(rv[k]);
+            }
+            SparseRow<C> t = new SparseRow<C>(rc, cv);
+            pivots[lead] = t;
+            pv[lead] = rv;
+            if (!leads.get(lead)) {
+                fresh.add(t);
+            }
+        }
+        return fresh;
+    }
+
+
+    /**
+     * Record the terms of a polynomial as matrix columns.
+     * @param r polynomial.
+     * @param monos set of all terms.
+     * @param todo list of terms to be processed.
+     */
+    static <C extends RingElem<C>> void addTerms(GenPolynomial<C> r, Set<ExpVector> monos,
+                    Deque<ExpVector> todo) {
+        for (Monomial<C> m : r) {
+            ExpVector e = m.exponent();
+            if (monos.add(e)) {
+                todo.add(e);
+            }
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    static <C extends RingElem<C>> SparseRow<C>[] newRows(int n) {
+        return (SparseRow<C>[]) new SparseRow[n];
+    }
+
+
+    /**
+     * Sparse matrix row with ascending column indexes.
+     */
+    static final class SparseRow<C extends RingElem<C>> {
+
+
+        final int[] cols;
+
+
+        final C[] vals;
+
+
+        SparseRow(int[] cols, C[] vals) {
+            this.cols = cols;
+            this.vals = vals;
+        }
+
+
+        @SuppressWarnings("unchecked")
+        SparseRow(GenPolynomial<C> p, Map<ExpVector, Integer> index) {
+            int n = p.length();
+            cols = new int[n];
+            vals = (C[]) new RingElem[n];
+            int i = 0;
+            for (Monomial<C> m : p) {
+                cols[i] = index.get(m.exponent());
+                vals[i] = m.coefficient();
+                i++;
+            }
+        }
+
+
+        /**
+         * Unboxed values of ModLong or ModInt coefficients.
+         * @return coefficient values.
+         */
+        long[] values() {
+            long[] v = new long[vals.length];
+            for (int i = 0; i < v.length; i++) {
+                v[i] = DenseModPolynomial.value(vals[i]);
+            }
+            return v;
+        }
+    }
+
+}
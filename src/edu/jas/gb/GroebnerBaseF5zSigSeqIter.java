@@ -80,14 +80,7 @@ public class GroebnerBaseF5zSigSeqIter<C extends RingElem<C>> extends GroebnerBa
             if (f == null) {
                 continue;
             }
-            boolean div = false;
-            for (ExpVector e : syz) {
-                if (f.multipleOf(e)) {
-                    div = true;
-                    break;
-                }
-            }
-            if (div) {
+            if (SyzygyList.hasDivisor(syz, f)) {
                 continue;
             }
             res.add(p);
@@ -113,14 +106,7 @@ public class GroebnerBaseF5zSigSeqIter<C extends RingElem<C>> extends GroebnerBa
                 continue;
             }
             ExpVector f = p.sigma.leadingExpVector();
-            boolean div = false;
-            for (ExpVector e : syz) {
-                if (f.multipleOf(e)) {
-                    div = true;
-                    break;
-                }
-            }
-            if (div) {
+            if (SyzygyList.hasDivisor(syz, f)) {
                 continue;
             }
             if (p.pi.sigma.isZERO()) {
@@ -133,7 +119,7 @@ public class GroebnerBaseF5zSigSeqIter<C extends RingElem<C>> extends GroebnerBa
             ExpVector fu = fi.lcm(fj).subtract(fi);
             f = p.pi.sigma.leadingExpVector();
             fu = fu.sum(f);
-            div = false;
+            boolean div = false;
             for (SigPoly<C> q : done) {
                 ExpVector e = q.sigma.leadingExpVector();
                 if (e == null) {
@@ -164,7 +150,7 @@ public class GroebnerBaseF5zSigSeqIter<C extends RingElem<C>> extends GroebnerBa
      */
     @Override
     List<ExpVector> initializeSyz(List<GenPolynomial<C>> F, List<SigPoly<C>> G) {
-        List<ExpVector> P = new ArrayList<ExpVector>();
+        List<ExpVector> P = new SyzygyList();
         for (GenPolynomial<C> p : F) {
             if (p.isZERO()) {
                 continue;
@@ -78,14 +78,7 @@ public class GroebnerBaseGGVSigSeqIter<C extends RingElem<C>> extends GroebnerBa
             if (f == null) {
                 continue;
             }
-            boolean div = false;
-            for (ExpVector e : syz) {
-                if (f.multipleOf(e)) {
-                    div = true;
-                    break;
-                }
-            }
-            if (div) {
+            if (SyzygyList.hasDivisor(syz, f)) {
                 continue;
             }
             res.add(p);
@@ -111,17 +104,10 @@ public class GroebnerBaseGGVSigSeqIter<C extends RingElem<C>> extends GroebnerBa
             if (f == null) {
                 continue;
             }
-            boolean div = false;
-            for (ExpVector e : syz) {
-                if (f.multipleOf(e)) {
-                    div = true;
-                    break;
-                }
-            }
-            if (div) {
+            if (SyzygyList.hasDivisor(syz, f)) {
                 continue;
             }
-            div = false;
+            boolean div = false;
             for (SigPair<C> q : S) {
                 if (f.equals(q.sigma.leadingExpVector())) {
                     if (p.pi.poly.compareTo(q.pi.poly) < 0) {
@@ -158,7 +144,7 @@ public class GroebnerBaseGGVSigSeqIter<C extends RingElem<C>> extends GroebnerBa
      */
     @Override
     List<ExpVector> initializeSyz(List<GenPolynomial<C>> F, List<SigPoly<C>> G) {
-        List<ExpVector> P = new ArrayList<ExpVector>();
+        List<ExpVector> P = new SyzygyList();
         for (GenPolynomial<C> p : F) {
             if (p.isZERO()) {
                 continue;
@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
@@ -138,9 +139,11 @@ public class GroebnerBaseParallel<C extends RingElem<C>> extends GroebnerBaseAbs
         }
         this.threads = threads;
         this.pool = pool;
-        int s = ((ThreadPoolExecutor) pool).getCorePoolSize();
-        if (threads != s) {
-            logger.warn("#threads({}) and number of pool threads({}) differ:", threads, s);
+        if (pool instanceof ThreadPoolExecutor) {
+            int s = ((ThreadPoolExecutor) pool).getCorePoolSize();
+            if (threads != s) {
+                logger.warn("#threads({}) and number of pool threads({}) differ:", threads, s);
+            }
         }
     }
 
@@ -196,6 +199,8 @@ public class GroebnerBaseParallel<C extends RingElem<C>> extends GroebnerBaseAbs
         if (!ring.coFac.isField()) {
             throw new IllegalArgumentException("coefficients not from a field");
         }
+        long t = gbTimer.start();
+        G = new CopyOnWriteArrayList<GenPolynomial<C>>(G); // lock free snapshots in ReductionPar
         PairList<C> pairlist = strategy.create(modv, ring);
         pairlist.put(G);
         logger.info("start {}", pairlist);
@@ -210,9 +215,12 @@ public class GroebnerBaseParallel<C extends RingElem<C>> extends GroebnerBaseAbs
             throw new RuntimeException("interrupt before minimalGB");
         }
         logger.debug("#parallel list = {}", G.size());
+        long tm = minimalTimer.start();
         G = minimalGB(G);
+        minimalTimer.stop(tm);
         // not in this context // pool.terminate();
         logger.info("end   {}", pairlist);
+        gbTimer.stop(t);
         return G;
     }
 
@@ -410,9 +418,12 @@ class Reducer<C extends RingElem<C>> implements Runnable {
                 logger.debug("ht(S) = {}", S.leadingExpVector());
             }
 
+            long tr = GroebnerBaseAbstract.reductionTimer.start();
             H = red.normalform(G, S); //mod
+            GroebnerBaseAbstract.reductionTimer.stop(tr);
             reduction++;
             if (H.isZERO()) {
+                GroebnerBaseAbstract.reductionsZero.inc();
                 pair.setZero();
                 fin.initIdle(1);
                 continue;
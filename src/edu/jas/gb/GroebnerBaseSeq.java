@@ -91,6 +91,7 @@ public class GroebnerBaseSeq<C extends RingElem<C>>
         if ( ! ring.coFac.isField() ) {
             throw new IllegalArgumentException("coefficients not from a field");
         }
+        long t = gbTimer.start();
         PairList<C> pairlist = strategy.create( modv, ring ); 
         pairlist.put(G);
         logger.info("start {}", pairlist);
@@ -119,13 +120,16 @@ public class GroebnerBaseSeq<C extends RingElem<C>>
                 logger.debug("ht(S) = {}", S.leadingExpVector() );
             }
 
+            long tr = reductionTimer.start();
             H = red.normalform( G, S );
+            reductionTimer.stop(tr);
             if ( debug ) {
                 //logger.info("pair = {}", pair);
                 //logger.info("ht(S) = {}", S.monic()); //.leadingExpVector() );
                 logger.info("ht(H) = {}", H.monic()); //.leadingExpVector() );
             }
             if ( H.isZERO() ) {
+                reductionsZero.inc();
                 pair.setZero();
                 continue;
             }
@@ -139,6 +143,7 @@ public class GroebnerBaseSeq<C extends RingElem<C>>
                 G.clear(); G.add( H );
                 pairlist.putOne();
                 logger.info("end {}", pairlist);
+                gbTimer.stop(t);
                 return G; // since no threads are activated
             }
             if ( debug ) {
@@ -151,8 +156,11 @@ public class GroebnerBaseSeq<C extends RingElem<C>>
             }
         }
         logger.debug("#sequential list = {}", G.size());
+        long tm = minimalTimer.start();
         G = minimalGB(G);
+        minimalTimer.stop(tm);
         logger.info("end {}", pairlist);
+        gbTimer.stop(t);
         return G;
     }
 
@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ExecutorService;
@@ -151,7 +152,7 @@ public class GroebnerBaseSeqPairParallel<C extends RingElem<C>> extends Groebner
      */
     public List<GenPolynomial<C>> GB(int modv, List<GenPolynomial<C>> F) {
         GenPolynomial<C> p;
-        List<GenPolynomial<C>> G = new ArrayList<GenPolynomial<C>>();
+        List<GenPolynomial<C>> G = new CopyOnWriteArrayList<GenPolynomial<C>>(); // lock free snapshots
         CriticalPairList<C> pairlist = null;
         int l = F.size();
         ListIterator<GenPolynomial<C>> it = F.listIterator();
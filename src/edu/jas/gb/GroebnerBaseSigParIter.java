@@ -0,0 +1,370 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Groebner Base signature based parallel iterative algorithm. The pairs of
+ * the current minimal signature degree are reduced concurrently. While one
+ * pair is treated in signature order, the S-polynomials of the next pairs in
+ * signature order are reduced in advance by the thread pool with respect to
+ * the polynomials known so far. When a pair is treated, its pre-reduced
+ * polynomial is only reduced further by the polynomials added since. So the
+ * criteria and the order of the signatures are the same as in the sequential
+ * algorithm. The criteria and reductions are taken from a sequential
+ * signature based algorithm, e.g. GroebnerBaseF5zSigSeqIter,
+ * GroebnerBaseGGVSigSeqIter or GroebnerBaseArriSigSeqIter.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ *
+ * @see edu.jas.application.GBAlgorithmBuilder
+ * @see edu.jas.gb.GroebnerBaseSigSeqIter
+ */
+
+public class GroebnerBaseSigParIter<C extends RingElem<C>> extends GroebnerBaseSigSeqIter<C> {
+
+
+    private static final Logger logger = LogManager.getLogger(GroebnerBaseSigParIter.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Sequential algorithm with the criteria to use.
+     */
+    protected final GroebnerBaseSigSeqIter<C> strategy;
+
+
+    /**
+     * Number of threads to use.
+     */
+    protected final int threads;
+
+
+    /**
+     * Pool of threads to use.
+     */
+    protected transient final ExecutorService pool;
+
+
+    /**
+     * Reductions started in advance, with the size of the polynomial list
+     * used.
+     */
+    protected final Map<SigPair<C>, Reducer> ahead;
+
+
+    /**
+     * Number of reductions started in advance and the number of them which
+     * could be used without further reduction.
+     */
+    protected long started, unchanged;
+
+
+    /**
+     * Constructor.
+     */
+    public GroebnerBaseSigParIter() {
+        this(2);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of threads to use.
+     */
+    public GroebnerBaseSigParIter(int threads) {
+        this(threads, new GroebnerBaseF5zSigSeqIter<C>());
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of threads to use.
+     * @param strategy sequential signature based algorithm with the criteria
+     *            to use.
+     */
+    public GroebnerBaseSigParIter(int threads, GroebnerBaseSigSeqIter<C> strategy) {
+        this(threads, Executors.newFixedThreadPool(Math.max(threads, 1)), strategy);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of threads to use.
+     * @param pool ExecutorService to use.
+     * @param strategy sequential signature based algorithm with the criteria
+     *            to use.
+     */
+    public GroebnerBaseSigParIter(int threads, ExecutorService pool, GroebnerBaseSigSeqIter<C> strategy) {
+        super(strategy.sred);
+        if (strategy instanceof GroebnerBaseSigParIter) {
+            throw new IllegalArgumentException("strategy must be a sequential algorithm");
+        }
+        if (threads < 1) {
+            threads = 1;
+        }
+        this.threads = threads;
+        this.pool = pool;
+        this.strategy = strategy;
+        ahead = new IdentityHashMap<SigPair<C>, Reducer>();
+    }
+
+
+    /**
+     * Cleanup and terminate ExecutorService.
+     */
+    @Override
+    public void terminate() {
+        if (pool == null) {
+            return;
+        }
+        pool.shutdown();
+        try {
+            while (!pool.isTerminated()) {
+                boolean rest = pool.awaitTermination(1000L, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        logger.info("{}", pool);
+    }
+
+
+    /**
+     * Cancel ExecutorService.
+     */
+    @Override
+    public int cancel() {
+        if (pool == null) {
+            return 0;
+        }
+        int s = pool.shutdownNow().size();
+        logger.info("{}", pool);
+        return s;
+    }
+
+
+    /**
+     * Groebner base iterated. The reductions in advance are bound to one
+     * computation, so concurrent calls on the same object are serialized.
+     * @param modv module variable number.
+     * @param G polynomial list of a Groebner base.
+     * @param f polynomial.
+     * @return GB(G,f) a Groebner base of G+(f).
+     */
+    @Override
+    public synchronized List<GenPolynomial<C>> GB(int modv, List<GenPolynomial<C>> G, GenPolynomial<C> f) {
+        started = 0;
+        unchanged = 0;
+        try {
+            return super.GB(modv, G, f);
+        } finally {
+            for (Reducer r : ahead.values()) {
+                r.future.cancel(true);
+            }
+            ahead.clear();
+            logger.info("{} reductions in advance, {} used unchanged", started, unchanged);
+        }
+    }
+
+
+    /**
+     * Reduce the S-polynomial of a pair. Uses a reduction in advance, if
+     * there is one, and starts reductions for the following pairs.
+     * @param F polynomial list.
+     * @param G polynomial with signature list.
+     * @param pair pair to reduce.
+     * @param S remaining pairs of the same signature degree, sorted by
+     *            signature.
+     * @return nf(spol(pair)) with respect to F and G.
+     */
+    @Override
+    SigPoly<C> reduce(List<GenPolynomial<C>> F, List<SigPoly<C>> G, SigPair<C> pair, List<SigPair<C>> S) {
+        Reducer r = ahead.remove(pair);
+        if (threads == 1 && r == null) {
+            return strategy.reduce(F, G, pair, S);
+        }
+        // forget reductions of pairs removed by the criteria
+        Set<SigPair<C>> rest = Collections.newSetFromMap(new IdentityHashMap<SigPair<C>, Boolean>());
+        rest.addAll(S);
+        for (Iterator<Map.Entry<SigPair<C>, Reducer>> it = ahead.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<SigPair<C>, Reducer> me = it.next();
+            if (!rest.contains(me.getKey())) {
+                me.getValue().future.cancel(true);
+                it.remove();
+            }
+        }
+        // start reductions of the next pairs, the current thread does the rest
+        List<SigPoly<C>> Gc = null;
+        for (SigPair<C> q : S) {
+            if (ahead.size() >= threads) {
+                break;
+            }
+            if (ahead.containsKey(q)) {
+                continue;
+            }
+            if (Gc == null) {
+                Gc = new ArrayList<SigPoly<C>>(G);
+            }
+            Reducer rq = new Reducer(F, Gc, q);
+            rq.future = pool.submit(rq);
+            ahead.put(q, rq);
+            started++;
+        }
+        if (r == null) {
+            return strategy.reduce(F, G, pair, S);
+        }
+        SigPoly<C> Hs;
+        try {
+            Hs = r.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        if (Hs.poly.isZERO() || r.size == G.size()) {
+            unchanged++;
+            return Hs;
+        }
+        if (debug) {
+            logger.debug("reduce further by {} polynomials", G.size() - r.size);
+        }
+        return strategy.sigNormalform(F, G, Hs);
+    }
+
+
+    /**
+     * Reduction of one pair with respect to a fixed polynomial list.
+     */
+    protected class Reducer implements Callable<SigPoly<C>> {
+
+
+        final List<GenPolynomial<C>> F;
+
+
+        final List<SigPoly<C>> G;
+
+
+        final SigPair<C> pair;
+
+
+        final int size;
+
+
+        volatile Future<SigPoly<C>> future;
+
+
+        Reducer(List<GenPolynomial<C>> F, List<SigPoly<C>> G, SigPair<C> pair) {
+            this.F = F;
+            this.G = G;
+            this.pair = pair;
+            this.size = G.size();
+        }
+
+
+        public SigPoly<C> call() {
+            return strategy.reduce(F, G, pair, null);
+        }
+    }
+
+
+    /* criteria and reductions of the strategy */
+
+
+    @Override
+    GenPolynomial<C> SPolynomial(SigPoly<C> A, SigPoly<C> B) {
+        return strategy.SPolynomial(A, B);
+    }
+
+
+    @Override
+    GenPolynomial<C> SPolynomial(SigPair<C> P) {
+        return strategy.SPolynomial(P);
+    }
+
+
+    @Override
+    GenPolynomial<C>[] SPolynomialFactors(SigPoly<C> A, SigPoly<C> B) {
+        return strategy.SPolynomialFactors(A, B);
+    }
+
+
+    @Override
+    SigPair<C> newPair(SigPoly<C> A, SigPoly<C> B, List<SigPoly<C>> G) {
+        return strategy.newPair(A, B, G);
+    }
+
+
+    @Override
+    SigPair<C> newPair(GenPolynomial<C> s, SigPoly<C> A, SigPoly<C> B, List<SigPoly<C>> G) {
+        return strategy.newPair(s, A, B, G);
+    }
+
+
+    @Override
+    SigPoly<C> sigNormalform(List<GenPolynomial<C>> F, List<SigPoly<C>> G, SigPoly<C> A) {
+        return strategy.sigNormalform(F, G, A);
+    }
+
+
+    @Override
+    List<SigPair<C>> pruneP(List<SigPair<C>> P, List<ExpVector> syz) {
+        return strategy.pruneP(P, syz);
+    }
+
+
+    @Override
+    List<SigPair<C>> pruneS(List<SigPair<C>> S, List<ExpVector> syz, List<SigPoly<C>> done,
+                    List<SigPoly<C>> G) {
+        return strategy.pruneS(S, syz, done, G);
+    }
+
+
+    @Override
+    List<ExpVector> initializeSyz(List<GenPolynomial<C>> F, List<SigPoly<C>> G) {
+        return strategy.initializeSyz(F, G);
+    }
+
+
+    @Override
+    void updateSyz(List<ExpVector> syz, SigPoly<C> r) {
+        strategy.updateSyz(syz, r);
+    }
+
+
+    /**
+     * String representation.
+     */
+    @Override
+    public String toString() {
+        return "GroebnerBaseSigParIter(" + threads + ", " + strategy + ")";
+    }
+
+}
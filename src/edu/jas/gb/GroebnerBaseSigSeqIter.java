@@ -139,6 +139,7 @@ public class GroebnerBaseSigSeqIter<C extends RingElem<C>> extends GroebnerBaseA
         }
         SigPoly<C> gs = new SigPoly<C>(ring.getONE(), g);
         Gs.add(gs);
+        SigPolyIndex<C> sigIndex = new SigPolyIndex<C>(Gs);
         //logger.info("Gs = {}", Gs);
         // construct critical pair list
         List<SigPair<C>> pairlist = new ArrayList<SigPair<C>>();
@@ -156,7 +157,7 @@ public class GroebnerBaseSigSeqIter<C extends RingElem<C>> extends GroebnerBaseA
 
         SigPair<C> pair;
         //SigPoly<C> pi, pj;
-        GenPolynomial<C> S, H, sigma;
+        GenPolynomial<C> H, sigma;
         while (!pairlist.isEmpty()) {
             pairlist = pruneP(pairlist, syz);
             if (pairlist.isEmpty()) {
@@ -181,18 +182,7 @@ public class GroebnerBaseSigSeqIter<C extends RingElem<C>> extends GroebnerBaseA
                     continue;
                 }
                 //logger.info("sigma = {}", pair.sigma);
-                S = SPolynomial(pair);
-                SigPoly<C> Ss = new SigPoly<C>(pair.sigma, S);
-                if (S.isZERO()) {
-                    updateSyz(syz, Ss);
-                    done.add(Ss);
-                    continue;
-                }
-                if (debug) {
-                    logger.debug("ht(S) = {}", S.leadingExpVector());
-                }
-
-                SigPoly<C> Hs = sigNormalform(F, Gs, Ss);
+                SigPoly<C> Hs = reduce(F, Gs, pair, Sl);
                 H = Hs.poly;
                 sigma = Hs.sigma;
                 if (debug) {
@@ -214,7 +204,7 @@ public class GroebnerBaseSigSeqIter<C extends RingElem<C>> extends GroebnerBaseA
                     logger.info("end {}", pairlist);
                     return G; // since no threads are activated
                 }
-                if (sred.isSigRedundant(Gs, Hs)) {
+                if (sigIndex.isSigRedundant(Hs)) {
                     continue;
                 }
                 if (logger.isInfoEnabled()) {
@@ -251,6 +241,7 @@ public class GroebnerBaseSigSeqIter<C extends RingElem<C>> extends GroebnerBaseA
                         }
                     }
                     Gs.add(Hs);
+                    sigIndex.add(Hs);
                     done.add(Hs);
                 }
             }
@@ -299,6 +290,29 @@ public class GroebnerBaseSigSeqIter<C extends RingElem<C>> extends GroebnerBaseA
     }
 
 
+    /**
+     * Reduce the S-polynomial of a pair.
+     * @param F polynomial list.
+     * @param G polynomial with signature list.
+     * @param pair pair to reduce.
+     * @param S remaining pairs of the same signature degree, sorted by
+     *            signature.
+     * @return nf(spol(pair)) with respect to F and G.
+     */
+    SigPoly<C> reduce(List<GenPolynomial<C>> F, List<SigPoly<C>> G, SigPair<C> pair,
+                    List<SigPair<C>> S) {
+        GenPolynomial<C> Sp = SPolynomial(pair);
+        SigPoly<C> Ss = new SigPoly<C>(pair.sigma, Sp);
+        if (Sp.isZERO()) {
+            return Ss;
+        }
+        if (debug) {
+            logger.debug("ht(S) = {}", Sp.leadingExpVector());
+        }
+        return sigNormalform(F, G, Ss);
+    }
+
+
     /**
      * Pair with signature.
      * @param A polynomial with signature.
@@ -379,7 +393,7 @@ public class GroebnerBaseSigSeqIter<C extends RingElem<C>> extends GroebnerBaseA
         if (debug) {
             logger.debug("unused {} {}", G, F);
         }
-        List<ExpVector> P = new ArrayList<ExpVector>();
+        List<ExpVector> P = new SyzygyList();
         return P;
     }
 
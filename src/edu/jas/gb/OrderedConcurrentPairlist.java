@@ -0,0 +1,533 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Pair list management for parallel Groebner bases. Same pair selection and
+ * criterions as OrderedPairlist, but removeNext() and hasNext() do not hold a
+ * lock. The pairs are kept in a concurrent skip list ordered by the lcm of the
+ * leading terms and, for equal lcm, by reverse insertion order. The reduction
+ * matrix uses atomic bit rows, so criterion 3 and criterion 4 are evaluated
+ * concurrently. Only put() of a new polynomial is serialized to assign its
+ * index.
+ * @author Heinz Kredel
+ */
+
+public class OrderedConcurrentPairlist<C extends RingElem<C>> implements PairList<C> {
+
+
+    protected final List<GenPolynomial<C>> P;
+
+
+    protected final ConcurrentSkipListSet<Entry<C>> pairlist;
+
+
+    protected final List<BitRow> red;
+
+
+    protected final GenPolynomialRing<C> ring;
+
+
+    protected final Reduction<C> reduction;
+
+
+    protected volatile boolean oneInGB = false;
+
+
+    protected boolean useCriterion4 = true;
+
+
+    protected final AtomicInteger putCount;
+
+
+    protected final AtomicInteger remCount;
+
+
+    protected final AtomicLong sequence;
+
+
+    protected final ReentrantLock putLock;
+
+
+    protected final int moduleVars;
+
+
+    private static final Logger logger = LogManager.getLogger(OrderedConcurrentPairlist.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Constructor.
+     */
+    public OrderedConcurrentPairlist() {
+        moduleVars = 0;
+        ring = null;
+        P = null;
+        pairlist = null;
+        red = null;
+        reduction = null;
+        putCount = new AtomicInteger(0);
+        remCount = new AtomicInteger(0);
+        sequence = null;
+        putLock = null;
+    }
+
+
+    /**
+     * Constructor.
+     * @param r polynomial factory.
+     */
+    public OrderedConcurrentPairlist(GenPolynomialRing<C> r) {
+        this(0, r);
+    }
+
+
+    /**
+     * Constructor.
+     * @param m number of module variables.
+     * @param r polynomial factory.
+     */
+    public OrderedConcurrentPairlist(int m, GenPolynomialRing<C> r) {
+        moduleVars = m;
+        ring = r;
+        P = new CopyOnWriteArrayList<GenPolynomial<C>>();
+        pairlist = new ConcurrentSkipListSet<Entry<C>>(new EntryComparator<C>(ring.tord.getAscendComparator()));
+        red = new CopyOnWriteArrayList<BitRow>();
+        putCount = new AtomicInteger(0);
+        remCount = new AtomicInteger(0);
+        sequence = new AtomicLong(0L);
+        putLock = new ReentrantLock();
+        if (!ring.isCommutative()) {
+            useCriterion4 = false;
+        }
+        reduction = new ReductionSeq<C>();
+    }
+
+
+    /**
+     * Create a new PairList.
+     * @param r polynomial ring.
+     */
+    public PairList<C> create(GenPolynomialRing<C> r) {
+        return new OrderedConcurrentPairlist<C>(r);
+    }
+
+
+    /**
+     * Create a new PairList.
+     * @param m number of module variables.
+     * @param r polynomial ring.
+     */
+    public PairList<C> create(int m, GenPolynomialRing<C> r) {
+        return new OrderedConcurrentPairlist<C>(m, r);
+    }
+
+
+    /**
+     * Get polynomial ring.
+     * @return the polynomial ring.
+     */
+    public GenPolynomialRing<C> getRing() {
+        return ring;
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer(this.getClass().getSimpleName() + "(");
+        s.append("#put=" + putCount.get());
+        s.append(", #rem=" + remCount.get());
+        if (pairlist != null && !pairlist.isEmpty()) {
+            s.append(", size=" + pairlist.size());
+        }
+        if (moduleVars > 0) {
+            s.append(", modv=" + moduleVars);
+        }
+        s.append(")");
+        return s.toString();
+    }
+
+
+    /**
+     * Put one Polynomial to the pairlist and reduction matrix. The index
+     * assignment is serialized, the new pairs are visible to removeNext()
+     * after the polynomial and its reduction row.
+     * @param p polynomial.
+     * @return the index of the added polynomial.
+     */
+    public int put(GenPolynomial<C> p) {
+        putCount.incrementAndGet();
+        if (oneInGB) {
+            return P.size() - 1;
+        }
+        ExpVector e = p.leadingExpVector();
+        int l;
+        putLock.lock();
+        try {
+            if (oneInGB) {
+                return P.size() - 1;
+            }
+            l = P.size();
+            red.add(new BitRow(l));
+            P.add(p);
+            for (int j = 0; j < l; j++) {
+                GenPolynomial<C> pj = P.get(j);
+                ExpVector f = pj.leadingExpVector();
+                if (moduleVars > 0) {
+                    if (!reduction.moduleCriterion(moduleVars, e, f)) {
+                        continue; // skip pair
+                    }
+                }
+                ExpVector g = e.lcm(f);
+                Pair<C> pair = new Pair<C>(g, pj, p, j, l);
+                pairlist.add(new Entry<C>(g, sequence.incrementAndGet(), pair));
+            }
+        } finally {
+            putLock.unlock();
+        }
+        return l;
+    }
+
+
+    /**
+     * Put all polynomials in F to the pairlist and reduction matrix.
+     * @param F polynomial list.
+     * @return the index of the last added polynomial.
+     */
+    public int put(List<GenPolynomial<C>> F) {
+        int i = 0;
+        for (GenPolynomial<C> p : F) {
+            i = put(p);
+        }
+        return i;
+    }
+
+
+    /**
+     * Remove the next required pair from the pairlist and reduction matrix.
+     * Apply the criterions 3 and 4 to see if the S-polynomial is required.
+     * @return the next pair if one exists, otherwise null.
+     */
+    @SuppressWarnings("unchecked")
+    public Pair<C> removeNext() {
+        Entry<C> en;
+        while (!oneInGB && (en = pairlist.pollFirst()) != null) {
+            Pair<C> pair = en.pair;
+            ExpVector g = en.lcm;
+            int i = pair.i;
+            int j = pair.j;
+            GenPolynomial<C>[] ps = P.toArray(new GenPolynomial[0]);
+            BitRow[] rs = red.toArray(new BitRow[0]);
+            if (oneInGB || j >= rs.length) {
+                return null;
+            }
+            boolean c = true;
+            if (useCriterion4) {
+                c = reduction.criterion4(pair.pi, pair.pj, g);
+            }
+            if (c) {
+                c = criterion3(i, j, g, ps, rs);
+            }
+            rs[j].clear(i);
+            if (c) {
+                pair.maxIndex(ps.length - 1);
+                remCount.incrementAndGet(); // count only real pairs
+                if (debug) {
+                    logger.info("pair({},{})", pair.j, pair.i);
+                }
+                return pair;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Test if there is possibly a pair in the list.
+     * @return true if a next pair could exist, otherwise false.
+     */
+    public boolean hasNext() {
+        return !pairlist.isEmpty();
+    }
+
+
+    /**
+     * Get the list of polynomials.
+     * @return the polynomial list.
+     */
+    public List<GenPolynomial<C>> getList() {
+        return P;
+    }
+
+
+    /**
+     * Set the list of polynomials.
+     * @param F the polynomial list.
+     */
+    public void setList(List<GenPolynomial<C>> F) {
+        putLock.lock();
+        try {
+            if (!P.isEmpty()) {
+                throw new IllegalArgumentException("P not empty");
+            }
+            for (int i = 0; i < F.size(); i++) {
+                red.add(new BitRow(i, false));
+            }
+            P.addAll(F);
+        } finally {
+            putLock.unlock();
+        }
+    }
+
+
+    /**
+     * Get the size of the list of polynomials.
+     * @return size of the polynomial list.
+     */
+    public int size() {
+        return P.size();
+    }
+
+
+    /**
+     * Get the number of polynomials put to the pairlist.
+     * @return the number of calls to put.
+     */
+    public int putCount() {
+        return putCount.get();
+    }
+
+
+    /**
+     * Get the number of required pairs removed from the pairlist.
+     * @return the number of non null pairs delivered.
+     */
+    public int remCount() {
+        return remCount.get();
+    }
+
+
+    /**
+     * Put the ONE-Polynomial to the pairlist.
+     * @param one polynomial. (no more required)
+     * @return the index of the last polynomial.
+     */
+    public int putOne(GenPolynomial<C> one) {
+        if (one == null) {
+            return P.size() - 1;
+        }
+        if (!one.isONE()) {
+            return P.size() - 1;
+        }
+        return putOne();
+    }
+
+
+    /**
+     * Put the ONE-Polynomial to the pairlist.
+     * @return the index of the last polynomial.
+     */
+    public int putOne() {
+        putCount.incrementAndGet();
+        putLock.lock();
+        try {
+            oneInGB = true;
+            pairlist.clear();
+            P.clear();
+            P.add(ring.getONE());
+            red.clear();
+        } finally {
+            putLock.unlock();
+        }
+        logger.info("outOne {}", this);
+        return P.size() - 1;
+    }
+
+
+    /**
+     * GB criterium 3.
+     * @return true if the S-polynomial(i,j) is required.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean criterion3(int i, int j, ExpVector eij) {
+        GenPolynomial<C>[] ps = P.toArray(new GenPolynomial[0]);
+        BitRow[] rs = red.toArray(new BitRow[0]);
+        return criterion3(i, j, eij, ps, rs);
+    }
+
+
+    /**
+     * GB criterium 3 on snapshots of the polynomial list and reduction
+     * matrix.
+     * @param i first index.
+     * @param j second index, i &lt; j.
+     * @param eij lcm of the leading terms.
+     * @param ps polynomial list snapshot.
+     * @param rs reduction matrix snapshot.
+     * @return true if the S-polynomial(i,j) is required.
+     */
+    protected boolean criterion3(int i, int j, ExpVector eij, GenPolynomial<C>[] ps, BitRow[] rs) {
+        // assert i < j;
+        boolean s = rs[j].get(i);
+        if (!s) {
+            logger.warn("c3.s false for j, i = {}, {}", j, i);
+            return s;
+        }
+        int n = Math.min(ps.length, rs.length);
+        for (int k = 0; k < n; k++) {
+            if (i != k && j != k) {
+                ExpVector ek = ps[k].leadingExpVector();
+                boolean m = eij.multipleOf(ek);
+                if (m) {
+                    if (k < i) {
+                        s = rs[i].get(k) || rs[j].get(k);
+                    } else if (i < k && k < j) {
+                        s = rs[k].get(i) || rs[j].get(k);
+                    } else if (j < k) {
+                        s = rs[k].get(i) || rs[k].get(j);
+                    }
+                    if (!s) {
+                        return s;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Pair list entry, pair with lcm and insertion sequence number.
+     */
+    protected static final class Entry<C extends RingElem<C>> implements java.io.Serializable {
+
+
+        final ExpVector lcm;
+
+
+        final long seq;
+
+
+        final Pair<C> pair;
+
+
+        Entry(ExpVector lcm, long seq, Pair<C> pair) {
+            this.lcm = lcm;
+            this.seq = seq;
+            this.pair = pair;
+        }
+    }
+
+
+    /**
+     * Pair list entry comparator. Ascending lcm, and for equal lcm the last
+     * inserted pair first, like addFirst() in OrderedPairlist.
+     */
+    protected static final class EntryComparator<C extends RingElem<C>> implements Comparator<Entry<C>>,
+                    java.io.Serializable {
+
+
+        final Comparator<ExpVector> cmp;
+
+
+        EntryComparator(Comparator<ExpVector> cmp) {
+            this.cmp = cmp;
+        }
+
+
+        public int compare(Entry<C> a, Entry<C> b) {
+            int t = cmp.compare(a.lcm, b.lcm);
+            if (t != 0) {
+                return t;
+            }
+            return Long.compare(b.seq, a.seq);
+        }
+    }
+
+
+    /**
+     * Row of the reduction matrix with atomic bits. The row of polynomial j
+     * has the bits 0, ..., j-1 and is never enlarged.
+     */
+    protected static final class BitRow implements java.io.Serializable {
+
+
+        final AtomicLongArray words;
+
+
+        /**
+         * Constructor, all bits set.
+         * @param n number of bits.
+         */
+        BitRow(int n) {
+            this(n, true);
+        }
+
+
+        /**
+         * Constructor.
+         * @param n number of bits.
+         * @param set true if all bits are set.
+         */
+        BitRow(int n, boolean set) {
+            words = new AtomicLongArray((n + 63) >>> 6);
+            if (set) {
+                for (int w = 0; w < (n >>> 6); w++) {
+                    words.set(w, -1L);
+                }
+                if ((n & 63) != 0) {
+                    words.set(n >>> 6, (1L << (n & 63)) - 1L);
+                }
+            }
+        }
+
+
+        boolean get(int i) {
+            int w = i >>> 6;
+            if (w >= words.length()) {
+                return false;
+            }
+            return (words.get(w) & (1L << (i & 63))) != 0L;
+        }
+
+
+        void clear(int i) {
+            int w = i >>> 6;
+            if (w >= words.length()) {
+                return;
+            }
+            long m = ~(1L << (i & 63));
+            long x;
+            do {
+                x = words.get(w);
+            } while (!words.compareAndSet(w, x, x & m));
+        }
+    }
+
+}
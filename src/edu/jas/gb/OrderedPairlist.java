@@ -17,6 +17,7 @@ import java.util.TreeMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import edu.jas.kern.Metrics;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
@@ -66,6 +67,24 @@ public class OrderedPairlist<C extends RingElem<C>> implements PairList<C> {
     private static final Logger logger = LogManager.getLogger(OrderedPairlist.class);
 
 
+    /**
+     * Metrics for created, removed and discarded pairs.
+     */
+    protected static final Metrics.Counter pairsCreated = Metrics.counter("gb.pairs.created");
+
+
+    protected static final Metrics.Counter pairsRemoved = Metrics.counter("gb.pairs.removed");
+
+
+    protected static final Metrics.Counter pairsCriterion3 = Metrics.counter("gb.pairs.criterion3");
+
+
+    protected static final Metrics.Counter pairsCriterion4 = Metrics.counter("gb.pairs.criterion4");
+
+
+    protected static final Metrics.Counter pairsModule = Metrics.counter("gb.pairs.module");
+
+
     /**
      * Constructor.
      */
@@ -176,11 +195,13 @@ public class OrderedPairlist<C extends RingElem<C>> implements PairList<C> {
             ExpVector f = pj.leadingExpVector();
             if (moduleVars > 0) {
                 if (!reduction.moduleCriterion(moduleVars, e, f)) {
+                    pairsModule.inc();
                     continue; // skip pair
                 }
             }
             ExpVector g = e.lcm(f);
             Pair<C> pair = new Pair<C>(pj, p, j, l);
+            pairsCreated.inc();
             //System.out.println("pair.new      = " + pair);
             //multiple pairs under same keys -> list of pairs
             LinkedList<Pair<C>> xl = pairlist.get(g);
@@ -247,6 +268,9 @@ public class OrderedPairlist<C extends RingElem<C>> implements PairList<C> {
                 // System.out.println("pair(" + j + "," +i+") ");
                 if (useCriterion4) {
                     c = reduction.criterion4(pair.pi, pair.pj, g);
+                    if (!c) {
+                        pairsCriterion4.inc();
+                    }
                 } else {
                     c = true;
                 }
@@ -254,6 +278,9 @@ public class OrderedPairlist<C extends RingElem<C>> implements PairList<C> {
                 if (c) {
                     c = criterion3(i, j, g);
                     //System.out.println("c3_o  = " + c); 
+                    if (!c) {
+                        pairsCriterion3.inc();
+                    }
                 }
                 red.get(j).clear(i); // set(i,false) jdk1.4
             }
@@ -267,6 +294,7 @@ public class OrderedPairlist<C extends RingElem<C>> implements PairList<C> {
         } else {
             pair.maxIndex(P.size() - 1);
             remCount++; // count only real pairs
+            pairsRemoved.inc();
             if (logger.isDebugEnabled()) {
                 logger.info("pair({},{})", pair.j, pair.i);
             }
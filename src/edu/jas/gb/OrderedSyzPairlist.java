@@ -17,6 +17,7 @@ import java.util.TreeMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import edu.jas.kern.Metrics;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
@@ -36,6 +37,12 @@ public class OrderedSyzPairlist<C extends RingElem<C>> extends OrderedPairlist<C
     private static final Logger logger = LogManager.getLogger(OrderedSyzPairlist.class);
 
 
+    /**
+     * Metric for pairs discarded by the syzygy criterion.
+     */
+    protected static final Metrics.Counter pairsSyzygy = Metrics.counter("gb.pairs.syzygy");
+
+
     /**
      * Constructor.
      */
@@ -129,6 +136,7 @@ public class OrderedSyzPairlist<C extends RingElem<C>> extends OrderedPairlist<C
                     lle.add(pair);
                 }
                 if (lle.size() > 0) {
+                    pairsSyzygy.add(lle.size());
                     for (Pair<C> pair : lle) {
                         ll.remove(pair);
                     }
@@ -153,11 +161,13 @@ public class OrderedSyzPairlist<C extends RingElem<C>> extends OrderedPairlist<C
             if (moduleVars > 0) {
                 if (!reduction.moduleCriterion(moduleVars, e, f)) {
                     //red.get(j).clear(l); 
+                    pairsModule.inc();
                     continue; // skip pair
                 }
             }
             ExpVector g = e.lcm(f);
             Pair<C> pair = new Pair<C>(pj, p, j, ps);
+            pairsCreated.inc();
             //System.out.println("pair.new      = " + pair);
             //multiple pairs under same keys -> list of pairs
             LinkedList<Pair<C>> xl = npl.get(g);
@@ -185,8 +195,8 @@ public class OrderedSyzPairlist<C extends RingElem<C>> extends OrderedPairlist<C
         }
         //System.out.println("npl.skip div = " + es);
         for (ExpVector ei : es) {
-            @SuppressWarnings("unused")
             LinkedList<Pair<C>> ignored = npl.remove(ei);
+            pairsSyzygy.add(ignored.size());
         }
         // skip by criterion 4:
         if (useCriterion4) {
@@ -201,6 +211,7 @@ public class OrderedSyzPairlist<C extends RingElem<C>> extends OrderedPairlist<C
                 }
                 if (c) {
                     if (exl.size() > 1) {
+                        pairsSyzygy.add(exl.size() - 1);
                         Pair<C> pair = exl.getFirst(); // or exl.getLast();
                         exl.clear();
                         exl.add(pair);
@@ -214,8 +225,8 @@ public class OrderedSyzPairlist<C extends RingElem<C>> extends OrderedPairlist<C
             }
             //System.out.println("npl.skip c4  = " + es);
             for (ExpVector ei : es) {
-                @SuppressWarnings("unused")
                 LinkedList<Pair<C>> ignored = npl.remove(ei);
+                pairsCriterion4.add(ignored.size());
             }
         }
         // add to existing pairlist:
@@ -284,6 +295,7 @@ public class OrderedSyzPairlist<C extends RingElem<C>> extends OrderedPairlist<C
         if (pair != null) {
             pair.maxIndex(P.size() - 1);
             remCount++; // count only real pairs
+            pairsRemoved.inc();
             if (logger.isDebugEnabled()) {
                 logger.info("pair({},{})", pair.j, pair.i);
             }
@@ -20,6 +20,7 @@ import org.apache.logging.log4j.LogManager;
 import edu.jas.poly.GenWordPolynomial;
 import edu.jas.poly.GenWordPolynomialRing;
 import edu.jas.poly.Word;
+import edu.jas.poly.WordIndex;
 import edu.jas.structure.RingElem;
 
 
@@ -56,6 +57,12 @@ public class OrderedWordPairlist<C extends RingElem<C>> implements WordPairList<
     protected int remCount;
 
 
+    /**
+     * Index of the leading words of P, null if P has changed.
+     */
+    protected WordIndex index;
+
+
     private static final Logger logger = LogManager.getLogger(OrderedWordPairlist.class);
 
 
@@ -177,6 +184,7 @@ public class OrderedWordPairlist<C extends RingElem<C>> implements WordPairList<
         //System.out.println("pairlist.keys@put = " + pairlist.keySet() );  
         //System.out.println("#pairlist = " + pairlist.size() );  
         P.add(p);
+        index = null;
         //System.out.println("pairlist.key = " + pairlist.keySet() );  
         return l; //P.size() - 1;
     }
@@ -309,11 +317,28 @@ public class OrderedWordPairlist<C extends RingElem<C>> implements WordPairList<
         pairlist.clear();
         P.clear();
         P.add(ring.getONE());
+        index = null;
         red.clear();
         return P.size() - 1;
     }
 
 
+    /**
+     * Index of the leading words of the polynomials in the pairlist.
+     * @return word index of the leading words of P.
+     */
+    protected synchronized WordIndex leadingWordIndex() {
+        if (index == null || index.size() != P.size()) {
+            List<Word> lw = new ArrayList<Word>(P.size());
+            for (GenWordPolynomial<C> A : P) {
+                lw.add(A.leadingWord());
+            }
+            index = new WordIndex(lw);
+        }
+        return index;
+    }
+
+
     /**
      * GB criterium 3.
      * @return true if the S-polynomial(i,j) is required.
@@ -324,41 +349,37 @@ public class OrderedWordPairlist<C extends RingElem<C>> implements WordPairList<
         //   logger.warn("c3.s true for j, i = {} {}", j, i);
         //   //return s;
         //}
-        for (int k = 0; k < P.size(); k++) {
+        BitSet ks = leadingWordIndex().divisors(eij); // all k with eij.multipleOf(ek)
+        for (int k = ks.nextSetBit(0); k >= 0; k = ks.nextSetBit(k + 1)) {
             // System.out.println("i , k , j "+i+" "+k+" "+j); 
             if (i != k && j != k) {
-                GenWordPolynomial<C> A = P.get(k);
-                Word ek = A.leadingWord();
-                boolean m = eij.multipleOf(ek);
-                if (m) {
-                    if (i < j) {
-                        if (k < i) {
-                            // System.out.println("k < i "+k+" "+i); 
-                            s = red.get(i).get(k) || red.get(j).get(k);
-                        } else if (i < k && k < j) {
-                            // System.out.println("i < k < j "+i+" "+k+" "+j); 
-                            s = red.get(k).get(i) || red.get(j).get(k);
-                        } else if (j < k) {
-                            //System.out.println("j < k "+j+" "+k); 
-                            s = red.get(k).get(i) || red.get(k).get(j);
-                        }
-                    } else { // j < i
-                        if (k < j) {
-                            //System.out.println("k < j "+k+" "+j); 
-                            s = red.get(k).get(j) || red.get(k).get(i);
-                        } else if (j < k && k < i) {
-                            //System.out.println("j < k < i "+j+" "+k+" "+i); 
-                            s = red.get(j).get(k) || red.get(k).get(i);
-                        } else if (i < k) {
-                            //System.out.println("i < k "+i+" "+k); 
-                            s = red.get(j).get(k) || red.get(i).get(k);
-                        }
+                if (i < j) {
+                    if (k < i) {
+                        // System.out.println("k < i "+k+" "+i); 
+                        s = red.get(i).get(k) || red.get(j).get(k);
+                    } else if (i < k && k < j) {
+                        // System.out.println("i < k < j "+i+" "+k+" "+j); 
+                        s = red.get(k).get(i) || red.get(j).get(k);
+                    } else if (j < k) {
+                        //System.out.println("j < k "+j+" "+k); 
+                        s = red.get(k).get(i) || red.get(k).get(j);
                     }
-                    //System.out.println("s."+k+" = " + s); 
-                    if (!s) {
-                        return s;
+                } else { // j < i
+                    if (k < j) {
+                        //System.out.println("k < j "+k+" "+j); 
+                        s = red.get(k).get(j) || red.get(k).get(i);
+                    } else if (j < k && k < i) {
+                        //System.out.println("j < k < i "+j+" "+k+" "+i); 
+                        s = red.get(j).get(k) || red.get(k).get(i);
+                    } else if (i < k) {
+                        //System.out.println("i < k "+i+" "+k); 
+                        s = red.get(j).get(k) || red.get(i).get(k);
                     }
                 }
+                //System.out.println("s."+k+" = " + s); 
+                if (!s) {
+                    return s;
+                }
             }
         }
         return true;
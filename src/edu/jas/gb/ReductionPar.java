@@ -7,9 +7,12 @@ package edu.jas.gb;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GeoBucket;
+import edu.jas.poly.Monomial;
 import edu.jas.structure.RingElem;
 
 
@@ -48,16 +51,9 @@ public class ReductionPar<C extends RingElem<C>> extends ReductionAbstract<C> {
         }
         int l;
         GenPolynomial<C>[] P;
-        synchronized (Pp) { // required, ok in dist
-            l = Pp.size();
-            P = (GenPolynomial<C>[]) new GenPolynomial[l];
-            //P = Pp.values().toArray();
-            for (int i = 0; i < Pp.size(); i++) {
-                P[i] = Pp.get(i);
-            }
-        }
+        P = snapshot(Pp);
+        l = P.length;
 
-        Map.Entry<ExpVector, C> m;
         Map.Entry<ExpVector, C> m1;
         ExpVector e;
         ExpVector f = null;
@@ -67,26 +63,21 @@ public class ReductionPar<C extends RingElem<C>> extends ReductionAbstract<C> {
         GenPolynomial<C> R = Rz.copy();
         GenPolynomial<C> p = null;
         //GenPolynomial<C> Q = null;
-        GenPolynomial<C> S = Ap.copy();
-        while (S.length() > 0) {
+        GeoBucket<C> S = new GeoBucket<C>(Ap);
+        Monomial<C> mo;
+        while ((mo = S.leadingMonomial()) != null) {
             if (Pp.size() != l) {
                 //long t = System.currentTimeMillis();
-                synchronized (Pp) { // required, bad in parallel
-                    l = Pp.size();
-                    P = (GenPolynomial<C>[]) new GenPolynomial[l];
-                    //P = Pp.toArray();
-                    for (int i = 0; i < Pp.size(); i++) {
-                        P[i] = Pp.get(i);
-                    }
-                }
+                P = snapshot(Pp);
+                l = P.length;
                 //t = System.currentTimeMillis()-t;
                 //logger.info("Pp.toArray() = {} ms, size() = {}", t, l);
-                S = Ap.copy(); // S.add(R)? // restart reduction ?
+                S = new GeoBucket<C>(Ap); // S.add(R)? // restart reduction ?
                 R = Rz.copy();
+                continue;
             }
-            m = S.leadingMonomial();
-            e = m.getKey();
-            a = m.getValue();
+            e = mo.e;
+            a = mo.c;
             //System.out.println("S.e = " + e);
             for (int i = 0; i < P.length; i++) {
                 p = P[i];
@@ -102,7 +93,7 @@ public class ReductionPar<C extends RingElem<C>> extends ReductionAbstract<C> {
                 //R = R.sum( a, e );
                 //S = S.subtract( a, e ); 
                 R.doPutToMap(e, a);
-                S.doRemoveFromMap(e, a);
+                S.pollLeadingMonomial();
                 //System.out.println("R = " + R);
             } else {
                 //logger.debug("red");
@@ -111,7 +102,7 @@ public class ReductionPar<C extends RingElem<C>> extends ReductionAbstract<C> {
                 a = a.divide(m1.getValue());
                 //Q = p.multiply( a, e );
                 //S = S.subtract( Q );
-                S = S.subtractMultiple(a, e, p);
+                S.subtractMultiple(a, e, p);
             }
             //System.out.println("S = " + S);
         }
@@ -119,6 +110,29 @@ public class ReductionPar<C extends RingElem<C>> extends ReductionAbstract<C> {
     }
 
 
+    /**
+     * Snapshot of a polynomial list. A CopyOnWriteArrayList is copied without
+     * locking, other lists are copied while holding their monitor.
+     * @param Pp polynomial list.
+     * @return array of the polynomials in Pp.
+     */
+    @SuppressWarnings("unchecked")
+    protected GenPolynomial<C>[] snapshot(List<GenPolynomial<C>> Pp) {
+        if (Pp instanceof CopyOnWriteArrayList) {
+            return Pp.toArray(new GenPolynomial[0]);
+        }
+        GenPolynomial<C>[] P;
+        synchronized (Pp) { // required, ok in dist
+            int l = Pp.size();
+            P = (GenPolynomial<C>[]) new GenPolynomial[l];
+            for (int i = 0; i < l; i++) {
+                P[i] = Pp.get(i);
+            }
+        }
+        return P;
+    }
+
+
     /**
      * Normalform with recording.
      * @param row recording matrix, is modified.
@@ -13,6 +13,7 @@ import org.apache.logging.log4j.LogManager;
 
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GeoBucket;
 import edu.jas.poly.Monomial;
 import edu.jas.structure.RingElem;
 
@@ -88,11 +89,11 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
 
         //GenPolynomial<C> T = null;
         //GenPolynomial<C> Q = null;
-        GenPolynomial<C> S = Ap.copy();
-        while (S.length() > 0) {
-            m = S.leadingMonomial();
-            e = m.getKey();
-            a = m.getValue();
+        GeoBucket<C> S = new GeoBucket<C>(Ap);
+        Monomial<C> mo;
+        while ((mo = S.leadingMonomial()) != null) {
+            e = mo.e;
+            a = mo.c;
             for (i = 0; i < l; i++) {
                 mt = e.multipleOf(htl[i]);
                 if (mt)
@@ -103,7 +104,7 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
                 //R = R.sum( a, e );
                 //S = S.subtract( a, e ); 
                 R.doPutToMap(e, a);
-                S.doRemoveFromMap(e, a);
+                S.pollLeadingMonomial();
                 // System.out.println(" S = " + S);
             } else {
                 e = e.subtract(htl[i]);
@@ -111,7 +112,7 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
                 //logger.info("red div: e = {}, a = {}", e, a);
                 //Q = p[i].multiply( a, e );
                 //S = S.subtract( Q );
-                S = S.subtractMultiple(a, e, p[i]);
+                S.subtractMultiple(a, e, p[i]);
             }
         }
         return R;
@@ -0,0 +1,115 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.jas.poly.ExpVector;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Index of polynomials with signature for the signature redundancy test. A
+ * polynomial p is stored under the difference of the leading exponent vectors
+ * of p.poly and p.sigma. Then A is sigma redundant with respect to p if and
+ * only if the difference for A is the same and the signature of p divides
+ * the signature of A. So a redundancy test only looks at one hash bucket
+ * instead of the whole list.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ */
+
+public class SigPolyIndex<C extends RingElem<C>> {
+
+
+    protected final Map<ExpVector, List<SigPoly<C>>> buckets;
+
+
+    /**
+     * Constructor.
+     */
+    public SigPolyIndex() {
+        buckets = new HashMap<ExpVector, List<SigPoly<C>>>();
+    }
+
+
+    /**
+     * Constructor.
+     * @param G polynomial with signature list.
+     */
+    public SigPolyIndex(List<SigPoly<C>> G) {
+        this();
+        for (SigPoly<C> p : G) {
+            add(p);
+        }
+    }
+
+
+    /**
+     * Add a polynomial with signature. Polynomials with zero signature or
+     * zero polynomial are not indexed.
+     * @param p polynomial with signature.
+     */
+    public void add(SigPoly<C> p) {
+        if (p.sigma.isZERO() || p.poly.isZERO()) {
+            return;
+        }
+        ExpVector d = p.poly.leadingExpVector().subtract(p.sigma.leadingExpVector());
+        List<SigPoly<C>> b = buckets.get(d);
+        if (b == null) {
+            b = new ArrayList<SigPoly<C>>(2);
+            buckets.put(d, b);
+        }
+        b.add(p);
+    }
+
+
+    /**
+     * Is sigma redundant. Same result as
+     * <code>SigReductionSeq.isSigRedundant(G, A)</code> for the list G of
+     * the added polynomials.
+     * @param A polynomial with signature.
+     * @return true if A is sigma redundant with respect to the indexed
+     *         polynomials.
+     */
+    public boolean isSigRedundant(SigPoly<C> A) {
+        if (buckets.isEmpty()) {
+            return false;
+        }
+        ExpVector e = A.sigma.leadingExpVector();
+        if (e == null) {
+            e = A.poly.ring.evzero;
+        }
+        ExpVector d = A.poly.leadingExpVector().subtract(e);
+        List<SigPoly<C>> b = buckets.get(d);
+        if (b == null) {
+            return false;
+        }
+        for (SigPoly<C> p : b) {
+            if (e.multipleOf(p.sigma.leadingExpVector())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Number of indexed polynomials.
+     * @return size of the index.
+     */
+    public int size() {
+        int s = 0;
+        for (List<SigPoly<C>> b : buckets.values()) {
+            s += b.size();
+        }
+        return s;
+    }
+
+}
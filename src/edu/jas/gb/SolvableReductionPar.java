@@ -6,12 +6,13 @@ package edu.jas.gb;
 
 
 import java.util.List;
-import java.util.Map;
 
 // import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager; 
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenSolvablePolynomial;
+import edu.jas.poly.GeoBucket;
+import edu.jas.poly.Monomial;
 import edu.jas.structure.RingElem;
 
 
@@ -51,7 +52,6 @@ public class SolvableReductionPar<C extends RingElem<C>> extends SolvableReducti
             return Ap;
         }
         int l;
-        Map.Entry<ExpVector, C> m;
         GenSolvablePolynomial<C>[] P;
         synchronized (Pp) {
             l = Pp.size();
@@ -70,8 +70,9 @@ public class SolvableReductionPar<C extends RingElem<C>> extends SolvableReducti
 
         GenSolvablePolynomial<C> p = null;
         GenSolvablePolynomial<C> Q = null;
-        GenSolvablePolynomial<C> S = Ap.copy();
-        while (S.length() > 0) {
+        GeoBucket<C> S = new GeoBucket<C>(Ap);
+        Monomial<C> mo;
+        while ((mo = S.leadingMonomial()) != null) {
             if (Pp.size() != l) {
                 //long t = System.currentTimeMillis();
                 synchronized (Pp) { // required, bad in parallel
@@ -84,12 +85,12 @@ public class SolvableReductionPar<C extends RingElem<C>> extends SolvableReducti
                 }
                 //t = System.currentTimeMillis()-t;
                 //logger.info("Pp.toArray() = {} ms, size() = {}", t, l);
-                S = Ap.copy(); // S.add(R)? // restart reduction ?
+                S = new GeoBucket<C>(Ap); // S.add(R)? // restart reduction ?
                 R = Rz.copy();
+                continue;
             }
-            m = S.leadingMonomial();
-            e = m.getKey();
-            a = m.getValue();
+            e = mo.e;
+            a = mo.c;
             for (int i = 0; i < P.length; i++) {
                 p = P[i];
                 f = p.leadingExpVector();
@@ -104,7 +105,7 @@ public class SolvableReductionPar<C extends RingElem<C>> extends SolvableReducti
                 //R = (GenSolvablePolynomial<C>) R.sum(a, e);
                 //S = (GenSolvablePolynomial<C>) S.subtract(a, e);
                 R.doPutToMap(e, a);
-                S.doRemoveFromMap(e, a);
+                S.pollLeadingMonomial();
                 // System.out.println(" S = " + S);
             } else {
                 //logger.debug("red");
@@ -113,7 +114,7 @@ public class SolvableReductionPar<C extends RingElem<C>> extends SolvableReducti
                 a = a.divide(Q.leadingBaseCoefficient());
                 //Q = Q.multiplyLeft(a);
                 //S = (GenSolvablePolynomial<C>) S.subtract(Q);
-                S = S.subtractMultiple(a, Q);
+                S.subtractMultiple(a, Q);
             }
         }
         return R;
@@ -149,7 +150,6 @@ public class SolvableReductionPar<C extends RingElem<C>> extends SolvableReducti
             return Ap;
         }
         int l;
-        Map.Entry<ExpVector, C> m;
         GenSolvablePolynomial<C>[] P;
         synchronized (Pp) {
             l = Pp.size();
@@ -168,8 +168,9 @@ public class SolvableReductionPar<C extends RingElem<C>> extends SolvableReducti
 
         GenSolvablePolynomial<C> p = null;
         GenSolvablePolynomial<C> Q = null;
-        GenSolvablePolynomial<C> S = Ap.copy();
-        while (S.length() > 0) {
+        GeoBucket<C> S = new GeoBucket<C>(Ap);
+        Monomial<C> mo;
+        while ((mo = S.leadingMonomial()) != null) {
             if (Pp.size() != l) {
                 //long t = System.currentTimeMillis();
                 synchronized (Pp) { // required, bad in parallel
@@ -182,12 +183,12 @@ public class SolvableReductionPar<C extends RingElem<C>> extends SolvableReducti
                 }
                 //t = System.currentTimeMillis()-t;
                 //logger.info("Pp.toArray() = {} ms, size() = {}", t, l);
-                S = Ap.copy(); // S.add(R)? // restart reduction ?
+                S = new GeoBucket<C>(Ap); // S.add(R)? // restart reduction ?
                 R = Rz.copy();
+                continue;
             }
-            m = S.leadingMonomial();
-            e = m.getKey();
-            a = m.getValue();
+            e = mo.e;
+            a = mo.c;
             for (int i = 0; i < P.length; i++) {
                 p = P[i];
                 f = p.leadingExpVector();
@@ -202,7 +203,7 @@ public class SolvableReductionPar<C extends RingElem<C>> extends SolvableReducti
                 //R = (GenSolvablePolynomial<C>) R.sum(a, e);
                 //S = (GenSolvablePolynomial<C>) S.subtract(a, e);
                 R.doPutToMap(e, a);
-                S.doRemoveFromMap(e, a);
+                S.pollLeadingMonomial();
                 // System.out.println(" S = " + S);
             } else {
                 //logger.debug("red");
@@ -210,7 +211,7 @@ public class SolvableReductionPar<C extends RingElem<C>> extends SolvableReducti
                 Q = p.multiply(e); // p * (a e) TODO
                 a = a.divide(Q.leadingBaseCoefficient());
                 Q = Q.multiply(a); // p * (e a) !!
-                S = (GenSolvablePolynomial<C>) S.subtract(Q);
+                S.subtract(Q);
                 //S = S.subtractMultiple(Q, a);
             }
         }
@@ -12,6 +12,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import edu.jas.poly.ExpVector;
+import edu.jas.poly.GeoBucket;
 import edu.jas.poly.Monomial;
 import edu.jas.poly.GenSolvablePolynomial;
 import edu.jas.structure.RingElem;
@@ -81,13 +82,12 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
         boolean mt = false;
         GenSolvablePolynomial<C> R = Ap.ring.getZERO().copy();
         GenSolvablePolynomial<C> Q = null;
-        GenSolvablePolynomial<C> S = Ap.copy();
-        GenSolvablePolynomial<C> Sp;
-        while (S.length() > 0) {
-            m = S.leadingMonomial();
-            e = m.getKey();
+        GeoBucket<C> S = new GeoBucket<C>(Ap);
+        Monomial<C> mo;
+        while ((mo = S.leadingMonomial()) != null) {
+            e = mo.e;
             logger.debug("red, e = {}", e);
-            a = m.getValue();
+            a = mo.c;
             for (i = 0; i < l; i++) {
                 mt = e.multipleOf(htl[i]);
                 if (mt)
@@ -98,10 +98,11 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
                 //R = (GenSolvablePolynomial<C>) R.sum(a, e);
                 //S = (GenSolvablePolynomial<C>) S.subtract(a, e);
                 R.doPutToMap(e, a);
-                S.doRemoveFromMap(e, a);
+                S.pollLeadingMonomial();
                 // System.out.println(" S = " + S);
             } else {
                 //f = e;
+                ExpVector g1 = e;
                 e = e.subtract(htl[i]);
                 //logger.debug("red div = {}", e);
                 Q = p[i].multiplyLeft(e);
@@ -109,9 +110,7 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
                 a = a.divide(Q.leadingBaseCoefficient());
                 //Q = Q.multiplyLeft(a);
                 //S = (GenSolvablePolynomial<C>) S.subtract(Q);
-                ExpVector g1 = S.leadingExpVector();
-                Sp = S;
-                S = S.subtractMultiple(a, Q);
+                S.subtractMultiple(a, Q);
                 //S = S.subtractMultiple(a, e, p[i]);
                 ExpVector g2 = S.leadingExpVector();
                 if (g1.equals(g2)) {
@@ -120,7 +119,6 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
                     logger.info("g1.equals(g2): p[i]     = {}", p[i]);
                     logger.info("g1.equals(g2): Q        = {}", Q);
                     logger.info("g1.equals(g2): R        = {}", R);
-                    logger.info("g1.equals(g2): Sp       = {}", Sp);
                     logger.info("g1.equals(g2): S        = {}", S);
                     throw new RuntimeException("g1.equals(g2): " + g1 + ", a = " + a + ", b = " + b);
                 }
@@ -176,11 +174,11 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
 
         GenSolvablePolynomial<C> fac = null;
         GenSolvablePolynomial<C> Q = null;
-        GenSolvablePolynomial<C> S = Ap.copy();
-        while (S.length() > 0) {
-            m = S.leadingMonomial();
-            e = m.getKey();
-            a = m.getValue();
+        GeoBucket<C> S = new GeoBucket<C>(Ap);
+        Monomial<C> mo;
+        while ((mo = S.leadingMonomial()) != null) {
+            e = mo.e;
+            a = mo.c;
             for (i = 0; i < l; i++) {
                 mt = e.multipleOf(htl[i]);
                 if (mt)
@@ -191,9 +189,10 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
                 //R = (GenSolvablePolynomial<C>) R.sum(a, e);
                 //S = (GenSolvablePolynomial<C>) S.subtract(a, e);
                 R.doPutToMap(e, a);
-                S.doRemoveFromMap(e, a);
+                S.pollLeadingMonomial();
                 // System.out.println(" S = " + S);
             } else {
+                ExpVector g1 = e;
                 e = e.subtract(htl[i]);
                 //logger.info("red div = {}", e);
                 //a = a.divide( (C)lbc[i] );
@@ -202,12 +201,11 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
                 a = a.divide(Q.leadingBaseCoefficient());
                 //Q = Q.multiplyLeft(a);
                 //S = (GenSolvablePolynomial<C>) S.subtract(Q);
-                ExpVector g1 = S.leadingExpVector();
-                S = S.subtractMultiple(a, Q);
-                ExpVector g2 = S.leadingExpVector();
-                if (g1.equals(g2)) {
+                S.subtractMultiple(a, Q);
+                Monomial<C> m2 = S.leadingMonomial();
+                if (m2 != null && g1.equals(m2.e)) {
                     throw new RuntimeException("g1.equals(g2): " + g1 + ", a = " + a + ", lc(S) = "
-                                    + S.leadingBaseCoefficient());
+                                    + m2.c);
                 }
                 fac = row.get(i);
                 if (fac == null) {
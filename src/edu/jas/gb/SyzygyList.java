@@ -0,0 +1,143 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import edu.jas.poly.ExpVector;
+
+
+/**
+ * List of exponent vectors representing syzygies for signature based
+ * Groebner base algorithms. Together with each exponent vector its total
+ * degree and a bit mask of the variables occurring in it are stored, so most
+ * non divisors are rejected in <code>hasDivisor()</code> without an exponent
+ * vector comparison.
+ * @author Heinz Kredel
+ */
+
+public class SyzygyList extends AbstractList<ExpVector> implements RandomAccess {
+
+
+    protected final List<ExpVector> list;
+
+
+    protected long[] masks;
+
+
+    protected long[] degrees;
+
+
+    /**
+     * Constructor.
+     */
+    public SyzygyList() {
+        list = new ArrayList<ExpVector>();
+        masks = new long[16];
+        degrees = new long[16];
+    }
+
+
+    /**
+     * Support bit mask of an exponent vector.
+     * @param e exponent vector.
+     * @return mask with bit (i mod 64) set if variable i occurs in e.
+     */
+    public static long supportMask(ExpVector e) {
+        long m = 0L;
+        for (int i = 0; i < e.length(); i++) {
+            if (e.getVal(i) != 0L) {
+                m |= 1L << (i & 63);
+            }
+        }
+        return m;
+    }
+
+
+    /**
+     * Get an exponent vector.
+     * @param i index.
+     * @return the i-th exponent vector.
+     */
+    @Override
+    public ExpVector get(int i) {
+        return list.get(i);
+    }
+
+
+    /**
+     * Size.
+     * @return number of exponent vectors.
+     */
+    @Override
+    public int size() {
+        return list.size();
+    }
+
+
+    /**
+     * Add an exponent vector.
+     * @param e exponent vector.
+     * @return true.
+     */
+    @Override
+    public boolean add(ExpVector e) {
+        int n = list.size();
+        if (n == masks.length) {
+            masks = Arrays.copyOf(masks, 2 * n);
+            degrees = Arrays.copyOf(degrees, 2 * n);
+        }
+        masks[n] = supportMask(e);
+        degrees[n] = e.totalDeg();
+        list.add(e);
+        modCount++;
+        return true;
+    }
+
+
+    /**
+     * Test if some exponent vector of this list divides f.
+     * @param f exponent vector.
+     * @return true if f.multipleOf(e) for some e in this list, else false.
+     */
+    public boolean hasDivisor(ExpVector f) {
+        long fm = ~supportMask(f);
+        long fd = f.totalDeg();
+        for (int i = 0; i < list.size(); i++) {
+            if ((masks[i] & fm) != 0L || degrees[i] > fd) {
+                continue;
+            }
+            if (f.multipleOf(list.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Test if some exponent vector of a syzygy list divides f.
+     * @param syz list of exponent vectors representing syzygies.
+     * @param f exponent vector.
+     * @return true if f.multipleOf(e) for some e in syz, else false.
+     */
+    public static boolean hasDivisor(List<ExpVector> syz, ExpVector f) {
+        if (syz instanceof SyzygyList) {
+            return ((SyzygyList) syz).hasDivisor(f);
+        }
+        for (ExpVector e : syz) {
+            if (f.multipleOf(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -6,6 +6,7 @@ package edu.jas.gb;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -14,6 +15,9 @@ import org.apache.logging.log4j.LogManager;
 
 import edu.jas.poly.GenWordPolynomial;
 import edu.jas.poly.Word;
+import edu.jas.poly.WordGeoBucket;
+import edu.jas.poly.WordIndex;
+import edu.jas.poly.WordMonomial;
 import edu.jas.structure.RingElem;
 
 
@@ -33,6 +37,12 @@ public class WordReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
     private static final boolean debug = logger.isDebugEnabled();
 
 
+    /**
+     * Index of the last used head terms.
+     */
+    private volatile WordIndex lastIndex;
+
+
     /**
      * Constructor.
      */
@@ -40,6 +50,26 @@ public class WordReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
     }
 
 
+    /**
+     * Index of head terms. The index of the last call is reused if the head
+     * terms are unchanged, since normalform is mostly called repeatedly with
+     * the same list.
+     * @param htl array of head terms.
+     * @param l number of head terms to use.
+     * @return index of htl[0..l-1].
+     */
+    protected WordIndex wordIndex(Word[] htl, int l) {
+        WordIndex wi = lastIndex;
+        if (wi == null) {
+            wi = new WordIndex(Arrays.copyOf(htl, l));
+        } else {
+            wi = wi.extend(htl, l);
+        }
+        lastIndex = wi;
+        return wi;
+    }
+
+
     /**
      * Normalform.
      * @param Ap polynomial.
@@ -84,32 +114,35 @@ public class WordReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             }
         }
         l = j;
+        WordIndex wi = wordIndex(htl, l);
         Word e, f, g;
         C a;
         boolean mt = false;
-        GenWordPolynomial<C> R = Ap.ring.getZERO();
+        GenWordPolynomial<C> R = Ap.ring.getZERO().copy();
         C cone = Ap.ring.coFac.getONE();
 
         //GenWordPolynomial<C> T = null;
         GenWordPolynomial<C> Q = null;
-        GenWordPolynomial<C> S = Ap;
-        while (S.length() > 0) {
-            m = S.leadingMonomial();
-            e = m.getKey();
-            a = m.getValue();
-            for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
-                if (mt)
-                    break;
+        WordGeoBucket<C> S = new WordGeoBucket<C>(Ap);
+        WordMonomial<C> mo;
+        while ((mo = S.leadingMonomial()) != null) {
+            e = mo.e;
+            a = mo.c;
+            int[] dv = wi.divisor(e);
+            mt = (dv != null);
+            if (mt) {
+                i = dv[0];
             }
             if (!mt) {
                 //logger.debug("irred");
                 //T = new OrderedMapPolynomial( a, e );
-                R = R.sum(a, e);
-                S = S.subtract(a, e);
+                //R = R.sum(a, e);
+                //S = S.subtract(a, e);
+                R.doPutToMap(e, a);
+                S.pollLeadingMonomial();
                 // System.out.println(" S = " + S);
             } else {
-                Word[] elr = e.divideWord(htl[i]);
+                Word[] elr = e.divideWordAt(htl[i], dv[1]);
                 g = e;
                 e = elr[0];
                 f = elr[1];
@@ -118,8 +151,8 @@ public class WordReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
                 }
                 a = a.divide(lbc[i]);
                 Q = p[i].multiply(a, e, cone, f);
-                S = S.subtract(Q);
-                if (!S.isZERO() && g.equals(S.leadingWord())) {
+                S.subtract(Q);
+                if (g.equals(S.leadingWord())) {
                     throw new RuntimeException("HT(S) not descending");
                 }
             }
@@ -173,6 +206,7 @@ public class WordReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             }
         }
         l = j;
+        WordIndex wi = wordIndex(htl, l);
         Word e, g;
         C a, b, lc, rc;
         boolean mt = false;
@@ -200,10 +234,10 @@ public class WordReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             m = S.leadingMonomial();
             e = m.getKey();
             a = m.getValue();
-            for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
-                if (mt)
-                    break;
+            int[] dv = wi.divisor(e);
+            mt = (dv != null);
+            if (mt) {
+                i = dv[0];
             }
             if (!mt) {
                 //logger.debug("irred");
@@ -212,7 +246,7 @@ public class WordReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
                 // System.out.println("S = " + S);
             } else {
                 g = e;
-                Word[] elr = e.divideWord(htl[i]);
+                Word[] elr = e.divideWordAt(htl[i], dv[1]);
                 e = elr[0];
                 Word f = elr[1];
                 if (debug) {
@@ -345,6 +379,7 @@ public class WordReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             }
         }
         l = j;
+        WordIndex wi = wordIndex(htl, l);
         Word e;
         C a;
         boolean mt = false;
@@ -360,10 +395,10 @@ public class WordReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             m = S.leadingMonomial();
             e = m.getKey();
             a = m.getValue();
-            for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
-                if (mt)
-                    break;
+            int[] dv = wi.divisor(e);
+            mt = (dv != null);
+            if (mt) {
+                i = dv[0];
             }
             if (!mt) {
                 //logger.info("irred_1");
@@ -372,7 +407,7 @@ public class WordReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
                 // System.out.println(" S = " + S);
             } else {
                 Word g = e;
-                Word[] elr = e.divideWord(htl[i]);
+                Word[] elr = e.divideWordAt(htl[i], dv[1]);
                 e = elr[0];
                 Word f = elr[1];
                 if (debug) {
@@ -470,6 +505,7 @@ public class WordReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             }
         }
         l = j;
+        WordIndex wi = wordIndex(htl, l);
         Word e;
         C a;
         boolean mt = false;
@@ -485,10 +521,10 @@ public class WordReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             m = S.leadingMonomial();
             e = m.getKey();
             a = m.getValue();
-            for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
-                if (mt)
-                    break;
+            int[] dv = wi.divisor(e);
+            mt = (dv != null);
+            if (mt) {
+                i = dv[0];
             }
             if (!mt) {
                 //logger.info("irred_1");
@@ -497,7 +533,7 @@ public class WordReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
                 // System.out.println(" S = " + S);
             } else {
                 Word g = e;
-                Word[] elr = e.divideWord(htl[i]);
+                Word[] elr = e.divideWordAt(htl[i], dv[1]);
                 e = elr[0];
                 Word f = elr[1];
                 if (debug) {
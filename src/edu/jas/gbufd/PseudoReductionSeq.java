@@ -14,6 +14,8 @@ import org.apache.logging.log4j.LogManager;
 import edu.jas.gb.ReductionAbstract;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GeoBucket;
+import edu.jas.poly.Monomial;
 import edu.jas.poly.PolyUtil;
 import edu.jas.structure.RingElem;
 
@@ -87,11 +89,11 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
         boolean mt = false;
         GenPolynomial<C> R = Ap.ring.getZERO().copy();
 
-        GenPolynomial<C> S = Ap.copy();
-        while (S.length() > 0) {
-            m = S.leadingMonomial();
-            e = m.getKey();
-            a = m.getValue();
+        GeoBucket<C> S = new GeoBucket<C>(Ap);
+        Monomial<C> mo;
+        while ((mo = S.leadingMonomial()) != null) {
+            e = mo.e;
+            a = mo.c;
             for (i = 0; i < l; i++) {
                 mt = e.multipleOf(htl[i]);
                 if (mt)
@@ -102,7 +104,7 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
                 //R = R.sum(a, e);
                 //S = S.subtract(a, e);
                 R.doPutToMap(e, a);
-                S.doRemoveFromMap(e, a);
+                S.pollLeadingMonomial();
                 //System.out.println(" S = " + S);
             } else {
                 f = e.subtract(htl[i]);
@@ -111,18 +113,18 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
                 C c = (C) lbc[i];
                 if (a.remainder(c).isZERO()) { //c.isUnit() ) {
                     b = a.divide(c);
-                    GenPolynomial<C> Sp = S.subtractMultiple(b, f, p[i]);
-                    if (e.equals(Sp.leadingExpVector())) { // TODO: avoid if possible
-                        logger.info("degree not descending: S = {}, Sp = {}", S, Sp);
+                    if (a.subtract(b.multiply(c)).isZERO()) {
+                        S.subtractMultiple(b, f, p[i]);
+                    } else { // degree would not be descending
+                        logger.info("degree not descending: S = {}, a = {}, c = {}", S, a, c);
                         R = R.multiply(c);
                         //S = S.multiply(c);
-                        Sp = S.scaleSubtractMultiple(c, a, f, p[i]);
+                        S.scaleSubtractMultiple(c, a, f, p[i]);
                     }
-                    S = Sp;                    
                 } else {
                     R = R.multiply(c);
                     //S = S.multiply(c);
-                    S = S.scaleSubtractMultiple(c, a, f, p[i]);
+                    S.scaleSubtractMultiple(c, a, f, p[i]);
                 }
                 //Q = p[i].multiply(a, e);
                 //S = S.subtract(Q);
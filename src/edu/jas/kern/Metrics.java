@@ -0,0 +1,686 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.kern;
+
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Computation metrics, defines global counters, timers and histograms which
+ * algorithms report into. Metrics are identified by names like
+ * <code>gb.pairs.created</code> and are usually kept in static final fields
+ * of the reporting class. Recording is disabled by default, then a report
+ * costs one volatile read. The metrics can be observed by MetricsListeners,
+ * read via snapshot() or as text report via toText(), and through JMX after
+ * registerMBean().
+ * @see edu.jas.kern.MetricsListener
+ * @see edu.jas.kern.MetricsMXBean
+ * @author Heinz Kredel
+ */
+
+public class Metrics {
+
+
+    private static final Logger logger = LogManager.getLogger(Metrics.class);
+
+
+    /**
+     * Name of the JMX MBean.
+     */
+    public static final String MBEAN_NAME = "edu.jas:type=Metrics";
+
+
+    /**
+     * Global status flag.
+     */
+    private static volatile boolean active = false;
+
+
+    /**
+     * Registered metrics.
+     */
+    private static final ConcurrentMap<String, Metric> metrics = new ConcurrentHashMap<String, Metric>();
+
+
+    /**
+     * Registered listeners.
+     */
+    private static final CopyOnWriteArrayList<MetricsListener> listeners = new CopyOnWriteArrayList<MetricsListener>();
+
+
+    /**
+     * Flag for registered listeners, avoids iterator creation.
+     */
+    private static volatile boolean listening = false;
+
+
+    /**
+     * No public constructor.
+     */
+    protected Metrics() {
+    }
+
+
+    /**
+     * isActive.
+     * @return true, if metrics are recorded, else false.
+     */
+    public static boolean isActive() {
+        return active;
+    }
+
+
+    /**
+     * setActive, start recording of metrics.
+     */
+    public static void setActive() {
+        active = true;
+    }
+
+
+    /**
+     * setNotActive, stop recording of metrics.
+     */
+    public static void setNotActive() {
+        active = false;
+    }
+
+
+    /**
+     * Get or create a counter.
+     * @param name name of the counter.
+     * @return the counter with this name.
+     */
+    public static Counter counter(String name) {
+        return (Counter) register(new Counter(name));
+    }
+
+
+    /**
+     * Get or create a histogram.
+     * @param name name of the histogram.
+     * @return the histogram with this name.
+     */
+    public static Histogram histogram(String name) {
+        return (Histogram) register(new Histogram(name));
+    }
+
+
+    /**
+     * Get or create a timer.
+     * @param name name of the timer.
+     * @return the timer with this name.
+     */
+    public static Timer timer(String name) {
+        return (Timer) register(new Timer(name));
+    }
+
+
+    /**
+     * Register a metric, if there is none with the same name.
+     * @param m metric.
+     * @return the registered metric with the name of m.
+     */
+    private static Metric register(Metric m) {
+        Metric o = metrics.putIfAbsent(m.name, m);
+        if (o == null) {
+            return m;
+        }
+        if (o.getClass() != m.getClass()) {
+            throw new IllegalArgumentException("metric " + m.name + " is a " + o.type());
+        }
+        return o;
+    }
+
+
+    /**
+     * Get a metric.
+     * @param name name of the metric.
+     * @return the metric with this name or null.
+     */
+    public static Metric get(String name) {
+        return metrics.get(name);
+    }
+
+
+    /**
+     * Reset all metrics to zero.
+     */
+    public static void reset() {
+        for (Metric m : metrics.values()) {
+            m.reset();
+        }
+    }
+
+
+    /**
+     * Snapshot of all metrics. Counters are mapped to their values,
+     * histograms and timers to their count, sum, min, max and mean.
+     * @return sorted map from metric names to values.
+     */
+    public static SortedMap<String, Number> snapshot() {
+        SortedMap<String, Number> s = new TreeMap<String, Number>();
+        for (Metric m : metrics.values()) {
+            m.snapshot(s);
+        }
+        return s;
+    }
+
+
+    /**
+     * Add a listener.
+     * @param l listener to be informed about every recorded value.
+     */
+    public static void addListener(MetricsListener l) {
+        listeners.add(l);
+        listening = true;
+    }
+
+
+    /**
+     * Remove a listener.
+     * @param l listener.
+     */
+    public static void removeListener(MetricsListener l) {
+        listeners.remove(l);
+        listening = !listeners.isEmpty();
+    }
+
+
+    /**
+     * Inform the listeners.
+     * @param m metric.
+     * @param v recorded value.
+     */
+    static void fire(Metric m, long v) {
+        if (!listening) {
+            return;
+        }
+        for (MetricsListener l : listeners) {
+            try {
+                l.update(m, v);
+            } catch (RuntimeException e) {
+                logger.warn("listener {} failed: {}", l, e);
+            }
+        }
+    }
+
+
+    /**
+     * Register the metrics with the platform MBean server.
+     * @return true, if the MBean has been registered, false if it was already
+     *         registered.
+     */
+    public static boolean registerMBean() {
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName on = new ObjectName(MBEAN_NAME);
+            if (mbs.isRegistered(on)) {
+                return false;
+            }
+            mbs.registerMBean(new MBean(), on);
+            logger.info("registered {}", on);
+            return true;
+        } catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+
+    /**
+     * Unregister the metrics from the platform MBean server.
+     */
+    public static void unregisterMBean() {
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName on = new ObjectName(MBEAN_NAME);
+            if (mbs.isRegistered(on)) {
+                mbs.unregisterMBean(on);
+            }
+        } catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+
+    /**
+     * String representation of all non-zero metrics.
+     * @return metrics, one per line.
+     */
+    public static String toText() {
+        StringBuffer s = new StringBuffer();
+        SortedMap<String, Metric> sm = new TreeMap<String, Metric>(metrics);
+        for (Metric m : sm.values()) {
+            if (m.isZERO()) {
+                continue;
+            }
+            s.append(m.toString());
+            s.append("\n");
+        }
+        return s.toString();
+    }
+
+
+    /**
+     * Named metric.
+     */
+    public static abstract class Metric {
+
+
+        /**
+         * Name of the metric.
+         */
+        public final String name;
+
+
+        Metric(String name) {
+            this.name = name;
+        }
+
+
+        /**
+         * Type of the metric.
+         * @return counter, histogram or timer.
+         */
+        public abstract String type();
+
+
+        /**
+         * Reset to zero.
+         */
+        public abstract void reset();
+
+
+        /**
+         * Test if nothing has been recorded.
+         * @return true, if no value is recorded since the last reset.
+         */
+        public abstract boolean isZERO();
+
+
+        abstract void snapshot(Map<String, Number> s);
+    }
+
+
+    /**
+     * Counter of events.
+     */
+    public static final class Counter extends Metric {
+
+
+        private final LongAdder count = new LongAdder();
+
+
+        Counter(String name) {
+            super(name);
+        }
+
+
+        /**
+         * Count one event.
+         */
+        public void inc() {
+            if (!active) {
+                return;
+            }
+            count.increment();
+            fire(this, 1L);
+        }
+
+
+        /**
+         * Count events.
+         * @param n number of events.
+         */
+        public void add(long n) {
+            if (!active) {
+                return;
+            }
+            count.add(n);
+            fire(this, n);
+        }
+
+
+        /**
+         * Get the value.
+         * @return number of counted events.
+         */
+        public long get() {
+            return count.sum();
+        }
+
+
+        @Override
+        public String type() {
+            return "counter";
+        }
+
+
+        @Override
+        public void reset() {
+            count.reset();
+        }
+
+
+        @Override
+        public boolean isZERO() {
+            return get() == 0L;
+        }
+
+
+        @Override
+        void snapshot(Map<String, Number> s) {
+            s.put(name, get());
+        }
+
+
+        @Override
+        public String toString() {
+            return name + " = " + get();
+        }
+    }
+
+
+    /**
+     * Histogram of non-negative values with buckets for powers of two.
+     */
+    public static class Histogram extends Metric {
+
+
+        private final LongAdder count = new LongAdder();
+
+
+        private final LongAdder sum = new LongAdder();
+
+
+        private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+
+        private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+
+        /**
+         * Bucket i counts values v with 2^(i-1) &le; v &lt; 2^i, bucket 0
+         * counts v &le; 0.
+         */
+        private final AtomicLongArray buckets = new AtomicLongArray(65);
+
+
+        Histogram(String name) {
+            super(name);
+        }
+
+
+        /**
+         * Record a value.
+         * @param v value.
+         */
+        public void record(long v) {
+            if (!active) {
+                return;
+            }
+            count.increment();
+            sum.add(v);
+            min.accumulateAndGet(v, Math::min);
+            max.accumulateAndGet(v, Math::max);
+            buckets.incrementAndGet(v <= 0L ? 0 : 64 - Long.numberOfLeadingZeros(v));
+            fire(this, v);
+        }
+
+
+        /**
+         * Get the number of values.
+         * @return number of recorded values.
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+
+        /**
+         * Get the sum.
+         * @return sum of recorded values.
+         */
+        public long getSum() {
+            return sum.sum();
+        }
+
+
+        /**
+         * Get the minimum.
+         * @return minimum of recorded values or 0.
+         */
+        public long getMin() {
+            long m = min.get();
+            return (m == Long.MAX_VALUE ? 0L : m);
+        }
+
+
+        /**
+         * Get the maximum.
+         * @return maximum of recorded values or 0.
+         */
+        public long getMax() {
+            long m = max.get();
+            return (m == Long.MIN_VALUE ? 0L : m);
+        }
+
+
+        /**
+         * Get the mean.
+         * @return mean of recorded values or 0.
+         */
+        public double getMean() {
+            long n = getCount();
+            if (n == 0L) {
+                return 0.0;
+            }
+            return (double) getSum() / n;
+        }
+
+
+        /**
+         * Get an upper bound for a quantile.
+         * @param q quantile, 0 &le; q &le; 1.
+         * @return the power of two bounding the q-quantile of the recorded
+         *         values.
+         */
+        public long quantileBound(double q) {
+            long n = getCount();
+            long k = (long) Math.ceil(q * n);
+            long s = 0L;
+            for (int i = 0; i < buckets.length(); i++) {
+                s += buckets.get(i);
+                if (s >= k && s > 0L) {
+                    return (i == 0 ? 0L : (i >= 63 ? Long.MAX_VALUE : 1L << i));
+                }
+            }
+            return getMax();
+        }
+
+
+        @Override
+        public String type() {
+            return "histogram";
+        }
+
+
+        @Override
+        public void reset() {
+            count.reset();
+            sum.reset();
+            min.set(Long.MAX_VALUE);
+            max.set(Long.MIN_VALUE);
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, 0L);
+            }
+        }
+
+
+        @Override
+        public boolean isZERO() {
+            return getCount() == 0L;
+        }
+
+
+        @Override
+        void snapshot(Map<String, Number> s) {
+            s.put(name + ".count", getCount());
+            s.put(name + ".sum", getSum());
+            s.put(name + ".min", getMin());
+            s.put(name + ".max", getMax());
+            s.put(name + ".mean", getMean());
+        }
+
+
+        @Override
+        public String toString() {
+            return name + " = " + getCount() + " values, sum = " + getSum() + ", min = " + getMin()
+                            + ", mean = " + getMean() + ", max = " + getMax();
+        }
+    }
+
+
+    /**
+     * Timer, a histogram of durations in nanoseconds.
+     */
+    public static final class Timer extends Histogram {
+
+
+        Timer(String name) {
+            super(name);
+        }
+
+
+        /**
+         * Start a measurement.
+         * @return start time in nanoseconds, 0 if not active.
+         */
+        public long start() {
+            if (!active) {
+                return 0L;
+            }
+            return System.nanoTime();
+        }
+
+
+        /**
+         * Stop a measurement.
+         * @param t start time from start().
+         */
+        public void stop(long t) {
+            if (t == 0L || !active) {
+                return;
+            }
+            record(System.nanoTime() - t);
+        }
+
+
+        @Override
+        public String type() {
+            return "timer";
+        }
+
+
+        @Override
+        public String toString() {
+            return name + " = " + getCount() + " calls, " + (getSum() / 1000000L) + " ms, max = "
+                            + (getMax() / 1000000L) + " ms";
+        }
+    }
+
+
+    /**
+     * JMX view of the metrics.
+     */
+    static final class MBean implements MetricsMXBean {
+
+
+        public boolean isActive() {
+            return Metrics.isActive();
+        }
+
+
+        public void setActive(boolean a) {
+            if (a) {
+                Metrics.setActive();
+            } else {
+                Metrics.setNotActive();
+            }
+        }
+
+
+        public Map<String, Long> getCounters() {
+            Map<String, Long> s = new TreeMap<String, Long>();
+            for (Metric m : metrics.values()) {
+                if (m instanceof Counter) {
+                    s.put(m.name, ((Counter) m).get());
+                }
+            }
+            return s;
+        }
+
+
+        public Map<String, Long> getCounts() {
+            Map<String, Long> s = new TreeMap<String, Long>();
+            for (Metric m : metrics.values()) {
+                if (m instanceof Histogram) {
+                    s.put(m.name, ((Histogram) m).getCount());
+                }
+            }
+            return s;
+        }
+
+
+        public Map<String, Long> getTotals() {
+            Map<String, Long> s = new TreeMap<String, Long>();
+            for (Metric m : metrics.values()) {
+                if (m instanceof Histogram) {
+                    s.put(m.name, ((Histogram) m).getSum());
+                }
+            }
+            return s;
+        }
+
+
+        public Map<String, Long> getMaxima() {
+            Map<String, Long> s = new TreeMap<String, Long>();
+            for (Metric m : metrics.values()) {
+                if (m instanceof Histogram) {
+                    s.put(m.name, ((Histogram) m).getMax());
+                }
+            }
+            return s;
+        }
+
+
+        public String getText() {
+            return toText();
+        }
+
+
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+
+}
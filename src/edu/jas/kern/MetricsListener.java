@@ -0,0 +1,26 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.kern;
+
+
+/**
+ * Listener for computation metrics. Listeners are called synchronously in
+ * the reporting thread, so implementations must be thread-safe and fast.
+ * @see edu.jas.kern.Metrics
+ * @author Heinz Kredel
+ */
+
+public interface MetricsListener {
+
+
+    /**
+     * A value has been recorded.
+     * @param m metric.
+     * @param v recorded value, the increment for counters, the duration in
+     *            nanoseconds for timers.
+     */
+    public void update(Metrics.Metric m, long v);
+
+}
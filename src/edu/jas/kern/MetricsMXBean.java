@@ -0,0 +1,68 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.kern;
+
+
+import java.util.Map;
+
+
+/**
+ * JMX interface for computation metrics.
+ * @see edu.jas.kern.Metrics#registerMBean()
+ * @author Heinz Kredel
+ */
+
+public interface MetricsMXBean {
+
+
+    /**
+     * @return true, if metrics are recorded.
+     */
+    public boolean isActive();
+
+
+    /**
+     * @param a true to start, false to stop recording.
+     */
+    public void setActive(boolean a);
+
+
+    /**
+     * @return values of the counters.
+     */
+    public Map<String, Long> getCounters();
+
+
+    /**
+     * @return number of recorded values of histograms and timers.
+     */
+    public Map<String, Long> getCounts();
+
+
+    /**
+     * @return sums of recorded values of histograms and timers, in
+     *         nanoseconds for timers.
+     */
+    public Map<String, Long> getTotals();
+
+
+    /**
+     * @return maxima of recorded values of histograms and timers.
+     */
+    public Map<String, Long> getMaxima();
+
+
+    /**
+     * @return all non-zero metrics as text.
+     */
+    public String getText();
+
+
+    /**
+     * Reset all metrics to zero.
+     */
+    public void reset();
+
+}
@@ -0,0 +1,656 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.ModInt;
+import edu.jas.arith.ModIntRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.arith.ModularNotInvertibleException;
+import edu.jas.structure.NotInvertibleException;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Dense univariate polynomial with coefficients modulo a small modulus.
+ * Coefficients are stored unboxed in a long array, index i holds the
+ * coefficient of x^i. The modulus of ModLongRing and ModIntRing is less than
+ * 2^31, so all products fit into a long and the inner loops do not allocate.
+ * Used as fast path for univariate polynomials over ModLong and ModInt
+ * coefficients, conversions from and to GenPolynomial are provided. Objects of
+ * this class are immutable.
+ * @author Heinz Kredel
+ */
+
+public final class DenseModPolynomial implements Serializable {
+
+
+    /**
+     * Limit for lazy reduction of sums of products.
+     */
+    private static final long LIMIT = 1L << 62;
+
+
+    /**
+     * The modulus.
+     */
+    public final long modul;
+
+
+    /**
+     * Coefficient array, val[i] is the coefficient of x^i. Zero has length 0,
+     * else val[val.length-1] != 0.
+     */
+    final long[] val;
+
+
+    /**
+     * Constructor, uses the array without copy.
+     * @param m modulus.
+     * @param v reduced coefficients, v[i] in [0,m).
+     * @param deg degree, index of the highest possibly non zero coefficient.
+     */
+    private DenseModPolynomial(long m, long[] v, int deg) {
+        modul = m;
+        while (deg >= 0 && v[deg] == 0L) {
+            deg--;
+        }
+        val = (deg + 1 == v.length) ? v : Arrays.copyOf(v, deg + 1);
+    }
+
+
+    /**
+     * Constructor.
+     * @param m modulus, 1 &lt; m &lt; 2^31.
+     * @param v coefficients, v[i] is the coefficient of x^i.
+     */
+    public DenseModPolynomial(long m, long[] v) {
+        this(m, reduce(m, v), v.length - 1);
+    }
+
+
+    /**
+     * Constructor for constant polynomials.
+     * @param m modulus, 1 &lt; m &lt; 2^31.
+     * @param c constant.
+     */
+    public DenseModPolynomial(long m, long c) {
+        this(m, new long[] { c });
+    }
+
+
+    /**
+     * Reduce coefficients.
+     * @param m modulus.
+     * @param v coefficients.
+     * @return new array with coefficients in [0,m).
+     */
+    private static long[] reduce(long m, long[] v) {
+        if (m <= 1L || m > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("modul out of range " + m);
+        }
+        long[] w = new long[v.length];
+        for (int i = 0; i < v.length; i++) {
+            long a = v[i] % m;
+            w[i] = (a < 0L ? a + m : a);
+        }
+        return w;
+    }
+
+
+    /**
+     * Test if the coefficients of a polynomial ring can be represented.
+     * @param cf coefficient factory.
+     * @return true if cf is a ModLongRing or ModIntRing, else false.
+     */
+    public static boolean isApplicable(RingFactory<?> cf) {
+        return cf instanceof ModLongRing || cf instanceof ModIntRing;
+    }
+
+
+    /**
+     * Modulus of a coefficient factory.
+     * @param cf ModLongRing or ModIntRing coefficient factory.
+     * @return modulus of cf.
+     */
+    public static long modul(RingFactory<?> cf) {
+        if (cf instanceof ModLongRing) {
+            return ((ModLongRing) cf).modul;
+        }
+        if (cf instanceof ModIntRing) {
+            return ((ModIntRing) cf).modul;
+        }
+        throw new IllegalArgumentException("no ModLongRing or ModIntRing " + cf);
+    }
+
+
+    /**
+     * Value of a coefficient.
+     * @param c ModLong or ModInt coefficient.
+     * @return value of c in [0,modul).
+     */
+    public static long value(RingElem<?> c) {
+        if (c instanceof ModLong) {
+            return ((ModLong) c).val;
+        }
+        if (c instanceof ModInt) {
+            return ((ModInt) c).val;
+        }
+        throw new IllegalArgumentException("no ModLong or ModInt " + c);
+    }
+
+
+    /**
+     * Conversion from GenPolynomial.
+     * @param p univariate polynomial with ModLong or ModInt coefficients.
+     * @return dense polynomial of p.
+     */
+    public static <C extends RingElem<C>> DenseModPolynomial fromGenPolynomial(GenPolynomial<C> p) {
+        if (p.ring.nvar != 1) {
+            throw new IllegalArgumentException("only for univariate polynomials");
+        }
+        long m = modul(p.ring.coFac);
+        if (p.isZERO()) {
+            return new DenseModPolynomial(m, new long[0], -1);
+        }
+        int d = (int) p.degree(0);
+        long[] v = new long[d + 1];
+        for (Monomial<C> t : p) {
+            v[(int) t.exponent().getVal(0)] = value(t.coefficient());
+        }
+        return new DenseModPolynomial(m, v, d);
+    }
+
+
+    /**
+     * Conversion to GenPolynomial.
+     * @param fac univariate polynomial ring with ModLong or ModInt
+     *            coefficients and the same modulus.
+     * @return this as GenPolynomial in fac.
+     */
+    public <C extends RingElem<C>> GenPolynomial<C> toGenPolynomial(GenPolynomialRing<C> fac) {
+        GenPolynomial<C> p = fac.getZERO().copy();
+        for (int i = val.length - 1; i >= 0; i--) {
+            if (val[i] != 0L) {
+                p.doPutToMap(ExpVector.create(1, 0, i), fac.coFac.fromInteger(val[i]));
+            }
+        }
+        return p;
+    }
+
+
+    /**
+     * Univariate polynomial x^e.
+     * @param m modulus.
+     * @param e exponent.
+     * @return x^e mod m.
+     */
+    public static DenseModPolynomial univariate(long m, int e) {
+        long[] v = new long[e + 1];
+        v[e] = 1L;
+        return new DenseModPolynomial(m, v);
+    }
+
+
+    /**
+     * Degree.
+     * @return degree of this, -1 for zero.
+     */
+    public int degree() {
+        return val.length - 1;
+    }
+
+
+    /**
+     * Coefficient.
+     * @param i exponent.
+     * @return coefficient of x^i.
+     */
+    public long coefficient(int i) {
+        return (i < val.length ? val[i] : 0L);
+    }
+
+
+    /**
+     * Leading coefficient.
+     * @return leading coefficient, 0 for zero.
+     */
+    public long leadingCoefficient() {
+        return (val.length == 0 ? 0L : val[val.length - 1]);
+    }
+
+
+    /**
+     * Is zero.
+     * @return true if this is 0, else false.
+     */
+    public boolean isZERO() {
+        return val.length == 0;
+    }
+
+
+    /**
+     * Is one.
+     * @return true if this is 1, else false.
+     */
+    public boolean isONE() {
+        return val.length == 1 && val[0] == 1L;
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object B) {
+        if (!(B instanceof DenseModPolynomial)) {
+            return false;
+        }
+        DenseModPolynomial b = (DenseModPolynomial) B;
+        return modul == b.modul && Arrays.equals(val, b.val);
+    }
+
+
+    /**
+     * Hash code for this polynomial.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(modul) + Arrays.hashCode(val);
+    }
+
+
+    /**
+     * String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int i = val.length - 1; i >= 0; i--) {
+            if (val[i] == 0L) {
+                continue;
+            }
+            if (s.length() > 0) {
+                s.append(" + ");
+            }
+            if (val[i] != 1L || i == 0) {
+                s.append(val[i]);
+                if (i > 0) {
+                    s.append(" ");
+                }
+            }
+            if (i > 0) {
+                s.append("x");
+                if (i > 1) {
+                    s.append("^").append(i);
+                }
+            }
+        }
+        if (s.length() == 0) {
+            s.append("0");
+        }
+        return s.append(" mod(").append(modul).append(")").toString();
+    }
+
+
+    /**
+     * Sum.
+     * @param S dense polynomial with the same modulus.
+     * @return this+S.
+     */
+    public DenseModPolynomial sum(DenseModPolynomial S) {
+        int n = Math.max(val.length, S.val.length);
+        long[] v = Arrays.copyOf(val, n);
+        for (int i = 0; i < S.val.length; i++) {
+            long a = v[i] + S.val[i];
+            v[i] = (a >= modul ? a - modul : a);
+        }
+        return new DenseModPolynomial(modul, v, n - 1);
+    }
+
+
+    /**
+     * Difference.
+     * @param S dense polynomial with the same modulus.
+     * @return this-S.
+     */
+    public DenseModPolynomial subtract(DenseModPolynomial S) {
+        int n = Math.max(val.length, S.val.length);
+        long[] v = Arrays.copyOf(val, n);
+        for (int i = 0; i < S.val.length; i++) {
+            long a = v[i] - S.val[i];
+            v[i] = (a < 0L ? a + modul : a);
+        }
+        return new DenseModPolynomial(modul, v, n - 1);
+    }
+
+
+    /**
+     * Negation.
+     * @return -this.
+     */
+    public DenseModPolynomial negate() {
+        long[] v = new long[val.length];
+        for (int i = 0; i < v.length; i++) {
+            v[i] = (val[i] == 0L ? 0L : modul - val[i]);
+        }
+        return new DenseModPolynomial(modul, v, v.length - 1);
+    }
+
+
+    /**
+     * Multiplication by a constant.
+     * @param c constant in [0,modul).
+     * @return this*c.
+     */
+    public DenseModPolynomial multiply(long c) {
+        long[] v = new long[val.length];
+        for (int i = 0; i < v.length; i++) {
+            v[i] = (val[i] * c) % modul;
+        }
+        return new DenseModPolynomial(modul, v, v.length - 1);
+    }
+
+
+    /**
+     * Product.
+     * @param S dense polynomial with the same modulus.
+     * @return this*S.
+     */
+    public DenseModPolynomial multiply(DenseModPolynomial S) {
+        if (val.length == 0 || S.val.length == 0) {
+            return new DenseModPolynomial(modul, new long[0], -1);
+        }
+        long[] v = new long[val.length + S.val.length - 1];
+        int d = multiply(val, val.length - 1, S.val, S.val.length - 1, v, modul);
+        return new DenseModPolynomial(modul, v, d);
+    }
+
+
+    /**
+     * Monic polynomial.
+     * @return this with leading coefficient 1.
+     */
+    public DenseModPolynomial monic() {
+        if (val.length == 0 || leadingCoefficient() == 1L) {
+            return this;
+        }
+        return multiply(inverse(leadingCoefficient(), modul));
+    }
+
+
+    /**
+     * Quotient and remainder.
+     * @param S non zero dense polynomial with the same modulus.
+     * @return [ this/S, this - (this/S)*S ].
+     */
+    public DenseModPolynomial[] quotientRemainder(DenseModPolynomial S) {
+        if (S.val.length == 0) {
+            throw new ArithmeticException("division by zero");
+        }
+        int db = S.val.length - 1;
+        int da = val.length - 1;
+        if (da < db) {
+            return new DenseModPolynomial[] { new DenseModPolynomial(modul, new long[0], -1), this };
+        }
+        long[] r = val.clone();
+        long[] q = new long[da - db + 1];
+        long li = inverse(S.val[db], modul);
+        for (int i = da; i >= db; i--) {
+            long c = (r[i] * li) % modul;
+            q[i - db] = c;
+            if (c != 0L) {
+                subtractMultiple(r, i - db, c, S.val, db, modul);
+            }
+        }
+        return new DenseModPolynomial[] { new DenseModPolynomial(modul, q, q.length - 1),
+                new DenseModPolynomial(modul, r, db - 1) };
+    }
+
+
+    /**
+     * Quotient.
+     * @param S non zero dense polynomial with the same modulus.
+     * @return this/S.
+     */
+    public DenseModPolynomial divide(DenseModPolynomial S) {
+        return quotientRemainder(S)[0];
+    }
+
+
+    /**
+     * Remainder.
+     * @param S non zero dense polynomial with the same modulus.
+     * @return this - (this/S)*S.
+     */
+    public DenseModPolynomial remainder(DenseModPolynomial S) {
+        if (S.val.length == 0) {
+            throw new ArithmeticException("division by zero");
+        }
+        if (val.length < S.val.length) {
+            return this;
+        }
+        long[] r = val.clone();
+        int d = remainder(r, r.length - 1, S.val, S.val.length - 1, modul);
+        return new DenseModPolynomial(modul, r, d);
+    }
+
+
+    /**
+     * Greatest common divisor, the modulus must be prime.
+     * @param S dense polynomial with the same modulus.
+     * @return monic gcd(this,S).
+     */
+    public DenseModPolynomial gcd(DenseModPolynomial S) {
+        if (S.val.length == 0) {
+            return monic();
+        }
+        if (val.length == 0) {
+            return S.monic();
+        }
+        long[] a = val.clone();
+        long[] b = S.val.clone();
+        int da = a.length - 1;
+        int db = b.length - 1;
+        if (da < db) {
+            long[] t = a;
+            a = b;
+            b = t;
+            int s = da;
+            da = db;
+            db = s;
+        }
+        while (db >= 0) {
+            da = remainder(a, da, b, db, modul);
+            long[] t = a;
+            a = b;
+            b = t;
+            int s = da;
+            da = db;
+            db = s;
+        }
+        return new DenseModPolynomial(modul, a, da).monic();
+    }
+
+
+    /**
+     * Modular power.
+     * @param e non negative exponent.
+     * @param M non zero modulus polynomial.
+     * @return this^e mod M.
+     */
+    public DenseModPolynomial modPower(java.math.BigInteger e, DenseModPolynomial M) {
+        if (e.signum() < 0) {
+            throw new IllegalArgumentException("negative exponent " + e);
+        }
+        int dm = M.val.length - 1;
+        if (dm < 0) {
+            throw new ArithmeticException("division by zero");
+        }
+        if (dm == 0) {
+            return new DenseModPolynomial(modul, new long[0], -1);
+        }
+        // b = this mod M, r = 1, t scratch for products
+        long[] b = new long[Math.max(val.length, 2 * dm - 1)];
+        System.arraycopy(val, 0, b, 0, val.length);
+        int db = remainder(b, val.length - 1, M.val, dm, modul);
+        long[] r = new long[2 * dm - 1];
+        r[0] = 1L;
+        int dr = 0;
+        long[] t = new long[2 * dm - 1];
+        int n = e.bitLength();
+        for (int i = 0; i < n; i++) {
+            if (e.testBit(i)) {
+                int dt = multiply(r, dr, b, db, t, modul);
+                dr = remainder(t, dt, M.val, dm, modul);
+                long[] s = r;
+                r = t;
+                t = s;
+            }
+            if (i + 1 < n) {
+                int dt = multiply(b, db, b, db, t, modul);
+                db = remainder(t, dt, M.val, dm, modul);
+                long[] s = b;
+                b = t;
+                t = s;
+            }
+        }
+        return new DenseModPolynomial(modul, r, dr);
+    }
+
+
+    /**
+     * Modular power.
+     * @param e non negative exponent.
+     * @param M non zero modulus polynomial.
+     * @return this^e mod M.
+     */
+    public DenseModPolynomial modPower(long e, DenseModPolynomial M) {
+        return modPower(java.math.BigInteger.valueOf(e), M);
+    }
+
+
+    /**
+     * Product of coefficient arrays. r must have length at least da+db+1 and
+     * must not be one of a or b.
+     * @param a coefficients of degree da.
+     * @param da degree of a, -1 for zero.
+     * @param b coefficients of degree db.
+     * @param db degree of b, -1 for zero.
+     * @param r result array, overwritten.
+     * @param m modulus.
+     * @return degree of a*b, -1 for zero.
+     */
+    static int multiply(long[] a, int da, long[] b, int db, long[] r, long m) {
+        if (da < 0 || db < 0) {
+            return -1;
+        }
+        int dr = da + db;
+        for (int k = 0; k <= dr; k++) {
+            int lo = Math.max(0, k - db);
+            int hi = Math.min(k, da);
+            long s = 0L;
+            for (int i = lo; i <= hi; i++) {
+                s += a[i] * b[k - i];
+                if (s >= LIMIT) {
+                    s %= m;
+                }
+            }
+            r[k] = s % m;
+        }
+        while (dr >= 0 && r[dr] == 0L) {
+            dr--;
+        }
+        return dr;
+    }
+
+
+    /**
+     * In place remainder of coefficient arrays.
+     * @param a coefficients of degree da, overwritten by the remainder.
+     * @param da degree of a, -1 for zero.
+     * @param b coefficients of degree db &ge; 0, b[db] != 0.
+     * @param db degree of b.
+     * @param m modulus.
+     * @return degree of the remainder, -1 for zero.
+     */
+    static int remainder(long[] a, int da, long[] b, int db, long m) {
+        if (da < db) {
+            return da;
+        }
+        long li = inverse(b[db], m);
+        for (int i = da; i >= db; i--) {
+            long c = a[i];
+            if (c == 0L) {
+                continue;
+            }
+            c = (c * li) % m;
+            subtractMultiple(a, i - db, c, b, db, m);
+        }
+        int d = db - 1;
+        while (d >= 0 && a[d] == 0L) {
+            d--;
+        }
+        return d;
+    }
+
+
+    /**
+     * Subtract a multiple c*x^s*b from a.
+     * @param a coefficients, overwritten.
+     * @param s shift.
+     * @param c factor in [0,m).
+     * @param b coefficients.
+     * @param db degree of b.
+     * @param m modulus.
+     */
+    static void subtractMultiple(long[] a, int s, long c, long[] b, int db, long m) {
+        long nc = m - c;
+        for (int j = 0; j <= db; j++) {
+            a[s + j] = (a[s + j] + nc * b[j]) % m;
+        }
+    }
+
+
+    /**
+     * Modular inverse.
+     * @param a element in [0,m).
+     * @param m modulus.
+     * @return b with a*b = 1 mod m.
+     */
+    public static long inverse(long a, long m) {
+        if (a == 0L) {
+            throw new NotInvertibleException("zero is not invertible");
+        }
+        long x = a;
+        long y = m;
+        long x1 = 1L;
+        long y1 = 0L;
+        while (y != 0L) {
+            long q = x / y;
+            long r = x - q * y;
+            x = y;
+            y = r;
+            long r1 = x1 - q * y1;
+            x1 = y1;
+            y1 = r1;
+        }
+        if (x != 1L) {
+            throw new ModularNotInvertibleException("element not invertible, gcd != 1", new BigInteger(m),
+                            new BigInteger(x), new BigInteger(m / x));
+        }
+        return (x1 < 0L ? x1 + m : x1);
+    }
+
+}
@@ -58,7 +58,7 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
      * Storage representation of exponent arrays.
      */
     public static enum StorUnit {
-        LONG, INT, SHORT, BYTE
+        LONG, INT, SHORT, BYTE, PACKED
     };
 
 
@@ -91,6 +91,8 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
             return new ExpVectorShort(n);
         case BYTE:
             return new ExpVectorByte(n);
+        case PACKED:
+            return new ExpVectorPacked(n);
         default:
             return new ExpVectorInteger(n);
         }
@@ -113,6 +115,8 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
             return new ExpVectorShort(n, i, e);
         case BYTE:
             return new ExpVectorByte(n, i, e);
+        case PACKED:
+            return new ExpVectorPacked(n, i, e);
         default:
             return new ExpVectorInteger(n, i, e);
         }
@@ -133,6 +137,8 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
             return new ExpVectorShort(v);
         case BYTE:
             return new ExpVectorByte(v);
+        case PACKED:
+            return new ExpVectorPacked(v);
         default:
             return new ExpVectorInteger(v);
         }
@@ -154,6 +160,8 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
             return new ExpVectorShort(s);
         case BYTE:
             return new ExpVectorByte(s);
+        case PACKED:
+            return new ExpVectorPacked(s);
         default:
             return new ExpVectorInteger(s);
         }
@@ -0,0 +1,192 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+
+/**
+ * ExpVectorHeap implements a binary heap of exponent vectors with chains of
+ * index pairs. Used for heap based polynomial multiplication and division
+ * where the terms of a product are generated in term order. Index pairs with
+ * equal exponent vectors are chained in one heap node if they meet during
+ * insertion. The top of the heap is the least exponent vector with respect to
+ * the comparator, i.e. the largest term for a descending term order
+ * comparator.
+ * @author Heinz Kredel
+ */
+
+final class ExpVectorHeap {
+
+
+    /**
+     * Chain of index pairs with equal exponent vector.
+     */
+    static final class Chain {
+
+
+        /**
+         * Index of term in the first factor.
+         */
+        int row;
+
+
+        /**
+         * Index of term in the second factor.
+         */
+        int col;
+
+
+        /**
+         * Next index pair with the same exponent vector.
+         */
+        Chain next;
+
+
+        /**
+         * Constructor.
+         * @param i row index.
+         * @param j column index.
+         */
+        Chain(int i, int j) {
+            row = i;
+            col = j;
+        }
+    }
+
+
+    /**
+     * The comparator for the exponent vectors.
+     */
+    final Comparator<ExpVector> cmp;
+
+
+    /**
+     * Exponent vectors of the heap nodes.
+     */
+    ExpVector[] exps;
+
+
+    /**
+     * Chains of the heap nodes.
+     */
+    Chain[] chains;
+
+
+    /**
+     * Number of heap nodes.
+     */
+    int size;
+
+
+    /**
+     * Constructor.
+     * @param cmp comparator for exponent vectors.
+     * @param cap initial capacity.
+     */
+    ExpVectorHeap(Comparator<ExpVector> cmp, int cap) {
+        this.cmp = cmp;
+        if (cap < 1) {
+            cap = 1;
+        }
+        exps = new ExpVector[cap];
+        chains = new Chain[cap];
+        size = 0;
+    }
+
+
+    /**
+     * Test if heap is empty.
+     * @return true if there are no nodes.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    /**
+     * Exponent vector of the top node.
+     * @return least exponent vector with respect to the comparator.
+     */
+    ExpVector peek() {
+        return exps[0];
+    }
+
+
+    /**
+     * Insert an index pair with exponent vector e. If a node with exponent
+     * vector e is met on the way to the insertion point, the pair is chained
+     * there.
+     * @param e exponent vector.
+     * @param c index pair, c.next is overwritten.
+     */
+    void insert(ExpVector e, Chain c) {
+        int i = size;
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            int t = cmp.compare(e, exps[p]);
+            if (t == 0) {
+                c.next = chains[p];
+                chains[p] = c;
+                return;
+            }
+            if (t > 0) {
+                break;
+            }
+            i = p;
+        }
+        c.next = null;
+        if (size == exps.length) {
+            int cap = exps.length * 2;
+            exps = Arrays.copyOf(exps, cap);
+            chains = Arrays.copyOf(chains, cap);
+        }
+        for (int k = size; k > i; k = (k - 1) >>> 1) {
+            int p = (k - 1) >>> 1;
+            exps[k] = exps[p];
+            chains[k] = chains[p];
+        }
+        exps[i] = e;
+        chains[i] = c;
+        size++;
+    }
+
+
+    /**
+     * Remove the top node.
+     * @return chain of index pairs of the top node.
+     */
+    Chain poll() {
+        Chain top = chains[0];
+        size--;
+        ExpVector e = exps[size];
+        Chain c = chains[size];
+        exps[size] = null;
+        chains[size] = null;
+        if (size > 0) {
+            int i = 0;
+            int h = size >>> 1;
+            while (i < h) {
+                int k = 2 * i + 1;
+                int r = k + 1;
+                if (r < size && cmp.compare(exps[r], exps[k]) < 0) {
+                    k = r;
+                }
+                if (cmp.compare(e, exps[k]) <= 0) {
+                    break;
+                }
+                exps[i] = exps[k];
+                chains[i] = chains[k];
+                i = k;
+            }
+            exps[i] = e;
+            chains[i] = c;
+        }
+        return top;
+    }
+
+}
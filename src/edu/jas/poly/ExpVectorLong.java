@@ -710,16 +710,7 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public int invLexCompareTo(ExpVector V) {
-        long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
-        int t = 0;
-        for (int i = 0; i < u.length; i++) {
-            if (u[i] > v[i])
-                return 1;
-            if (u[i] < v[i])
-                return -1;
-        }
-        return t;
+        return invLexCompare(val, 0, ((ExpVectorLong) V).val, 0, 0, val.length);
     }
 
 
@@ -732,7 +723,6 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public int invLexCompareTo(ExpVector V, int begin, int end) {
-        long[] u = val;
         long[] v = ((ExpVectorLong) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -740,14 +730,7 @@ public final class ExpVectorLong extends ExpVector
         if (end >= val.length) {
             end = val.length;
         }
-        int t = 0;
-        for (int i = begin; i < end; i++) {
-            if (u[i] > v[i])
-                return 1;
-            if (u[i] < v[i])
-                return -1;
-        }
-        return t;
+        return invLexCompare(val, 0, v, 0, begin, end);
     }
 
 
@@ -758,37 +741,7 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public int invGradCompareTo(ExpVector V) {
-        long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
-        int t = 0;
-        int i;
-        for (i = 0; i < u.length; i++) {
-            if (u[i] > v[i]) {
-                t = 1;
-                break;
-            }
-            if (u[i] < v[i]) {
-                t = -1;
-                break;
-            }
-        }
-        if (t == 0) {
-            return t;
-        }
-        long up = 0;
-        long vp = 0;
-        for (int j = i; j < u.length; j++) {
-            up += u[j];
-            vp += v[j];
-        }
-        if (up > vp) {
-            t = 1;
-        } else {
-            if (up < vp) {
-                t = -1;
-            }
-        }
-        return t;
+        return invGradCompare(val, 0, ((ExpVectorLong) V).val, 0, 0, val.length);
     }
 
 
@@ -801,7 +754,6 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public int invGradCompareTo(ExpVector V, int begin, int end) {
-        long[] u = val;
         long[] v = ((ExpVectorLong) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -809,35 +761,7 @@ public final class ExpVectorLong extends ExpVector
         if (end >= val.length) {
             end = val.length;
         }
-        int t = 0;
-        int i;
-        for (i = begin; i < end; i++) {
-            if (u[i] > v[i]) {
-                t = 1;
-                break;
-            }
-            if (u[i] < v[i]) {
-                t = -1;
-                break;
-            }
-        }
-        if (t == 0) {
-            return t;
-        }
-        long up = 0;
-        long vp = 0;
-        for (int j = i; j < end; j++) {
-            up += u[j];
-            vp += v[j];
-        }
-        if (up > vp) {
-            t = 1;
-        } else {
-            if (up < vp) {
-                t = -1;
-            }
-        }
-        return t;
+        return invGradCompare(val, 0, v, 0, begin, end);
     }
 
 
@@ -848,16 +772,7 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public int revInvLexCompareTo(ExpVector V) {
-        long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
-        int t = 0;
-        for (int i = u.length - 1; i >= 0; i--) {
-            if (u[i] > v[i])
-                return 1;
-            if (u[i] < v[i])
-                return -1;
-        }
-        return t;
+        return revInvLexCompare(val, 0, ((ExpVectorLong) V).val, 0, 0, val.length);
     }
 
 
@@ -870,7 +785,6 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public int revInvLexCompareTo(ExpVector V, int begin, int end) {
-        long[] u = val;
         long[] v = ((ExpVectorLong) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -878,14 +792,7 @@ public final class ExpVectorLong extends ExpVector
         if (end >= val.length) {
             end = val.length;
         }
-        int t = 0;
-        for (int i = end - 1; i >= begin; i--) {
-            if (u[i] > v[i])
-                return 1;
-            if (u[i] < v[i])
-                return -1;
-        }
-        return t;
+        return revInvLexCompare(val, 0, v, 0, begin, end);
     }
 
 
@@ -896,50 +803,74 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public int revInvGradCompareTo(ExpVector V) {
-        long[] u = val;
+        return revInvGradCompare(val, 0, ((ExpVectorLong) V).val, 0, 0, val.length);
+    }
+
+
+    /**
+     * ExpVector reverse inverse graded compareTo.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revInvGradCompareTo(ExpVector V, int begin, int end) {
         long[] v = ((ExpVectorLong) V).val;
-        int t = 0;
-        int i;
-        for (i = u.length - 1; i >= 0; i--) {
-            if (u[i] > v[i]) {
-                t = 1;
-                break;
-            }
-            if (u[i] < v[i]) {
-                t = -1;
-                break;
-            }
-        }
-        if (t == 0) {
-            return t;
-        }
-        long up = 0;
-        long vp = 0;
-        for (int j = i; j >= 0; j--) {
-            up += u[j];
-            vp += v[j];
+        if (begin < 0) {
+            begin = 0;;
         }
-        if (up > vp) {
-            t = 1;
-        } else {
-            if (up < vp) {
-                t = -1;
-            }
+        if (end >= val.length) {
+            end = val.length;
         }
-        return t;
+        return revInvGradCompare(val, 0, v, 0, begin, end);
     }
 
 
     /**
-     * ExpVector reverse inverse graded compareTo.
+     * ExpVector inverse total degree lexicographical compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invTdegCompareTo(ExpVector V) {
+        return invTdegCompare(val, 0, ((ExpVectorLong) V).val, 0, val.length);
+    }
+
+
+    /**
+     * ExpVector reverse lexicographical inverse total degree compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revLexInvTdegCompareTo(ExpVector V) {
+        return revLexInvTdegCompare(val, 0, ((ExpVectorLong) V).val, 0, val.length);
+    }
+
+
+    /**
+     * ExpVector inverse weighted lexicographical compareTo.
+     * @param w weight array.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invWeightCompareTo(long[][] w, ExpVector V) {
+        return invWeightCompare(w, val, 0, ((ExpVectorLong) V).val, 0, 0, val.length);
+    }
+
+
+    /**
+     * ExpVector inverse weighted lexicographical compareTo.
+     * @param w weight array.
      * @param V
      * @param begin
      * @param end
      * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
      */
     @Override
-    public int revInvGradCompareTo(ExpVector V, int begin, int end) {
-        long[] u = val;
+    public int invWeightCompareTo(long[][] w, ExpVector V, int begin, int end) {
         long[] v = ((ExpVectorLong) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -947,14 +878,58 @@ public final class ExpVectorLong extends ExpVector
         if (end >= val.length) {
             end = val.length;
         }
+        return invWeightCompare(w, val, 0, v, 0, begin, end);
+    }
+
+
+    /*
+     * Comparisons of exponent vectors packed in long arrays. The exponents
+     * of U are u[i+begin] to u[i+end-1], the exponents of V are v[j+begin] to
+     * v[j+end-1]. Used by the compareTo methods and by TermOrder for
+     * TermArrayMap, where no ExpVector objects are created.
+     */
+
+
+    /**
+     * Inverse lexicographical compare of packed exponents.
+     * @param u exponents of U.
+     * @param i start index of U in u.
+     * @param v exponents of V.
+     * @param j start index of V in v.
+     * @param begin first exponent to compare.
+     * @param end exponent after the last one to compare.
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    static int invLexCompare(long[] u, int i, long[] v, int j, int begin, int end) {
+        for (int k = begin; k < end; k++) {
+            if (u[i + k] > v[j + k])
+                return 1;
+            if (u[i + k] < v[j + k])
+                return -1;
+        }
+        return 0;
+    }
+
+
+    /**
+     * Inverse graded lexicographical compare of packed exponents.
+     * @param u exponents of U.
+     * @param i start index of U in u.
+     * @param v exponents of V.
+     * @param j start index of V in v.
+     * @param begin first exponent to compare.
+     * @param end exponent after the last one to compare.
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    static int invGradCompare(long[] u, int i, long[] v, int j, int begin, int end) {
         int t = 0;
-        int i;
-        for (i = end - 1; i >= begin; i--) {
-            if (u[i] > v[i]) {
+        int k;
+        for (k = begin; k < end; k++) {
+            if (u[i + k] > v[j + k]) {
                 t = 1;
                 break;
             }
-            if (u[i] < v[i]) {
+            if (u[i + k] < v[j + k]) {
                 t = -1;
                 break;
             }
@@ -964,9 +939,9 @@ public final class ExpVectorLong extends ExpVector
         }
         long up = 0;
         long vp = 0;
-        for (int j = i; j >= begin; j--) {
-            up += u[j];
-            vp += v[j];
+        for (int l = k; l < end; l++) {
+            up += u[i + l];
+            vp += v[j + l];
         }
         if (up > vp) {
             t = 1;
@@ -980,22 +955,45 @@ public final class ExpVectorLong extends ExpVector
 
 
     /**
-     * ExpVector inverse total degree lexicographical compareTo.
-     * @param V
+     * Reverse inverse lexicographical compare of packed exponents.
+     * @param u exponents of U.
+     * @param i start index of U in u.
+     * @param v exponents of V.
+     * @param j start index of V in v.
+     * @param begin first exponent to compare.
+     * @param end exponent after the last one to compare.
      * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
      */
-    @Override
-    public int invTdegCompareTo(ExpVector V) {
-        long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+    static int revInvLexCompare(long[] u, int i, long[] v, int j, int begin, int end) {
+        for (int k = end - 1; k >= begin; k--) {
+            if (u[i + k] > v[j + k])
+                return 1;
+            if (u[i + k] < v[j + k])
+                return -1;
+        }
+        return 0;
+    }
+
+
+    /**
+     * Reverse inverse graded compare of packed exponents.
+     * @param u exponents of U.
+     * @param i start index of U in u.
+     * @param v exponents of V.
+     * @param j start index of V in v.
+     * @param begin first exponent to compare.
+     * @param end exponent after the last one to compare.
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    static int revInvGradCompare(long[] u, int i, long[] v, int j, int begin, int end) {
         int t = 0;
-        int i;
-        for (i = 0; i < u.length; i++) {
-            if (u[i] < v[i]) {
+        int k;
+        for (k = end - 1; k >= begin; k--) {
+            if (u[i + k] > v[j + k]) {
                 t = 1;
                 break;
             }
-            if (u[i] > v[i]) {
+            if (u[i + k] < v[j + k]) {
                 t = -1;
                 break;
             }
@@ -1005,9 +1003,9 @@ public final class ExpVectorLong extends ExpVector
         }
         long up = 0;
         long vp = 0;
-        for (int j = i; j < u.length; j++) {
-            up += u[j];
-            vp += v[j];
+        for (int l = k; l >= begin; l--) {
+            up += u[i + l];
+            vp += v[j + l];
         }
         if (up > vp) {
             t = 1;
@@ -1021,22 +1019,23 @@ public final class ExpVectorLong extends ExpVector
 
 
     /**
-     * ExpVector reverse lexicographical inverse total degree compareTo.
-     * @param V
+     * Inverse total degree lexicographical compare of packed exponents.
+     * @param u exponents of U.
+     * @param i start index of U in u.
+     * @param v exponents of V.
+     * @param j start index of V in v.
+     * @param n number of exponents.
      * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
      */
-    @Override
-    public int revLexInvTdegCompareTo(ExpVector V) {
-        long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+    static int invTdegCompare(long[] u, int i, long[] v, int j, int n) {
         int t = 0;
-        int i;
-        for (i = u.length - 1; i >= 0; i--) {
-            if (u[i] < v[i]) {
+        int k;
+        for (k = 0; k < n; k++) {
+            if (u[i + k] < v[j + k]) {
                 t = 1;
                 break;
             }
-            if (u[i] > v[i]) {
+            if (u[i + k] > v[j + k]) {
                 t = -1;
                 break;
             }
@@ -1046,12 +1045,12 @@ public final class ExpVectorLong extends ExpVector
         }
         long up = 0;
         long vp = 0;
-        for (int j = i; j >= 0; j--) {
-            up += u[j];
-            vp += v[j];
+        for (int l = k; l < n; l++) {
+            up += u[i + l];
+            vp += v[j + l];
         }
         if (up > vp) {
-            t = 1; 
+            t = 1;
         } else {
             if (up < vp) {
                 t = -1;
@@ -1062,23 +1061,24 @@ public final class ExpVectorLong extends ExpVector
 
 
     /**
-     * ExpVector inverse weighted lexicographical compareTo.
-     * @param w weight array.
-     * @param V
+     * Reverse lexicographical inverse total degree compare of packed
+     * exponents.
+     * @param u exponents of U.
+     * @param i start index of U in u.
+     * @param v exponents of V.
+     * @param j start index of V in v.
+     * @param n number of exponents.
      * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
      */
-    @Override
-    public int invWeightCompareTo(long[][] w, ExpVector V) {
-        long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+    static int revLexInvTdegCompare(long[] u, int i, long[] v, int j, int n) {
         int t = 0;
-        int i;
-        for (i = 0; i < u.length; i++) {
-            if (u[i] > v[i]) {
+        int k;
+        for (k = n - 1; k >= 0; k--) {
+            if (u[i + k] < v[j + k]) {
                 t = 1;
                 break;
             }
-            if (u[i] < v[i]) {
+            if (u[i + k] > v[j + k]) {
                 t = -1;
                 break;
             }
@@ -1086,18 +1086,17 @@ public final class ExpVectorLong extends ExpVector
         if (t == 0) {
             return t;
         }
-        for (int k = 0; k < w.length; k++) {
-            long[] wk = w[k];
-            long up = 0;
-            long vp = 0;
-            for (int j = i; j < u.length; j++) {
-                up += wk[j] * u[j];
-                vp += wk[j] * v[j];
-            }
-            if (up > vp) {
-                return 1;
-            } else if (up < vp) {
-                return -1;
+        long up = 0;
+        long vp = 0;
+        for (int l = k; l >= 0; l--) {
+            up += u[i + l];
+            vp += v[j + l];
+        }
+        if (up > vp) {
+            t = 1;
+        } else {
+            if (up < vp) {
+                t = -1;
             }
         }
         return t;
@@ -1105,31 +1104,25 @@ public final class ExpVectorLong extends ExpVector
 
 
     /**
-     * ExpVector inverse weighted lexicographical compareTo.
+     * Inverse weighted lexicographical compare of packed exponents.
      * @param w weight array.
-     * @param V
-     * @param begin
-     * @param end
+     * @param u exponents of U.
+     * @param i start index of U in u.
+     * @param v exponents of V.
+     * @param j start index of V in v.
+     * @param begin first exponent to compare.
+     * @param end exponent after the last one to compare.
      * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
      */
-    @Override
-    public int invWeightCompareTo(long[][] w, ExpVector V, int begin, int end) {
-        long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
-        if (begin < 0) {
-            begin = 0;;
-        }
-        if (end >= val.length) {
-            end = val.length;
-        }
+    static int invWeightCompare(long[][] w, long[] u, int i, long[] v, int j, int begin, int end) {
         int t = 0;
-        int i;
-        for (i = begin; i < end; i++) {
-            if (u[i] > v[i]) {
+        int k;
+        for (k = begin; k < end; k++) {
+            if (u[i + k] > v[j + k]) {
                 t = 1;
                 break;
             }
-            if (u[i] < v[i]) {
+            if (u[i + k] < v[j + k]) {
                 t = -1;
                 break;
             }
@@ -1137,13 +1130,13 @@ public final class ExpVectorLong extends ExpVector
         if (t == 0) {
             return t;
         }
-        for (int k = 0; k < w.length; k++) {
-            long[] wk = w[k];
+        for (int m = 0; m < w.length; m++) {
+            long[] wm = w[m];
             long up = 0;
             long vp = 0;
-            for (int j = i; j < end; j++) {
-                up += wk[j] * u[j];
-                vp += wk[j] * v[j];
+            for (int l = k; l < end; l++) {
+                up += wm[l] * u[i + l];
+                vp += wm[l] * v[j + l];
             }
             if (up > vp) {
                 return 1;
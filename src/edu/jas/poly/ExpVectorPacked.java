@@ -0,0 +1,1176 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * ExpVectorPacked implements exponent vectors for polynomials using packed
+ * arrays of long as storage unit. Four exponents of 16 bits are stored in each
+ * long, exponent 0 in the most significant bits of the first word. The total
+ * degree is stored in an extra field. Summation, subtraction, multipleOf, lcm,
+ * gcd and the (inverse) lexicographical and graded comparisons work on whole
+ * words. This class is used by ExpVector internally, there is no need to use
+ * this class directly.
+ * @see ExpVector
+ * @author Heinz Kredel
+ */
+
+public final class ExpVectorPacked extends ExpVector
+/*implements AbelianGroupElem<ExpVectorPacked>*/{
+
+
+    /**
+     * The data structure is an array of long with 4 exponents per long.
+     */
+    /*package*/final long[] val;
+
+
+    /**
+     * Number of exponents.
+     */
+    /*package*/final int len;
+
+
+    /**
+     * Total degree, sum of all exponents.
+     */
+    /*package*/long deg;
+
+
+    /**
+     * Largest exponent.
+     */
+    public static final long maxPacked = (long) Short.MAX_VALUE / 2;
+
+
+    /**
+     * Smallest exponent.
+     */
+    public static final long minPacked = (long) Short.MIN_VALUE / 2;
+
+
+    /**
+     * Mask of the sign bits of all exponents in a word.
+     */
+    static final long HIGH = 0x8000800080008000L;
+
+
+    /**
+     * Mask of one exponent.
+     */
+    static final long LANE = 0xFFFFL;
+
+
+    /**
+     * Constructor for ExpVector.
+     * @param n length of exponent vector.
+     */
+    public ExpVectorPacked(int n) {
+        this(n, new long[words(n)], 0L);
+    }
+
+
+    /**
+     * Constructor for ExpVector. Sets exponent i to e.
+     * @param n length of exponent vector.
+     * @param i index of exponent to be set.
+     * @param e exponent to be set.
+     */
+    public ExpVectorPacked(int n, int i, long e) {
+        this(n);
+        if (e >= maxPacked || e <= minPacked) {
+            throw new IllegalArgumentException("exponent to large: " + e);
+        }
+        setLane(val, i, e);
+        deg = e;
+    }
+
+
+    /**
+     * Internal constructor for ExpVector. Sets val.
+     * @param n length of exponent vector.
+     * @param v internal representation array.
+     * @param d total degree.
+     */
+    protected ExpVectorPacked(int n, long[] v, long d) {
+        super();
+        len = n;
+        val = v;
+        deg = d;
+    }
+
+
+    /**
+     * Constructor for ExpVector. Sets val, converts from long array.
+     * @param v long representation array.
+     */
+    public ExpVectorPacked(long[] v) {
+        this(v.length);
+        long d = 0L;
+        for (int i = 0; i < v.length; i++) {
+            if (v[i] >= maxPacked || v[i] <= minPacked) {
+                throw new IllegalArgumentException("exponent to large: " + v[i]);
+            }
+            setLane(val, i, v[i]);
+            d += v[i];
+        }
+        deg = d;
+    }
+
+
+    /**
+     * Constructor for ExpVector. Converts a String representation to an
+     * ExpVector. Accepted format = (1,2,3,4,5,6,7).
+     * @param s String representation.
+     */
+    public ExpVectorPacked(String s) throws NumberFormatException {
+        this(parse(s));
+    }
+
+
+    /**
+     * Parse a String representation. Accepted format = (1,2,3,4,5,6,7).
+     * @param s String representation.
+     * @return long array of exponents.
+     */
+    static long[] parse(String s) throws NumberFormatException {
+        List<Long> exps = new ArrayList<Long>();
+        s = s.trim();
+        int b = s.indexOf('(');
+        int e = s.indexOf(')', b + 1);
+        String teil;
+        int k;
+        if (b < 0 || e < 0) {
+            throw new NumberFormatException("invalid exponent vector: " + s);
+        }
+        b++;
+        while ((k = s.indexOf(',', b)) >= 0) {
+            teil = s.substring(b, k);
+            exps.add(Long.parseLong(teil.trim()));
+            b = k + 1;
+        }
+        if (b < e) {
+            teil = s.substring(b, e);
+            exps.add(Long.parseLong(teil.trim()));
+        }
+        long[] v = new long[exps.size()];
+        for (int j = 0; j < v.length; j++) {
+            v[j] = exps.get(j);
+        }
+        return v;
+    }
+
+
+    /**
+     * Number of words for n exponents.
+     * @param n number of exponents.
+     * @return number of long words.
+     */
+    static int words(int n) {
+        return (n + 3) >>> 2;
+    }
+
+
+    /**
+     * Bit position of exponent i in its word.
+     * @param i index of exponent.
+     * @return shift.
+     */
+    static int shift(int i) {
+        return 48 - ((i & 3) << 4);
+    }
+
+
+    /**
+     * Get exponent i from packed words.
+     * @param w packed words.
+     * @param i index of exponent.
+     * @return signed exponent.
+     */
+    static long lane(long[] w, int i) {
+        return (short) (w[i >>> 2] >>> shift(i));
+    }
+
+
+    /**
+     * Set exponent i in packed words.
+     * @param w packed words.
+     * @param i index of exponent.
+     * @param e exponent.
+     */
+    static void setLane(long[] w, int i, long e) {
+        int s = shift(i);
+        w[i >>> 2] = (w[i >>> 2] & ~(LANE << s)) | ((e & LANE) << s);
+    }
+
+
+    /**
+     * Exponent wise sum of two words, without carries between exponents.
+     * @param u packed word.
+     * @param v packed word.
+     * @return packed word u+v.
+     */
+    static long add(long u, long v) {
+        return ((u & ~HIGH) + (v & ~HIGH)) ^ ((u ^ v) & HIGH);
+    }
+
+
+    /**
+     * Exponent wise difference of two words, without borrows between
+     * exponents.
+     * @param u packed word.
+     * @param v packed word.
+     * @return packed word u-v.
+     */
+    static long sub(long u, long v) {
+        return ((u | HIGH) - (v & ~HIGH)) ^ ((u ^ ~v) & HIGH);
+    }
+
+
+    /**
+     * Mask of exponents where u is less than v.
+     * @param u packed word.
+     * @param v packed word.
+     * @return packed word with all bits of an exponent set if u &lt; v there.
+     */
+    static long lessMask(long u, long v) {
+        return ((sub(u, v) & HIGH) >>> 15) * LANE;
+    }
+
+
+    /**
+     * Value of other.
+     * @param e other ExpVector.
+     * @return value in sub class of ExpVector.
+     */
+    //@Override
+    public static ExpVector valueOf(ExpVector e) {
+        return new ExpVectorPacked(e.getVal());
+    }
+
+
+    /**
+     * Clone this.
+     * @see java.lang.Object#clone()
+     */
+    @Override
+    public ExpVectorPacked copy() {
+        return new ExpVectorPacked(len, Arrays.copyOf(val, val.length), deg);
+    }
+
+
+    /**
+     * Get the exponent vector.
+     * @return val as long.
+     */
+    @Override
+    public long[] getVal() {
+        long v[] = new long[len];
+        for (int i = 0; i < len; i++) {
+            v[i] = lane(val, i);
+        }
+        return v;
+    }
+
+
+    /**
+     * Get the exponent at position i.
+     * @param i position.
+     * @return val[i].
+     */
+    @Override
+    public long getVal(int i) {
+        if (i < 0 || i >= len) {
+            throw new ArrayIndexOutOfBoundsException(i);
+        }
+        return lane(val, i);
+    }
+
+
+    /**
+     * Set the exponent at position i to e.
+     * @param i
+     * @param e
+     * @return old val[i].
+     */
+    @Override
+    protected long setVal(int i, long e) {
+        long x = getVal(i);
+        if (e >= maxPacked || e <= minPacked) {
+            throw new IllegalArgumentException("exponent to large: " + e);
+        }
+        setLane(val, i, e);
+        deg += e - x;
+        hash = -1; // beware of race condition
+        return x;
+    }
+
+
+    /**
+     * Get the length of this exponent vector.
+     * @return val.length.
+     */
+    @Override
+    public int length() {
+        return len;
+    }
+
+
+    /**
+     * Extend variables. Used e.g. in module embedding. Extend this by i
+     * elements and set val[j] to e.
+     * @param i number of elements to extend.
+     * @param j index of element to be set.
+     * @param e new exponent for val[j].
+     * @return extended exponent vector.
+     */
+    @Override
+    public ExpVectorPacked extend(int i, int j, long e) {
+        long[] w = new long[len + i];
+        for (int k = 0; k < len; k++) {
+            w[i + k] = lane(val, k);
+        }
+        if (j >= i) {
+            throw new IllegalArgumentException("i " + i + " <= j " + j + " invalid");
+        }
+        w[j] = e;
+        return new ExpVectorPacked(w);
+    }
+
+
+    /**
+     * Extend lower variables. Extend this by i lower elements and set val[j] to
+     * e.
+     * @param i number of elements to extend.
+     * @param j index of element to be set.
+     * @param e new exponent for val[j].
+     * @return extended exponent vector.
+     */
+    @Override
+    public ExpVectorPacked extendLower(int i, int j, long e) {
+        long[] w = new long[len + i];
+        for (int k = 0; k < len; k++) {
+            w[k] = lane(val, k);
+        }
+        if (j >= i) {
+            throw new IllegalArgumentException("i " + i + " <= j " + j + " invalid");
+        }
+        w[len + j] = e;
+        return new ExpVectorPacked(w);
+    }
+
+
+    /**
+     * Contract variables. Used e.g. in module embedding. Contract this to len
+     * elements.
+     * @param i position of first element to be copied.
+     * @param len new length.
+     * @return contracted exponent vector.
+     */
+    @Override
+    public ExpVectorPacked contract(int i, int len) {
+        if (i + len > this.len) {
+            throw new IllegalArgumentException("len " + len + " > val.len " + this.len);
+        }
+        long[] w = new long[len];
+        for (int k = 0; k < len; k++) {
+            w[k] = lane(val, i + k);
+        }
+        return new ExpVectorPacked(w);
+    }
+
+
+    /**
+     * Reverse variables. Used e.g. in opposite rings.
+     * @return reversed exponent vector.
+     */
+    @Override
+    public ExpVectorPacked reverse() {
+        long[] w = new long[len];
+        for (int i = 0; i < len; i++) {
+            w[i] = lane(val, len - 1 - i);
+        }
+        return new ExpVectorPacked(w);
+    }
+
+
+    /**
+     * Reverse lower j variables. Used e.g. in opposite rings. Reverses the
+     * first j-1 variables, the rest is unchanged.
+     * @param j index of first variable reversed.
+     * @return reversed exponent vector.
+     */
+    @Override
+    public ExpVectorPacked reverse(int j) {
+        if (j < 0 || j > len) {
+            return this;
+        }
+        long[] w = new long[len];
+        for (int i = 0; i < j; i++) {
+            w[i] = lane(val, i);
+        }
+        for (int i = j; i < len; i++) {
+            w[i] = lane(val, len + j - 1 - i);
+        }
+        return new ExpVectorPacked(w);
+    }
+
+
+    /**
+     * Combine with ExpVector. Combine this with the other ExpVector V.
+     * @param V the other exponent vector.
+     * @return combined exponent vector.
+     */
+    @Override
+    public ExpVectorPacked combine(ExpVector V) {
+        if (V == null || V.length() == 0) {
+            return this;
+        }
+        ExpVectorPacked Vi = (ExpVectorPacked) V;
+        if (len == 0) {
+            return Vi;
+        }
+        long[] w = new long[len + Vi.len];
+        for (int i = 0; i < len; i++) {
+            w[i] = lane(val, i);
+        }
+        for (int i = 0; i < Vi.len; i++) {
+            w[len + i] = lane(Vi.val, i);
+        }
+        return new ExpVectorPacked(w);
+    }
+
+
+    /**
+     * Permutation of exponent vector.
+     * @param P permutation.
+     * @return P(e).
+     */
+    @Override
+    public ExpVectorPacked permutation(List<Integer> P) {
+        long[] w = new long[len];
+        int j = 0;
+        for (Integer i : P) {
+            w[j++] = lane(val, i);
+        }
+        return new ExpVectorPacked(w);
+    }
+
+
+    /**
+     * Get the string representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return super.toString() + ":packed";
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object B) {
+        if (!(B instanceof ExpVectorPacked)) {
+            return false;
+        }
+        ExpVectorPacked b = (ExpVectorPacked) B;
+        return len == b.len && deg == b.deg && Arrays.equals(val, b.val);
+    }
+
+
+    /**
+     * hashCode for this exponent vector.
+     * @see java.lang.Object#hashCode() Only for findbugs.
+     */
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+
+    /**
+     * ExpVector absolute value.
+     * @return abs(this).
+     */
+    @Override
+    public ExpVectorPacked abs() {
+        if (signum() >= 0) {
+            return this;
+        }
+        long[] w = new long[len];
+        for (int i = 0; i < len; i++) {
+            w[i] = Math.abs(lane(val, i));
+        }
+        return new ExpVectorPacked(w);
+        //return EVABS(this);
+    }
+
+
+    /**
+     * ExpVector negate.
+     * @return -this.
+     */
+    @Override
+    public ExpVectorPacked negate() {
+        long[] u = val;
+        long[] w = new long[u.length];
+        for (int i = 0; i < u.length; i++) {
+            w[i] = sub(0L, u[i]);
+        }
+        return new ExpVectorPacked(len, w, -deg);
+        // return EVNEG(this);
+    }
+
+
+    /**
+     * ExpVector summation.
+     * @param V
+     * @return this+V.
+     */
+    @Override
+    public ExpVectorPacked sum(ExpVector V) {
+        ExpVectorPacked Vp = (ExpVectorPacked) V;
+        long[] u = val;
+        long[] v = Vp.val;
+        long[] w = new long[u.length];
+        for (int i = 0; i < u.length; i++) {
+            w[i] = add(u[i], v[i]);
+        }
+        return new ExpVectorPacked(len, w, deg + Vp.deg);
+        // return EVSUM(this, V);
+    }
+
+
+    /**
+     * ExpVector subtract. Result may have negative entries.
+     * @param V
+     * @return this-V.
+     */
+    @Override
+    public ExpVectorPacked subtract(ExpVector V) {
+        ExpVectorPacked Vp = (ExpVectorPacked) V;
+        long[] u = val;
+        long[] v = Vp.val;
+        long[] w = new long[u.length];
+        for (int i = 0; i < u.length; i++) {
+            w[i] = sub(u[i], v[i]);
+        }
+        return new ExpVectorPacked(len, w, deg - Vp.deg);
+        //return EVDIF(this, V);
+    }
+
+
+    /**
+     * ExpVector multiply by scalar.
+     * @param s scalar
+     * @return s*this.
+     */
+    @Override
+    public ExpVectorPacked scalarMultiply(long s) {
+        long[] w = new long[len];
+        for (int i = 0; i < len; i++) {
+            w[i] = s * lane(val, i);
+        }
+        return new ExpVectorPacked(w);
+    }
+
+
+    /**
+     * ExpVector substitution. Clone and set exponent to d at position i.
+     * @param i position.
+     * @param d new exponent.
+     * @return substituted ExpVector.
+     */
+    @Override
+    public ExpVectorPacked subst(int i, long d) {
+        ExpVectorPacked V = this.copy();
+        //long e =
+        V.setVal(i, d);
+        return V;
+        //return EVSU(this, i, d);
+    }
+
+
+    /**
+     * ExpVector signum.
+     * @return 0 if this is zero, -1 if some entry is negative, 1 if no entry is
+     *         negative and at least one entry is positive.
+     */
+    @Override
+    public int signum() {
+        int t = 0;
+        long[] u = val;
+        for (int i = 0; i < u.length; i++) {
+            if ((u[i] & HIGH) != 0L) {
+                return -1;
+            }
+            if (u[i] != 0L) {
+                t = 1;
+            }
+        }
+        return t;
+        //return EVSIGN(this);
+    }
+
+
+    /**
+     * ExpVector total degree.
+     * @return sum of all exponents.
+     */
+    @Override
+    public long totalDeg() {
+        return deg;
+        //return EVTDEG(this);
+    }
+
+
+    /**
+     * ExpVector maximal degree.
+     * @return maximal exponent.
+     */
+    @Override
+    public long maxDeg() {
+        long t = 0;
+        for (int i = 0; i < len; i++) {
+            long e = lane(val, i);
+            if (e > t) {
+                t = e;
+            }
+        }
+        return t;
+        //return EVMDEG(this);
+    }
+
+
+    /**
+     * ExpVector minimal degree.
+     * @return minimal exponent.
+     */
+    @Override
+    public long minDeg() {
+        long t = Short.MAX_VALUE;
+        for (int i = 0; i < len; i++) {
+            long e = lane(val, i);
+            if (e < t) {
+                t = e;
+            }
+        }
+        return t;
+    }
+
+
+    /**
+     * ExpVector weighted degree.
+     * @param w weights.
+     * @return weighted sum of all exponents.
+     */
+    @Override
+    public long weightDeg(long[][] w) {
+        if (w == null || w.length == 0) {
+            return totalDeg(); // assume weight 1
+        }
+        long t = 0;
+        for (int j = 0; j < w.length; j++) {
+            long[] wj = w[j];
+            for (int i = 0; i < len; i++) {
+                t += wj[i] * lane(val, i);
+            }
+        }
+        return t;
+    }
+
+
+    /**
+     * ExpVector weighted degree.
+     * @param w weights.
+     * @return weighted sum of all exponents.
+     */
+    @Override
+    public long weightDeg(long[] w) {
+        if (w == null || w.length == 0) {
+            return totalDeg(); // assume weight 1
+        }
+        long t = 0;
+        for (int i = 0; i < w.length; i++) {
+            t += w[i] * lane(val, i);
+        }
+        return t;
+    }
+
+
+    /**
+     * ExpVector least common multiple.
+     * @param V
+     * @return component wise maximum of this and V.
+     */
+    @Override
+    public ExpVectorPacked lcm(ExpVector V) {
+        long[] u = val;
+        long[] v = ((ExpVectorPacked) V).val;
+        long[] w = new long[u.length];
+        long d = 0L;
+        for (int i = 0; i < u.length; i++) {
+            long m = lessMask(u[i], v[i]);
+            w[i] = (u[i] & ~m) | (v[i] & m);
+            d += laneSum(w[i]);
+        }
+        return new ExpVectorPacked(len, w, d);
+        //return EVLCM(this, V);
+    }
+
+
+    /**
+     * ExpVector greatest common divisor.
+     * @param V
+     * @return component wise minimum of this and V.
+     */
+    @Override
+    public ExpVectorPacked gcd(ExpVector V) {
+        long[] u = val;
+        long[] v = ((ExpVectorPacked) V).val;
+        long[] w = new long[u.length];
+        long d = 0L;
+        for (int i = 0; i < u.length; i++) {
+            long m = lessMask(u[i], v[i]);
+            w[i] = (u[i] & m) | (v[i] & ~m);
+            d += laneSum(w[i]);
+        }
+        return new ExpVectorPacked(len, w, d);
+        //return EVGCD(this, V);
+    }
+
+
+    /**
+     * Sum of the exponents in a word.
+     * @param w packed word.
+     * @return sum of the 4 signed exponents.
+     */
+    static long laneSum(long w) {
+        return (short) (w >>> 48) + (short) (w >>> 32) + (short) (w >>> 16) + (short) w;
+    }
+
+
+    /**
+     * ExpVector dependent variables.
+     * @return number of indices where val has positive exponents.
+     */
+    public int dependentVariables() {
+        int l = 0;
+        for (int i = 0; i < len; i++) {
+            if (lane(val, i) > 0) {
+                l++;
+            }
+        }
+        return l;
+    }
+
+
+    /**
+     * ExpVector dependency on variables.
+     * @return array of indices where val has positive exponents.
+     */
+    @Override
+    public int[] dependencyOnVariables() {
+        int l = dependentVariables();
+        int[] dep = new int[l];
+        if (l == 0) {
+            return dep;
+        }
+        int j = 0;
+        for (int i = 0; i < len; i++) {
+            if (lane(val, i) > 0) {
+                dep[j] = i;
+                j++;
+            }
+        }
+        return dep;
+    }
+
+
+    /**
+     * ExpVector multiple test. Test if this is component wise greater or equal
+     * to V.
+     * @param V
+     * @return true if this is a multiple of V, else false.
+     */
+    @Override
+    public boolean multipleOf(ExpVector V) {
+        ExpVectorPacked Vp = (ExpVectorPacked) V;
+        if (deg < Vp.deg) {
+            return false;
+        }
+        long[] u = val;
+        long[] v = Vp.val;
+        for (int i = 0; i < u.length; i++) {
+            if ((sub(u[i], v[i]) & HIGH) != 0L) {
+                return false;
+            }
+        }
+        return true;
+        //return EVMT(this, V);
+    }
+
+
+    /**
+     * ExpVector compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int compareTo(ExpVector V) {
+        return this.invLexCompareTo(V);
+    }
+
+
+    /**
+     * ExpVector inverse lexicographical compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invLexCompareTo(ExpVector V) {
+        long[] u = val;
+        long[] v = ((ExpVectorPacked) V).val;
+        for (int i = 0; i < u.length; i++) {
+            if (u[i] != v[i]) {
+                // flipped sign bits give unsigned order of signed exponents
+                return Long.compareUnsigned(u[i] ^ HIGH, v[i] ^ HIGH) > 0 ? 1 : -1;
+            }
+        }
+        return 0;
+        //return EVILCP(this, V);
+    }
+
+
+    /**
+     * ExpVector inverse lexicographical compareTo.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invLexCompareTo(ExpVector V, int begin, int end) {
+        long[] v = ((ExpVectorPacked) V).val;
+        if (begin < 0) {
+            begin = 0;
+        }
+        if (end >= len) {
+            end = len;
+        }
+        for (int i = begin; i < end; i++) {
+            long a = lane(val, i);
+            long b = lane(v, i);
+            if (a > b)
+                return 1;
+            if (a < b)
+                return -1;
+        }
+        return 0;
+        //return EVILCP(this, V, begin, end);
+    }
+
+
+    /**
+     * ExpVector inverse graded lexicographical compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invGradCompareTo(ExpVector V) {
+        // the degree of the tail after the first difference decides
+        long vd = ((ExpVectorPacked) V).deg;
+        if (deg != vd) {
+            return deg > vd ? 1 : -1;
+        }
+        return invLexCompareTo(V);
+        //return EVIGLC(this, V);
+    }
+
+
+    /**
+     * ExpVector inverse graded lexicographical compareTo.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invGradCompareTo(ExpVector V, int begin, int end) {
+        long[] v = ((ExpVectorPacked) V).val;
+        if (begin < 0) {
+            begin = 0;
+        }
+        if (end >= len) {
+            end = len;
+        }
+        int t = 0;
+        int i;
+        for (i = begin; i < end; i++) {
+            long a = lane(val, i);
+            long b = lane(v, i);
+            if (a > b) {
+                t = 1;
+                break;
+            }
+            if (a < b) {
+                t = -1;
+                break;
+            }
+        }
+        if (t == 0) {
+            return t;
+        }
+        long up = 0;
+        long vp = 0;
+        for (int j = i; j < end; j++) {
+            up += lane(val, j);
+            vp += lane(v, j);
+        }
+        if (up > vp) {
+            t = 1;
+        } else {
+            if (up < vp) {
+                t = -1;
+            }
+        }
+        return t;
+        //return EVIGLC(this, V, begin, end);
+    }
+
+
+    /**
+     * ExpVector reverse inverse lexicographical compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revInvLexCompareTo(ExpVector V) {
+        long[] u = val;
+        long[] v = ((ExpVectorPacked) V).val;
+        for (int k = u.length - 1; k >= 0; k--) {
+            long x = u[k] ^ v[k];
+            if (x != 0L) {
+                // last differing exponent is in the least significant bits
+                int s = Long.numberOfTrailingZeros(x) & ~15;
+                long a = (short) (u[k] >>> s);
+                long b = (short) (v[k] >>> s);
+                return a > b ? 1 : -1;
+            }
+        }
+        return 0;
+        //return EVRILCP(this, V);
+    }
+
+
+    /**
+     * ExpVector reverse inverse lexicographical compareTo.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revInvLexCompareTo(ExpVector V, int begin, int end) {
+        long[] v = ((ExpVectorPacked) V).val;
+        if (begin < 0) {
+            begin = 0;
+        }
+        if (end >= len) {
+            end = len;
+        }
+        for (int i = end - 1; i >= begin; i--) {
+            long a = lane(val, i);
+            long b = lane(v, i);
+            if (a > b)
+                return 1;
+            if (a < b)
+                return -1;
+        }
+        return 0;
+        //return EVRILCP(this, V, begin, end);
+    }
+
+
+    /**
+     * ExpVector reverse inverse graded compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revInvGradCompareTo(ExpVector V) {
+        // the degree of the head before the last difference decides
+        long vd = ((ExpVectorPacked) V).deg;
+        if (deg != vd) {
+            return deg > vd ? 1 : -1;
+        }
+        return revInvLexCompareTo(V);
+        //return EVRIGLC(this, V);
+    }
+
+
+    /**
+     * ExpVector reverse inverse graded compareTo.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revInvGradCompareTo(ExpVector V, int begin, int end) {
+        long[] v = ((ExpVectorPacked) V).val;
+        if (begin < 0) {
+            begin = 0;
+        }
+        if (end >= len) {
+            end = len;
+        }
+        int t = 0;
+        int i;
+        for (i = end - 1; i >= begin; i--) {
+            long a = lane(val, i);
+            long b = lane(v, i);
+            if (a > b) {
+                t = 1;
+                break;
+            }
+            if (a < b) {
+                t = -1;
+                break;
+            }
+        }
+        if (t == 0) {
+            return t;
+        }
+        long up = 0;
+        long vp = 0;
+        for (int j = i; j >= begin; j--) {
+            up += lane(val, j);
+            vp += lane(v, j);
+        }
+        if (up > vp) {
+            t = 1;
+        } else {
+            if (up < vp) {
+                t = -1;
+            }
+        }
+        return t;
+        //return EVRIGLC(this, V, begin, end);
+    }
+
+
+    /**
+     * ExpVector inverse total degree lexicographical compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invTdegCompareTo(ExpVector V) {
+        int t = -invLexCompareTo(V);
+        if (t == 0) {
+            return t;
+        }
+        long vd = ((ExpVectorPacked) V).deg;
+        if (deg != vd) {
+            return deg > vd ? 1 : -1;
+        }
+        return t;
+    }
+
+
+    /**
+     * ExpVector reverse lexicographical inverse total degree compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revLexInvTdegCompareTo(ExpVector V) {
+        int t = -revInvLexCompareTo(V);
+        if (t == 0) {
+            return t;
+        }
+        long vd = ((ExpVectorPacked) V).deg;
+        if (deg != vd) {
+            return deg > vd ? 1 : -1;
+        }
+        return t;
+    }
+
+
+    /**
+     * ExpVector inverse weighted lexicographical compareTo.
+     * @param w weight array.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invWeightCompareTo(long[][] w, ExpVector V) {
+        return invWeightCompareTo(w, V, 0, len);
+        //return EVIWLC(w, this, V);
+    }
+
+
+    /**
+     * ExpVector inverse weighted lexicographical compareTo.
+     * @param w weight array.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invWeightCompareTo(long[][] w, ExpVector V, int begin, int end) {
+        long[] v = ((ExpVectorPacked) V).val;
+        if (begin < 0) {
+            begin = 0;
+        }
+        if (end >= len) {
+            end = len;
+        }
+        int t = 0;
+        int i;
+        for (i = begin; i < end; i++) {
+            long a = lane(val, i);
+            long b = lane(v, i);
+            if (a > b) {
+                t = 1;
+                break;
+            }
+            if (a < b) {
+                t = -1;
+                break;
+            }
+        }
+        if (t == 0) {
+            return t;
+        }
+        for (int k = 0; k < w.length; k++) {
+            long[] wk = w[k];
+            long up = 0;
+            long vp = 0;
+            for (int j = i; j < end; j++) {
+                up += wk[j] * lane(val, j);
+                vp += wk[j] * lane(v, j);
+            }
+            if (up > vp) {
+                return 1;
+            } else if (up < vp) {
+                return -1;
+            }
+        }
+        return t;
+        //return EVIWLC(w, this, V, begin, end);
+    }
+
+}
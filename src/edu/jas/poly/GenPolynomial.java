@@ -8,8 +8,10 @@ package edu.jas.poly;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -40,7 +42,8 @@ import edu.jas.util.MapEntry;
  * respect the multiplication order.
  *
  * Objects of this class are intended to be immutable. The implementation is
- * based on TreeMap respectively SortedMap from exponents to coefficients. Only
+ * based on TreeMap respectively SortedMap from exponents to coefficients, or
+ * on sorted arrays in TermArrayMap if selected in the polynomial ring. Only
  * the coefficients are modeled with generic types, the exponents are fixed to
  * ExpVector with long entries (@see edu.jas.poly.ExpVector StorUnit). C can
  * also be a non integral domain, e.g. a ModInteger, i.e. it may contain zero
@@ -90,11 +93,11 @@ public class GenPolynomial<C extends RingElem<C>>
     /**
      * Private constructor for GenPolynomial.
      * @param r polynomial ring factory.
-     * @param t TreeMap with correct ordering.
+     * @param t empty TreeMap or TermArrayMap with correct ordering.
      */
-    private GenPolynomial(GenPolynomialRing<C> r, TreeMap<ExpVector, C> t) {
+    private GenPolynomial(GenPolynomialRing<C> r, AbstractMap<ExpVector, C> t) {
         ring = r;
-        val = t;
+        val = (SortedMap<ExpVector, C>) t; // TreeMap or TermArrayMap
         if (ring.checkPreempt) {
             if (Thread.currentThread().isInterrupted()) {
                 logger.debug("throw PreemptingException");
@@ -109,7 +112,35 @@ public class GenPolynomial<C extends RingElem<C>>
      * @param r polynomial ring factory.
      */
     public GenPolynomial(GenPolynomialRing<C> r) {
-        this(r, new TreeMap<ExpVector, C>(r.tord.getDescendComparator()));
+        this(r, newTermMap(r));
+    }
+
+
+    /**
+     * Create the internal term map as selected by the polynomial ring.
+     * @param r polynomial ring factory.
+     * @return new empty TermArrayMap if r.isArrayTerms(), else new TreeMap.
+     */
+    private static <C extends RingElem<C>> AbstractMap<ExpVector, C> newTermMap(GenPolynomialRing<C> r) {
+        if (r.arrayTerms) {
+            return new TermArrayMap<C>(r.tord);
+        }
+        return new TreeMap<ExpVector, C>(r.tord.getDescendComparator());
+    }
+
+
+    /**
+     * Terms of a term map for internal loops. The entries of a TermArrayMap
+     * are reused, so they must not be kept beyond the current term.
+     * @param m TreeMap or TermArrayMap.
+     * @return iterable over the terms of m.
+     */
+    @SuppressWarnings("unchecked")
+    static <C extends RingElem<C>> Iterable<Map.Entry<ExpVector, C>> terms(SortedMap<ExpVector, C> m) {
+        if (m instanceof TermArrayMap) {
+            return ((TermArrayMap<C>) m).terms();
+        }
+        return m.entrySet();
     }
 
 
@@ -595,8 +626,8 @@ public class GenPolynomial<C extends RingElem<C>>
         }
         SortedMap<ExpVector, C> av = this.val;
         SortedMap<ExpVector, C> bv = b.val;
-        Iterator<Map.Entry<ExpVector, C>> ai = av.entrySet().iterator();
-        Iterator<Map.Entry<ExpVector, C>> bi = bv.entrySet().iterator();
+        Iterator<Map.Entry<ExpVector, C>> ai = terms(av).iterator();
+        Iterator<Map.Entry<ExpVector, C>> bi = terms(bv).iterator();
         int s = 0;
         int c = 0;
         while (ai.hasNext() && bi.hasNext()) {
@@ -1062,10 +1093,14 @@ public class GenPolynomial<C extends RingElem<C>>
             return S.sum(this); // performance
         }
         assert (ring.nvar == S.ring.nvar);
-        GenPolynomial<C> n = this.copy();
+        GenPolynomial<C> n = sumMultipleArray(false, null, null, S);
+        if (n != null) {
+            return n;
+        }
+        n = this.copy();
         SortedMap<ExpVector, C> nv = n.val;
         SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
+        for (Map.Entry<ExpVector, C> me : terms(sv)) {
             ExpVector e = me.getKey();
             C y = me.getValue(); // assert y != null
             C x = nv.get(e);
@@ -1153,7 +1188,7 @@ public class GenPolynomial<C extends RingElem<C>>
         assert (ring.nvar == S.ring.nvar);
         SortedMap<ExpVector, C> nv = this.val;
         SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
+        for (Map.Entry<ExpVector, C> me : terms(sv)) {
             ExpVector e = me.getKey();
             C y = me.getValue(); // assert y != null
             C x = nv.get(e);
@@ -1222,10 +1257,14 @@ public class GenPolynomial<C extends RingElem<C>>
             return S.negate();
         }
         assert (ring.nvar == S.ring.nvar);
-        GenPolynomial<C> n = this.copy();
+        GenPolynomial<C> n = sumMultipleArray(true, null, null, S);
+        if (n != null) {
+            return n;
+        }
+        n = this.copy();
         SortedMap<ExpVector, C> nv = n.val;
         SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
+        for (Map.Entry<ExpVector, C> me : terms(sv)) {
             ExpVector e = me.getKey();
             C y = me.getValue(); // assert y != null
             C x = nv.get(e);
@@ -1311,10 +1350,14 @@ public class GenPolynomial<C extends RingElem<C>>
             return S.multiply(a.negate());
         }
         assert (ring.nvar == S.ring.nvar);
-        GenPolynomial<C> n = this.copy();
+        GenPolynomial<C> n = sumMultipleArray(true, a, null, S);
+        if (n != null) {
+            return n;
+        }
+        n = this.copy();
         SortedMap<ExpVector, C> nv = n.val;
         SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
+        for (Map.Entry<ExpVector, C> me : terms(sv)) {
             ExpVector f = me.getKey();
             C y = me.getValue(); // assert y != null
             y = a.multiply(y);
@@ -1352,10 +1395,14 @@ public class GenPolynomial<C extends RingElem<C>>
             return S.multiply(a.negate(), e);
         }
         assert (ring.nvar == S.ring.nvar);
-        GenPolynomial<C> n = this.copy();
+        GenPolynomial<C> n = sumMultipleArray(true, a, e, S);
+        if (n != null) {
+            return n;
+        }
+        n = this.copy();
         SortedMap<ExpVector, C> nv = n.val;
         SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
+        for (Map.Entry<ExpVector, C> me : terms(sv)) {
             ExpVector f = me.getKey();
             f = e.sum(f);
             C y = me.getValue(); // assert y != null
@@ -1400,7 +1447,7 @@ public class GenPolynomial<C extends RingElem<C>>
         GenPolynomial<C> n = this.multiply(b);
         SortedMap<ExpVector, C> nv = n.val;
         SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
+        for (Map.Entry<ExpVector, C> me : terms(sv)) {
             ExpVector f = me.getKey();
             //f = e.sum(f);
             C y = me.getValue(); // assert y != null
@@ -1446,7 +1493,7 @@ public class GenPolynomial<C extends RingElem<C>>
         GenPolynomial<C> n = this.multiply(b);
         SortedMap<ExpVector, C> nv = n.val;
         SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
+        for (Map.Entry<ExpVector, C> me : terms(sv)) {
             ExpVector f = me.getKey();
             f = e.sum(f);
             C y = me.getValue(); // assert y != null
@@ -1493,7 +1540,7 @@ public class GenPolynomial<C extends RingElem<C>>
         GenPolynomial<C> n = this.multiply(b, g);
         SortedMap<ExpVector, C> nv = n.val;
         SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
+        for (Map.Entry<ExpVector, C> me : terms(sv)) {
             ExpVector f = me.getKey();
             f = e.sum(f);
             C y = me.getValue(); // assert y != null
@@ -1514,6 +1561,28 @@ public class GenPolynomial<C extends RingElem<C>>
     }
 
 
+    /**
+     * GenPolynomial linear merge for array terms.
+     * @param sub true for subtraction, false for addition.
+     * @param a coefficient, null for one.
+     * @param e exponent, null for zero.
+     * @param S GenPolynomial.
+     * @return this &plusmn; a x<sup>e</sup> S, or null if the ring does not use
+     *         array terms.
+     */
+    private GenPolynomial<C> sumMultipleArray(boolean sub, C a, ExpVector e, GenPolynomial<C> S) {
+        if (!ring.arrayTerms) {
+            return null;
+        }
+        GenPolynomial<C> n = ring.getZERO().copy();
+        if (!(n.val instanceof TermArrayMap)) {
+            return null;
+        }
+        ((TermArrayMap<C>) n.val).doSumMultiple(this.val, sub, a, e, S.val);
+        return n;
+    }
+
+
     /**
      * GenPolynomial negation, alternative implementation.
      * @return -this.
@@ -1521,7 +1590,7 @@ public class GenPolynomial<C extends RingElem<C>>
     public GenPolynomial<C> negateAlt() {
         GenPolynomial<C> n = ring.getZERO().copy();
         SortedMap<ExpVector, C> v = n.val;
-        for (Map.Entry<ExpVector, C> m : val.entrySet()) {
+        for (Map.Entry<ExpVector, C> m : terms(val)) {
             C x = m.getValue(); // != null, 0
             v.put(m.getKey(), x.negate());
         }
@@ -1536,7 +1605,7 @@ public class GenPolynomial<C extends RingElem<C>>
     public GenPolynomial<C> negate() {
         GenPolynomial<C> n = this.copy();
         SortedMap<ExpVector, C> v = n.val;
-        for (Map.Entry<ExpVector, C> m : v.entrySet()) {
+        for (Map.Entry<ExpVector, C> m : terms(v)) {
             C x = m.getValue(); // != null, 0
             m.setValue(x.negate()); // okay
         }
@@ -1580,31 +1649,64 @@ public class GenPolynomial<C extends RingElem<C>>
             return T.multiply(Sp);
         }
         GenPolynomial<C> p = ring.getZERO().copy();
-        SortedMap<ExpVector, C> pv = p.val;
-        for (Map.Entry<ExpVector, C> m1 : val.entrySet()) {
-            C c1 = m1.getValue();
-            ExpVector e1 = m1.getKey();
-            for (Map.Entry<ExpVector, C> m2 : S.val.entrySet()) {
-                C c2 = m2.getValue();
-                ExpVector e2 = m2.getKey();
-                C c = c1.multiply(c2); // check non zero if not domain
-                if (!c.isZERO()) {
-                    ExpVector e = e1.sum(e2);
-                    C c0 = pv.get(e);
-                    if (c0 == null) {
-                        pv.put(e, c);
-                    } else {
-                        c0 = c0.sum(c);
-                        if (!c0.isZERO()) {
-                            pv.put(e, c0);
-                        } else {
-                            pv.remove(e);
-                        }
+        multiplyHeap(p.val, S);
+        return p;
+    }
+
+
+    /**
+     * GenPolynomial heap multiplication. The terms of the product are generated
+     * in term order from a heap of index pairs (i,j) of the terms of this and
+     * S, the pair (i,j+1) is inserted when (i,j) is removed and (i+1,0) is
+     * inserted when (i,0) is removed. So there are at most length(this) pairs
+     * in the heap and no intermediate map.
+     * @param pv empty map for the product this*S.
+     * @param S GenPolynomial.
+     */
+    private void multiplyHeap(SortedMap<ExpVector, C> pv, GenPolynomial<C> S) {
+        int na = val.size();
+        int nb = S.val.size();
+        ExpVector[] ae = new ExpVector[na];
+        List<C> ac = new ArrayList<C>(na);
+        int k = 0;
+        for (Map.Entry<ExpVector, C> m : val.entrySet()) {
+            ae[k++] = m.getKey();
+            ac.add(m.getValue());
+        }
+        ExpVector[] be = new ExpVector[nb];
+        List<C> bc = new ArrayList<C>(nb);
+        k = 0;
+        for (Map.Entry<ExpVector, C> m : S.val.entrySet()) {
+            be[k++] = m.getKey();
+            bc.add(m.getValue());
+        }
+        ExpVectorHeap heap = new ExpVectorHeap(ring.tord.getDescendComparator(), na);
+        heap.insert(ae[0].sum(be[0]), new ExpVectorHeap.Chain(0, 0));
+        while (!heap.isEmpty()) {
+            ExpVector e = heap.peek();
+            C c = null;
+            do {
+                ExpVectorHeap.Chain ch = heap.poll();
+                while (ch != null) {
+                    ExpVectorHeap.Chain nx = ch.next;
+                    int i = ch.row;
+                    int j = ch.col;
+                    C x = ac.get(i).multiply(bc.get(j)); // check non zero if not domain
+                    c = (c == null) ? x : c.sum(x);
+                    if (j == 0 && i + 1 < na) {
+                        heap.insert(ae[i + 1].sum(be[0]), new ExpVectorHeap.Chain(i + 1, 0));
+                    }
+                    if (j + 1 < nb) {
+                        ch.col = j + 1;
+                        heap.insert(ae[i].sum(be[j + 1]), ch);
                     }
+                    ch = nx;
                 }
+            } while (!heap.isEmpty() && heap.cmp.compare(heap.peek(), e) == 0);
+            if (!c.isZERO()) {
+                pv.put(e, c);
             }
         }
-        return p;
     }
 
 
@@ -1628,7 +1730,7 @@ public class GenPolynomial<C extends RingElem<C>>
         }
         GenPolynomial<C> p = ring.getZERO().copy();
         SortedMap<ExpVector, C> pv = p.val;
-        for (Map.Entry<ExpVector, C> m : val.entrySet()) {
+        for (Map.Entry<ExpVector, C> m : terms(val)) {
             C a = m.getValue();
             ExpVector e = m.getKey();
             C c = a.multiply(s); // check non zero if not domain
@@ -1661,7 +1763,7 @@ public class GenPolynomial<C extends RingElem<C>>
         }
         GenPolynomial<C> p = ring.getZERO().copy();
         SortedMap<ExpVector, C> pv = p.val;
-        for (Map.Entry<ExpVector, C> m : val.entrySet()) {
+        for (Map.Entry<ExpVector, C> m : terms(val)) {
             C a = m.getValue();
             ExpVector e = m.getKey();
             C c = s.multiply(a);
@@ -1739,7 +1841,7 @@ public class GenPolynomial<C extends RingElem<C>>
         }
         GenPolynomial<C> p = ring.getZERO().copy();
         SortedMap<ExpVector, C> pv = p.val;
-        for (Map.Entry<ExpVector, C> m1 : val.entrySet()) {
+        for (Map.Entry<ExpVector, C> m1 : terms(val)) {
             C c1 = m1.getValue();
             ExpVector e1 = m1.getKey();
             C c = c1.multiply(s); // check non zero if not domain
@@ -1773,7 +1875,7 @@ public class GenPolynomial<C extends RingElem<C>>
         }
         GenPolynomial<C> p = ring.getZERO().copy();
         SortedMap<ExpVector, C> pv = p.val;
-        for (Map.Entry<ExpVector, C> m1 : val.entrySet()) {
+        for (Map.Entry<ExpVector, C> m1 : terms(val)) {
             C c1 = m1.getValue();
             ExpVector e1 = m1.getKey();
             ExpVector e2 = e1.sum(e);
@@ -1813,7 +1915,7 @@ public class GenPolynomial<C extends RingElem<C>>
         //return multiply(t);
         GenPolynomial<C> p = ring.getZERO().copy();
         SortedMap<ExpVector, C> pv = p.val;
-        for (Map.Entry<ExpVector, C> m : val.entrySet()) {
+        for (Map.Entry<ExpVector, C> m : terms(val)) {
             ExpVector e = m.getKey();
             C c1 = m.getValue();
             C c = c1.divide(s);
@@ -1850,7 +1952,7 @@ public class GenPolynomial<C extends RingElem<C>>
         //return multiply(t);
         GenPolynomial<C> p = ring.getZERO().copy();
         SortedMap<ExpVector, C> pv = p.val;
-        for (Map.Entry<ExpVector, C> m : val.entrySet()) {
+        for (Map.Entry<ExpVector, C> m : terms(val)) {
             ExpVector e = m.getKey();
             C c1 = m.getValue();
             C c = c1.rightDivide(s);
@@ -1887,7 +1989,7 @@ public class GenPolynomial<C extends RingElem<C>>
         //return multiply(t);
         GenPolynomial<C> p = ring.getZERO().copy();
         SortedMap<ExpVector, C> pv = p.val;
-        for (Map.Entry<ExpVector, C> m : val.entrySet()) {
+        for (Map.Entry<ExpVector, C> m : terms(val)) {
             ExpVector e = m.getKey();
             C c1 = m.getValue();
             C c = c1.leftDivide(s);
@@ -1944,6 +2046,9 @@ public class GenPolynomial<C extends RingElem<C>>
         }
         C ci = c.inverse();
         assert (ring.nvar == S.ring.nvar);
+        if (!(this instanceof GenSolvablePolynomial) && ring.coFac.isCommutative()) {
+            return quotientRemainderHeap(ci, S);
+        }
         ExpVector e = S.leadingExpVector();
         GenPolynomial<C> h;
         GenPolynomial<C> q = ring.getZERO().copy();
@@ -1969,6 +2074,86 @@ public class GenPolynomial<C extends RingElem<C>>
     }
 
 
+    /**
+     * GenPolynomial heap division with remainder for commutative coefficient
+     * rings. The terms of this - q S are generated in term order from this
+     * and a heap of index pairs (k,j) for the products q<sub>k</sub>
+     * s<sub>j</sub>, j &ge; 1, of the known quotient terms and the terms of
+     * S. As long as the next term is a multiple of the leading term of S it
+     * gives a new quotient term, afterwards all terms go to the remainder.
+     * @param ci inverse of the leading base coefficient of S.
+     * @param S nonzero GenPolynomial.
+     * @return [ quotient , remainder ] with this = quotient * S + remainder.
+     */
+    @SuppressWarnings("unchecked")
+    private GenPolynomial<C>[] quotientRemainderHeap(C ci, GenPolynomial<C> S) {
+        int ns = S.val.size();
+        ExpVector[] se = new ExpVector[ns];
+        List<C> sc = new ArrayList<C>(ns);
+        int k = 0;
+        for (Map.Entry<ExpVector, C> m : S.val.entrySet()) {
+            se[k++] = m.getKey();
+            sc.add(m.getValue());
+        }
+        ExpVector es = se[0];
+        List<ExpVector> qe = new ArrayList<ExpVector>();
+        List<C> qc = new ArrayList<C>();
+        GenPolynomial<C> q = ring.getZERO().copy();
+        GenPolynomial<C> r = ring.getZERO().copy();
+        Comparator<ExpVector> cmp = ring.tord.getDescendComparator();
+        ExpVectorHeap heap = new ExpVectorHeap(cmp, 16);
+        Iterator<Map.Entry<ExpVector, C>> ti = val.entrySet().iterator();
+        Map.Entry<ExpVector, C> tm = ti.hasNext() ? ti.next() : null;
+        boolean reducing = true;
+        while (tm != null || !heap.isEmpty()) {
+            ExpVector e;
+            C c = null;
+            if (heap.isEmpty() || (tm != null && cmp.compare(tm.getKey(), heap.peek()) <= 0)) {
+                e = tm.getKey();
+                c = tm.getValue();
+                tm = ti.hasNext() ? ti.next() : null;
+            } else {
+                e = heap.peek();
+            }
+            while (!heap.isEmpty() && cmp.compare(heap.peek(), e) == 0) {
+                ExpVectorHeap.Chain ch = heap.poll();
+                while (ch != null) {
+                    ExpVectorHeap.Chain nx = ch.next;
+                    int i = ch.row;
+                    int j = ch.col;
+                    C x = sc.get(j).multiply(qc.get(i));
+                    c = (c == null) ? x.negate() : c.subtract(x);
+                    if (j + 1 < ns) {
+                        ch.col = j + 1;
+                        heap.insert(qe.get(i).sum(se[j + 1]), ch);
+                    }
+                    ch = nx;
+                }
+            }
+            if (c.isZERO()) {
+                continue;
+            }
+            if (reducing && e.multipleOf(es)) {
+                C a = c.multiply(ci);
+                ExpVector g = e.subtract(es);
+                q.val.put(g, a);
+                qe.add(g);
+                qc.add(a);
+                if (ns > 1) {
+                    heap.insert(g.sum(se[1]), new ExpVectorHeap.Chain(qe.size() - 1, 1));
+                }
+            } else {
+                reducing = false;
+                r.val.put(e, c);
+            }
+        }
+        GenPolynomial<C>[] ret = new GenPolynomial[2];
+        ret[0] = q;
+        ret[1] = r;
+        return ret;
+    }
+
+
     /**
      * GenPolynomial division. Fails, if exact division by leading base
      * coefficient is not possible. Meaningful only for univariate polynomials
@@ -2014,6 +2199,9 @@ public class GenPolynomial<C extends RingElem<C>>
         }
         C ci = c.inverse();
         assert (ring.nvar == S.ring.nvar);
+        if (ring.coFac.isCommutative()) {
+            return quotientRemainderHeap(ci, S)[1];
+        }
         ExpVector e = S.leadingExpVector();
         GenPolynomial<C> h;
         GenPolynomial<C> r = this.copy();
@@ -2568,7 +2756,7 @@ public class GenPolynomial<C extends RingElem<C>>
     public GenPolynomial<C> map(final UnaryFunctor<? super C, C> f) {
         GenPolynomial<C> n = ring.getZERO().copy();
         SortedMap<ExpVector, C> nv = n.val;
-        for (Map.Entry<ExpVector, C> m : this.val.entrySet()) {
+        for (Map.Entry<ExpVector, C> m : terms(this.val)) {
             //logger.info("m = {}", m);
             C c = f.eval(m.getValue());
             if (c != null && !c.isZERO()) {
@@ -0,0 +1,343 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModInt;
+import edu.jas.arith.ModIntRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Compact binary encoding of polynomials for a communication session. A
+ * polynomial ring is transmitted with object serialization only the first
+ * time it occurs, later only its session index is sent. Exponent vectors are
+ * encoded as variable length zig-zag differences to the exponent vector of
+ * the previous term and coefficients from BigInteger, BigRational, ModLong
+ * and ModInt rings are written as raw numbers. Other coefficients fall back
+ * to object serialization. The send and receive tables are separate, so one
+ * instance can be used for both directions of a channel, if writes and reads
+ * are each serialized.
+ * @author Heinz Kredel
+ */
+
+public class GenPolynomialCodec {
+
+
+    private static final Logger logger = LogManager.getLogger(GenPolynomialCodec.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Coefficient encodings.
+     */
+    static final byte OBJECT = 0, INTEGER = 1, RATIONAL = 2, MODLONG = 3, MODINT = 4;
+
+
+    /**
+     * Rings sent in this session with their index.
+     */
+    protected final Map<GenPolynomialRing, Integer> sentRings;
+
+
+    /**
+     * Rings received in this session, index - 1.
+     */
+    protected final List<GenPolynomialRing> receivedRings;
+
+
+    /**
+     * Constructor.
+     */
+    public GenPolynomialCodec() {
+        sentRings = new HashMap<GenPolynomialRing, Integer>();
+        receivedRings = new ArrayList<GenPolynomialRing>();
+    }
+
+
+    /**
+     * Reset the session, forget all transmitted rings.
+     */
+    public void clear() {
+        sentRings.clear();
+        receivedRings.clear();
+    }
+
+
+    /**
+     * Write a polynomial.
+     * @param out data output.
+     * @param p polynomial, may be null.
+     */
+    public <C extends RingElem<C>> void write(ObjectOutput out, GenPolynomial<C> p) throws IOException {
+        if (p == null) {
+            writeUnsigned(out, 0L);
+            return;
+        }
+        writeRing(out, p.ring);
+        writeUnsigned(out, p.length());
+        byte kind = coefficientKind(p.ring.coFac);
+        long[] last = new long[p.ring.nvar];
+        for (Monomial<C> m : p) {
+            long[] e = m.e.getVal();
+            for (int k = 0; k < e.length; k++) {
+                writeSigned(out, e[k] - last[k]);
+            }
+            last = e;
+            writeCoefficient(out, kind, m.c);
+        }
+    }
+
+
+    /**
+     * Read a polynomial.
+     * @param in data input.
+     * @return polynomial read, or null.
+     */
+    @SuppressWarnings("unchecked")
+    public <C extends RingElem<C>> GenPolynomial<C> read(ObjectInput in)
+                    throws IOException, ClassNotFoundException {
+        GenPolynomialRing<C> ring = (GenPolynomialRing<C>) readRing(in);
+        if (ring == null) {
+            return null;
+        }
+        long len = readUnsigned(in);
+        byte kind = coefficientKind(ring.coFac);
+        GenPolynomial<C> p = new GenPolynomial<C>(ring);
+        long[] e = new long[ring.nvar];
+        for (long i = 0; i < len; i++) {
+            for (int k = 0; k < e.length; k++) {
+                e[k] += readSigned(in);
+            }
+            C c = readCoefficient(in, kind, ring.coFac);
+            p.val.put(ExpVector.create(e), c); // create copies e
+        }
+        return p;
+    }
+
+
+    /**
+     * Write a polynomial ring, the ring object only once per session.
+     * @param out data output.
+     * @param r polynomial ring.
+     */
+    protected void writeRing(ObjectOutput out, GenPolynomialRing r) throws IOException {
+        Integer id = sentRings.get(r);
+        if (id != null) {
+            writeUnsigned(out, id);
+            return;
+        }
+        id = sentRings.size() + 1;
+        writeUnsigned(out, id);
+        out.writeObject(r);
+        sentRings.put(r, id);
+        if (debug) {
+            logger.debug("ring {} sent as {}", r.toScript(), id);
+        }
+    }
+
+
+    /**
+     * Read a polynomial ring.
+     * @param in data input.
+     * @return polynomial ring or null.
+     */
+    protected GenPolynomialRing readRing(ObjectInput in) throws IOException, ClassNotFoundException {
+        long id = readUnsigned(in);
+        if (id == 0L) {
+            return null;
+        }
+        if (id <= receivedRings.size()) {
+            return receivedRings.get((int) id - 1);
+        }
+        if (id != receivedRings.size() + 1) {
+            throw new IOException("ring index " + id + " out of sequence " + receivedRings.size());
+        }
+        GenPolynomialRing r = (GenPolynomialRing) in.readObject();
+        receivedRings.add(r);
+        return r;
+    }
+
+
+    /**
+     * Coefficient encoding for a coefficient ring.
+     * @param cf coefficient ring.
+     * @return encoding kind.
+     */
+    static byte coefficientKind(RingFactory cf) {
+        if (cf instanceof BigInteger) {
+            return INTEGER;
+        }
+        if (cf instanceof BigRational) {
+            return RATIONAL;
+        }
+        if (cf instanceof ModLongRing) {
+            return MODLONG;
+        }
+        if (cf instanceof ModIntRing) {
+            return MODINT;
+        }
+        return OBJECT;
+    }
+
+
+    /**
+     * Write a coefficient.
+     * @param out data output.
+     * @param kind encoding kind.
+     * @param c coefficient.
+     */
+    static void writeCoefficient(ObjectOutput out, byte kind, RingElem c) throws IOException {
+        switch (kind) {
+        case INTEGER:
+            writeInteger(out, ((BigInteger) c).getVal());
+            break;
+        case RATIONAL:
+            BigRational r = (BigRational) c;
+            writeInteger(out, r.num);
+            writeInteger(out, r.den);
+            break;
+        case MODLONG:
+            writeUnsigned(out, ((ModLong) c).getVal());
+            break;
+        case MODINT:
+            writeUnsigned(out, ((ModInt) c).getVal());
+            break;
+        default:
+            out.writeObject(c);
+        }
+    }
+
+
+    /**
+     * Read a coefficient.
+     * @param in data input.
+     * @param kind encoding kind.
+     * @param cf coefficient ring.
+     * @return coefficient.
+     */
+    @SuppressWarnings("unchecked")
+    static <C extends RingElem<C>> C readCoefficient(ObjectInput in, byte kind, RingFactory<C> cf)
+                    throws IOException, ClassNotFoundException {
+        switch (kind) {
+        case INTEGER:
+            return (C) new BigInteger(readInteger(in));
+        case RATIONAL:
+            java.math.BigInteger n = readInteger(in);
+            java.math.BigInteger d = readInteger(in);
+            return (C) new BigRational(new BigInteger(n), new BigInteger(d));
+        case MODLONG:
+            return (C) new ModLong((ModLongRing) cf, readUnsigned(in));
+        case MODINT:
+            return (C) new ModInt((ModIntRing) cf, (int) readUnsigned(in));
+        default:
+            return (C) in.readObject();
+        }
+    }
+
+
+    /**
+     * Write a big integer as length and two's complement bytes.
+     * @param out data output.
+     * @param a big integer.
+     */
+    public static void writeInteger(ObjectOutput out, java.math.BigInteger a) throws IOException {
+        if (a.bitLength() < 63) {
+            writeSigned(out, a.longValue() << 1); // even: small number
+            return;
+        }
+        byte[] b = a.toByteArray();
+        writeSigned(out, ((long) b.length << 1) | 1L);
+        out.write(b);
+    }
+
+
+    /**
+     * Read a big integer.
+     * @param in data input.
+     * @return big integer.
+     */
+    public static java.math.BigInteger readInteger(ObjectInput in) throws IOException {
+        long h = readSigned(in);
+        if ((h & 1L) == 0L) {
+            return java.math.BigInteger.valueOf(h >> 1);
+        }
+        byte[] b = new byte[(int) (h >>> 1)];
+        in.readFully(b);
+        return new java.math.BigInteger(b);
+    }
+
+
+    /**
+     * Write a non negative long as variable length integer, 7 bits per byte.
+     * @param out data output.
+     * @param v value.
+     */
+    public static void writeUnsigned(ObjectOutput out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0L) {
+            out.writeByte((int) ((v & 0x7FL) | 0x80L));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+
+    /**
+     * Read a variable length non negative long.
+     * @param in data input.
+     * @return value.
+     */
+    public static long readUnsigned(ObjectInput in) throws IOException {
+        long v = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return v;
+            }
+        }
+        throw new IOException("malformed variable length integer");
+    }
+
+
+    /**
+     * Write a long in zig-zag variable length encoding.
+     * @param out data output.
+     * @param v value.
+     */
+    public static void writeSigned(ObjectOutput out, long v) throws IOException {
+        writeUnsigned(out, (v << 1) ^ (v >> 63));
+    }
+
+
+    /**
+     * Read a long in zig-zag variable length encoding.
+     * @param in data input.
+     * @return value.
+     */
+    public static long readSigned(ObjectInput in) throws IOException {
+        long u = readUnsigned(in);
+        return (u >>> 1) ^ -(u & 1L);
+    }
+
+}
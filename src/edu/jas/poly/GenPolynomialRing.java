@@ -134,6 +134,13 @@ public class GenPolynomialRing<C extends RingElem<C>>
     volatile boolean checkPreempt = PreemptStatus.isAllowed();
 
 
+    /**
+     * Flag to select sorted arrays (TermArrayMap) instead of TreeMap for the
+     * terms of new polynomials.
+     */
+    volatile boolean arrayTerms = false;
+
+
     /**
      * The constructor creates a polynomial factory object with the default term
      * order.
@@ -246,6 +253,7 @@ public class GenPolynomialRing<C extends RingElem<C>>
      */
     public GenPolynomialRing(RingFactory<C> cf, GenPolynomialRing o) {
         this(cf, o.nvar, o.tord, o.vars);
+        arrayTerms = o.arrayTerms;
     }
 
 
@@ -258,6 +266,7 @@ public class GenPolynomialRing<C extends RingElem<C>>
      */
     public GenPolynomialRing(GenPolynomialRing<C> o, TermOrder to) {
         this(o.coFac, o.nvar, to, o.vars);
+        arrayTerms = o.arrayTerms;
     }
 
 
@@ -270,6 +279,26 @@ public class GenPolynomialRing<C extends RingElem<C>>
     }
 
 
+    /**
+     * Select the representation of the terms of new polynomials. Polynomials
+     * with different representations can be mixed in all operations.
+     * @param b if true, sorted arrays (TermArrayMap) are used, else TreeMap.
+     * @see edu.jas.poly.TermArrayMap
+     */
+    public void setArrayTerms(boolean b) {
+        arrayTerms = b;
+    }
+
+
+    /**
+     * Query the representation of the terms of new polynomials.
+     * @return true, if sorted arrays (TermArrayMap) are used, else false.
+     */
+    public boolean isArrayTerms() {
+        return arrayTerms;
+    }
+
+
     /**
      * Get the String representation.
      * @see java.lang.Object#toString()
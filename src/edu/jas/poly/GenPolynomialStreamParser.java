@@ -0,0 +1,728 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * GenPolynomial stream parser. Reads a sequence of polynomials of a given
+ * ring one at a time from a character stream, so large input files can be
+ * read with memory bounded by the size of the largest polynomial. The input
+ * is a list <code>( p_1, ..., p_k )</code> or a sequence
+ * <code>p_1, ..., p_k</code> of polynomials separated by commas. The terms of a polynomial are collected in
+ * a term buffer, sorted once with respect to the term order and then put into
+ * the polynomial in one step, instead of summing up polynomials term by term
+ * as in GenPolynomialTokenizer. Syntax of a polynomial:
+ *
+ * <pre>
+ * polynomial = [ '+' | '-' ] term { ( '+' | '-' ) term }
+ * term       = factor { [ '*' ] factor }
+ * factor     = ( number | variable | '{' coefficient '}' | '(' polynomial ')' ) [ exponent ]
+ * exponent   = ( '^' | '**' ) long
+ * </pre>
+ *
+ * Numbers consist of the characters <code>0-9 . /</code>, other coefficients
+ * must be enclosed in braces <code>{}</code>. Identifiers which are not
+ * variables of the ring are parsed as coefficients. Comments start with
+ * <code>#</code> and extend to the end of the line. Only for commutative
+ * polynomial rings.
+ * @param <C> coefficient type
+ * @see edu.jas.poly.GenPolynomialTokenizer
+ * @author Heinz Kredel
+ */
+public class GenPolynomialStreamParser<C extends RingElem<C>> implements Iterator<GenPolynomial<C>> {
+
+
+    private static final Logger logger = LogManager.getLogger(GenPolynomialStreamParser.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Polynomial ring of the polynomials.
+     */
+    public final GenPolynomialRing<C> ring;
+
+
+    /**
+     * Coefficient ring factory.
+     */
+    protected final RingFactory<C> coFac;
+
+
+    /**
+     * Index in the exponent vector for the variable names.
+     */
+    protected final Map<String, Integer> index;
+
+
+    /**
+     * Number of variables.
+     */
+    protected final int nvars;
+
+
+    /**
+     * Input stream.
+     */
+    protected final Reader reader;
+
+
+    /**
+     * Input buffer.
+     */
+    protected final char[] buf;
+
+
+    /**
+     * Position of the next character in buf and number of characters in buf.
+     */
+    protected int pos, lim;
+
+
+    /**
+     * Number of characters read before buf.
+     */
+    protected long offset;
+
+
+    /**
+     * State: 0 = not started, 1 = in sequence, 2 = in list, 3 = finished.
+     */
+    protected int state;
+
+
+    /**
+     * Polynomial parsed in advance by hasNext().
+     */
+    protected GenPolynomial<C> next;
+
+
+    /**
+     * Number of polynomials returned so far.
+     */
+    protected long count;
+
+
+    /**
+     * Constructor.
+     * @param ring polynomial ring.
+     * @param reader character stream.
+     */
+    public GenPolynomialStreamParser(GenPolynomialRing<C> ring, Reader reader) {
+        this(ring, reader, 8192);
+    }
+
+
+    /**
+     * Constructor.
+     * @param ring polynomial ring.
+     * @param reader character stream.
+     * @param size size of the input buffer.
+     */
+    public GenPolynomialStreamParser(GenPolynomialRing<C> ring, Reader reader, int size) {
+        if (ring instanceof GenSolvablePolynomialRing) {
+            throw new IllegalArgumentException("solvable polynomial rings not supported");
+        }
+        this.ring = ring;
+        this.coFac = ring.coFac;
+        this.reader = reader;
+        nvars = ring.nvar;
+        index = new HashMap<String, Integer>();
+        if (ring.vars != null) {
+            for (int i = 0; i < ring.vars.length; i++) {
+                index.put(ring.vars[i], nvars - i - 1);
+            }
+        }
+        buf = new char[Math.max(size, 16)];
+        pos = 0;
+        lim = 0;
+        offset = 0L;
+        state = 0;
+        count = 0L;
+    }
+
+
+    /**
+     * Test if there is a next polynomial.
+     * @return true if a further polynomial can be read.
+     * @throws UncheckedIOException if the stream can not be read.
+     */
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        try {
+            next = nextPolynomial();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return next != null;
+    }
+
+
+    /**
+     * Get the next polynomial.
+     * @return next polynomial.
+     * @throws NoSuchElementException if there are no more polynomials.
+     */
+    public GenPolynomial<C> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("no more polynomials after " + count);
+        }
+        GenPolynomial<C> p = next;
+        next = null;
+        count++;
+        return p;
+    }
+
+
+    /**
+     * Parse the remaining polynomials.
+     * @return list of the remaining polynomials.
+     */
+    public List<GenPolynomial<C>> toList() {
+        List<GenPolynomial<C>> L = new ArrayList<GenPolynomial<C>>();
+        while (hasNext()) {
+            L.add(next());
+        }
+        return L;
+    }
+
+
+    /**
+     * Parse the next polynomial of the list or sequence.
+     * @return the next polynomial or null at the end of the input.
+     * @throws IOException
+     */
+    protected GenPolynomial<C> nextPolynomial() throws IOException {
+        if (state == 3) {
+            return null;
+        }
+        int c = skipBlanks();
+        if (state == 0) {
+            state = 1;
+            if (c == '(') { // list or polynomial with leading parenthesis
+                read();
+                c = skipBlanks();
+                if (c == ')') { // empty list
+                    read();
+                    state = 3;
+                    return null;
+                }
+                GenPolynomial<C> p = polynomial(0, null);
+                c = skipBlanks();
+                if (c == ',') {
+                    state = 2;
+                    return p;
+                }
+                if (read() != ')') {
+                    throw new InvalidExpressionException("missing ) at " + position());
+                }
+                c = skipBlanks();
+                if (c < 0 || c == ',') { // list with one element or (p)
+                    return p;
+                }
+                return polynomial(0, p); // p is the first factor
+            }
+        } else { // after a polynomial
+            if (c == ',') {
+                read();
+            } else if (c == ')' && state == 2) {
+                read();
+                state = 3;
+                return null;
+            } else if (c < 0) {
+                if (state == 2) {
+                    throw new InvalidExpressionException("missing ) at end of list at " + position());
+                }
+                state = 3;
+                return null;
+            } else {
+                throw new InvalidExpressionException("expected , at " + position() + " but found " + (char) c);
+            }
+        }
+        c = skipBlanks();
+        if (c < 0) {
+            if (state == 2) {
+                throw new InvalidExpressionException("missing ) at end of list at " + position());
+            }
+            state = 3;
+            return null;
+        }
+        GenPolynomial<C> p = polynomial(0, null);
+        if (debug) {
+            logger.debug("polynomial {} with {} terms", count, p.length());
+        }
+        return p;
+    }
+
+
+    /**
+     * Parse a polynomial up to a comma, closing parenthesis or the end of
+     * the input.
+     * @param level nesting level of parentheses.
+     * @param pf first factor of the first term, already read, or null.
+     * @return the polynomial.
+     * @throws IOException
+     */
+    protected GenPolynomial<C> polynomial(int level, GenPolynomial<C> pf) throws IOException {
+        TermBuffer<C> tb = new TermBuffer<C>(ring);
+        boolean first = true;
+        if (pf != null) {
+            term(tb, false, level, pf);
+            first = false;
+        }
+        while (true) {
+            int c = skipBlanks();
+            if (c < 0 || c == ',' || c == ')') {
+                if (first) {
+                    throw new InvalidExpressionException("empty polynomial at " + position());
+                }
+                if (c == ',' && level > 0) {
+                    throw new InvalidExpressionException("unexpected , in parenthesis at " + position());
+                }
+                break;
+            }
+            boolean neg = false;
+            if (c == '+' || c == '-') {
+                while (c == '+' || c == '-') { // let x - -y be x + y
+                    read();
+                    neg ^= (c == '-');
+                    c = skipBlanks();
+                }
+            } else if (!first) {
+                throw new InvalidExpressionException("expected + or - at " + position() + " but found "
+                                + (char) c);
+            }
+            term(tb, neg, level, null);
+            first = false;
+        }
+        return tb.toPolynomial();
+    }
+
+
+    /**
+     * Parse a term and add it to the term buffer.
+     * @param tb term buffer.
+     * @param neg true if the term is to be negated.
+     * @param level nesting level of parentheses.
+     * @param pf first factor of the term in parentheses, already read, or
+     *            null.
+     * @throws IOException
+     */
+    protected void term(TermBuffer<C> tb, boolean neg, int level, GenPolynomial<C> pf) throws IOException {
+        C a = coFac.getONE();
+        long[] ev = new long[nvars];
+        boolean factor = false;
+        if (pf != null) {
+            long e = exponent();
+            if (e != 1L) {
+                pf = pf.power(e);
+            }
+            factor = true;
+        }
+        while (true) {
+            int c = skipBlanks();
+            if (c == '*') { // explicit multiplication
+                read();
+                c = skipBlanks();
+            }
+            if (c < 0 || c == '+' || c == '-' || c == ',' || c == ')') {
+                if (!factor) {
+                    throw new InvalidExpressionException("missing factor at " + position());
+                }
+                break;
+            }
+            factor = true;
+            if (c == '(') { // recursion
+                read();
+                GenPolynomial<C> p = polynomial(level + 1, null);
+                if (read() != ')') {
+                    throw new InvalidExpressionException("missing ) at " + position());
+                }
+                long e = exponent();
+                if (e != 1L) {
+                    p = p.power(e);
+                }
+                pf = (pf == null ? p : pf.multiply(p));
+            } else if (c == '{') {
+                read();
+                C b = coefficient(braced());
+                a = a.multiply(b.power(exponent()));
+            } else if (isDigit(c) || c == '.' || c == '/') {
+                String s = number();
+                C b = coefficient(s);
+                a = a.multiply(b.power(exponent()));
+            } else if (isLetter(c)) {
+                String s = identifier();
+                Integer ix = index.get(s);
+                long e = exponent();
+                if (ix != null) {
+                    ev[ix] += e;
+                } else {
+                    C b = coefficient(s); // e.g. algebraic number generators
+                    a = a.multiply(b.power(e));
+                }
+            } else {
+                throw new InvalidExpressionException("unexpected character " + (char) c + " at " + position());
+            }
+        }
+        if (neg) {
+            a = a.negate();
+        }
+        if (a.isZERO()) {
+            return;
+        }
+        ExpVector e = ExpVector.create(ev);
+        if (pf == null) {
+            tb.add(e, a);
+            return;
+        }
+        if (!a.isONE() || !e.isZERO()) {
+            pf = pf.multiply(a, e);
+        }
+        for (Monomial<C> m : pf) {
+            tb.add(m.e, m.c);
+        }
+    }
+
+
+    /**
+     * Parse a coefficient.
+     * @param s string representation of the coefficient.
+     * @return coefficient.
+     */
+    protected C coefficient(String s) {
+        try {
+            return coFac.parse(s);
+        } catch (NumberFormatException e) {
+            throw new InvalidExpressionException("not a coefficient " + s + " at " + position() + ": " + coFac,
+                            e);
+        }
+    }
+
+
+    /**
+     * Parse an optional exponent.
+     * @return the exponent or 1.
+     * @throws IOException
+     */
+    protected long exponent() throws IOException {
+        int c = skipBlanks();
+        if (c == '^') {
+            read();
+        } else if (c == '*' && peek(1) == '*') {
+            read();
+            read();
+        } else {
+            return 1L;
+        }
+        c = skipBlanks();
+        if (!isDigit(c)) {
+            throw new InvalidExpressionException("missing exponent at " + position());
+        }
+        long e = 0L;
+        while (isDigit(c)) {
+            read();
+            e = Math.addExact(Math.multiplyExact(e, 10L), (long) (c - '0'));
+            c = peek();
+        }
+        return e;
+    }
+
+
+    /**
+     * Read a number.
+     * @return characters of a number.
+     * @throws IOException
+     */
+    protected String number() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c = peek();
+        if (c == '.' || c == '/') { // let .5 be 0.5 and /2 be 1/2
+            sb.append(c == '.' ? '0' : '1');
+        }
+        while (isDigit(c) || c == '.' || c == '/') {
+            sb.append((char) read());
+            c = peek();
+        }
+        return sb.toString();
+    }
+
+
+    /**
+     * Read an identifier.
+     * @return characters of an identifier.
+     * @throws IOException
+     */
+    protected String identifier() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c = peek();
+        while (isLetter(c) || isDigit(c) || c == '_') {
+            sb.append((char) read());
+            c = peek();
+        }
+        return sb.toString();
+    }
+
+
+    /**
+     * Read up to the matching closing brace.
+     * @return characters between the braces.
+     * @throws IOException
+     */
+    protected String braced() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int level = 0;
+        while (true) {
+            int c = read();
+            if (c < 0) {
+                throw new InvalidExpressionException("mismatch of braces at " + position());
+            }
+            if (c == '{') {
+                level++;
+            } else if (c == '}') {
+                if (level == 0) {
+                    break;
+                }
+                level--;
+            }
+            sb.append((char) c);
+        }
+        return sb.toString().trim();
+    }
+
+
+    /**
+     * Skip white space and comments.
+     * @return the next character or -1 at the end of the input.
+     * @throws IOException
+     */
+    protected int skipBlanks() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c < 0) {
+                return c;
+            }
+            if (c == '#') {
+                while (c >= 0 && c != '\n' && c != '\r') {
+                    read();
+                    c = peek();
+                }
+                continue;
+            }
+            if (c > ' ') {
+                return c;
+            }
+            read();
+        }
+    }
+
+
+    /**
+     * Look at the next character.
+     * @return the next character or -1 at the end of the input.
+     * @throws IOException
+     */
+    protected int peek() throws IOException {
+        if (pos >= lim && !fill(1)) {
+            return -1;
+        }
+        return buf[pos];
+    }
+
+
+    /**
+     * Look ahead.
+     * @param i number of characters to skip.
+     * @return the character after the next i characters or -1 at the end of
+     *         the input.
+     * @throws IOException
+     */
+    protected int peek(int i) throws IOException {
+        if (pos + i >= lim && !fill(i + 1)) {
+            return -1;
+        }
+        return buf[pos + i];
+    }
+
+
+    /**
+     * Read the next character.
+     * @return the next character or -1 at the end of the input.
+     * @throws IOException
+     */
+    protected int read() throws IOException {
+        if (pos >= lim && !fill(1)) {
+            return -1;
+        }
+        return buf[pos++];
+    }
+
+
+    /**
+     * Fill the input buffer.
+     * @param n minimal number of characters available after the call.
+     * @return true if n characters are available.
+     * @throws IOException
+     */
+    protected boolean fill(int n) throws IOException {
+        if (pos > 0) { // keep unread characters
+            System.arraycopy(buf, pos, buf, 0, lim - pos);
+            offset += pos;
+            lim -= pos;
+            pos = 0;
+        }
+        while (lim < n) {
+            int r = reader.read(buf, lim, buf.length - lim);
+            if (r < 0) {
+                return false;
+            }
+            lim += r;
+        }
+        return true;
+    }
+
+
+    /**
+     * Position in the input stream.
+     * @return position of the next character as string.
+     */
+    protected String position() {
+        return "character " + (offset + pos) + " of polynomial " + count;
+    }
+
+
+    static boolean isDigit(int c) {
+        return '0' <= c && c <= '9';
+    }
+
+
+    static boolean isLetter(int c) {
+        return ('a' <= c && c <= 'z') || ('A' <= c && c <= 'Z') || c >= 128 + 32;
+    }
+
+
+    /**
+     * String representation.
+     */
+    @Override
+    public String toString() {
+        return "GenPolynomialStreamParser(" + ring.toScript() + ", " + count + ")";
+    }
+
+
+    /**
+     * Buffer for the terms of a polynomial. The terms are sorted once and
+     * terms with equal exponent vectors are combined when the polynomial is
+     * constructed.
+     */
+    static class TermBuffer<C extends RingElem<C>> {
+
+
+        final GenPolynomialRing<C> ring;
+
+
+        ExpVector[] exps;
+
+
+        Object[] coeffs;
+
+
+        int size;
+
+
+        TermBuffer(GenPolynomialRing<C> ring) {
+            this.ring = ring;
+            exps = new ExpVector[16];
+            coeffs = new Object[16];
+            size = 0;
+        }
+
+
+        void add(ExpVector e, C c) {
+            if (size == exps.length) {
+                int n = 2 * size;
+                exps = Arrays.copyOf(exps, n);
+                coeffs = Arrays.copyOf(coeffs, n);
+            }
+            exps[size] = e;
+            coeffs[size] = c;
+            size++;
+        }
+
+
+        /**
+         * Sort and combine the terms.
+         * @return polynomial of the terms.
+         */
+        @SuppressWarnings("unchecked")
+        GenPolynomial<C> toPolynomial() {
+            if (size == 0) {
+                return ring.getZERO();
+            }
+            final Comparator<ExpVector> cmp = ring.tord.getDescendComparator();
+            TermArrayMap<C> tm = new TermArrayMap<C>(ring.tord, size);
+            // sort term positions with respect to the exponent vectors
+            Integer[] ix = new Integer[size];
+            boolean sorted = true;
+            for (int i = 0; i < size; i++) {
+                ix[i] = i;
+                if (sorted && i > 0 && cmp.compare(exps[i - 1], exps[i]) >= 0) {
+                    sorted = false;
+                }
+            }
+            if (!sorted) {
+                final ExpVector[] ex = exps;
+                Arrays.sort(ix, new Comparator<Integer>() {
+
+
+                    public int compare(Integer i, Integer j) {
+                        return cmp.compare(ex[i], ex[j]);
+                    }
+                });
+            }
+            int i = 0;
+            while (i < size) {
+                ExpVector e = exps[ix[i]];
+                C c = (C) coeffs[ix[i]];
+                int j = i + 1;
+                while (j < size && e.equals(exps[ix[j]])) {
+                    c = c.sum((C) coeffs[ix[j]]);
+                    j++;
+                }
+                if (!c.isZERO()) {
+                    tm.append(e, c);
+                }
+                i = j;
+            }
+            exps = null;
+            coeffs = null;
+            size = 0;
+            return new GenPolynomial<C>(ring, tm);
+        }
+    }
+
+}
@@ -222,12 +222,12 @@ public class GenSolvablePolynomial<C extends RingElem<C>> extends GenPolynomial<
                         } else {
                             e4 = e2.subtract(rel.e);
                         }
-                        ring.table.update(e4, f2, Cs);
+                        ring.table.memoize(e4, f2, Cs);
                     }
                     if (rel.e != null) {
                         C1 = ring.valueOf(rel.e);
                         Cs = C1.multiply(Cs);
-                        ring.table.update(e2, f2, Cs);
+                        ring.table.memoize(e2, f2, Cs);
                     }
                     if (!f1.isZERO()) {
                         C2 = ring.valueOf(f1);
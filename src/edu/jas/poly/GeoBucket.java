@@ -0,0 +1,524 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * GeoBucket implements a mutable accumulator for sums of polynomials as
+ * geometric buckets, see T. Yan, The geobucket data structure for polynomials.
+ * Bucket i holds the terms of a polynomial with at most 4<sup>i+1</sup> terms
+ * in sorted arrays, a new summand is merged into the bucket of its size and
+ * carried to larger buckets on overflow. So a sequence of subtractMultiple()
+ * steps, as in a normalform computation, costs about the sum of the lengths
+ * of the summands times a logarithmic factor, in contrast to
+ * GenPolynomial.subtractMultiple() which copies the whole intermediate
+ * polynomial in every step. The leading term is determined lazily from the
+ * heads of the buckets, consumed terms are skipped by an index. The leading
+ * term of a subtracted multiple is cancelled directly against a determined
+ * leading term. This class is not thread-safe.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ */
+
+public class GeoBucket<C extends RingElem<C>> {
+
+
+    /**
+     * Bucket with terms in descending order, the terms before pos are
+     * consumed.
+     */
+    static final class Bucket<K> {
+
+
+        final K[] keys;
+
+
+        final Object[] coeffs;
+
+
+        int pos;
+
+
+        int size;
+
+
+        /**
+         * Constructor.
+         * @param k exponents.
+         * @param c coefficients.
+         * @param n number of terms.
+         */
+        Bucket(K[] k, Object[] c, int n) {
+            keys = k;
+            coeffs = c;
+            pos = 0;
+            size = n;
+        }
+
+
+        /**
+         * Number of not consumed terms.
+         */
+        int length() {
+            return size - pos;
+        }
+    }
+
+
+    /**
+     * Polynomial ring factory.
+     */
+    public final GenPolynomialRing<C> ring;
+
+
+    /**
+     * The buckets, null for empty buckets.
+     */
+    private final List<Bucket<ExpVector>> buckets;
+
+
+    /**
+     * Comparator of the terms, the leading term is the least.
+     */
+    private final Comparator<ExpVector> cmp;
+
+
+    /**
+     * Leading exponent, if determined and removed from the buckets.
+     */
+    private ExpVector lexp;
+
+
+    /**
+     * Leading coefficient, if determined and removed from the buckets.
+     */
+    private C lcoeff;
+
+
+    /**
+     * Constructor for zero accumulator.
+     * @param r polynomial ring factory.
+     */
+    public GeoBucket(GenPolynomialRing<C> r) {
+        ring = r;
+        cmp = r.tord.getDescendComparator();
+        buckets = new ArrayList<Bucket<ExpVector>>();
+        lexp = null;
+        lcoeff = null;
+    }
+
+
+    /**
+     * Constructor.
+     * @param p initial polynomial.
+     */
+    public GeoBucket(GenPolynomial<C> p) {
+        this(p.ring);
+        add(p);
+    }
+
+
+    /**
+     * Index of the bucket for a polynomial length.
+     * @param n length of polynomial.
+     * @return i with 4<sup>i</sup> &lt; n &le; 4<sup>i+1</sup>.
+     */
+    static int bucketIndex(int n) {
+        int i = 0;
+        long c = 4L;
+        while (c < n) {
+            c <<= 2;
+            i++;
+        }
+        return i;
+    }
+
+
+    /**
+     * Merge a bucket into a list of buckets.
+     * @param buckets list of buckets.
+     * @param b bucket, not empty.
+     * @param cmp term comparator.
+     */
+    static <K, C extends RingElem<C>> void insert(List<Bucket<K>> buckets, Bucket<K> b,
+                    Comparator<K> cmp) {
+        int i = bucketIndex(b.length());
+        while (b.length() > 0) {
+            while (buckets.size() <= i) {
+                buckets.add(null);
+            }
+            Bucket<K> a = buckets.get(i);
+            if (a == null) {
+                buckets.set(i, b);
+                return;
+            }
+            buckets.set(i, null);
+            b = GeoBucket.<K, C> merge(a, b, cmp);
+            i = Math.max(i, bucketIndex(b.length()));
+        }
+    }
+
+
+    /**
+     * Linear merge of two buckets.
+     * @param a bucket.
+     * @param b bucket.
+     * @param cmp term comparator.
+     * @return bucket with the sum of the not consumed terms of a and b.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, C extends RingElem<C>> Bucket<K> merge(Bucket<K> a, Bucket<K> b, Comparator<K> cmp) {
+        int n = a.length() + b.length();
+        K[] e = (K[]) java.lang.reflect.Array.newInstance(a.keys.getClass().getComponentType(), n);
+        Object[] c = new Object[n];
+        int k = 0;
+        int i = a.pos;
+        int j = b.pos;
+        while (i < a.size && j < b.size) {
+            int s = cmp.compare(a.keys[i], b.keys[j]);
+            if (s < 0) {
+                e[k] = a.keys[i];
+                c[k++] = a.coeffs[i++];
+            } else if (s > 0) {
+                e[k] = b.keys[j];
+                c[k++] = b.coeffs[j++];
+            } else {
+                C x = ((C) a.coeffs[i]).sum((C) b.coeffs[j]);
+                if (!x.isZERO()) {
+                    e[k] = a.keys[i];
+                    c[k++] = x;
+                }
+                i++;
+                j++;
+            }
+        }
+        while (i < a.size) {
+            e[k] = a.keys[i];
+            c[k++] = a.coeffs[i++];
+        }
+        while (j < b.size) {
+            e[k] = b.keys[j];
+            c[k++] = b.coeffs[j++];
+        }
+        return new Bucket<K>(e, c, k);
+    }
+
+
+    /**
+     * Merge all buckets of a list into one.
+     * @param buckets list of buckets, is emptied.
+     * @param cmp term comparator.
+     * @return bucket with all not consumed terms, or null.
+     */
+    static <K, C extends RingElem<C>> Bucket<K> mergeAll(List<Bucket<K>> buckets, Comparator<K> cmp) {
+        Bucket<K> a = null;
+        for (int i = 0; i < buckets.size(); i++) {
+            Bucket<K> b = buckets.get(i);
+            if (b != null) {
+                a = (a == null ? b : GeoBucket.<K, C> merge(a, b, cmp));
+                buckets.set(i, null);
+            }
+        }
+        return a;
+    }
+
+
+    /**
+     * Put back a determined leading term into the buckets.
+     */
+    private void restoreLeading() {
+        if (lexp == null) {
+            return;
+        }
+        Bucket<ExpVector> b = new Bucket<ExpVector>(new ExpVector[] { lexp }, new Object[] { lcoeff }, 1);
+        lexp = null;
+        lcoeff = null;
+        GeoBucket.<ExpVector, C> insert(buckets, b, cmp);
+    }
+
+
+    /**
+     * Add a polynomial.
+     * @param p polynomial.
+     */
+    public void add(GenPolynomial<C> p) {
+        if (p == null || p.isZERO()) {
+            return;
+        }
+        restoreLeading();
+        int n = p.length();
+        ExpVector[] e = new ExpVector[n];
+        Object[] c = new Object[n];
+        int k = 0;
+        for (Map.Entry<ExpVector, C> me : p.val.entrySet()) {
+            e[k] = me.getKey();
+            c[k++] = me.getValue();
+        }
+        GeoBucket.<ExpVector, C> insert(buckets, new Bucket<ExpVector>(e, c, k), cmp);
+    }
+
+
+    /**
+     * Subtract a polynomial.
+     * @param p polynomial.
+     */
+    public void subtract(GenPolynomial<C> p) {
+        subtractMultiple(ring.coFac.getONE(), null, p);
+    }
+
+
+    /**
+     * Subtract a multiple, this = this - a x<sup>e</sup> S. The exponents
+     * are multiplied commutatively, as in GenPolynomial.subtractMultiple(),
+     * for solvable polynomials use subtract() with the solvable product.
+     * @param a coefficient.
+     * @param e exponent, null for x<sup>0</sup>.
+     * @param S polynomial.
+     */
+    public void subtractMultiple(C a, ExpVector e, GenPolynomial<C> S) {
+        if (a == null || a.isZERO() || S == null || S.isZERO()) {
+            return;
+        }
+        int n = S.length();
+        ExpVector[] es = new ExpVector[n];
+        Object[] cs = new Object[n];
+        int k = 0;
+        for (Map.Entry<ExpVector, C> me : S.val.entrySet()) {
+            C y = a.multiply(me.getValue());
+            if (y.isZERO()) { // zero divisors
+                continue;
+            }
+            ExpVector f = me.getKey();
+            if (e != null) {
+                f = e.sum(f);
+            }
+            y = y.negate();
+            if (k == 0 && lexp != null && lexp.equals(f)) { // cancel leading term
+                y = lcoeff.sum(y);
+                lexp = null;
+                lcoeff = null;
+                if (y.isZERO()) {
+                    continue;
+                }
+            }
+            es[k] = f;
+            cs[k++] = y;
+        }
+        restoreLeading();
+        if (k > 0) {
+            GeoBucket.<ExpVector, C> insert(buckets, new Bucket<ExpVector>(es, cs, k), cmp);
+        }
+    }
+
+
+    /**
+     * Subtract a multiple, this = this - a S. The coefficients are multiplied
+     * from the left.
+     * @param a coefficient.
+     * @param S polynomial.
+     */
+    public void subtractMultiple(C a, GenPolynomial<C> S) {
+        subtractMultiple(a, null, S);
+    }
+
+
+    /**
+     * Multiply by a coefficient, this = b this.
+     * @param b coefficient.
+     */
+    @SuppressWarnings("unchecked")
+    public void multiply(C b) {
+        if (b.isONE()) {
+            return;
+        }
+        if (lexp != null) {
+            lcoeff = lcoeff.multiply(b);
+            if (lcoeff.isZERO()) { // zero divisors
+                lexp = null;
+                lcoeff = null;
+            }
+        }
+        for (int i = 0; i < buckets.size(); i++) {
+            Bucket<ExpVector> a = buckets.get(i);
+            if (a == null) {
+                continue;
+            }
+            int k = 0;
+            for (int j = a.pos; j < a.size; j++) {
+                C x = ((C) a.coeffs[j]).multiply(b);
+                if (!x.isZERO()) {
+                    a.keys[k] = a.keys[j];
+                    a.coeffs[k++] = x;
+                }
+            }
+            a.pos = 0;
+            a.size = k;
+            if (k == 0) {
+                buckets.set(i, null);
+            }
+        }
+    }
+
+
+    /**
+     * Scale and subtract a multiple, this = b this - a x<sup>e</sup> S.
+     * @param b scale factor.
+     * @param a coefficient.
+     * @param e exponent.
+     * @param S polynomial.
+     */
+    public void scaleSubtractMultiple(C b, C a, ExpVector e, GenPolynomial<C> S) {
+        multiply(b);
+        subtractMultiple(a, e, S);
+    }
+
+
+    /**
+     * Leading monomial.
+     * @return leading monomial of the accumulated polynomial, or null if it
+     *         is zero.
+     */
+    @SuppressWarnings("unchecked")
+    public Monomial<C> leadingMonomial() {
+        while (lexp == null) {
+            ExpVector e = null;
+            for (Bucket<ExpVector> b : buckets) {
+                if (b == null) {
+                    continue;
+                }
+                ExpVector f = b.keys[b.pos];
+                if (e == null || cmp.compare(f, e) < 0) {
+                    e = f;
+                }
+            }
+            if (e == null) {
+                return null;
+            }
+            C c = null;
+            for (int i = 0; i < buckets.size(); i++) {
+                Bucket<ExpVector> b = buckets.get(i);
+                if (b == null || !e.equals(b.keys[b.pos])) {
+                    continue;
+                }
+                C d = (C) b.coeffs[b.pos];
+                c = (c == null ? d : c.sum(d));
+                b.pos++;
+                if (b.pos >= b.size) {
+                    buckets.set(i, null);
+                }
+            }
+            if (!c.isZERO()) {
+                lexp = e;
+                lcoeff = c;
+            }
+        }
+        return new Monomial<C>(lexp, lcoeff);
+    }
+
+
+    /**
+     * Leading exponent vector.
+     * @return leading exponent of the accumulated polynomial, or null if it
+     *         is zero.
+     */
+    public ExpVector leadingExpVector() {
+        Monomial<C> m = leadingMonomial();
+        if (m == null) {
+            return null;
+        }
+        return m.e;
+    }
+
+
+    /**
+     * Extract the leading monomial.
+     * @return leading monomial of the accumulated polynomial, or null if it
+     *         is zero. The monomial is removed from this.
+     */
+    public Monomial<C> pollLeadingMonomial() {
+        Monomial<C> m = leadingMonomial();
+        lexp = null;
+        lcoeff = null;
+        return m;
+    }
+
+
+    /**
+     * Is zero.
+     * @return true, if the accumulated polynomial is zero, else false.
+     */
+    public boolean isZERO() {
+        return leadingMonomial() == null;
+    }
+
+
+    /**
+     * Number of terms.
+     * @return upper bound for the number of terms of the accumulated
+     *         polynomial.
+     */
+    public int length() {
+        int n = (lexp == null ? 0 : 1);
+        for (Bucket<ExpVector> b : buckets) {
+            if (b != null) {
+                n += b.length();
+            }
+        }
+        return n;
+    }
+
+
+    /**
+     * Accumulated polynomial. The buckets are merged into one.
+     * @return the accumulated polynomial.
+     */
+    @SuppressWarnings("unchecked")
+    public GenPolynomial<C> getPolynomial() {
+        restoreLeading();
+        GenPolynomial<C> p = ring.getZERO().copy();
+        Bucket<ExpVector> a = GeoBucket.<ExpVector, C> mergeAll(buckets, cmp);
+        if (a == null || a.length() == 0) {
+            return p;
+        }
+        GeoBucket.<ExpVector, C> insert(buckets, a, cmp);
+        TermArrayMap<C> t;
+        if (p.val instanceof TermArrayMap) {
+            t = (TermArrayMap<C>) p.val;
+        } else {
+            t = new TermArrayMap<C>(ring.tord, a.length());
+        }
+        for (int j = a.pos; j < a.size; j++) {
+            t.append(a.keys[j], (C) a.coeffs[j]);
+        }
+        if (t != p.val) { // linear for sorted map with same comparator
+            p.val.putAll(t);
+        }
+        return p;
+    }
+
+
+    /**
+     * String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer("GeoBucket(");
+        if (lexp != null) {
+            s.append("[" + lcoeff + " " + lexp + "], ");
+        }
+        s.append(length() + " terms)");
+        return s.toString();
+    }
+
+}
@@ -313,12 +313,12 @@ public class QLRSolvablePolynomial<C extends GcdRingElem<C> & QuotPair<GenPolyno
                                 } else {
                                     g4 = g2.subtract(rel.e);
                                 }
-                                ring.table.update(g4, f2, Ds);
+                                ring.table.memoize(g4, f2, Ds);
                             }
                             if (rel.e != null) {
                                 D1 = new QLRSolvablePolynomial<C, D>(ring, one, rel.e);
                                 Ds = D1.multiply(Ds);
-                                ring.table.update(g2, f2, Ds);
+                                ring.table.memoize(g2, f2, Ds);
                             }
                             if (!f1.isZERO()) {
                                 D2 = new QLRSolvablePolynomial<C, D>(ring, one, f1);
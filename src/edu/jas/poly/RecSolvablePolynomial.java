@@ -266,12 +266,12 @@ public class RecSolvablePolynomial<C extends RingElem<C>> extends GenSolvablePol
                             } else {
                                 e4 = e2.subtract(crel.e);
                             }
-                            ring.coeffTable.update(e4, g2, Cs);
+                            ring.coeffTable.memoize(e4, g2, Cs);
                         }
                         if (crel.e != null) { // process remaining left power
                             C1 = new RecSolvablePolynomial<C>(ring, one, crel.e);
                             Cs = C1.multiply(Cs);
-                            ring.coeffTable.update(e2, g2, Cs);
+                            ring.coeffTable.memoize(e2, g2, Cs);
                         }
                         if (!g1.isZERO()) { // process remaining right part
                             GenPolynomial<C> c2 = b.ring.valueOf(g1);
@@ -347,12 +347,12 @@ public class RecSolvablePolynomial<C extends RingElem<C>> extends GenSolvablePol
                                 } else {
                                     g4 = g2.subtract(rel.e);
                                 }
-                                ring.table.update(g4, f2, Ds);
+                                ring.table.memoize(g4, f2, Ds);
                             }
                             if (rel.e != null) {
                                 D1 = ring.valueOf(rel.e);
                                 Ds = D1.multiply(Ds);
-                                ring.table.update(g2, f2, Ds);
+                                ring.table.memoize(g2, f2, Ds);
                             }
                             if (!f1.isZERO()) {
                                 D2 = ring.valueOf(f1);
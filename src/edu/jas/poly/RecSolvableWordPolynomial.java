@@ -260,12 +260,12 @@ public class RecSolvableWordPolynomial<C extends RingElem<C>>
                             } else {
                                 e4 = e2.subtract(crel.e);
                             }
-                            ring.coeffTable.update(e4, g2, Cs);
+                            ring.coeffTable.memoize(e4, g2, Cs);
                         }
                         if (crel.e != null) { // process remaining left power
                             C1 = ring.valueOf(crel.e); //new RecSolvableWordPolynomial<C>(ring, one, crel.e);
                             Cs = C1.multiply(Cs);
-                            ring.coeffTable.update(e2, g2, Cs);
+                            ring.coeffTable.memoize(e2, g2, Cs);
                         }
                         if (!g1.isONE()) { // process remaining right part
                             //GenWordPolynomial<C> c2 = b.ring.getONE().multiply(g1);
@@ -343,12 +343,12 @@ public class RecSolvableWordPolynomial<C extends RingElem<C>>
                                 } else {
                                     g4 = g2.subtract(rel.e);
                                 }
-                                ring.table.update(g4, f2, Ds);
+                                ring.table.memoize(g4, f2, Ds);
                             }
                             if (rel.e != null) {
                                 D1 = ring.valueOf(rel.e); //new RecSolvableWordPolynomial<C>(ring, one, rel.e);
                                 Ds = D1.multiply(Ds);
-                                ring.table.update(g2, f2, Ds);
+                                ring.table.memoize(g2, f2, Ds);
                             }
                             if (!f1.isZERO()) {
                                 D2 = ring.valueOf(f1); //new RecSolvableWordPolynomial<C>(ring, one, f1);
@@ -0,0 +1,249 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Bounded concurrent cache for computed relations e * f = p of a relation
+ * table. The key is the exponent vector pair (e,f). Reads are lock free, if
+ * the bound is exceeded the oldest entries are evicted first. Hit, miss and
+ * eviction counts are recorded.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ */
+
+public class RelationCache<C extends RingElem<C>> {
+
+
+    private static final Logger logger = LogManager.getLogger(RelationCache.class);
+
+
+    /**
+     * Default maximal number of cached relations.
+     */
+    private static volatile int defaultBound = 1 << 14;
+
+
+    /**
+     * The cached relations.
+     */
+    protected final Map<ExpVectorPair, GenSolvablePolynomial<C>> map;
+
+
+    /**
+     * Insertion order for eviction.
+     */
+    protected final Queue<ExpVectorPair> order;
+
+
+    /**
+     * Number of entries, maintained with the order queue.
+     */
+    protected final AtomicInteger count;
+
+
+    /**
+     * Maximal number of entries.
+     */
+    protected volatile int bound;
+
+
+    protected final LongAdder hits;
+
+
+    protected final LongAdder misses;
+
+
+    protected final LongAdder evictions;
+
+
+    /**
+     * Constructor with default bound.
+     */
+    public RelationCache() {
+        this(defaultBound);
+    }
+
+
+    /**
+     * Constructor.
+     * @param bound maximal number of cached relations, 0 disables the cache.
+     */
+    public RelationCache(int bound) {
+        map = new ConcurrentHashMap<ExpVectorPair, GenSolvablePolynomial<C>>();
+        order = new ConcurrentLinkedQueue<ExpVectorPair>();
+        count = new AtomicInteger(0);
+        hits = new LongAdder();
+        misses = new LongAdder();
+        evictions = new LongAdder();
+        this.bound = Math.max(0, bound);
+    }
+
+
+    /**
+     * Set the default bound for new caches.
+     * @param b maximal number of cached relations, 0 disables caching.
+     */
+    public static void setDefaultBound(int b) {
+        defaultBound = Math.max(0, b);
+    }
+
+
+    /**
+     * Get the default bound for new caches.
+     * @return default maximal number of cached relations.
+     */
+    public static int getDefaultBound() {
+        return defaultBound;
+    }
+
+
+    /**
+     * Set the bound. Excess entries are evicted on the next put.
+     * @param b maximal number of cached relations, 0 disables caching.
+     */
+    public void setBound(int b) {
+        bound = Math.max(0, b);
+    }
+
+
+    /**
+     * Get the bound.
+     * @return maximal number of cached relations.
+     */
+    public int getBound() {
+        return bound;
+    }
+
+
+    /**
+     * Get a cached relation and count a hit or miss.
+     * @param evp exponent vector pair (e,f).
+     * @return p with e * f = p or null.
+     */
+    public GenSolvablePolynomial<C> get(ExpVectorPair evp) {
+        GenSolvablePolynomial<C> p = map.get(evp);
+        if (p == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return p;
+    }
+
+
+    /**
+     * Get a cached relation without counting.
+     * @param evp exponent vector pair (e,f).
+     * @return p with e * f = p or null.
+     */
+    public GenSolvablePolynomial<C> peek(ExpVectorPair evp) {
+        return map.get(evp);
+    }
+
+
+    /**
+     * Put a relation into the cache and evict old entries if required.
+     * @param evp exponent vector pair (e,f).
+     * @param p with e * f = p.
+     */
+    public void put(ExpVectorPair evp, GenSolvablePolynomial<C> p) {
+        int b = bound;
+        if (b == 0) {
+            return;
+        }
+        if (map.putIfAbsent(evp, p) != null) {
+            return; // computed by an other thread
+        }
+        order.add(evp);
+        int n = count.incrementAndGet();
+        while (n > b) {
+            ExpVectorPair old = order.poll();
+            if (old == null) {
+                break;
+            }
+            map.remove(old);
+            n = count.decrementAndGet();
+            evictions.increment();
+        }
+    }
+
+
+    /**
+     * Remove all cached relations, the statistics are kept.
+     */
+    public void clear() {
+        ExpVectorPair old;
+        while ((old = order.poll()) != null) {
+            map.remove(old);
+            count.decrementAndGet();
+        }
+    }
+
+
+    /**
+     * Number of cached relations.
+     * @return size of the cache.
+     */
+    public int size() {
+        return map.size();
+    }
+
+
+    /**
+     * Number of cache hits.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+
+    /**
+     * Number of cache misses.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+
+    /**
+     * Number of evicted relations.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+
+    /**
+     * Log the statistics.
+     */
+    public void logStatistics() {
+        logger.info("{}", this);
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return "RelationCache(size=" + size() + ", bound=" + bound + ", hits=" + hits() + ", misses="
+                        + misses() + ", evictions=" + evictions() + ")";
+    }
+
+}
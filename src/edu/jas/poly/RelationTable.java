@@ -10,10 +10,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -26,9 +27,9 @@ import edu.jas.structure.RingElem;
  * RelationTable for solvable polynomials. This class maintains the
  * non-commutative multiplication relations of solvable polynomial rings. The
  * table entries are initialized with relations of the form x<sub>j</sub> *
- * x<sub>i</sub> = p<sub>ij</sub>. During multiplication the relations are
- * updated by relations of the form x<sub>j</sub><sup>k</sup> *
- * x<sub>i</sub><sup>l</sup> = p<sub>ijkl</sub>. If no relation for
+ * x<sub>i</sub> = p<sub>ij</sub>. During multiplication the computed
+ * relations of the form x<sub>j</sub><sup>k</sup> * x<sub>i</sub><sup>l</sup>
+ * = p<sub>ijkl</sub> are kept in a bounded RelationCache. If no relation for
  * x<sub>j</sub> * x<sub>i</sub> is found in the table, this multiplication is
  * assumed to be commutative x<sub>i</sub> x<sub>j</sub>. Can also be used for
  * relations between coefficients and main variables.
@@ -55,6 +56,12 @@ public class RelationTable<C extends RingElem<C>> implements Serializable {
     public final boolean coeffTable;
 
 
+    /**
+     * Bounded cache for the relations computed during multiplication.
+     */
+    protected transient volatile RelationCache<C> cache;
+
+
     private static final Logger logger = LogManager.getLogger(RelationTable.class);
 
 
@@ -82,7 +89,8 @@ public class RelationTable<C extends RingElem<C>> implements Serializable {
      * @param coeffTable indicator for coeffTable.
      */
     public RelationTable(GenSolvablePolynomialRing<C> r, boolean coeffTable) {
-        table = new HashMap<List<Integer>, List>();
+        table = new ConcurrentHashMap<List<Integer>, List>();
+        cache = new RelationCache<C>();
         ring = r;
         if (ring == null) {
             throw new IllegalArgumentException("RelationTable no ring");
@@ -487,9 +495,10 @@ public class RelationTable<C extends RingElem<C>> implements Serializable {
         if (key.size() != 2) {
             logger.warn("key = {}, evp = {}", key, evp);
         }
+        getCache().clear(); // may depend on the relations
         List part = table.get(key);
         if (part == null) { // initialization
-            part = new LinkedList();
+            part = new CopyOnWriteArrayList();
             part.add(evp);
             part.add(p);
             table.put(key, part);
@@ -498,21 +507,18 @@ public class RelationTable<C extends RingElem<C>> implements Serializable {
         @SuppressWarnings("unused")
         Object skip;
         int index = -1;
-        synchronized (part) { // with lookup()
-            for (ListIterator it = part.listIterator(); it.hasNext();) {
-                ExpVectorPair look = (ExpVectorPair) it.next();
-                skip = it.next(); // skip poly
-                if (look.isMultiple(evp)) {
-                    index = it.nextIndex();
-                    // last index of or first index of: break
-                }
+        for (ListIterator it = part.listIterator(); it.hasNext();) {
+            ExpVectorPair look = (ExpVectorPair) it.next();
+            skip = it.next(); // skip poly
+            if (look.isMultiple(evp)) {
+                index = it.nextIndex();
+                // last index of or first index of: break
             }
-            if (index < 0) {
-                index = 0;
-            }
-            part.add(index, evp);
-            part.add(index + 1, p);
         }
+        if (index < 0) {
+            index = 0;
+        }
+        part.addAll(index, Arrays.asList(evp, p)); // atomic for lookup()
         // table.put( key, part ); // required??
     }
 
@@ -587,10 +593,41 @@ public class RelationTable<C extends RingElem<C>> implements Serializable {
     }
 
 
+    /**
+     * Memoize a relation computed during multiplication. The relation e * f =
+     * p is not checked and put into the bounded cache, not into the table.
+     * @param e first term.
+     * @param f second term.
+     * @param p solvable product polynomial.
+     */
+    public void memoize(ExpVector e, ExpVector f, GenSolvablePolynomial<C> p) {
+        getCache().put(new ExpVectorPair(e, f), p);
+    }
+
+
+    /**
+     * Get the cache of computed relations.
+     * @return relation cache.
+     */
+    public RelationCache<C> getCache() {
+        RelationCache<C> c = cache;
+        if (c == null) { // after deserialization
+            synchronized (this) {
+                c = cache;
+                if (c == null) {
+                    c = new RelationCache<C>();
+                    cache = c;
+                }
+            }
+        }
+        return c;
+    }
+
+
     /**
      * Lookup RelationTable for existing relation. Find p with e * f = p. If no
      * relation for e * f is contained in the table then return the symmetric
-     * product p = 1 e f.
+     * product p = 1 e f. Computed relations from the cache are preferred.
      * @param e first term.
      * @param f second term.
      * @return t table relation container, contains e' and f' with e f = e'
@@ -626,33 +663,59 @@ public class RelationTable<C extends RingElem<C>> implements Serializable {
         }
         // no distinction between coefficient f or polynomial f
         ExpVectorPair evp = new ExpVectorPair(e, f);
+        RelationCache<C> rc = getCache();
+        GenSolvablePolynomial<C> p = rc.get(evp);
+        if (p != null) {
+            return new TableRelation<C>(null, null, p);
+        }
+        // try relations of one degree less in the last variable of f or the first of e
+        int[] df = f.dependencyOnVariables();
+        if (df.length > 0) {
+            int v = df[df.length - 1];
+            long d = f.getVal(v);
+            if (d > 1L) {
+                p = rc.peek(new ExpVectorPair(e, f.subst(v, d - 1L)));
+                if (p != null) {
+                    return new TableRelation<C>(null, f.subtract(f.subst(v, d - 1L)), p);
+                }
+            }
+        }
+        int[] de = e.dependencyOnVariables();
+        if (de.length > 0) {
+            int v = de[0];
+            long d = e.getVal(v);
+            if (d > 1L) {
+                p = rc.peek(new ExpVectorPair(e.subst(v, d - 1L), f));
+                if (p != null) {
+                    return new TableRelation<C>(e.subtract(e.subst(v, d - 1L)), null, p);
+                }
+            }
+        }
         ExpVector ep = null;
         ExpVector fp = null;
         ExpVectorPair look = null;
-        GenSolvablePolynomial<C> p = null;
-        synchronized (part) { // with update()
-            for (Iterator it = part.iterator(); it.hasNext();) {
-                look = (ExpVectorPair) it.next();
-                p = (GenSolvablePolynomial<C>) it.next();
-                if (evp.isMultiple(look)) {
-                    ep = e.subtract(look.getFirst());
-                    fp = f.subtract(look.getSecond());
-                    if (ep.isZERO()) {
-                        ep = null;
-                    }
-                    if (fp.isZERO()) {
-                        fp = null;
-                    }
-                    if (debug) {
-                        if (p != null && p.ring.vars != null) {
-                            logger.info("found relation = {} .*. {} = {}", e.toString(p.ring.vars),
-                                        f.toString(p.ring.vars), p);
-                        } else {
-                            logger.info("found relation = {} .*. {} = {}", e, f, p);
-                        }
+        // lock free, parts are copy on write lists
+        for (Iterator it = part.iterator(); it.hasNext();) {
+            look = (ExpVectorPair) it.next();
+            p = (GenSolvablePolynomial<C>) it.next();
+            if (evp.isMultiple(look)) {
+                ep = e.subtract(look.getFirst());
+                fp = f.subtract(look.getSecond());
+                if (ep.isZERO()) {
+                    ep = null;
+                }
+                if (fp.isZERO()) {
+                    fp = null;
+                }
+                if (debug) {
+                    if (p != null && p.ring.vars != null) {
+                        logger.info("found relation = {} .*. {} = {}", e.toString(p.ring.vars),
+                                    f.toString(p.ring.vars), p);
+                    } else {
+                        logger.info("found relation = {} .*. {} = {}", e, f, p);
                     }
-                    return new TableRelation<C>(ep, fp, p);
                 }
+                return new TableRelation<C>(ep, fp, p);
             }
         }
         // unreachable code!
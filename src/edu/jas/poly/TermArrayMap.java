@@ -0,0 +1,963 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * TermArrayMap implements a SortedMap from exponent vectors to coefficients
+ * with sorted arrays. It is an alternative to TreeMap for the terms of
+ * GenPolynomial, see GenPolynomialRing.setArrayTerms(). The exponents of all
+ * terms are packed in one long array with stride nvar, the coefficients are
+ * kept in a parallel array. ExpVector objects are only created when keys are
+ * accessed. Terms are stored in increasing order of the comparator, so for
+ * the descending term order comparator the leading term is at index 0. Lookup
+ * is by binary search, appending terms in order and copying are linear,
+ * inserting in the middle needs an array shift. Linear merges of polynomials
+ * are provided by doSumMultiple(). If the map is constructed with a TermOrder,
+ * the packed exponents are compared in place with
+ * TermOrder.compareDescend(), else ExpVectors are created for the comparator.
+ * <b>Note:</b> subMap(), headMap() and tailMap() return copies and not views
+ * backed by this map.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ */
+
+public final class TermArrayMap<C extends RingElem<C>> extends AbstractMap<ExpVector, C>
+                implements SortedMap<ExpVector, C>, Serializable {
+
+
+    /**
+     * The comparator for the exponent vectors.
+     */
+    final Comparator<ExpVector> cmp;
+
+
+    /**
+     * The term order of cmp for comparisons in place, null if unknown.
+     */
+    final TermOrder tord;
+
+
+    /**
+     * Exponents of the terms in increasing comparator order, term i occupies
+     * exps[i*nvar] to exps[i*nvar+nvar-1].
+     */
+    long[] exps;
+
+
+    /**
+     * Number of variables, the stride of exps, -1 if not yet known.
+     */
+    int nvar;
+
+
+    /**
+     * Exponent vector to determine the storage type of the keys.
+     */
+    ExpVector proto;
+
+
+    /**
+     * Coefficients corresponding to exps.
+     */
+    Object[] coeffs;
+
+
+    /**
+     * Number of terms.
+     */
+    int size;
+
+
+    /**
+     * Modification counter for iterators.
+     */
+    transient int modCount;
+
+
+    /**
+     * Default initial capacity.
+     */
+    static final int DEFAULT_CAPACITY = 8;
+
+
+    /**
+     * Constructor.
+     * @param cmp comparator for exponent vectors.
+     */
+    public TermArrayMap(Comparator<ExpVector> cmp) {
+        this(cmp, DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * Constructor.
+     * @param cmp comparator for exponent vectors.
+     * @param cap initial capacity.
+     */
+    public TermArrayMap(Comparator<ExpVector> cmp, int cap) {
+        this(cmp, null, cap);
+    }
+
+
+    /**
+     * Constructor for the descending comparator of a term order.
+     * @param tord term order.
+     */
+    public TermArrayMap(TermOrder tord) {
+        this(tord, DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * Constructor for the descending comparator of a term order.
+     * @param tord term order.
+     * @param cap initial capacity.
+     */
+    public TermArrayMap(TermOrder tord, int cap) {
+        this(tord.getDescendComparator(), tord, cap);
+    }
+
+
+    /**
+     * Constructor.
+     * @param cmp comparator for exponent vectors.
+     * @param tord term order of cmp or null.
+     * @param cap initial capacity.
+     */
+    TermArrayMap(Comparator<ExpVector> cmp, TermOrder tord, int cap) {
+        this.cmp = cmp;
+        this.tord = tord;
+        if (cap < 1) {
+            cap = 1;
+        }
+        exps = new long[0];
+        nvar = -1;
+        coeffs = new Object[cap];
+        size = 0;
+    }
+
+
+    /**
+     * Constructor.
+     * @param cmp comparator for exponent vectors.
+     * @param m sorted map with the same ordering as cmp.
+     */
+    public TermArrayMap(Comparator<ExpVector> cmp, SortedMap<ExpVector, C> m) {
+        this(cmp, m.size());
+        putAll(m);
+    }
+
+
+    /**
+     * Ensure capacity for n terms.
+     * @param n number of terms.
+     */
+    void ensureCapacity(int n) {
+        if (n <= coeffs.length) {
+            return;
+        }
+        int cap = Math.max(n, coeffs.length + (coeffs.length >> 1) + 1);
+        coeffs = Arrays.copyOf(coeffs, cap);
+        if (nvar > 0) {
+            exps = Arrays.copyOf(exps, cap * nvar);
+        }
+    }
+
+
+    /**
+     * Set the number of variables from the first key.
+     * @param e exponent vector.
+     */
+    void initVars(ExpVector e) {
+        if (nvar >= 0) {
+            if (e.length() != nvar) {
+                throw new IllegalArgumentException("exponent vector length " + e.length() + " != " + nvar);
+            }
+            return;
+        }
+        nvar = e.length();
+        proto = e;
+        exps = new long[coeffs.length * nvar];
+    }
+
+
+    /**
+     * Store exponent vector at index.
+     * @param i index.
+     * @param e exponent vector.
+     */
+    void store(int i, ExpVector e) {
+        int k = i * nvar;
+        if (e instanceof ExpVectorLong) {
+            System.arraycopy(((ExpVectorLong) e).val, 0, exps, k, nvar);
+            return;
+        }
+        for (int j = 0; j < nvar; j++) {
+            exps[k + j] = e.getVal(j);
+        }
+    }
+
+
+    /**
+     * Exponent vector with the storage type of the keys. The exponents are
+     * always stored as long, so keys are created with the same width as the
+     * first key stored.
+     * @param v exponents, used as internal array if possible.
+     * @return exponent vector of v.
+     */
+    ExpVector valueOf(long[] v) {
+        if (proto == null || proto instanceof ExpVectorLong) {
+            return new ExpVectorLong(v, true);
+        }
+        if (proto instanceof ExpVectorPacked) {
+            return new ExpVectorPacked(v);
+        }
+        if (proto instanceof ExpVectorInteger) {
+            return new ExpVectorInteger(v);
+        }
+        if (proto instanceof ExpVectorShort) {
+            return new ExpVectorShort(v);
+        }
+        if (proto instanceof ExpVectorByte) {
+            return new ExpVectorByte(v);
+        }
+        throw new IllegalArgumentException("unknown exponent vector type " + proto.getClass().getName());
+    }
+
+
+    /**
+     * Exponents of an exponent vector.
+     * @param e exponent vector.
+     * @return internal array of e if possible, else e.getVal().
+     */
+    static long[] exponents(ExpVector e) {
+        if (e instanceof ExpVectorLong) {
+            return ((ExpVectorLong) e).val;
+        }
+        return e.getVal();
+    }
+
+
+    /**
+     * New exponent vector at index.
+     * @param i index.
+     * @return exponent vector of term i.
+     */
+    ExpVector expVector(int i) {
+        int k = i * nvar;
+        return valueOf(Arrays.copyOfRange(exps, k, k + nvar));
+    }
+
+
+    /**
+     * Compare packed exponents with the comparator.
+     * @param u exponents of U.
+     * @param i start index of U in u.
+     * @param v exponents of V.
+     * @param j start index of V in v.
+     * @return cmp.compare(U,V).
+     */
+    int compare(long[] u, int i, long[] v, int j) {
+        if (tord != null) {
+            return tord.compareDescend(u, i, v, j, nvar);
+        }
+        return cmp.compare(valueOf(Arrays.copyOfRange(u, i, i + nvar)),
+                        valueOf(Arrays.copyOfRange(v, j, j + nvar)));
+    }
+
+
+    /**
+     * Search index of exponent vector.
+     * @param e exponent vector.
+     * @return index of e if contained, else -(insertion point)-1.
+     */
+    int indexOf(ExpVector e) {
+        if (size == 0 || e.length() != nvar) {
+            return -1;
+        }
+        return indexOf(exponents(e));
+    }
+
+
+    /**
+     * Search index of packed exponents.
+     * @param v exponents of length nvar.
+     * @return index of v if contained, else -(insertion point)-1.
+     */
+    int indexOf(long[] v) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = compare(exps, mid * nvar, v, 0);
+            if (c < 0) {
+                lo = mid + 1;
+            } else if (c > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+
+    /**
+     * Exponent vector at index.
+     * @param i index.
+     * @return new exponent vector of term i.
+     */
+    public ExpVector expAt(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("index " + i + ", size " + size);
+        }
+        return expVector(i);
+    }
+
+
+    /**
+     * Coefficient at index.
+     * @param i index.
+     * @return coeffs[i].
+     */
+    @SuppressWarnings("unchecked")
+    public C coeffAt(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("index " + i + ", size " + size);
+        }
+        return (C) coeffs[i];
+    }
+
+
+    /**
+     * Number of terms.
+     * @see java.util.Map#size()
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Test if empty.
+     * @see java.util.Map#isEmpty()
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    /**
+     * Test if key is contained.
+     * @see java.util.Map#containsKey(java.lang.Object)
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof ExpVector)) {
+            return false;
+        }
+        return indexOf((ExpVector) key) >= 0;
+    }
+
+
+    /**
+     * Get coefficient.
+     * @see java.util.Map#get(java.lang.Object)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public C get(Object key) {
+        if (!(key instanceof ExpVector)) {
+            return null;
+        }
+        int i = indexOf((ExpVector) key);
+        if (i < 0) {
+            return null;
+        }
+        return (C) coeffs[i];
+    }
+
+
+    /**
+     * Put coefficient. Appending in comparator order is done in constant
+     * time.
+     * @see java.util.Map#put(java.lang.Object, java.lang.Object)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public C put(ExpVector e, C c) {
+        if (e == null || c == null) {
+            throw new NullPointerException("null keys or values not allowed");
+        }
+        initVars(e);
+        long[] v = exponents(e);
+        if (size == 0 || compare(exps, (size - 1) * nvar, v, 0) < 0) {
+            append(e, c);
+            return null;
+        }
+        int i = indexOf(v);
+        if (i >= 0) {
+            C old = (C) coeffs[i];
+            coeffs[i] = c;
+            return old;
+        }
+        i = -(i + 1);
+        ensureCapacity(size + 1);
+        System.arraycopy(exps, i * nvar, exps, (i + 1) * nvar, (size - i) * nvar);
+        System.arraycopy(coeffs, i, coeffs, i + 1, size - i);
+        store(i, e);
+        coeffs[i] = c;
+        size++;
+        modCount++;
+        return null;
+    }
+
+
+    /**
+     * Append a term, e must be greater than all contained exponents.
+     * @param e exponent vector.
+     * @param c coefficient.
+     */
+    void append(ExpVector e, C c) {
+        initVars(e);
+        ensureCapacity(size + 1);
+        store(size, e);
+        coeffs[size] = c;
+        size++;
+        modCount++;
+    }
+
+
+    /**
+     * Append a term given by packed exponents, the exponents must be greater
+     * than all contained exponents.
+     * @param v array of packed exponents.
+     * @param k start index of the exponents in v.
+     * @param c coefficient.
+     */
+    void append(long[] v, int k, C c) {
+        ensureCapacity(size + 1);
+        System.arraycopy(v, k, exps, size * nvar, nvar);
+        coeffs[size] = c;
+        size++;
+        modCount++;
+    }
+
+
+    /**
+     * Remove coefficient.
+     * @see java.util.Map#remove(java.lang.Object)
+     */
+    @Override
+    public C remove(Object key) {
+        if (!(key instanceof ExpVector)) {
+            return null;
+        }
+        int i = indexOf((ExpVector) key);
+        if (i < 0) {
+            return null;
+        }
+        return removeAt(i);
+    }
+
+
+    /**
+     * Remove term at index.
+     * @param i index.
+     * @return removed coefficient.
+     */
+    @SuppressWarnings("unchecked")
+    C removeAt(int i) {
+        C old = (C) coeffs[i];
+        int n = size - i - 1;
+        if (n > 0) {
+            System.arraycopy(exps, (i + 1) * nvar, exps, i * nvar, n * nvar);
+            System.arraycopy(coeffs, i + 1, coeffs, i, n);
+        }
+        size--;
+        coeffs[size] = null;
+        modCount++;
+        return old;
+    }
+
+
+    /**
+     * Remove all terms.
+     * @see java.util.Map#clear()
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(coeffs, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+
+    /**
+     * Put all terms of a map. Sorted maps in the same order are appended
+     * linearly.
+     * @see java.util.Map#putAll(java.util.Map)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void putAll(Map<? extends ExpVector, ? extends C> m) {
+        if (m.isEmpty()) {
+            return;
+        }
+        if (size == 0 && m instanceof TermArrayMap) {
+            TermArrayMap<C> t = (TermArrayMap<C>) m;
+            if (sameOrder(t) && (nvar < 0 || nvar == t.nvar)) {
+                if (nvar < 0) {
+                    nvar = t.nvar;
+                    proto = t.proto;
+                    exps = new long[coeffs.length * nvar];
+                }
+                ensureCapacity(t.size);
+                System.arraycopy(t.exps, 0, exps, 0, t.size * nvar);
+                System.arraycopy(t.coeffs, 0, coeffs, 0, t.size);
+                size = t.size;
+                modCount++;
+                return;
+            }
+        }
+        ensureCapacity(size + m.size());
+        for (Map.Entry<? extends ExpVector, ? extends C> me : m.entrySet()) {
+            put(me.getKey(), me.getValue());
+        }
+    }
+
+
+    /**
+     * Test if other map uses the same order.
+     * @param t other map.
+     * @return true if t has the same comparator as this.
+     */
+    boolean sameOrder(TermArrayMap<C> t) {
+        return cmp == t.cmp || cmp.equals(t.cmp);
+    }
+
+
+    /**
+     * Linear merge of sorted maps, this = A &plusmn; a x<sup>e</sup> B. This
+     * map must be empty and A and B must be sorted with the same comparator as
+     * this. Coefficients are multiplied with a from the left. The exponents are
+     * merged in their packed form, other sorted maps are converted first.
+     * @param A sorted map.
+     * @param sub true for subtraction, false for addition.
+     * @param a coefficient, null for one.
+     * @param e exponent vector, null for zero.
+     * @param B sorted map.
+     */
+    public void doSumMultiple(SortedMap<ExpVector, C> A, boolean sub, C a, ExpVector e,
+                    SortedMap<ExpVector, C> B) {
+        if (size != 0) {
+            throw new IllegalArgumentException("map must be empty");
+        }
+        TermArrayMap<C> At = packed(A);
+        TermArrayMap<C> Bt = packed(B);
+        if (At.nvar >= 0) {
+            initVars(At.proto);
+        }
+        if (Bt.nvar >= 0) {
+            initVars(Bt.proto);
+        }
+        if (nvar < 0) { // both empty
+            return;
+        }
+        long[] ev = null;
+        if (e != null) {
+            if (e.length() != nvar) {
+                throw new IllegalArgumentException("exponent vector length " + e.length() + " != " + nvar);
+            }
+            ev = new long[nvar];
+            for (int j = 0; j < nvar; j++) {
+                ev[j] = e.getVal(j);
+            }
+        }
+        ensureCapacity(At.size + Bt.size);
+        long[] xb = new long[nvar];
+        int i = 0;
+        int k = 0;
+        C y = null;
+        if (k < Bt.size) {
+            shifted(Bt, k, ev, xb);
+            y = (a == null) ? Bt.coeffAt(k) : a.multiply(Bt.coeffAt(k));
+        }
+        while (i < At.size && k < Bt.size) {
+            int c = compare(At.exps, i * nvar, xb, 0);
+            if (c < 0) {
+                append(At.exps, i * nvar, At.coeffAt(i));
+                i++;
+                continue;
+            }
+            if (c == 0) {
+                C x = At.coeffAt(i);
+                x = sub ? x.subtract(y) : x.sum(y);
+                if (!x.isZERO()) {
+                    append(xb, 0, x);
+                }
+                i++;
+            } else if (!y.isZERO()) {
+                append(xb, 0, sub ? y.negate() : y);
+            }
+            k++;
+            if (k < Bt.size) {
+                shifted(Bt, k, ev, xb);
+                y = (a == null) ? Bt.coeffAt(k) : a.multiply(Bt.coeffAt(k));
+            }
+        }
+        while (i < At.size) {
+            append(At.exps, i * nvar, At.coeffAt(i));
+            i++;
+        }
+        while (k < Bt.size) {
+            if (!y.isZERO()) {
+                append(xb, 0, sub ? y.negate() : y);
+            }
+            k++;
+            if (k < Bt.size) {
+                shifted(Bt, k, ev, xb);
+                y = (a == null) ? Bt.coeffAt(k) : a.multiply(Bt.coeffAt(k));
+            }
+        }
+    }
+
+
+    /**
+     * Sorted map as TermArrayMap in the order of this.
+     * @param A sorted map.
+     * @return A if it is a TermArrayMap with the order of this, else a copy.
+     */
+    @SuppressWarnings("unchecked")
+    TermArrayMap<C> packed(SortedMap<ExpVector, C> A) {
+        if (A instanceof TermArrayMap && sameOrder((TermArrayMap<C>) A)) {
+            return (TermArrayMap<C>) A;
+        }
+        TermArrayMap<C> t = new TermArrayMap<C>(cmp, tord, A.size());
+        t.putAll(A);
+        return t;
+    }
+
+
+    /**
+     * Exponents of a term shifted by a packed exponent vector.
+     * @param B map.
+     * @param k index of term in B.
+     * @param ev exponents to add, null for zero.
+     * @param buf buffer of length nvar for the result.
+     */
+    static void shifted(TermArrayMap<?> B, int k, long[] ev, long[] buf) {
+        int n = buf.length;
+        System.arraycopy(B.exps, k * n, buf, 0, n);
+        if (ev != null) {
+            for (int j = 0; j < n; j++) {
+                buf[j] += ev[j];
+            }
+        }
+    }
+
+
+    /**
+     * Get the comparator.
+     * @see java.util.SortedMap#comparator()
+     */
+    public Comparator<? super ExpVector> comparator() {
+        return cmp;
+    }
+
+
+    /**
+     * First key.
+     * @see java.util.SortedMap#firstKey()
+     */
+    public ExpVector firstKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return expVector(0);
+    }
+
+
+    /**
+     * Last key.
+     * @see java.util.SortedMap#lastKey()
+     */
+    public ExpVector lastKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return expVector(size - 1);
+    }
+
+
+    /**
+     * Copy of sub map from fromKey inclusive to toKey exclusive.
+     * @see java.util.SortedMap#subMap(java.lang.Object, java.lang.Object)
+     */
+    public SortedMap<ExpVector, C> subMap(ExpVector fromKey, ExpVector toKey) {
+        if (cmp.compare(fromKey, toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return copyRange(lowerIndex(fromKey), lowerIndex(toKey));
+    }
+
+
+    /**
+     * Copy of head map up to toKey exclusive.
+     * @see java.util.SortedMap#headMap(java.lang.Object)
+     */
+    public SortedMap<ExpVector, C> headMap(ExpVector toKey) {
+        return copyRange(0, lowerIndex(toKey));
+    }
+
+
+    /**
+     * Copy of tail map from fromKey inclusive.
+     * @see java.util.SortedMap#tailMap(java.lang.Object)
+     */
+    public SortedMap<ExpVector, C> tailMap(ExpVector fromKey) {
+        return copyRange(lowerIndex(fromKey), size);
+    }
+
+
+    /**
+     * Index of first term not less than e.
+     * @param e exponent vector.
+     * @return index.
+     */
+    int lowerIndex(ExpVector e) {
+        int i = indexOf(e);
+        return (i >= 0) ? i : -(i + 1);
+    }
+
+
+    /**
+     * Copy of an index range.
+     * @param from start index inclusive.
+     * @param to end index exclusive.
+     * @return new TermArrayMap with the terms in the range.
+     */
+    TermArrayMap<C> copyRange(int from, int to) {
+        int n = Math.max(0, to - from);
+        TermArrayMap<C> t = new TermArrayMap<C>(cmp, tord, n);
+        if (n > 0) {
+            t.nvar = nvar;
+            t.proto = proto;
+            t.exps = Arrays.copyOfRange(exps, from * nvar, to * nvar);
+            System.arraycopy(coeffs, from, t.coeffs, 0, n);
+            t.size = n;
+        }
+        return t;
+    }
+
+
+    /**
+     * Set view of the terms. The entries support setValue() and the iterator
+     * supports remove(). Each term is returned in a new entry.
+     * @see java.util.Map#entrySet()
+     */
+    @Override
+    public Set<Map.Entry<ExpVector, C>> entrySet() {
+        return new AbstractSet<Map.Entry<ExpVector, C>>() {
+
+
+            @Override
+            public Iterator<Map.Entry<ExpVector, C>> iterator() {
+                return new TermIterator(false);
+            }
+
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+
+    /**
+     * Terms for internal loops of GenPolynomial. The iterator returns the same
+     * mutable entry for all terms, an entry is only valid until the next call
+     * of next().
+     * @return iterable over the terms.
+     */
+    Iterable<Map.Entry<ExpVector, C>> terms() {
+        return new Iterable<Map.Entry<ExpVector, C>>() {
+
+
+            public Iterator<Map.Entry<ExpVector, C>> iterator() {
+                return new TermIterator(true);
+            }
+        };
+    }
+
+
+    /**
+     * Iterator over the terms.
+     */
+    final class TermIterator implements Iterator<Map.Entry<ExpVector, C>> {
+
+
+        /**
+         * The reused entry, null if a new entry is returned for each term.
+         */
+        final TermEntry entry;
+
+
+        int next = 0;
+
+
+        int last = -1;
+
+
+        int expected = modCount;
+
+
+        /**
+         * Constructor.
+         * @param reuse if true, the same entry is returned for all terms.
+         */
+        TermIterator(boolean reuse) {
+            entry = (reuse ? new TermEntry() : null);
+        }
+
+
+        public boolean hasNext() {
+            return next < size;
+        }
+
+
+        public Map.Entry<ExpVector, C> next() {
+            if (expected != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            TermEntry me = (entry == null ? new TermEntry() : entry);
+            me.set(last);
+            return me;
+        }
+
+
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (expected != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expected = modCount;
+        }
+    }
+
+
+    /**
+     * Mutable map entry for a term. The exponent vector is created on the
+     * first call of getKey().
+     */
+    final class TermEntry implements Map.Entry<ExpVector, C> {
+
+
+        int index;
+
+
+        ExpVector key;
+
+
+        int expected;
+
+
+        /**
+         * Move to a term.
+         * @param i index.
+         */
+        void set(int i) {
+            index = i;
+            key = null;
+            expected = modCount;
+        }
+
+
+        public ExpVector getKey() {
+            check();
+            if (key == null) {
+                key = expVector(index);
+            }
+            return key;
+        }
+
+
+        @SuppressWarnings("unchecked")
+        public C getValue() {
+            check();
+            return (C) coeffs[index];
+        }
+
+
+        @SuppressWarnings("unchecked")
+        public C setValue(C c) {
+            if (c == null) {
+                throw new NullPointerException("null values not allowed");
+            }
+            check();
+            C old = (C) coeffs[index];
+            coeffs[index] = c;
+            return old;
+        }
+
+
+        void check() {
+            if (index >= size || expected != modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> me = (Map.Entry<?, ?>) o;
+            return getKey().equals(me.getKey()) && getValue().equals(me.getValue());
+        }
+
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ getValue().hashCode();
+        }
+
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+}
@@ -1545,6 +1545,88 @@ public final class TermOrder implements Serializable {
     }
 
 
+    /**
+     * Compare exponent vectors packed in long arrays with the descending
+     * order comparator. No ExpVector objects are created, used by
+     * TermArrayMap.
+     * @param u exponents of U.
+     * @param i start index of U in u.
+     * @param v exponents of V.
+     * @param j start index of V in v.
+     * @param n number of exponents.
+     * @return getDescendComparator().compare(U,V).
+     */
+    public int compareDescend(long[] u, int i, long[] v, int j, int n) {
+        if (weight != null) {
+            return -ExpVectorLong.invWeightCompare(weight, u, i, v, j, 0, n);
+        }
+        if (evord2 == 0) { // not split
+            return compareBlock(evord, u, i, v, j, 0, n);
+        }
+        int b1 = Math.max(evbeg1, 0);
+        int e1 = Math.min(evend1, n);
+        int b2 = Math.max(evbeg2, 0);
+        int e2 = Math.min(evend2, n);
+        int ev2 = evord2;
+        if (evord == REVILEX && evord2 == GRLEX) { // as in horder
+            ev2 = REVTDEG;
+        }
+        int t;
+        if (TOP && (evord == INVLEX || evord == IGRLEX) && (evord2 == INVLEX || evord2 == IGRLEX)) {
+            t = compareBlock(ev2, u, i, v, j, b2, e2);
+            if (t != 0) {
+                return t;
+            }
+            return compareBlock(evord, u, i, v, j, b1, e1);
+        }
+        t = compareBlock(evord, u, i, v, j, b1, e1);
+        if (t != 0) {
+            return t;
+        }
+        return compareBlock(ev2, u, i, v, j, b2, e2);
+    }
+
+
+    /**
+     * Compare a block of packed exponents with the descending order of a
+     * term order indicator.
+     * @param ev term order indicator.
+     * @param u exponents of U.
+     * @param i start index of U in u.
+     * @param v exponents of V.
+     * @param j start index of V in v.
+     * @param begin first exponent of the block.
+     * @param end exponent after the block.
+     * @return comparison of the blocks of U and V.
+     */
+    private static int compareBlock(int ev, long[] u, int i, long[] v, int j, int begin, int end) {
+        switch (ev) {
+        case LEX:
+            return ExpVectorLong.invLexCompare(u, i, v, j, begin, end);
+        case INVLEX:
+            return -ExpVectorLong.invLexCompare(u, i, v, j, begin, end);
+        case GRLEX:
+            return ExpVectorLong.invGradCompare(u, i, v, j, begin, end);
+        case IGRLEX:
+            return -ExpVectorLong.invGradCompare(u, i, v, j, begin, end);
+        case REVLEX:
+            return ExpVectorLong.revInvLexCompare(u, i, v, j, begin, end);
+        case REVILEX:
+            return -ExpVectorLong.revInvLexCompare(u, i, v, j, begin, end);
+        case REVTDEG:
+            return ExpVectorLong.revInvGradCompare(u, i, v, j, begin, end);
+        case REVITDG:
+            return -ExpVectorLong.revInvGradCompare(u, i, v, j, begin, end);
+        case ITDEGLEX: // not in split orders
+            return -ExpVectorLong.invTdegCompare(u, i, v, j, end);
+        case REVITDEG: // not in split orders
+            return ExpVectorLong.revLexInvTdegCompare(u, i, v, j, end);
+        default:
+            throw new IllegalArgumentException("invalid term order: " + ev);
+        }
+    }
+
+
     /**
      * Comparison with any other object.
      * @see java.lang.Object#equals(java.lang.Object)
@@ -342,6 +342,24 @@ public final class Word implements MonoidElem<Word> {
     }
 
 
+    /**
+     * Word divide at a known position.
+     * @param V other word.
+     * @param i index of an occurrence of V in this.
+     * @return [left,right] with left * V * right = this.
+     */
+    public Word[] divideWordAt(Word V, int i) {
+        int len = V.val.length();
+        if (i < 0 || !this.val.startsWith(V.val, i)) {
+            throw new NotInvertibleException("not dividable at " + i + ": " + this + ", other " + V);
+        }
+        Word[] ret = new Word[2];
+        ret[0] = new Word(mono, this.val.substring(0, i), false);
+        ret[1] = new Word(mono, this.val.substring(i + len), false);
+        return ret;
+    }
+
+
     /**
      * Word remainder.
      * @param V other word.
@@ -602,57 +620,77 @@ public final class Word implements MonoidElem<Word> {
             }
             return ret;
         }
+        int la = shortestOverlap(a, b); // prefix of a is suffix of b
+        int lb = shortestOverlap(b, a); // suffix of a is prefix of b
         if (ai >= bi) {
-            for (int i = 0; i < bi; i++) {
-                String as = a.substring(0, i + 1);
-                String bs = b.substring(bi - i - 1, bi);
-                //System.out.println("i = " + i + ", bs = " + bs + ", as = " + as);
-                if (as.equals(bs)) {
-                    Word w1 = new Word(mono, b.substring(0, bi - i - 1), false);
-                    Word w2 = new Word(mono, a.substring(i + 1), false);
-                    ret.add(new Overlap(w1, wone, wone, w2));
-                    break;
-                }
+            if (la > 0) {
+                Word w1 = new Word(mono, b.substring(0, bi - la), false);
+                Word w2 = new Word(mono, a.substring(la), false);
+                ret.add(new Overlap(w1, wone, wone, w2));
             }
-            for (int i = 0; i < bi; i++) {
-                String as = a.substring(ai - i - 1, ai);
-                String bs = b.substring(0, i + 1);
-                //System.out.println("i = " + i + ", bs = " + bs + ", as = " + as);
-                if (as.equals(bs)) {
-                    Word w1 = new Word(mono, b.substring(i + 1), false);
-                    Word w2 = new Word(mono, a.substring(0, ai - i - 1), false);
-                    ret.add(new Overlap(wone, w1, w2, wone));
-                    break;
-                }
+            if (lb > 0) {
+                Word w1 = new Word(mono, b.substring(lb), false);
+                Word w2 = new Word(mono, a.substring(0, ai - lb), false);
+                ret.add(new Overlap(wone, w1, w2, wone));
             }
         } else { // ai < bi
-            for (int i = 0; i < ai; i++) {
-                String as = a.substring(ai - i - 1, ai);
-                String bs = b.substring(0, i + 1);
-                //System.out.println("i = " + i + ", bs = " + bs + ", as = " + as);
-                if (as.equals(bs)) {
-                    Word w1 = new Word(mono, b.substring(i + 1), false);
-                    Word w2 = new Word(mono, a.substring(0, ai - i - 1), false);
-                    ret.add(new Overlap(wone, w1, w2, wone));
-                    break;
-                }
+            if (lb > 0) {
+                Word w1 = new Word(mono, b.substring(lb), false);
+                Word w2 = new Word(mono, a.substring(0, ai - lb), false);
+                ret.add(new Overlap(wone, w1, w2, wone));
             }
-            for (int i = 0; i < ai; i++) {
-                String as = a.substring(0, i + 1);
-                String bs = b.substring(bi - i - 1, bi);
-                //System.out.println("i = " + i + ", bs = " + bs + ", as = " + as);
-                if (as.equals(bs)) {
-                    Word w1 = new Word(mono, b.substring(0, bi - i - 1), false);
-                    Word w2 = new Word(mono, a.substring(i + 1), false);
-                    ret.add(new Overlap(w1, wone, wone, w2));
-                    break;
-                }
+            if (la > 0) {
+                Word w1 = new Word(mono, b.substring(0, bi - la), false);
+                Word w2 = new Word(mono, a.substring(la), false);
+                ret.add(new Overlap(w1, wone, wone, w2));
             }
         }
         return ret;
     }
 
 
+    /**
+     * Shortest overlap of a prefix of x with a suffix of y. Computed with the
+     * Knuth-Morris-Pratt prefix function of x in time O(|x| + |y|).
+     * @param x string.
+     * @param y string.
+     * @return minimal l &gt; 0 with y.endsWith(x.substring(0,l)), or 0 if no
+     *         such l exists.
+     */
+    static int shortestOverlap(String x, String y) {
+        int n = x.length();
+        if (n == 0 || y.isEmpty()) {
+            return 0;
+        }
+        int[] pi = new int[n];
+        for (int i = 1, k = 0; i < n; i++) {
+            while (k > 0 && x.charAt(i) != x.charAt(k)) {
+                k = pi[k - 1];
+            }
+            if (x.charAt(i) == x.charAt(k)) {
+                k++;
+            }
+            pi[i] = k;
+        }
+        int q = 0; // longest prefix of x which is a suffix of y
+        for (int i = 0; i < y.length(); i++) {
+            while (q > 0 && (q == n || y.charAt(i) != x.charAt(q))) {
+                q = pi[q - 1];
+            }
+            if (y.charAt(i) == x.charAt(q)) {
+                q++;
+            }
+        }
+        if (q == 0) {
+            return 0;
+        }
+        while (pi[q - 1] > 0) { // all such prefixes are on the border chain
+            q = pi[q - 1];
+        }
+        return q;
+    }
+
+
     /**
      * Word pseudo least common multiple.
      * @param V other word.
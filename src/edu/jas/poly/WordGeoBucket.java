@@ -0,0 +1,281 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * WordGeoBucket implements a mutable accumulator for sums of word polynomials
+ * as geometric buckets. Bucket i holds the terms of a polynomial with at most
+ * 4<sup>i+1</sup> terms. This is the non-commutative analog of GeoBucket,
+ * see there for details. This class is not thread-safe.
+ * @param <C> coefficient type
+ * @see edu.jas.poly.GeoBucket
+ * @author Heinz Kredel
+ */
+
+public class WordGeoBucket<C extends RingElem<C>> {
+
+
+    /**
+     * Word polynomial ring factory.
+     */
+    public final GenWordPolynomialRing<C> ring;
+
+
+    /**
+     * The buckets, null for empty buckets.
+     */
+    private final List<GeoBucket.Bucket<Word>> buckets;
+
+
+    /**
+     * Comparator of the terms, the leading term is the least.
+     */
+    private final Comparator<Word> cmp;
+
+
+    /**
+     * Leading word, if determined and removed from the buckets.
+     */
+    private Word lword;
+
+
+    /**
+     * Leading coefficient, if determined and removed from the buckets.
+     */
+    private C lcoeff;
+
+
+    /**
+     * Constructor for zero accumulator.
+     * @param r word polynomial ring factory.
+     */
+    public WordGeoBucket(GenWordPolynomialRing<C> r) {
+        ring = r;
+        cmp = r.alphabet.getDescendComparator();
+        buckets = new ArrayList<GeoBucket.Bucket<Word>>();
+        lword = null;
+        lcoeff = null;
+    }
+
+
+    /**
+     * Constructor.
+     * @param p initial polynomial.
+     */
+    public WordGeoBucket(GenWordPolynomial<C> p) {
+        this(p.ring);
+        add(p);
+    }
+
+
+    /**
+     * Put back a determined leading term into the buckets.
+     */
+    private void restoreLeading() {
+        if (lword == null) {
+            return;
+        }
+        GeoBucket.Bucket<Word> b = new GeoBucket.Bucket<Word>(new Word[] { lword },
+                        new Object[] { lcoeff }, 1);
+        lword = null;
+        lcoeff = null;
+        GeoBucket.<Word, C> insert(buckets, b, cmp);
+    }
+
+
+    /**
+     * Add a polynomial.
+     * @param p polynomial.
+     */
+    public void add(GenWordPolynomial<C> p) {
+        if (p == null || p.isZERO()) {
+            return;
+        }
+        restoreLeading();
+        int n = p.length();
+        Word[] e = new Word[n];
+        Object[] c = new Object[n];
+        int k = 0;
+        for (Map.Entry<Word, C> me : p.val.entrySet()) {
+            e[k] = me.getKey();
+            c[k++] = me.getValue();
+        }
+        GeoBucket.<Word, C> insert(buckets, new GeoBucket.Bucket<Word>(e, c, k), cmp);
+    }
+
+
+    /**
+     * Subtract a polynomial. The leading term of p is cancelled directly
+     * against a determined leading term.
+     * @param p polynomial.
+     */
+    public void subtract(GenWordPolynomial<C> p) {
+        if (p == null || p.isZERO()) {
+            return;
+        }
+        int n = p.length();
+        Word[] e = new Word[n];
+        Object[] c = new Object[n];
+        int k = 0;
+        for (Map.Entry<Word, C> me : p.val.entrySet()) {
+            Word f = me.getKey();
+            C y = me.getValue().negate();
+            if (k == 0 && lword != null && lword.equals(f)) { // cancel leading term
+                y = lcoeff.sum(y);
+                lword = null;
+                lcoeff = null;
+                if (y.isZERO()) {
+                    continue;
+                }
+            }
+            e[k] = f;
+            c[k++] = y;
+        }
+        restoreLeading();
+        if (k > 0) {
+            GeoBucket.<Word, C> insert(buckets, new GeoBucket.Bucket<Word>(e, c, k), cmp);
+        }
+    }
+
+
+    /**
+     * Leading monomial.
+     * @return leading monomial of the accumulated polynomial, or null if it
+     *         is zero.
+     */
+    @SuppressWarnings("unchecked")
+    public WordMonomial<C> leadingMonomial() {
+        while (lword == null) {
+            Word e = null;
+            for (GeoBucket.Bucket<Word> b : buckets) {
+                if (b == null) {
+                    continue;
+                }
+                Word f = b.keys[b.pos];
+                if (e == null || cmp.compare(f, e) < 0) {
+                    e = f;
+                }
+            }
+            if (e == null) {
+                return null;
+            }
+            C c = null;
+            for (int i = 0; i < buckets.size(); i++) {
+                GeoBucket.Bucket<Word> b = buckets.get(i);
+                if (b == null || !e.equals(b.keys[b.pos])) {
+                    continue;
+                }
+                C d = (C) b.coeffs[b.pos];
+                c = (c == null ? d : c.sum(d));
+                b.pos++;
+                if (b.pos >= b.size) {
+                    buckets.set(i, null);
+                }
+            }
+            if (!c.isZERO()) {
+                lword = e;
+                lcoeff = c;
+            }
+        }
+        return new WordMonomial<C>(lword, lcoeff);
+    }
+
+
+    /**
+     * Leading word.
+     * @return leading word of the accumulated polynomial, or null if it is
+     *         zero.
+     */
+    public Word leadingWord() {
+        WordMonomial<C> m = leadingMonomial();
+        if (m == null) {
+            return null;
+        }
+        return m.e;
+    }
+
+
+    /**
+     * Extract the leading monomial.
+     * @return leading monomial of the accumulated polynomial, or null if it
+     *         is zero. The monomial is removed from this.
+     */
+    public WordMonomial<C> pollLeadingMonomial() {
+        WordMonomial<C> m = leadingMonomial();
+        lword = null;
+        lcoeff = null;
+        return m;
+    }
+
+
+    /**
+     * Is zero.
+     * @return true, if the accumulated polynomial is zero, else false.
+     */
+    public boolean isZERO() {
+        return leadingMonomial() == null;
+    }
+
+
+    /**
+     * Number of terms.
+     * @return upper bound for the number of terms of the accumulated
+     *         polynomial.
+     */
+    public int length() {
+        int n = (lword == null ? 0 : 1);
+        for (GeoBucket.Bucket<Word> b : buckets) {
+            if (b != null) {
+                n += b.length();
+            }
+        }
+        return n;
+    }
+
+
+    /**
+     * Accumulated polynomial. The buckets are merged into one.
+     * @return the accumulated polynomial.
+     */
+    @SuppressWarnings("unchecked")
+    public GenWordPolynomial<C> getPolynomial() {
+        restoreLeading();
+        GenWordPolynomial<C> p = ring.getZERO().copy();
+        GeoBucket.Bucket<Word> a = GeoBucket.<Word, C> mergeAll(buckets, cmp);
+        if (a == null || a.length() == 0) {
+            return p;
+        }
+        GeoBucket.<Word, C> insert(buckets, a, cmp);
+        for (int j = a.pos; j < a.size; j++) {
+            p.val.put(a.keys[j], (C) a.coeffs[j]);
+        }
+        return p;
+    }
+
+
+    /**
+     * String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer("WordGeoBucket(");
+        if (lword != null) {
+            s.append("[" + lcoeff + " " + lword + "], ");
+        }
+        s.append(length() + " terms)");
+        return s.toString();
+    }
+
+}
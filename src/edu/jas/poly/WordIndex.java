@@ -0,0 +1,308 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+
+/**
+ * Word index. Aho-Corasick automaton over a list of words, used to find the
+ * words of the list which divide a given word in one scan over the given
+ * word. The automaton is a complete transition table over the letters of
+ * the indexed words. Objects of this class are immutable, a larger index is
+ * obtained by <code>extend()</code>.
+ * @author Heinz Kredel
+ */
+
+public final class WordIndex implements Serializable {
+
+
+    /**
+     * Indexed words.
+     */
+    private final Word[] words;
+
+
+    /**
+     * Letter to column number, -1 for letters not in the indexed words.
+     */
+    private final int[] column;
+
+
+    /**
+     * Complete transition table, next[state][column].
+     */
+    private final int[][] next;
+
+
+    /**
+     * Indexes of the words ending in a state, or null.
+     */
+    private final int[][] out;
+
+
+    /**
+     * Next state on the suffix link chain with output, or -1.
+     */
+    private final int[] dict;
+
+
+    /**
+     * Minimal index of the words ending in a state or in its suffix states.
+     */
+    private final int[] best;
+
+
+    /**
+     * Constructor.
+     * @param W list of words, the index of a word is its position in W.
+     */
+    public WordIndex(List<Word> W) {
+        this(W.toArray(new Word[W.size()]));
+    }
+
+
+    /**
+     * Constructor.
+     * @param W array of words, the index of a word is its position in W.
+     */
+    public WordIndex(Word[] W) {
+        words = Arrays.copyOf(W, W.length);
+        // letters
+        int maxc = -1;
+        for (Word w : words) {
+            for (int k = 0; k < w.val.length(); k++) {
+                maxc = Math.max(maxc, w.val.charAt(k));
+            }
+        }
+        column = new int[maxc + 1];
+        Arrays.fill(column, -1);
+        int sigma = 0;
+        for (Word w : words) {
+            for (int k = 0; k < w.val.length(); k++) {
+                char c = w.val.charAt(k);
+                if (column[c] < 0) {
+                    column[c] = sigma++;
+                }
+            }
+        }
+        // trie
+        List<int[]> trie = new ArrayList<int[]>();
+        List<int[]> outs = new ArrayList<int[]>();
+        trie.add(newRow(sigma));
+        outs.add(null);
+        for (int i = 0; i < words.length; i++) {
+            String s = words[i].val;
+            int u = 0;
+            for (int k = 0; k < s.length(); k++) {
+                int c = column[s.charAt(k)];
+                int v = trie.get(u)[c];
+                if (v < 0) {
+                    v = trie.size();
+                    trie.add(newRow(sigma));
+                    outs.add(null);
+                    trie.get(u)[c] = v;
+                }
+                u = v;
+            }
+            int[] o = outs.get(u);
+            if (o == null) {
+                o = new int[] { i };
+            } else {
+                o = Arrays.copyOf(o, o.length + 1);
+                o[o.length - 1] = i;
+            }
+            outs.set(u, o);
+        }
+        int n = trie.size();
+        next = trie.toArray(new int[n][]);
+        out = outs.toArray(new int[n][]);
+        dict = new int[n];
+        best = new int[n];
+        // suffix links in breadth first order
+        int[] fail = new int[n];
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        fail[0] = 0;
+        dict[0] = -1;
+        best[0] = minimum(out[0]);
+        for (int c = 0; c < sigma; c++) {
+            int v = next[0][c];
+            if (v < 0) {
+                next[0][c] = 0;
+            } else {
+                fail[v] = 0;
+                queue[tail++] = v;
+            }
+        }
+        while (head < tail) {
+            int u = queue[head++];
+            int f = fail[u];
+            dict[u] = (out[f] != null ? f : dict[f]);
+            best[u] = Math.min(minimum(out[u]), best[f]);
+            for (int c = 0; c < sigma; c++) {
+                int v = next[u][c];
+                if (v < 0) {
+                    next[u][c] = next[f][c];
+                } else {
+                    fail[v] = next[f][c];
+                    queue[tail++] = v;
+                }
+            }
+        }
+    }
+
+
+    private static int[] newRow(int sigma) {
+        int[] r = new int[sigma];
+        Arrays.fill(r, -1);
+        return r;
+    }
+
+
+    private static int minimum(int[] o) {
+        if (o == null) {
+            return Integer.MAX_VALUE;
+        }
+        return o[0]; // ascending
+    }
+
+
+    /**
+     * Number of indexed words.
+     * @return number of words.
+     */
+    public int size() {
+        return words.length;
+    }
+
+
+    /**
+     * Get an indexed word.
+     * @param i index.
+     * @return i-th word.
+     */
+    public Word get(int i) {
+        return words[i];
+    }
+
+
+    /**
+     * Test if this index is built from the given words.
+     * @param W array of words.
+     * @param l number of words to use from W.
+     * @return true if W[0..l-1] are the indexed words.
+     */
+    public boolean isIndexOf(Word[] W, int l) {
+        if (l != words.length) {
+            return false;
+        }
+        for (int i = 0; i < l; i++) {
+            if (words[i] != W[i] && !words[i].equals(W[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Extend this index by more words.
+     * @param W array of words.
+     * @param l number of words to use from W.
+     * @return index of W[0..l-1].
+     */
+    public WordIndex extend(Word[] W, int l) {
+        if (isIndexOf(W, l)) {
+            return this;
+        }
+        return new WordIndex(Arrays.copyOf(W, l));
+    }
+
+
+    /**
+     * Find the indexed word with minimal index which divides a word.
+     * @param e word.
+     * @return [i, k] with words[i] occurring first at position k in e and i
+     *         minimal, or null if no indexed word divides e.
+     */
+    public int[] divisor(Word e) {
+        String s = e.val;
+        int b = Integer.MAX_VALUE;
+        int pos = -1;
+        int u = 0;
+        for (int k = 0; k < s.length(); k++) {
+            char c = s.charAt(k);
+            int j = (c < column.length ? column[c] : -1);
+            if (j < 0) {
+                u = 0;
+                continue;
+            }
+            u = next[u][j];
+            if (best[u] < b) {
+                b = best[u];
+                pos = k;
+                if (b == 0) {
+                    break;
+                }
+            }
+        }
+        if (pos < 0) {
+            if (best[0] != Integer.MAX_VALUE) { // empty word
+                return new int[] { best[0], 0 };
+            }
+            return null;
+        }
+        int len = words[b].val.length();
+        return new int[] { b, (len == 0 ? 0 : pos + 1 - len) };
+    }
+
+
+    /**
+     * Find all indexed words which divide a word.
+     * @param e word.
+     * @return bit set of the indexes of the words occurring in e.
+     */
+    public BitSet divisors(Word e) {
+        BitSet ret = new BitSet(words.length);
+        if (out[0] != null) { // empty word
+            for (int i : out[0]) {
+                ret.set(i);
+            }
+        }
+        String s = e.val;
+        int u = 0;
+        for (int k = 0; k < s.length(); k++) {
+            char c = s.charAt(k);
+            int j = (c < column.length ? column[c] : -1);
+            if (j < 0) {
+                u = 0;
+                continue;
+            }
+            u = next[u][j];
+            for (int v = (out[u] != null ? u : dict[u]); v > 0; v = dict[v]) {
+                for (int i : out[v]) {
+                    ret.set(i);
+                }
+            }
+        }
+        return ret;
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return "WordIndex(" + words.length + " words, " + next.length + " states)";
+    }
+
+}
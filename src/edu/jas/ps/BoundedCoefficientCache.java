@@ -0,0 +1,314 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ps;
+
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Bounded coefficient cache for intermediate power series. At most
+ * <code>bound</code> coefficients are kept, further coefficients evict old
+ * ones according to the eviction policy. Evicted coefficients are
+ * recomputed on demand, so the bound must be large enough for the
+ * dependencies of the generating functions, e.g. for products all
+ * coefficients up to the truncation are required. After pin() all
+ * coefficients are kept in a dense cache.
+ * @param <C> ring element type
+ * @author Heinz Kredel
+ */
+
+public class BoundedCoefficientCache<C extends RingElem<C>> extends CoefficientCache<C> {
+
+
+    /**
+     * Eviction policies.
+     */
+    public static enum Eviction {
+        /**
+         * Keep a window of the last computed indexes, index i evicts index
+         * i - bound.
+         */
+        WINDOW,
+        /**
+         * Evict the least recently used coefficient.
+         */
+        LRU
+    };
+
+
+    /**
+     * Cache entry for window eviction.
+     */
+    static final class Entry<C> implements java.io.Serializable {
+
+
+        final int index;
+
+
+        final C val;
+
+
+        Entry(int index, C val) {
+            this.index = index;
+            this.val = val;
+        }
+    }
+
+
+    /**
+     * Maximal number of cached coefficients.
+     */
+    public final int bound;
+
+
+    /**
+     * Eviction policy.
+     */
+    public final Eviction eviction;
+
+
+    /**
+     * Slots for window eviction, index i is stored in slot i mod bound.
+     */
+    protected final AtomicReferenceArray<Entry<C>> window;
+
+
+    /**
+     * Access ordered map for LRU eviction.
+     */
+    protected final LinkedHashMap<Integer, C> lru;
+
+
+    /**
+     * Dense cache after pinning, null before.
+     */
+    protected volatile DenseCoefficientCache<C> pinned;
+
+
+    /**
+     * Constructor.
+     * @param bound maximal number of cached coefficients.
+     */
+    public BoundedCoefficientCache(int bound) {
+        this(bound, Eviction.WINDOW);
+    }
+
+
+    /**
+     * Constructor.
+     * @param bound maximal number of cached coefficients.
+     * @param ev eviction policy.
+     */
+    public BoundedCoefficientCache(int bound, Eviction ev) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive " + bound);
+        }
+        this.bound = bound;
+        this.eviction = ev;
+        pinned = null;
+        if (ev == Eviction.LRU) {
+            final int b = bound;
+            window = null;
+            lru = new LinkedHashMap<Integer, C>(Math.min(b, 64), 0.75f, true) {
+
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, C> e) {
+                    return size() > b;
+                }
+            };
+        } else {
+            window = new AtomicReferenceArray<Entry<C>>(bound);
+            lru = null;
+        }
+    }
+
+
+    /**
+     * Get cached coefficient.
+     * @param index of requested coefficient.
+     * @return coefficient at index or null if it is not cached.
+     */
+    @Override
+    public C get(int index) {
+        DenseCoefficientCache<C> d = pinned;
+        if (d != null) {
+            return d.get(index);
+        }
+        if (index < 0) {
+            return null;
+        }
+        if (window != null) {
+            Entry<C> e = window.get(index % bound);
+            if (e == null || e.index != index) {
+                return null;
+            }
+            return e.val;
+        }
+        synchronized (lru) {
+            return lru.get(index);
+        }
+    }
+
+
+    /**
+     * Store coefficient, evicts an old coefficient if the bound is reached.
+     * Negative indexes are not stored.
+     * @param index of coefficient.
+     * @param c coefficient at index.
+     */
+    @Override
+    public void put(int index, C c) {
+        DenseCoefficientCache<C> d = pinned;
+        if (d != null) {
+            d.put(index, c);
+            return;
+        }
+        if (index < 0) {
+            return;
+        }
+        if (window != null) {
+            window.set(index % bound, new Entry<C>(index, c));
+        } else {
+            synchronized (lru) {
+                lru.put(index, c);
+            }
+        }
+        if (pinned != null) { // pinned concurrently
+            pinned.put(index, c);
+        }
+    }
+
+
+    /**
+     * Number of cached coefficients.
+     * @return number of coefficients in the cache.
+     */
+    @Override
+    public int size() {
+        DenseCoefficientCache<C> d = pinned;
+        if (d != null) {
+            return d.size();
+        }
+        if (window != null) {
+            int s = 0;
+            for (int i = 0; i < window.length(); i++) {
+                if (window.get(i) != null) {
+                    s++;
+                }
+            }
+            return s;
+        }
+        synchronized (lru) {
+            return lru.size();
+        }
+    }
+
+
+    /**
+     * Remove all cached coefficients.
+     */
+    @Override
+    public synchronized void clear() {
+        DenseCoefficientCache<C> d = pinned;
+        if (d != null) {
+            d.clear();
+            return;
+        }
+        if (window != null) {
+            for (int i = 0; i < window.length(); i++) {
+                window.set(i, null);
+            }
+        } else {
+            synchronized (lru) {
+                lru.clear();
+            }
+        }
+    }
+
+
+    /**
+     * Pin the coefficients, the cached and all further coefficients are kept
+     * in a dense cache.
+     */
+    @Override
+    public synchronized void pin() {
+        if (pinned != null) {
+            return;
+        }
+        DenseCoefficientCache<C> d = new DenseCoefficientCache<C>(bound);
+        if (window != null) {
+            for (int i = 0; i < window.length(); i++) {
+                Entry<C> e = window.get(i);
+                if (e != null) {
+                    d.put(e.index, e.val);
+                }
+            }
+        } else {
+            synchronized (lru) {
+                for (Map.Entry<Integer, C> e : lru.entrySet()) {
+                    d.put(e.getKey(), e.getValue());
+                }
+                lru.clear();
+            }
+        }
+        pinned = d;
+    }
+
+
+    /**
+     * Test if the coefficients are pinned.
+     * @return true, if no coefficients are evicted.
+     */
+    @Override
+    public boolean isPinned() {
+        return pinned != null;
+    }
+
+
+    /**
+     * Copy of the cached coefficients.
+     * @return sorted map from indexes to the not evicted coefficients.
+     */
+    @Override
+    public SortedMap<Integer, C> snapshot() {
+        DenseCoefficientCache<C> d = pinned;
+        if (d != null) {
+            return d.snapshot();
+        }
+        SortedMap<Integer, C> s = new TreeMap<Integer, C>();
+        if (window != null) {
+            for (int i = 0; i < window.length(); i++) {
+                Entry<C> e = window.get(i);
+                if (e != null) {
+                    s.put(e.index, e.val);
+                }
+            }
+        } else {
+            synchronized (lru) {
+                s.putAll(lru);
+            }
+        }
+        return s;
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return "BoundedCoefficientCache(" + bound + ", " + eviction + ", " + (isPinned() ? "pinned, " : "")
+                        + size() + ")";
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ps;
+
+
+import java.io.Serializable;
+import java.util.SortedMap;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Abstract store for the computed coefficients of lazy power series.
+ * Implementations must be thread-safe, a lost store only leads to a
+ * recomputation of the coefficient. Bounded stores may evict coefficients
+ * until they are pinned.
+ * @param <C> ring element type
+ * @author Heinz Kredel
+ */
+
+public abstract class CoefficientCache<C extends RingElem<C>> implements Serializable {
+
+
+    /**
+     * Default bound for new caches, 0 for unbounded.
+     */
+    private static volatile int defaultBound = 0;
+
+
+    /**
+     * Default eviction policy for new bounded caches.
+     */
+    private static volatile BoundedCoefficientCache.Eviction defaultEviction = BoundedCoefficientCache.Eviction.WINDOW;
+
+
+    /**
+     * Set the defaults for caches of new power series.
+     * @param bound maximal number of cached coefficients, 0 for unbounded.
+     * @param ev eviction policy for bounded caches.
+     */
+    public static void setDefault(int bound, BoundedCoefficientCache.Eviction ev) {
+        if (bound < 0) {
+            throw new IllegalArgumentException("negative bound not allowed " + bound);
+        }
+        defaultBound = bound;
+        if (ev != null) {
+            defaultEviction = ev;
+        }
+    }
+
+
+    /**
+     * Get the default bound for caches of new power series.
+     * @return maximal number of cached coefficients, 0 for unbounded.
+     */
+    public static int getDefaultBound() {
+        return defaultBound;
+    }
+
+
+    /**
+     * Create a cache with the default settings.
+     * @return new dense or bounded cache.
+     */
+    public static <C extends RingElem<C>> CoefficientCache<C> create() {
+        int b = defaultBound;
+        if (b <= 0) {
+            return new DenseCoefficientCache<C>();
+        }
+        return new BoundedCoefficientCache<C>(b, defaultEviction);
+    }
+
+
+    /**
+     * Get cached coefficient.
+     * @param index of requested coefficient.
+     * @return coefficient at index or null if it is not cached.
+     */
+    public abstract C get(int index);
+
+
+    /**
+     * Store coefficient.
+     * @param index of coefficient.
+     * @param c coefficient at index.
+     */
+    public abstract void put(int index, C c);
+
+
+    /**
+     * Number of cached coefficients.
+     * @return number of coefficients in the cache.
+     */
+    public abstract int size();
+
+
+    /**
+     * Remove all cached coefficients which can be recomputed.
+     */
+    public abstract void clear();
+
+
+    /**
+     * Copy of the cached coefficients.
+     * @return sorted map from indexes to the currently cached coefficients.
+     */
+    public abstract SortedMap<Integer, C> snapshot();
+
+
+    /**
+     * Pin the coefficients, no more coefficients are evicted.
+     */
+    public void pin() {
+    }
+
+
+    /**
+     * Test if the coefficients are pinned.
+     * @return true, if no coefficients are evicted.
+     */
+    public boolean isPinned() {
+        return true;
+    }
+
+}
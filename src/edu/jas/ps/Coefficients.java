@@ -24,14 +24,15 @@ public abstract class Coefficients<C extends RingElem<C>> implements Serializabl
     /**
      * Cache for already computed coefficients.
      */
-    public final HashMap<Integer, C> coeffCache;
+    public final CoefficientCache<C> coeffCache;
 
 
     /**
-     * Public no arguments constructor.
+     * Public no arguments constructor, uses a cache with the default
+     * settings of CoefficientCache.
      */
     public Coefficients() {
-        this(new HashMap<Integer, C>());
+        this(CoefficientCache.<C> create());
     }
 
 
@@ -40,6 +41,15 @@ public abstract class Coefficients<C extends RingElem<C>> implements Serializabl
      * @param cache pre-filled coefficient cache.
      */
     public Coefficients(HashMap<Integer, C> cache) {
+        this(new MapCoefficientCache<C>(cache));
+    }
+
+
+    /**
+     * Public constructor with coefficient cache.
+     * @param cache coefficient cache, null for no caching.
+     */
+    public Coefficients(CoefficientCache<C> cache) {
         coeffCache = cache;
     }
 
@@ -53,17 +63,27 @@ public abstract class Coefficients<C extends RingElem<C>> implements Serializabl
         if (coeffCache == null) {
             return generate(index);
         }
-        Integer i = index;
-        C c = coeffCache.get(i);
+        C c = coeffCache.get(index);
         if (c != null) {
             return c;
         }
         c = generate(index);
-        coeffCache.put(i, c);
+        coeffCache.put(index, c);
         return c;
     }
 
 
+    /**
+     * Pin the cached coefficients, they are no more evicted from a bounded
+     * cache.
+     */
+    public void pin() {
+        if (coeffCache != null) {
+            coeffCache.pin();
+        }
+    }
+
+
     /**
      * Generate coefficient.
      * @param index of requested coefficient.
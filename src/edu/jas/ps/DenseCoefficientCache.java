@@ -0,0 +1,158 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ps;
+
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Dense unbounded coefficient cache. Coefficients are stored in an atomic
+ * array indexed by the exponent, which is enlarged on demand. Reads are
+ * lock free, only the enlargement is synchronized.
+ * @param <C> ring element type
+ * @author Heinz Kredel
+ */
+
+public class DenseCoefficientCache<C extends RingElem<C>> extends CoefficientCache<C> {
+
+
+    /**
+     * Coefficient array, index i = coefficient of x^i.
+     */
+    protected volatile AtomicReferenceArray<C> val;
+
+
+    /**
+     * Constructor.
+     */
+    public DenseCoefficientCache() {
+        this(16);
+    }
+
+
+    /**
+     * Constructor.
+     * @param cap initial capacity.
+     */
+    public DenseCoefficientCache(int cap) {
+        val = new AtomicReferenceArray<C>(Math.max(cap, 1));
+    }
+
+
+    /**
+     * Get cached coefficient.
+     * @param index of requested coefficient.
+     * @return coefficient at index or null if it is not cached.
+     */
+    @Override
+    public C get(int index) {
+        AtomicReferenceArray<C> a = val;
+        if (index < 0 || index >= a.length()) {
+            return null;
+        }
+        return a.get(index);
+    }
+
+
+    /**
+     * Store coefficient. Negative indexes are not stored.
+     * @param index of coefficient.
+     * @param c coefficient at index.
+     */
+    @Override
+    public void put(int index, C c) {
+        if (index < 0) {
+            return;
+        }
+        AtomicReferenceArray<C> a = val;
+        if (index >= a.length()) {
+            a = grow(index);
+        }
+        a.set(index, c);
+        while (a != val) { // enlarged concurrently
+            a = val;
+            a.set(index, c);
+        }
+    }
+
+
+    /**
+     * Enlarge the coefficient array.
+     * @param index to be contained in the array.
+     * @return the current coefficient array.
+     */
+    protected synchronized AtomicReferenceArray<C> grow(int index) {
+        AtomicReferenceArray<C> a = val;
+        if (index < a.length()) {
+            return a;
+        }
+        int n = Math.max(2 * a.length(), index + 1);
+        AtomicReferenceArray<C> b = new AtomicReferenceArray<C>(n);
+        for (int i = 0; i < a.length(); i++) {
+            b.set(i, a.get(i));
+        }
+        val = b;
+        return b;
+    }
+
+
+    /**
+     * Number of cached coefficients.
+     * @return number of coefficients in the cache.
+     */
+    @Override
+    public int size() {
+        AtomicReferenceArray<C> a = val;
+        int s = 0;
+        for (int i = 0; i < a.length(); i++) {
+            if (a.get(i) != null) {
+                s++;
+            }
+        }
+        return s;
+    }
+
+
+    /**
+     * Remove all cached coefficients.
+     */
+    @Override
+    public synchronized void clear() {
+        val = new AtomicReferenceArray<C>(16);
+    }
+
+
+    /**
+     * Copy of the cached coefficients.
+     * @return sorted map from indexes to the cached coefficients.
+     */
+    @Override
+    public SortedMap<Integer, C> snapshot() {
+        AtomicReferenceArray<C> a = val;
+        SortedMap<Integer, C> s = new TreeMap<Integer, C>();
+        for (int i = 0; i < a.length(); i++) {
+            C c = a.get(i);
+            if (c != null) {
+                s.put(i, c);
+            }
+        }
+        return s;
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return "DenseCoefficientCache(" + size() + ")";
+    }
+
+}
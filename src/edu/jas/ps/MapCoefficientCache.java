@@ -0,0 +1,108 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ps;
+
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Sparse coefficient cache backed by a concurrent hash map. Used for pre-filled
+ * caches, e.g. from polynomials, where the pre-filled coefficients can not be
+ * recomputed. It is always pinned and clear() keeps all coefficients.
+ * @param <C> ring element type
+ * @author Heinz Kredel
+ */
+
+public class MapCoefficientCache<C extends RingElem<C>> extends CoefficientCache<C> {
+
+
+    /**
+     * Map from indexes to coefficients.
+     */
+    protected final ConcurrentHashMap<Integer, C> val;
+
+
+    /**
+     * Constructor.
+     */
+    public MapCoefficientCache() {
+        val = new ConcurrentHashMap<Integer, C>();
+    }
+
+
+    /**
+     * Constructor.
+     * @param cache pre-filled coefficients.
+     */
+    public MapCoefficientCache(Map<Integer, C> cache) {
+        val = new ConcurrentHashMap<Integer, C>(cache);
+    }
+
+
+    /**
+     * Get cached coefficient.
+     * @param index of requested coefficient.
+     * @return coefficient at index or null if it is not cached.
+     */
+    @Override
+    public C get(int index) {
+        return val.get(index);
+    }
+
+
+    /**
+     * Store coefficient.
+     * @param index of coefficient.
+     * @param c coefficient at index.
+     */
+    @Override
+    public void put(int index, C c) {
+        val.put(index, c);
+    }
+
+
+    /**
+     * Number of cached coefficients.
+     * @return number of coefficients in the cache.
+     */
+    @Override
+    public int size() {
+        return val.size();
+    }
+
+
+    /**
+     * Pre-filled coefficients can not be recomputed, nothing is removed.
+     */
+    @Override
+    public void clear() {
+    }
+
+
+    /**
+     * Copy of the cached coefficients.
+     * @return sorted map from indexes to the cached coefficients.
+     */
+    @Override
+    public SortedMap<Integer, C> snapshot() {
+        return new TreeMap<Integer, C>(val);
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return "MapCoefficientCache(" + size() + ")";
+    }
+
+}
@@ -9,6 +9,9 @@ import java.io.Serializable;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
@@ -18,7 +21,12 @@ import edu.jas.structure.RingElem;
 
 /**
  * Abstract class for generating functions for coefficients of multivariate
- * power series. This class handles the caching itself.
+ * power series. This class handles the caching itself. The homogeneous parts
+ * are kept in a CoefficientCache indexed by the total degree, so the settings
+ * of CoefficientCache.setDefault() also bound the caches of multivariate
+ * power series. Evicted homogeneous parts are recomputed on demand. The
+ * caches can be used concurrently, a homogeneous part is locked while a
+ * coefficient is read or stored.
  * @param <C> ring element type
  * @author Heinz Kredel
  */
@@ -33,23 +41,24 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
 
 
     /**
-     * Cache for already computed coefficients.
+     * Cache for already computed coefficients, homogeneous parts indexed by
+     * the total degree.
      */
-    public final HashMap<Long, GenPolynomial<C>> coeffCache;
+    public final CoefficientCache<GenPolynomial<C>> coeffCache;
 
 
     /**
      * Indicator if all coefficients of a homogeneous degree have been
-     * constructed.
+     * constructed, guarded by this.
      */
-    public final BitSet homCheck;
+    protected final BitSet homCheck;
 
 
     /**
      * Cache for known zero coefficients. Required because zero coefficients are
      * not stored in the polynomials.
      */
-    public final HashSet<ExpVector> zeroCache;
+    public final Set<ExpVector> zeroCache;
 
 
     /**
@@ -57,26 +66,17 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
      * @param pf multivariate power series ring factory.
      */
     public MultiVarCoefficients(MultiVarPowerSeriesRing<C> pf) {
-        this(pf.polyRing(), new HashMap<Long, GenPolynomial<C>>(), new HashSet<ExpVector>());
+        this(pf.polyRing());
     }
 
 
-    /*
-     * Public constructor with some pre-filled caches.
-     * @param pf multivariate power series ring factory.
-     * @param hc pre-filled homogeneous check bit-set.
-    public MultiVarCoefficients(MultiVarPowerSeriesRing<C> pf, BitSet hc) {
-        this(pf.polyRing(), new HashMap<Long, GenPolynomial<C>>(), new HashSet<ExpVector>(), hc);
-    }
-     */
-
-
     /**
-     * Public constructor.
+     * Public constructor, uses a cache with the default settings of
+     * CoefficientCache.
      * @param pf polynomial ring factory.
      */
     public MultiVarCoefficients(GenPolynomialRing<C> pf) {
-        this(pf, new HashMap<Long, GenPolynomial<C>>(), new HashSet<ExpVector>());
+        this(pf, CoefficientCache.<GenPolynomial<C>> create(), new HashSet<ExpVector>(), new BitSet());
     }
 
 
@@ -102,16 +102,6 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
     }
 
 
-    /*
-     * Public constructor with pre-filled caches.
-     * @param pf polynomial ring factory.
-     * @param hc pre-filled homogeneous check bit-set.
-    public MultiVarCoefficients(GenPolynomialRing<C> pf, BitSet hc) {
-        this(pf, new HashMap<Long, GenPolynomial<C>>(), new HashSet<ExpVector>(), hc);
-    }
-     */
-
-
     /**
      * Public constructor with pre-filled caches.
      * @param pf polynomial ring factory.
@@ -124,7 +114,8 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
 
 
     /**
-     * Public constructor with pre-filled caches.
+     * Public constructor with pre-filled caches. The pre-filled homogeneous
+     * parts can not be recomputed, so they are kept in a MapCoefficientCache.
      * @param pf polynomial ring factory.
      * @param cache pre-filled coefficient cache.
      * @param zeros pre-filled zero coefficient cache.
@@ -132,10 +123,127 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
      */
     public MultiVarCoefficients(GenPolynomialRing<C> pf, HashMap<Long, GenPolynomial<C>> cache,
             HashSet<ExpVector> zeros, BitSet hc) {
+        this(pf, MultiVarCoefficients.<C> toCache(cache), zeros, hc);
+    }
+
+
+    /**
+     * Public constructor with coefficient cache.
+     * @param pf polynomial ring factory.
+     * @param cache coefficient cache for the homogeneous parts.
+     */
+    public MultiVarCoefficients(GenPolynomialRing<C> pf, CoefficientCache<GenPolynomial<C>> cache) {
+        this(pf, cache, new HashSet<ExpVector>(), new BitSet());
+    }
+
+
+    /**
+     * Public constructor with caches. The zero coefficients and the
+     * homogeneous check bit-set are copied.
+     * @param pf polynomial ring factory.
+     * @param cache coefficient cache for the homogeneous parts.
+     * @param zeros pre-filled zero coefficient cache.
+     * @param hc pre-filled homogeneous check bit-set.
+     */
+    public MultiVarCoefficients(GenPolynomialRing<C> pf, CoefficientCache<GenPolynomial<C>> cache,
+            Set<ExpVector> zeros, BitSet hc) {
+        if (cache == null) {
+            throw new IllegalArgumentException("null cache not allowed");
+        }
         pfac = pf;
         coeffCache = cache;
-        zeroCache = zeros;
-        homCheck = hc;
+        zeroCache = ConcurrentHashMap.<ExpVector> newKeySet();
+        zeroCache.addAll(zeros);
+        synchronized (hc) {
+            homCheck = (BitSet) hc.clone();
+        }
+    }
+
+
+    /**
+     * Coefficient cache from a map.
+     * @param cache map from total degrees to homogeneous parts.
+     * @return pinned coefficient cache with the entries of cache.
+     */
+    static <C extends RingElem<C>> CoefficientCache<GenPolynomial<C>> toCache(
+            Map<Long, GenPolynomial<C>> cache) {
+        MapCoefficientCache<GenPolynomial<C>> mc = new MapCoefficientCache<GenPolynomial<C>>();
+        for (Map.Entry<Long, GenPolynomial<C>> me : cache.entrySet()) {
+            mc.put(me.getKey().intValue(), me.getValue());
+        }
+        return mc;
+    }
+
+
+    /**
+     * Copy of the cached homogeneous parts.
+     * @return map from total degrees to the cached homogeneous parts.
+     */
+    public synchronized HashMap<Long, GenPolynomial<C>> getCache() {
+        HashMap<Long, GenPolynomial<C>> cc = new HashMap<Long, GenPolynomial<C>>();
+        for (Map.Entry<Integer, GenPolynomial<C>> me : coeffCache.snapshot().entrySet()) {
+            cc.put(me.getKey().longValue(), me.getValue());
+        }
+        return cc;
+    }
+
+
+    /**
+     * Copy of the homogeneous check bit-set.
+     * @return bit-set with the complete homogeneous degrees.
+     */
+    public synchronized BitSet getHomCheck() {
+        return (BitSet) homCheck.clone();
+    }
+
+
+    /**
+     * Test if all coefficients of a homogeneous degree are cached.
+     * @param tdeg total degree.
+     * @return true, if the homogeneous part of degree tdeg is complete.
+     */
+    public synchronized boolean isHomComplete(long tdeg) {
+        return homCheck.get((int) tdeg) && coeffCache.get((int) tdeg) != null;
+    }
+
+
+    /**
+     * Store a complete homogeneous part.
+     * @param tdeg total degree.
+     * @param p homogeneous part of degree tdeg.
+     */
+    public synchronized void putHomPart(long tdeg, GenPolynomial<C> p) {
+        coeffCache.put((int) tdeg, p);
+        homCheck.set((int) tdeg);
+    }
+
+
+    /**
+     * Cached homogeneous part, a new empty part if it is not cached.
+     * @param tdeg total degree.
+     * @return cached part of degree tdeg.
+     */
+    synchronized GenPolynomial<C> cachedPart(long tdeg) {
+        int d = (int) tdeg;
+        GenPolynomial<C> p = coeffCache.get(d);
+        if (p == null) { // not yet computed or evicted
+            homCheck.clear(d);
+            p = pfac.getZERO().copy();
+            coeffCache.put(d, p);
+        }
+        return p;
+    }
+
+
+    /**
+     * Test if a homogeneous part is complete.
+     * @param tdeg total degree.
+     * @param p homogeneous part of degree tdeg.
+     * @return true, if p is the cached and complete part of degree tdeg.
+     */
+    synchronized boolean isComplete(long tdeg, GenPolynomial<C> p) {
+        int d = (int) tdeg;
+        return homCheck.get(d) && coeffCache.get(d) == p;
     }
 
 
@@ -148,20 +256,16 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
         //if (index.signum() < 0) { // better assert
         //    throw new IllegalArgumentException("negative signum not allowed " + index);
         //}
-        //if (coeffCache == null) { // not possible
-        //    return generate(index);
-        //}
         long tdeg = index.totalDeg();
-        GenPolynomial<C> p = coeffCache.get(tdeg);
-        if (p == null) {
-            p = pfac.getZERO().copy();
-            coeffCache.put(tdeg, p);
+        GenPolynomial<C> p = cachedPart(tdeg);
+        C c;
+        synchronized (p) {
+            c = p.coefficient(index);
         }
-        C c = p.coefficient(index);
         if (!c.isZERO()) {
             return c;
         }
-        if (homCheck.get((int) tdeg)) { // rely on p
+        if (isComplete(tdeg, p)) { // rely on p
             return c;
         }
         if (zeroCache.contains(index)) {
@@ -171,7 +275,9 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
         if (g.isZERO()) {
             zeroCache.add(index);
         } else {
-            p.doPutToMap(index, g);
+            synchronized (p) {
+                p.doPutToMap(index, g);
+            }
         }
         return g;
     }
@@ -183,38 +289,37 @@ public abstract class MultiVarCoefficients<C extends RingElem<C>> implements Ser
      * @return polynomial part of given degree.
      */
     public GenPolynomial<C> getHomPart(long tdeg) {
-        if (coeffCache == null) {
-            throw new IllegalArgumentException("null cache not allowed");
-        }
-        GenPolynomial<C> p = coeffCache.get(tdeg);
-        if (p == null) {
-            p = pfac.getZERO().copy();
-            coeffCache.put(tdeg, p);
-        } 
+        GenPolynomial<C> p = cachedPart(tdeg);
         // trust contents?
-        if (homCheck.get((int) tdeg)) {
+        if (isComplete(tdeg, p)) {
             return p;
         }
         // check correct contents or generate coefficients
         ExpVectorIterable eiter = new ExpVectorIterable(pfac.nvar, tdeg);
         for (ExpVector e : eiter) {
-            if (zeroCache.contains(e)) {
-                if ( !zeroCache.remove(e) ) { // clean-up unused
-                    System.out.println("not removed e = " + e); // cannot happen
-                }
+            if (zeroCache.remove(e)) { // clean-up unused
                 continue;
             }
-            if (!p.coefficient(e).isZERO()) {
+            C c;
+            synchronized (p) {
+                c = p.coefficient(e);
+            }
+            if (!c.isZERO()) {
                 continue;
             }
             C g = generate(e);
             if (!g.isZERO()) {
-                p.doPutToMap(e, g);
+                synchronized (p) {
+                    p.doPutToMap(e, g);
+                }
+            }
+        }
+        synchronized (this) {
+            if (coeffCache.get((int) tdeg) == p) { // not evicted meanwhile
+                homCheck.set((int) tdeg);
             }
         }
-        homCheck.set((int) tdeg);
         //System.out.println("homCheck = " + homCheck);
-        //System.out.println("coeffCache = " + coeffCache.keySet());
         return p;
     }
 
@@ -406,19 +406,20 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
         ExpVector e = m.getKey();
         long d = e.totalDeg();
         MultiVarCoefficients<C> mc = lazyCoeffs;
-        HashMap<Long, GenPolynomial<C>> cc = new HashMap<Long, GenPolynomial<C>>(mc.coeffCache);
+        HashMap<Long, GenPolynomial<C>> cc = mc.getCache();
+        BitSet hc = mc.getHomCheck();
         GenPolynomial<C> p = cc.get(d);
         if (p != null && !p.isZERO()) {
             p = p.subtract(m.getValue(), e); // p contains this term after orderMonomial()
             cc.put(d, p);
         }
         HashSet<ExpVector> z = new HashSet<ExpVector>(mc.zeroCache);
-        if (!mc.homCheck.get((int) d)) {
+        if (!hc.get((int) d)) {
             z.add(e);
             //System.out.println("e = " + e);
         }
 
-        return new MultiVarPowerSeries<C>(ring, new MultiVarCoefficients<C>(mc.pfac, cc, z, mc.homCheck) {
+        return new MultiVarPowerSeries<C>(ring, new MultiVarCoefficients<C>(mc.pfac, cc, z, hc) {
 
 
             @Override
@@ -485,11 +486,10 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
                     return ring.coFac.getZERO();
                 }
                 long tdegd = d.totalDeg();
-                if (lazyCoeffs.homCheck.get((int) tdegd)) {
+                if (lazyCoeffs.isHomComplete(tdegd)) {
                     GenPolynomial<C> p = homogeneousPart(tdegd).multiply(c, k);
                     long tdegi = i.totalDeg();
-                    coeffCache.put(tdegi, p); // overwrite
-                    homCheck.set((int) tdegi);
+                    putHomPart(tdegi, p); // overwrite
                     C b = p.coefficient(i);
                     //System.out.println("b = " + b + ", i = " + i + ", tdegi = " + tdegi+ ", tdegd = " + tdegd);
                     //System.out.println("p = " + p + ", i = " + i);
@@ -529,7 +529,8 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
         }
         long d = k.totalDeg();
         MultiVarCoefficients<C> mc = lazyCoeffs;
-        HashMap<Long, GenPolynomial<C>> cc = new HashMap<Long, GenPolynomial<C>>(mc.coeffCache);
+        HashMap<Long, GenPolynomial<C>> cc = mc.getCache();
+        BitSet hc = mc.getHomCheck();
         GenPolynomial<C> p = cc.get(d);
         if (p == null) {
             p = mc.pfac.getZERO();
@@ -539,11 +540,11 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
         cc.put(d, p);
         HashSet<ExpVector> z = new HashSet<ExpVector>(mc.zeroCache);
         //System.out.println("z = " + z);
-        if (p.coefficient(k).isZERO() && !mc.homCheck.get((int) d)) {
+        if (p.coefficient(k).isZERO() && !hc.get((int) d)) {
             z.add(k);
         }
 
-        return new MultiVarPowerSeries<C>(ring, new MultiVarCoefficients<C>(mc.pfac, cc, z, mc.homCheck) {
+        return new MultiVarPowerSeries<C>(ring, new MultiVarCoefficients<C>(mc.pfac, cc, z, hc) {
 
 
             @Override
@@ -569,7 +570,8 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
         }
         long d = k.totalDeg();
         MultiVarCoefficients<C> mc = lazyCoeffs;
-        HashMap<Long, GenPolynomial<C>> cc = new HashMap<Long, GenPolynomial<C>>(mc.coeffCache);
+        HashMap<Long, GenPolynomial<C>> cc = mc.getCache();
+        BitSet hc = mc.getHomCheck();
         GenPolynomial<C> p = cc.get(d);
         if (p == null) {
             p = mc.pfac.getZERO();
@@ -578,10 +580,10 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
         cc.put(d, p);
         HashSet<ExpVector> z = new HashSet<ExpVector>(mc.zeroCache);
         //System.out.println("z = " + z);
-        if (p.coefficient(k).isZERO() && !mc.homCheck.get((int) d)) {
+        if (p.coefficient(k).isZERO() && !hc.get((int) d)) {
             z.add(k);
         }
-        return new MultiVarPowerSeries<C>(ring, new MultiVarCoefficients<C>(mc.pfac, cc, z, mc.homCheck) {
+        return new MultiVarPowerSeries<C>(ring, new MultiVarCoefficients<C>(mc.pfac, cc, z, hc) {
 
 
             @Override
@@ -599,8 +601,10 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
      */
     public MultiVarPowerSeries<C> sum(MultiVarCoefficients<C> mvc) {
         MultiVarCoefficients<C> mc = lazyCoeffs;
-        TreeMap<Long, GenPolynomial<C>> cc = new TreeMap<Long, GenPolynomial<C>>(mc.coeffCache);
-        TreeMap<Long, GenPolynomial<C>> ccv = new TreeMap<Long, GenPolynomial<C>>(mvc.coeffCache);
+        TreeMap<Long, GenPolynomial<C>> cc = new TreeMap<Long, GenPolynomial<C>>(mc.getCache());
+        TreeMap<Long, GenPolynomial<C>> ccv = new TreeMap<Long, GenPolynomial<C>>(mvc.getCache());
+        BitSet hc1 = mc.getHomCheck();
+        BitSet hc2 = mvc.getHomCheck();
         long d1 = (cc.size() > 0 ? cc.lastKey() : 0);
         long d2 = (ccv.size() > 0 ? ccv.lastKey() : 0);
         HashSet<ExpVector> z = new HashSet<ExpVector>(mc.zeroCache);
@@ -609,7 +613,7 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
         BitSet hc = new BitSet((int) d);
         for (long i = 0; i <= d; i++) {
             GenPolynomial<C> p1 = cc.get(i);
-            GenPolynomial<C> p2 = mvc.coeffCache.get(i);
+            GenPolynomial<C> p2 = ccv.get(i);
             if (p1 == null) {
                 p1 = mc.pfac.getZERO();
             }
@@ -619,7 +623,7 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
             GenPolynomial<C> p = p1.sum(p2);
             //System.out.println("p = " + p);
             cc.put(i, p);
-            if (mc.homCheck.get((int) i) && mvc.homCheck.get((int) i)) {
+            if (hc1.get((int) i) && hc2.get((int) i) && cc.containsKey(i) && ccv.containsKey(i)) {
                 hc.set((int) i);
             } else {
                 Set<ExpVector> ev = new HashSet<ExpVector>(p1.getMap().keySet());
@@ -885,8 +889,8 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
         // must compute it
         GenPolynomial<C> p = null;
         int t = 0;
-        while (lazyCoeffs.homCheck.get(t)) {
-            p = lazyCoeffs.coeffCache.get((long) t);
+        while (lazyCoeffs.isHomComplete(t)) {
+            p = lazyCoeffs.coeffCache.get(t);
             if (p == null || p.isZERO()) { // ??
                 t++;
                 continue;
@@ -1125,11 +1129,10 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
             @Override
             public C generate(ExpVector e) {
                 long tdeg = e.totalDeg();
-                if (lazyCoeffs.homCheck.get((int) tdeg)) {
+                if (lazyCoeffs.isHomComplete(tdeg)) {
                     // generate respective homogeneous polynomial
                     GenPolynomial<C> p = homogeneousPart(tdeg).sum(ps.homogeneousPart(tdeg));
-                    coeffCache.put(tdeg, p); // overwrite
-                    homCheck.set((int) tdeg);
+                    putHomPart(tdeg, p); // overwrite
                     C c = p.coefficient(e);
                     //System.out.println("c = " + c + ", e = " + e + ", tdeg = " + tdeg);
                     return c;
@@ -1155,11 +1158,10 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
             @Override
             public C generate(ExpVector e) {
                 long tdeg = e.totalDeg();
-                if (lazyCoeffs.homCheck.get((int) tdeg)) {
+                if (lazyCoeffs.isHomComplete(tdeg)) {
                     // generate respective homogeneous polynomial
                     GenPolynomial<C> p = homogeneousPart(tdeg).subtract(ps.homogeneousPart(tdeg));
-                    coeffCache.put(tdeg, p); // overwrite
-                    homCheck.set((int) tdeg);
+                    putHomPart(tdeg, p); // overwrite
                     C c = p.coefficient(e);
                     //System.out.println("p = " + p + ", e = " + e + ", tdeg = " + tdeg);
                     return c;
@@ -1195,8 +1197,7 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
                         p = p.sum(m);
                     }
                 }
-                coeffCache.put(tdeg, p); // overwrite
-                homCheck.set((int) tdeg);
+                putHomPart(tdeg, p); // overwrite
                 C c = p.coefficient(e);
                 return c;
             }
@@ -1230,8 +1231,7 @@ public class MultiVarPowerSeries<C extends RingElem<C>> implements RingElem<Mult
                 }
                 p = p.multiply(d.negate());
                 //System.out.println("tdeg = " + tdeg + ", p = " + p);
-                coeffCache.put(tdeg, p); // overwrite
-                homCheck.set((int) tdeg);
+                putHomPart(tdeg, p); // overwrite
                 C c = p.coefficient(e);
                 return c;
             }
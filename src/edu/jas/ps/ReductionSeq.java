@@ -265,7 +265,9 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
         if (R.isZERO()) {
             return R;
         }
-        MultiVarCoefficients<C> Rc = new MultiVarCoefficients<C>(A.ring) {
+        // the collected parts can not be generated, so they must not be evicted
+        MultiVarCoefficients<C> Rc = new MultiVarCoefficients<C>(A.ring.polyRing(),
+                        new MapCoefficientCache<GenPolynomial<C>>()) {
 
 
             @Override
@@ -281,7 +283,7 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             }
             R = R.reductum();
             ExpVector e = m.getKey();
-            long t = e.totalDeg();
+            int t = (int) e.totalDeg();
             GenPolynomial<C> p = Rc.coeffCache.get(t);
             if (p == null) {
                 p = pfac.getZERO();
@@ -0,0 +1,691 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ps;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.poly.DenseModPolynomial;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Arithmetic for univariate power series truncated to a given order, the
+ * series are represented by lists of their first coefficients. Products are
+ * computed with Karatsuba's algorithm, and for ModLong or ModInt
+ * coefficients with modulus below 2<sup>31</sup> by number theoretic
+ * transforms with three primes and Chinese remaindering. Inverse, square
+ * root, logarithm, exponential and reversion are computed by Newton
+ * iteration with precision doubling, so n coefficients cost a constant
+ * number of products of length n. Composition uses the baby-step giant-step
+ * method of Paterson and Stockmeyer. All methods require commutative
+ * coefficients, logarithm, exponential and square root require n less than
+ * the characteristic.
+ * @param <C> ring element type
+ * @see edu.jas.ps.UnivPowerSeriesRing#setEager(int)
+ * @author Heinz Kredel
+ */
+
+public class TruncatedSeriesArith<C extends RingElem<C>> {
+
+
+    private static final Logger logger = LogManager.getLogger(TruncatedSeriesArith.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Below this length products are computed by the school method.
+     */
+    public static final int KARATSUBA_THRESHOLD = 24;
+
+
+    /**
+     * Below this length modular products are not computed by transforms.
+     */
+    public static final int NTT_THRESHOLD = 64;
+
+
+    /**
+     * Primes p = k 2<sup>e</sup> + 1 for the transforms.
+     */
+    static final long[] NTT_PRIMES = new long[] { 998244353L, 167772161L, 469762049L };
+
+
+    /**
+     * Primitive roots of the transform primes.
+     */
+    static final long[] NTT_ROOTS = new long[] { 3L, 3L, 3L };
+
+
+    /**
+     * Maximal transform length, 2<sup>23</sup> divides all p-1.
+     */
+    static final int NTT_MAX = 1 << 23;
+
+
+    /**
+     * Coefficient ring factory.
+     */
+    public final RingFactory<C> coFac;
+
+
+    /**
+     * Modulus for transform products, 0 if not applicable.
+     */
+    protected final long modul;
+
+
+    /**
+     * Constructor.
+     * @param coFac coefficient ring factory.
+     */
+    public TruncatedSeriesArith(RingFactory<C> coFac) {
+        this.coFac = coFac;
+        long m = 0L;
+        if (DenseModPolynomial.isApplicable(coFac)) {
+            long p = DenseModPolynomial.modul(coFac);
+            if (p < (1L << 31)) {
+                m = p;
+            }
+        }
+        modul = m;
+    }
+
+
+    /**
+     * Coefficient array from a list.
+     * @param a list of coefficients.
+     * @param n length of array.
+     * @return array with the first n coefficients of a, padded with zeros.
+     */
+    @SuppressWarnings("unchecked")
+    C[] toArray(List<C> a, int n) {
+        C[] c = (C[]) new RingElem[n];
+        C z = coFac.getZERO();
+        int m = Math.min(n, a.size());
+        for (int i = 0; i < m; i++) {
+            c[i] = a.get(i);
+        }
+        for (int i = m; i < n; i++) {
+            c[i] = z;
+        }
+        return c;
+    }
+
+
+    /**
+     * Zero coefficient array.
+     * @param n length of array.
+     * @return array with n zero coefficients.
+     */
+    @SuppressWarnings("unchecked")
+    C[] zeros(int n) {
+        C[] c = (C[]) new RingElem[n];
+        Arrays.fill(c, coFac.getZERO());
+        return c;
+    }
+
+
+    /**
+     * Resized coefficient array.
+     * @param a array of coefficients.
+     * @param n length of array.
+     * @return array with the first n coefficients of a, padded with zeros.
+     */
+    C[] resize(C[] a, int n) {
+        C[] c = zeros(n);
+        System.arraycopy(a, 0, c, 0, Math.min(n, a.length));
+        return c;
+    }
+
+
+    /**
+     * Coefficient list from an array.
+     * @param c array of coefficients.
+     * @param n length of list.
+     * @return list with the first n coefficients of c, padded with zeros.
+     */
+    List<C> toList(C[] c, int n) {
+        List<C> a = new ArrayList<C>(n);
+        int m = Math.min(n, c.length);
+        for (int i = 0; i < m; i++) {
+            a.add(c[i]);
+        }
+        C z = coFac.getZERO();
+        for (int i = m; i < n; i++) {
+            a.add(z);
+        }
+        return a;
+    }
+
+
+    /**
+     * Truncated product.
+     * @param a coefficients of a power series.
+     * @param b coefficients of a power series.
+     * @param n truncation order.
+     * @return first n coefficients of a*b.
+     */
+    public List<C> multiply(List<C> a, List<C> b, int n) {
+        int na = Math.min(n, a.size());
+        int nb = Math.min(n, b.size());
+        return toList(multiply(toArray(a, na), toArray(b, nb), n), n);
+    }
+
+
+    /**
+     * Truncated product.
+     * @param a coefficients.
+     * @param b coefficients.
+     * @param n truncation order.
+     * @return first at most n coefficients of a*b.
+     */
+    C[] multiply(C[] a, C[] b, int n) {
+        int na = Math.min(n, a.length);
+        int nb = Math.min(n, b.length);
+        if (na == 0 || nb == 0) {
+            return zeros(0);
+        }
+        int nr = Math.min(n, na + nb - 1);
+        // the coefficients beyond n of a and b do not contribute
+        if (modul > 0L && Math.min(na, nb) >= NTT_THRESHOLD && na + nb - 1 <= NTT_MAX) {
+            return nttMultiply(a, na, b, nb, nr);
+        }
+        C[] r = karatsuba(a, 0, na, b, 0, nb);
+        if (r.length == nr) {
+            return r;
+        }
+        return resize(r, nr);
+    }
+
+
+    /**
+     * School method product.
+     * @return a[ao..ao+na) * b[bo..bo+nb).
+     */
+    C[] schoolbook(C[] a, int ao, int na, C[] b, int bo, int nb) {
+        C[] r = zeros(na + nb - 1);
+        for (int i = 0; i < na; i++) {
+            C x = a[ao + i];
+            if (x.isZERO()) {
+                continue;
+            }
+            for (int j = 0; j < nb; j++) {
+                C y = b[bo + j];
+                if (y.isZERO()) {
+                    continue;
+                }
+                r[i + j] = r[i + j].sum(x.multiply(y));
+            }
+        }
+        return r;
+    }
+
+
+    /**
+     * Karatsuba product.
+     * @return a[ao..ao+na) * b[bo..bo+nb), na, nb &gt; 0.
+     */
+    C[] karatsuba(C[] a, int ao, int na, C[] b, int bo, int nb) {
+        if (na < KARATSUBA_THRESHOLD || nb < KARATSUBA_THRESHOLD) {
+            return schoolbook(a, ao, na, b, bo, nb);
+        }
+        int h = (Math.max(na, nb) + 1) / 2;
+        C[] r = zeros(na + nb - 1);
+        if (na <= h) { // unbalanced, split b only
+            addInto(r, 0, karatsuba(a, ao, na, b, bo, h));
+            addInto(r, h, karatsuba(a, ao, na, b, bo + h, nb - h));
+            return r;
+        }
+        if (nb <= h) { // unbalanced, split a only
+            addInto(r, 0, karatsuba(a, ao, h, b, bo, nb));
+            addInto(r, h, karatsuba(a, ao + h, na - h, b, bo, nb));
+            return r;
+        }
+        C[] z0 = karatsuba(a, ao, h, b, bo, h);
+        C[] z2 = karatsuba(a, ao + h, na - h, b, bo + h, nb - h);
+        C[] sa = zeros(h);
+        for (int i = 0; i < h; i++) {
+            sa[i] = (i < na - h ? a[ao + i].sum(a[ao + h + i]) : a[ao + i]);
+        }
+        C[] sb = zeros(h);
+        for (int i = 0; i < h; i++) {
+            sb[i] = (i < nb - h ? b[bo + i].sum(b[bo + h + i]) : b[bo + i]);
+        }
+        C[] z1 = karatsuba(sa, 0, h, sb, 0, h);
+        for (int i = 0; i < z0.length; i++) {
+            z1[i] = z1[i].subtract(z0[i]);
+        }
+        for (int i = 0; i < z2.length; i++) {
+            z1[i] = z1[i].subtract(z2[i]);
+        }
+        addInto(r, 0, z0);
+        addInto(r, h, z1);
+        addInto(r, 2 * h, z2);
+        return r;
+    }
+
+
+    /**
+     * Add shifted coefficients, r[s+i] += c[i] as far as r reaches.
+     */
+    void addInto(C[] r, int s, C[] c) {
+        int m = Math.min(c.length, r.length - s);
+        for (int i = 0; i < m; i++) {
+            if (!c[i].isZERO()) {
+                r[s + i] = r[s + i].sum(c[i]);
+            }
+        }
+    }
+
+
+    /**
+     * Product by number theoretic transforms.
+     * @return first nr coefficients of a[0..na) * b[0..nb).
+     */
+    C[] nttMultiply(C[] a, int na, C[] b, int nb, int nr) {
+        int len = 1;
+        while (len < na + nb - 1) {
+            len <<= 1;
+        }
+        long[] la = new long[na];
+        for (int i = 0; i < na; i++) {
+            la[i] = DenseModPolynomial.value(a[i]);
+        }
+        long[] lb = new long[nb];
+        for (int i = 0; i < nb; i++) {
+            lb[i] = DenseModPolynomial.value(b[i]);
+        }
+        long[][] res = new long[NTT_PRIMES.length][];
+        for (int k = 0; k < NTT_PRIMES.length; k++) {
+            res[k] = convolution(la, lb, len, NTT_PRIMES[k], NTT_ROOTS[k]);
+        }
+        long m0 = NTT_PRIMES[0];
+        long m1 = NTT_PRIMES[1];
+        long m2 = NTT_PRIMES[2];
+        long i01 = modInverse(m0 % m1, m1);
+        long i012 = modInverse((m0 % m2) * (m1 % m2) % m2, m2);
+        long m01p = (m0 % modul) * (m1 % modul) % modul;
+        C[] r = zeros(nr);
+        for (int i = 0; i < nr; i++) { // Garner's algorithm
+            long r0 = res[0][i];
+            long t1 = ((res[1][i] - r0 % m1 + m1) % m1) * i01 % m1;
+            long x = r0 + m0 * t1; // < m0 m1 < 2^58
+            long t2 = ((res[2][i] - (r0 % m2 + (m0 % m2) * t1 % m2) % m2 + m2) % m2) * i012 % m2;
+            long v = (x % modul + m01p * t2 % modul) % modul;
+            r[i] = coFac.fromInteger(v);
+        }
+        return r;
+    }
+
+
+    /**
+     * Cyclic convolution modulo a transform prime.
+     * @param a coefficients &lt; 2<sup>31</sup>.
+     * @param b coefficients &lt; 2<sup>31</sup>.
+     * @param len transform length, a power of 2.
+     * @param p transform prime.
+     * @param g primitive root modulo p.
+     * @return a*b mod (x<sup>len</sup>-1, p).
+     */
+    static long[] convolution(long[] a, long[] b, int len, long p, long g) {
+        long[] fa = new long[len];
+        for (int i = 0; i < a.length; i++) {
+            fa[i] = a[i] % p;
+        }
+        long[] fb = new long[len];
+        for (int i = 0; i < b.length; i++) {
+            fb[i] = b[i] % p;
+        }
+        ntt(fa, p, g, false);
+        ntt(fb, p, g, false);
+        for (int i = 0; i < len; i++) {
+            fa[i] = fa[i] * fb[i] % p;
+        }
+        ntt(fa, p, g, true);
+        return fa;
+    }
+
+
+    /**
+     * In place number theoretic transform.
+     * @param a values modulo p, length a power of 2.
+     * @param p transform prime.
+     * @param g primitive root modulo p.
+     * @param invert true for the inverse transform.
+     */
+    static void ntt(long[] a, long p, long g, boolean invert) {
+        int n = a.length;
+        for (int i = 1, j = 0; i < n; i++) { // bit reversal
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                long t = a[i];
+                a[i] = a[j];
+                a[j] = t;
+            }
+        }
+        for (int len = 2; len <= n; len <<= 1) {
+            long w = modPow(g, (p - 1) / len, p);
+            if (invert) {
+                w = modInverse(w, p);
+            }
+            int half = len >> 1;
+            long[] ws = new long[half];
+            ws[0] = 1L;
+            for (int k = 1; k < half; k++) {
+                ws[k] = ws[k - 1] * w % p;
+            }
+            for (int i = 0; i < n; i += len) {
+                for (int k = 0; k < half; k++) {
+                    long u = a[i + k];
+                    long v = a[i + k + half] * ws[k] % p;
+                    long s = u + v;
+                    a[i + k] = (s >= p ? s - p : s);
+                    long d = u - v;
+                    a[i + k + half] = (d < 0L ? d + p : d);
+                }
+            }
+        }
+        if (invert) {
+            long ni = modInverse(n % p, p);
+            for (int i = 0; i < n; i++) {
+                a[i] = a[i] * ni % p;
+            }
+        }
+    }
+
+
+    /**
+     * Modular power.
+     * @return b<sup>e</sup> mod p, p &lt; 2<sup>31</sup>.
+     */
+    static long modPow(long b, long e, long p) {
+        long r = 1L;
+        b %= p;
+        while (e > 0L) {
+            if ((e & 1L) != 0L) {
+                r = r * b % p;
+            }
+            b = b * b % p;
+            e >>= 1;
+        }
+        return r;
+    }
+
+
+    /**
+     * Modular inverse.
+     * @return a<sup>-1</sup> mod p.
+     */
+    static long modInverse(long a, long p) {
+        return DenseModPolynomial.inverse(a, p);
+    }
+
+
+    /**
+     * Truncated inverse by Newton iteration g = g (2 - a g).
+     * @param a coefficients of a power series with unit constant coefficient.
+     * @param n truncation order.
+     * @return first n coefficients of 1/a.
+     */
+    public List<C> inverse(List<C> a, int n) {
+        return toList(inverse(toArray(a, n), n), n);
+    }
+
+
+    /**
+     * Truncated inverse.
+     * @param a coefficients, length &ge; n.
+     * @param n truncation order.
+     * @return first n coefficients of 1/a.
+     */
+    C[] inverse(C[] a, int n) {
+        C[] g = zeros(1);
+        g[0] = a[0].inverse(); // may fail
+        C two = coFac.fromInteger(2);
+        int k = 1;
+        while (k < n) {
+            int k2 = Math.min(2 * k, n);
+            C[] e = multiply(a, g, k2);
+            for (int i = 0; i < e.length; i++) {
+                e[i] = e[i].negate();
+            }
+            e[0] = e[0].sum(two);
+            g = multiply(g, e, k2);
+            if (debug) {
+                logger.debug("inverse precision {}", k2);
+            }
+            k = k2;
+        }
+        return g;
+    }
+
+
+    /**
+     * Truncated square root by Newton iteration g = (g + a/g)/2.
+     * @param a coefficients of a power series with constant coefficient 1.
+     * @param n truncation order.
+     * @return first n coefficients of sqrt(a) with constant coefficient 1.
+     */
+    public List<C> sqrt(List<C> a, int n) {
+        C[] ac = toArray(a, n);
+        if (!ac[0].isONE()) {
+            throw new ArithmeticException("constant coefficient must be one: " + ac[0]);
+        }
+        C[] g = zeros(1);
+        g[0] = coFac.getONE();
+        C half = coFac.fromInteger(2).inverse(); // may fail
+        int k = 1;
+        while (k < n) {
+            int k2 = Math.min(2 * k, n);
+            C[] q = multiply(ac, inverse(resize(g, k2), k2), k2);
+            C[] h = resize(q, k2);
+            for (int i = 0; i < k2; i++) {
+                C x = (i < g.length ? g[i].sum(h[i]) : h[i]);
+                h[i] = x.multiply(half);
+            }
+            g = h;
+            k = k2;
+        }
+        return toList(g, n);
+    }
+
+
+    /**
+     * Truncated derivative.
+     * @param a coefficients.
+     * @param n number of coefficients of a.
+     * @return first n-1 coefficients of a'.
+     */
+    C[] differentiate(C[] a, int n) {
+        C[] d = zeros(Math.max(n - 1, 0));
+        for (int i = 1; i < n; i++) {
+            d[i - 1] = a[i].multiply(coFac.fromInteger(i));
+        }
+        return d;
+    }
+
+
+    /**
+     * Truncated integral with constant term zero.
+     * @param a coefficients.
+     * @param n truncation order.
+     * @return first n coefficients of integrate(a).
+     */
+    C[] integrate(C[] a, int n) {
+        C[] r = zeros(n);
+        for (int i = 1; i < n && i - 1 < a.length; i++) {
+            r[i] = a[i - 1].divide(coFac.fromInteger(i));
+        }
+        return r;
+    }
+
+
+    /**
+     * Truncated logarithm log(a) = integrate(a'/a).
+     * @param a coefficients of a power series with constant coefficient 1.
+     * @param n truncation order.
+     * @return first n coefficients of log(a).
+     */
+    public List<C> log(List<C> a, int n) {
+        C[] ac = toArray(a, n);
+        if (!ac[0].isONE()) {
+            throw new ArithmeticException("constant coefficient must be one: " + ac[0]);
+        }
+        return toList(log(ac, n), n);
+    }
+
+
+    /**
+     * Truncated logarithm.
+     * @param a coefficients with a[0] = 1, length &ge; n.
+     * @param n truncation order.
+     * @return first n coefficients of log(a).
+     */
+    C[] log(C[] a, int n) {
+        if (n <= 1) {
+            return zeros(n);
+        }
+        C[] q = multiply(differentiate(a, n), inverse(a, n - 1), n - 1);
+        return integrate(q, n);
+    }
+
+
+    /**
+     * Truncated exponential by Newton iteration g = g (1 - log(g) + a).
+     * @param a coefficients of a power series with constant coefficient 0.
+     * @param n truncation order.
+     * @return first n coefficients of exp(a).
+     */
+    public List<C> exp(List<C> a, int n) {
+        C[] ac = toArray(a, n);
+        if (n > 0 && !ac[0].isZERO()) {
+            throw new ArithmeticException("constant coefficient must be zero: " + ac[0]);
+        }
+        C[] g = zeros(1);
+        g[0] = coFac.getONE();
+        int k = 1;
+        while (k < n) {
+            int k2 = Math.min(2 * k, n);
+            C[] gk = resize(g, k2);
+            C[] l = log(gk, k2);
+            for (int i = 0; i < k2; i++) {
+                l[i] = ac[i].subtract(l[i]);
+            }
+            l[0] = l[0].sum(coFac.getONE());
+            g = multiply(g, l, k2);
+            k = k2;
+        }
+        return toList(g, n);
+    }
+
+
+    /**
+     * Truncated composition by the method of Paterson and Stockmeyer.
+     * @param a coefficients of a power series.
+     * @param b coefficients of a power series with constant coefficient 0.
+     * @param n truncation order.
+     * @return first n coefficients of a(b).
+     */
+    public List<C> compose(List<C> a, List<C> b, int n) {
+        C[] bc = toArray(b, n);
+        if (n > 0 && !bc[0].isZERO()) {
+            throw new ArithmeticException("constant coefficient must be zero: " + bc[0]);
+        }
+        return toList(compose(toArray(a, n), bc, n), n);
+    }
+
+
+    /**
+     * Truncated composition.
+     * @param a coefficients, length &ge; n.
+     * @param b coefficients with b[0] = 0, length &ge; n.
+     * @param n truncation order.
+     * @return first n coefficients of a(b).
+     */
+    C[] compose(C[] a, C[] b, int n) {
+        C[] r = zeros(n);
+        if (n == 0) {
+            return r;
+        }
+        int k = 1;
+        while (k * k < n) {
+            k++;
+        }
+        List<C[]> pow = new ArrayList<C[]>(k + 1); // baby steps b^j
+        C[] one = zeros(1);
+        one[0] = coFac.getONE();
+        pow.add(one);
+        for (int j = 1; j <= k; j++) {
+            pow.add(multiply(pow.get(j - 1), b, n));
+        }
+        C[] bk = pow.get(k);
+        int blocks = (n + k - 1) / k;
+        for (int s = blocks - 1; s >= 0; s--) { // giant steps, Horner in b^k
+            if (s < blocks - 1) {
+                r = resize(multiply(r, bk, n), n);
+            }
+            for (int j = 0; j < k && s * k + j < n; j++) {
+                C c = a[s * k + j];
+                if (c.isZERO()) {
+                    continue;
+                }
+                C[] pj = pow.get(j);
+                for (int i = 0; i < pj.length; i++) {
+                    if (!pj[i].isZERO()) {
+                        r[i] = r[i].sum(c.multiply(pj[i]));
+                    }
+                }
+            }
+        }
+        return r;
+    }
+
+
+    /**
+     * Truncated reversion by Newton iteration g = g - (a(g) - x) / a'(g).
+     * @param a coefficients of a power series with constant coefficient 0
+     *            and unit linear coefficient.
+     * @param n truncation order.
+     * @return first n coefficients of g with a(g) = x = g(a).
+     */
+    public List<C> reversion(List<C> a, int n) {
+        C[] ac = toArray(a, Math.max(n, 2));
+        if (!ac[0].isZERO()) {
+            throw new ArithmeticException("constant coefficient must be zero: " + ac[0]);
+        }
+        C[] g = zeros(2);
+        g[1] = ac[1].inverse(); // may fail
+        C[] da = differentiate(ac, ac.length);
+        int k = 2;
+        while (k < n) {
+            int k2 = Math.min(2 * k, n);
+            C[] gk = resize(g, k2);
+            C[] f = compose(ac, gk, k2);
+            f[1] = f[1].subtract(coFac.getONE());
+            C[] d = compose(resize(da, k2), gk, k2);
+            C[] q = multiply(f, inverse(d, k2), k2);
+            for (int i = 0; i < q.length; i++) {
+                gk[i] = gk[i].subtract(q[i]);
+            }
+            g = gk;
+            k = k2;
+        }
+        return toList(g, n);
+    }
+
+}
@@ -257,6 +257,20 @@ public class UnivPowerSeries<C extends RingElem<C>> implements RingElem<UnivPowe
     }
 
 
+    /**
+     * Pin the coefficients of this power series. Computed coefficients are
+     * no more evicted from a bounded coefficient cache, use for final
+     * results.
+     * @return this.
+     */
+    public UnivPowerSeries<C> pin() {
+        if (lazyCoeffs != null) {
+            lazyCoeffs.pin();
+        }
+        return this;
+    }
+
+
     /**
      * Get a GenPolynomial&lt;C&gt; from this.
      * @return a GenPolynomial&lt;C&gt; from this up to truncate parts.
@@ -678,11 +692,73 @@ public class UnivPowerSeries<C extends RingElem<C>> implements RingElem<UnivPowe
 
 
     /**
-     * Multiply by another power series.
+     * Get the first coefficients.
+     * @param n number of requested coefficients.
+     * @return list of the coefficients at 0, ..., n-1.
+     */
+    public List<C> coefficients(int n) {
+        List<C> c = new ArrayList<C>(n);
+        for (int i = 0; i < n; i++) {
+            c.add(coefficient(i));
+        }
+        return c;
+    }
+
+
+    /**
+     * Coefficient cache for a result.
+     * @param c list of eager computed coefficients or null.
+     * @return cache pre-filled with c, or a default cache if c is null.
+     */
+    private CoefficientCache<C> cacheOf(List<C> c) {
+        if (c == null) {
+            return CoefficientCache.<C> create();
+        }
+        DenseCoefficientCache<C> cache = new DenseCoefficientCache<C>(c.size());
+        for (int i = 0; i < c.size(); i++) {
+            cache.put(i, c.get(i));
+        }
+        return cache;
+    }
+
+
+    /**
+     * Test if a result can be computed eagerly.
+     * @param ps other power series or null.
+     * @return true, if the eager truncated mode is active and the
+     *         coefficients of this and ps are defined, else false.
+     */
+    private boolean useEager(UnivPowerSeries<C> ps) {
+        if (!ring.isEager() || lazyCoeffs == null) {
+            return false;
+        }
+        return ps == null || ps.lazyCoeffs != null;
+    }
+
+
+    /**
+     * Multiply by another power series. In eager truncated mode the first
+     * coefficients are computed with TruncatedSeriesArith.
      * @return this * ps.
      */
     public UnivPowerSeries<C> multiply(final UnivPowerSeries<C> ps) {
-        return new UnivPowerSeries<C>(ring, new Coefficients<C>() {
+        List<C> ec = null;
+        if (useEager(ps)) {
+            int n = ring.eager;
+            ec = ring.arith.multiply(coefficients(n), ps.coefficients(n), n);
+        }
+        return lazyMultiply(ps, cacheOf(ec));
+    }
+
+
+    /**
+     * Multiply by another power series with lazy evaluation.
+     * @param ps other power series.
+     * @param cache coefficient cache, possibly pre-filled.
+     * @return this * ps.
+     */
+    private UnivPowerSeries<C> lazyMultiply(final UnivPowerSeries<C> ps, CoefficientCache<C> cache) {
+        return new UnivPowerSeries<C>(ring, new Coefficients<C>(cache) {
 
 
             @Override
@@ -703,11 +779,17 @@ public class UnivPowerSeries<C extends RingElem<C>> implements RingElem<UnivPowe
 
 
     /**
-     * Inverse power series.
+     * Inverse power series. In eager truncated mode the first coefficients
+     * are computed by Newton iteration.
      * @return ps with this * ps = 1.
      */
     public UnivPowerSeries<C> inverse() {
-        return new UnivPowerSeries<C>(ring, new Coefficients<C>() {
+        List<C> ec = null;
+        if (useEager(null)) {
+            int n = ring.eager;
+            ec = ring.arith.inverse(coefficients(n), n);
+        }
+        return new UnivPowerSeries<C>(ring, new Coefficients<C>(cacheOf(ec)) {
 
 
             @Override
@@ -732,6 +814,218 @@ public class UnivPowerSeries<C extends RingElem<C>> implements RingElem<UnivPowe
     }
 
 
+    /**
+     * Square root. In eager truncated mode the first coefficients are
+     * computed by Newton iteration.
+     * @return ps with ps * ps = this and ps(0) = 1, for this(0) = 1.
+     */
+    public UnivPowerSeries<C> sqrt() {
+        if (!coefficient(0).isONE()) {
+            throw new ArithmeticException("constant coefficient must be one: " + coefficient(0));
+        }
+        List<C> ec = null;
+        if (useEager(null)) {
+            int n = ring.eager;
+            ec = ring.arith.sqrt(coefficients(n), n);
+        }
+        final C half = ring.coFac.fromInteger(2).inverse(); // may fail
+        return new UnivPowerSeries<C>(ring, new Coefficients<C>(cacheOf(ec)) {
+
+
+            @Override
+            public C generate(int i) {
+                if (i == 0) {
+                    return ring.coFac.getONE();
+                }
+                C c = coefficient(i);
+                for (int k = 1; k < i; k++) {
+                    c = c.subtract(get(k).multiply(get(i - k)));
+                }
+                return c.multiply(half);
+            }
+        });
+    }
+
+
+    /**
+     * Exponential. In eager truncated mode the first coefficients are
+     * computed by Newton iteration.
+     * @return exp(this), for this(0) = 0.
+     */
+    public UnivPowerSeries<C> exp() {
+        if (!coefficient(0).isZERO()) {
+            throw new ArithmeticException("constant coefficient must be zero: " + coefficient(0));
+        }
+        List<C> ec = null;
+        if (useEager(null)) {
+            int n = ring.eager;
+            ec = ring.arith.exp(coefficients(n), n);
+        }
+        return new UnivPowerSeries<C>(ring, new Coefficients<C>(cacheOf(ec)) {
+
+
+            @Override
+            public C generate(int i) {
+                if (i == 0) {
+                    return ring.coFac.getONE();
+                }
+                // i e_i = sum_{k=1}^{i} k a_k e_{i-k}, from e' = a' e
+                C c = ring.coFac.getZERO();
+                for (int k = 1; k <= i; k++) {
+                    C a = coefficient(k);
+                    if (a.isZERO()) {
+                        continue;
+                    }
+                    c = c.sum(a.multiply(ring.coFac.fromInteger(k)).multiply(get(i - k)));
+                }
+                return c.divide(ring.coFac.fromInteger(i));
+            }
+        });
+    }
+
+
+    /**
+     * Logarithm. In eager truncated mode the first coefficients are computed
+     * by Newton iteration.
+     * @return log(this), for this(0) = 1.
+     */
+    public UnivPowerSeries<C> log() {
+        if (!coefficient(0).isONE()) {
+            throw new ArithmeticException("constant coefficient must be one: " + coefficient(0));
+        }
+        List<C> ec = null;
+        if (useEager(null)) {
+            int n = ring.eager;
+            ec = ring.arith.log(coefficients(n), n);
+        }
+        return new UnivPowerSeries<C>(ring, new Coefficients<C>(cacheOf(ec)) {
+
+
+            @Override
+            public C generate(int i) {
+                if (i == 0) {
+                    return ring.coFac.getZERO();
+                }
+                // i l_i = i a_i - sum_{k=1}^{i-1} k l_k a_{i-k}, from a l' = a'
+                C c = coefficient(i).multiply(ring.coFac.fromInteger(i));
+                for (int k = 1; k < i; k++) {
+                    C a = coefficient(i - k);
+                    if (a.isZERO()) {
+                        continue;
+                    }
+                    c = c.subtract(get(k).multiply(ring.coFac.fromInteger(k)).multiply(a));
+                }
+                return c.divide(ring.coFac.fromInteger(i));
+            }
+        });
+    }
+
+
+    /**
+     * Composition. In eager truncated mode the first coefficients are
+     * computed with the method of Paterson and Stockmeyer.
+     * @param ps power series with ps(0) = 0.
+     * @return this(ps).
+     */
+    public UnivPowerSeries<C> compose(final UnivPowerSeries<C> ps) {
+        if (!ps.coefficient(0).isZERO()) {
+            throw new ArithmeticException("constant coefficient must be zero: " + ps.coefficient(0));
+        }
+        List<C> ec = null;
+        if (useEager(ps)) {
+            int n = ring.eager;
+            ec = ring.arith.compose(coefficients(n), ps.coefficients(n), n);
+        }
+        return new UnivPowerSeries<C>(ring, new Coefficients<C>(cacheOf(ec)) {
+
+
+            final List<UnivPowerSeries<C>> pow = new ArrayList<UnivPowerSeries<C>>();
+
+
+            @Override
+            public C generate(int i) {
+                // ps^k has order >= k, so only k <= i contribute
+                C c = ring.coFac.getZERO();
+                for (int k = 0; k <= i; k++) {
+                    C a = coefficient(k);
+                    if (a.isZERO()) {
+                        continue;
+                    }
+                    c = c.sum(a.multiply(power(ps, pow, k).coefficient(i)));
+                }
+                return c;
+            }
+        });
+    }
+
+
+    /**
+     * Reversion, compositional inverse. In eager truncated mode the first
+     * coefficients are computed by Newton iteration.
+     * @return ps with this(ps) = x = ps(this), for this(0) = 0 and a unit
+     *         this(1).
+     */
+    public UnivPowerSeries<C> reversion() {
+        if (!coefficient(0).isZERO()) {
+            throw new ArithmeticException("constant coefficient must be zero: " + coefficient(0));
+        }
+        final C d = coefficient(1).inverse(); // may fail
+        List<C> ec = null;
+        if (useEager(null)) {
+            int n = ring.eager;
+            ec = ring.arith.reversion(coefficients(n), n);
+        }
+        return new UnivPowerSeries<C>(ring, new Coefficients<C>(cacheOf(ec)) {
+
+
+            final List<UnivPowerSeries<C>> pow = new ArrayList<UnivPowerSeries<C>>();
+
+
+            final UnivPowerSeries<C> h = new UnivPowerSeries<C>(ring, this).shift(-1); // g/x
+
+
+            @Override
+            public C generate(int i) {
+                if (i == 0) {
+                    return ring.coFac.getZERO();
+                }
+                if (i == 1) {
+                    return d;
+                }
+                // [x^i] sum_k a_k g^k = 0 and [x^i] g^k = [x^(i-k)] (g/x)^k uses g_j with j < i
+                C c = ring.coFac.getZERO();
+                for (int k = 2; k <= i; k++) {
+                    C a = coefficient(k);
+                    if (a.isZERO()) {
+                        continue;
+                    }
+                    c = c.sum(a.multiply(power(h, pow, k).coefficient(i - k)));
+                }
+                return c.multiply(d).negate();
+            }
+        });
+    }
+
+
+    /**
+     * Cached lazy power of a power series.
+     * @param ps power series.
+     * @param pow list of computed powers of ps.
+     * @param k exponent.
+     * @return ps^k.
+     */
+    private UnivPowerSeries<C> power(UnivPowerSeries<C> ps, List<UnivPowerSeries<C>> pow, int k) {
+        while (pow.size() <= k) {
+            if (pow.isEmpty()) {
+                pow.add(ring.ONE);
+            } else {
+                pow.add(pow.get(pow.size() - 1).lazyMultiply(ps, CoefficientCache.<C> create()));
+            }
+        }
+        return pow.get(k);
+    }
+
+
     /**
      * Divide by another power series.
      * @return this / ps.
@@ -48,6 +48,32 @@ public class UnivPowerSeriesRing<C extends RingElem<C>> implements RingFactory<U
     int truncate;
 
 
+    /**
+     * Order of eager truncated computations, 0 for lazy evaluation.
+     */
+    int eager = 0;
+
+
+    /**
+     * Depth of fixed point map constructions in the current thread, eager
+     * evaluation is suspended during these constructions.
+     */
+    private static final ThreadLocal<int[]> fixPointDepth = new ThreadLocal<int[]>() {
+
+
+        @Override
+        protected int[] initialValue() {
+            return new int[1];
+        }
+    };
+
+
+    /**
+     * Arithmetic for eager truncated computations.
+     */
+    final TruncatedSeriesArith<C> arith;
+
+
     /**
      * Default variable name.
      */
@@ -135,6 +161,7 @@ public class UnivPowerSeriesRing<C extends RingElem<C>> implements RingFactory<U
         this.coFac = cofac;
         this.truncate = truncate;
         this.var = name;
+        this.arith = new TruncatedSeriesArith<C>(cofac);
         this.ONE = new UnivPowerSeries<C>(this, new Coefficients<C>() {
 
 
@@ -165,12 +192,58 @@ public class UnivPowerSeriesRing<C extends RingElem<C>> implements RingFactory<U
     // Cannot be a static method because a power series ring is required.
     public UnivPowerSeries<C> fixPoint(UnivPowerSeriesMap<C> map) {
         UnivPowerSeries<C> ps1 = new UnivPowerSeries<C>(this);
-        UnivPowerSeries<C> ps2 = map.map(ps1);
+        int[] depth = fixPointDepth.get();
+        UnivPowerSeries<C> ps2;
+        depth[0]++;
+        try {
+            ps2 = map.map(ps1);
+        } finally {
+            depth[0]--;
+        }
         ps1.lazyCoeffs = ps2.lazyCoeffs;
         return ps2;
     }
 
 
+    /**
+     * Set eager truncated mode. In this mode products, inverses and the
+     * other methods of TruncatedSeriesArith compute the first n coefficients
+     * of a result at once with asymptotically fast algorithms. Further
+     * coefficients are generated lazily as usual, so the results can be
+     * mixed with lazy power series. Only used for commutative coefficient
+     * rings, and not within fixPoint() constructions.
+     * @param n order of eager computations, 0 for lazy evaluation only.
+     * @return old order of eager computations.
+     */
+    public int setEager(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("negative order not allowed");
+        }
+        int o = eager;
+        eager = n;
+        return o;
+    }
+
+
+    /**
+     * Get eager truncated mode.
+     * @return order of eager computations, 0 for lazy evaluation only.
+     */
+    public int getEager() {
+        return eager;
+    }
+
+
+    /**
+     * Test if results are computed eagerly.
+     * @return true, if the eager truncated mode is active for this thread,
+     *         else false.
+     */
+    public boolean isEager() {
+        return eager > 0 && coFac.isCommutative() && fixPointDepth.get()[0] == 0;
+    }
+
+
     /**
      * To String.
      * @return string representation of this.
@@ -491,6 +564,29 @@ public class UnivPowerSeriesRing<C extends RingElem<C>> implements RingFactory<U
     }
 
 
+    /**
+     * Get a UnivPowerSeries&lt;C&gt; from a list of coefficients.
+     * @param a list of the first coefficients, all further coefficients are
+     *            zero.
+     * @return a UnivPowerSeries&lt;C&gt;.
+     */
+    public UnivPowerSeries<C> fromCoefficients(List<C> a) {
+        DenseCoefficientCache<C> cache = new DenseCoefficientCache<C>(a.size());
+        for (int i = 0; i < a.size(); i++) {
+            cache.put(i, a.get(i));
+        }
+        return new UnivPowerSeries<C>(this, new Coefficients<C>(cache) {
+
+
+            @Override
+            public C generate(int i) {
+                // cached coefficients returned by get
+                return coFac.getZERO();
+            }
+        });
+    }
+
+
     /**
      * Generate a random power series with k = 5, d = 0.7.
      * @return a random power series.
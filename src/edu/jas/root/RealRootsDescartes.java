@@ -0,0 +1,670 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.root;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.Rational;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.Monomial;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+import edu.jas.ufd.SquarefreeAbstract;
+import edu.jas.ufd.SquarefreeFactory;
+import edu.jas.util.ForkJoinThreadPool;
+
+
+/**
+ * Real root isolation using Descartes' rule of signs. Implements the
+ * Vincent-Collins-Akritas bisection algorithm on the squarefree part of the
+ * polynomial with integer coefficients. The positive and the negative roots
+ * in the bound interval (-2^e,2^e) are mapped to (0,1). On a sub-interval the number of sign variations of the
+ * coefficients of (x+1)^n p(1/(x+1)) is an upper bound for the number of
+ * roots and is exact for 0 and 1. Sub-intervals are obtained by scaling with
+ * powers of 2 and Taylor shifts by 1, which only need shifts and additions of
+ * integers. Independent sub-intervals of polynomials of large degree are
+ * treated in parallel on the common fork-join pool.
+ * @param <C> coefficient type.
+ * @author Heinz Kredel
+ */
+public class RealRootsDescartes<C extends RingElem<C> & Rational> extends RealRootsAbstract<C> {
+
+
+    private static final Logger logger = LogManager.getLogger(RealRootsDescartes.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Minimal degree for parallel treatment of sub-intervals.
+     */
+    static final int PARALLEL_DEGREE = 48;
+
+
+    /**
+     * True, if sub-intervals may be treated in parallel.
+     */
+    protected final boolean parallel;
+
+
+    /**
+     * Constructor.
+     */
+    public RealRootsDescartes() {
+        this(true);
+    }
+
+
+    /**
+     * Constructor.
+     * @param parallel true, if sub-intervals may be treated in parallel.
+     */
+    public RealRootsDescartes(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+
+    /**
+     * Isolating intervals for the real roots.
+     * @param f univariate polynomial.
+     * @return a list of isolating intervals for the real roots of f.
+     */
+    @Override
+    public List<Interval<C>> realRoots(GenPolynomial<C> f) {
+        List<Interval<C>> R = new ArrayList<Interval<C>>();
+        if (f == null) {
+            return R;
+        }
+        GenPolynomialRing<C> pfac = f.ring;
+        RingFactory<C> cfac = pfac.coFac;
+        if (f.isZERO()) {
+            C z = cfac.getZERO();
+            R.add(new Interval<C>(z));
+            return R;
+        }
+        java.math.BigInteger[] a = squarefreeCoefficients(f);
+        java.math.BigInteger[] a0 = a;
+        // check trailing degree
+        boolean zero = false;
+        if (a.length > 1 && a[0].signum() == 0) {
+            a = divideX(a);
+            zero = true;
+        }
+        // roots in (-2^e, 2^e), negative and positive roots mapped to (0,1)
+        List<Root> neg = new ArrayList<Root>();
+        List<Root> pos = new ArrayList<Root>();
+        int e = 0;
+        if (a.length > 1) {
+            e = rootBoundExponent(a);
+            java.math.BigInteger[] q = removePowerOfTwo(scale(a, e)); // a(2^e x)
+            pos = isolate(q);
+            q = scale(a, e);
+            for (int i = 1; i < q.length; i += 2) {
+                q[i] = q[i].negate();
+            }
+            neg = isolate(removePowerOfTwo(q)); // a(-2^e x)
+        }
+        BigRational w = new BigRational(java.math.BigInteger.ONE.shiftLeft(e));
+        List<Interval<BigRational>> V = new ArrayList<Interval<BigRational>>();
+        for (int i = neg.size() - 1; i >= 0; i--) {
+            V.add(neg.get(i).interval(w.negate()));
+        }
+        if (zero) {
+            V.add(new Interval<BigRational>(BigRational.ZERO));
+        }
+        for (Root r : pos) {
+            V.add(r.interval(w));
+        }
+        // exact roots may be end points of the neighbouring intervals
+        for (int i = 0; i < V.size(); i++) {
+            Interval<BigRational> v = V.get(i);
+            if (v.left.compareTo(v.right) < 0) {
+                v = separateEndPoints(v, a0);
+            }
+            R.add(new Interval<C>(fromRational(cfac, v.left), fromRational(cfac, v.right)));
+        }
+        if (debug) {
+            logger.debug("realRoots: {}", R);
+        }
+        return R;
+    }
+
+
+    /**
+     * Number of real roots in interval.
+     * @param iv interval with f(left) * f(right) != 0.
+     * @param f univariate polynomial.
+     * @return number of distinct real roots of f in I.
+     */
+    @Override
+    public long realRootCount(Interval<C> iv, GenPolynomial<C> f) {
+        if (f == null || f.isConstant()) {
+            return 0L;
+        }
+        if (f.isZERO()) {
+            C z = f.leadingBaseCoefficient();
+            if (!iv.contains(z)) {
+                return 0L;
+            }
+            return 1L;
+        }
+        java.math.BigInteger[] a = squarefreeCoefficients(f);
+        BigRational lo = iv.left.getRational();
+        BigRational hi = iv.right.getRational();
+        if (lo.compareTo(hi) > 0) {
+            BigRational t = lo;
+            lo = hi;
+            hi = t;
+        }
+        BigRational w = hi.subtract(lo);
+        if (w.isZERO()) {
+            return evaluate(a, lo).isZERO() ? 1L : 0L;
+        }
+        java.math.BigInteger[] q = substitute(a, lo, w); // roots in (0,1) are roots in (lo,hi)
+        long n = 0L;
+        if (q[0].signum() == 0) { // root at lo
+            q = divideX(q);
+            n++;
+        }
+        if (sum(q).signum() == 0) { // root at hi
+            q = divideXm1(q);
+            n++;
+        }
+        return n + isolate(q).size();
+    }
+
+
+    /**
+     * Invariant interval for algebraic number sign.
+     * @param iv root isolating interval for f, with f(left) * f(right) &lt; 0.
+     * @param f univariate polynomial, non-zero.
+     * @param g univariate polynomial, gcd(f,g) == 1.
+     * @return v with v a new interval contained in iv such that g(w) != 0 for w
+     *         in v.
+     */
+    @Override
+    public Interval<C> invariantSignInterval(Interval<C> iv, GenPolynomial<C> f, GenPolynomial<C> g) {
+        Interval<C> v = iv;
+        if (g == null || g.isZERO()) {
+            return v;
+        }
+        if (g.isConstant()) {
+            return v;
+        }
+        if (f == null || f.isZERO()) {
+            throw new IllegalArgumentException("f == 0");
+        }
+        RingFactory<C> cfac = f.ring.coFac;
+        C two = cfac.fromInteger(2);
+        while (true) {
+            long n = realRootCount(v, g);
+            logger.debug("n = {}", n);
+            if (n == 0) {
+                return v;
+            }
+            C c = v.left.sum(v.right);
+            c = c.divide(two);
+            Interval<C> im = new Interval<C>(c, v.right);
+            if (signChange(im, f)) {
+                v = im;
+            } else {
+                v = new Interval<C>(v.left, c);
+            }
+        }
+    }
+
+
+    /**
+     * Shrink an isolating interval until its end points are no roots.
+     * @param v isolating interval of an open interval, left &lt; right.
+     * @param a coefficients of the squarefree part.
+     * @return v' contained in v with a(v'.left) * a(v'.right) &lt; 0, or an
+     *         interval of length 0 with the root of v.
+     */
+    static Interval<BigRational> separateEndPoints(Interval<BigRational> v, java.math.BigInteger[] a) {
+        BigRational l = v.left;
+        BigRational r = v.right;
+        boolean lr = evaluate(a, l).isZERO();
+        boolean rr = evaluate(a, r).isZERO();
+        if (!lr && !rr) {
+            return v;
+        }
+        // sign of a right of l, a has only simple roots
+        java.math.BigInteger[] da = derivative(a);
+        int sl = (lr ? evaluate(da, l) : evaluate(a, l)).signum();
+        BigRational two = new BigRational(2);
+        while (lr || rr) {
+            BigRational m = l.sum(r).divide(two);
+            int sm = evaluate(a, m).signum();
+            if (sm == 0) {
+                return new Interval<BigRational>(m);
+            }
+            if (sl * sm < 0) {
+                r = m;
+                rr = false;
+            } else {
+                l = m;
+                lr = false;
+                sl = sm;
+            }
+        }
+        return new Interval<BigRational>(l, r);
+    }
+
+
+    /**
+     * Isolating intervals for the roots in (0,1).
+     * @param q integer coefficients, q(0) != 0 and q(1) != 0, squarefree.
+     * @return list of isolating intervals of (0,1), ascending.
+     */
+    protected List<Root> isolate(java.math.BigInteger[] q) {
+        Isolation t = new Isolation(q, java.math.BigInteger.ZERO, 0);
+        if (parallel && q.length > PARALLEL_DEGREE && ForkJoinThreadPool.isParallel()) {
+            return ForkJoinThreadPool.invoke(t);
+        }
+        return t.compute();
+    }
+
+
+    /**
+     * Isolating (sub-)interval, (c/2^k,(c+1)/2^k) or the point c/2^k of
+     * (0,1).
+     */
+    protected static final class Root {
+
+
+        final java.math.BigInteger c;
+
+
+        final int k;
+
+
+        final boolean exact;
+
+
+        Root(java.math.BigInteger c, int k, boolean exact) {
+            this.c = c;
+            this.k = k;
+            this.exact = exact;
+        }
+
+
+        /**
+         * Interval for the map x -&gt; w x, w may be negative.
+         */
+        Interval<BigRational> interval(BigRational w) {
+            java.math.BigInteger d = java.math.BigInteger.ONE.shiftLeft(k);
+            BigRational l = w.multiply(BigRational.RNRED(c, d));
+            if (exact) {
+                return new Interval<BigRational>(l);
+            }
+            BigRational r = w.multiply(BigRational.RNRED(c.add(java.math.BigInteger.ONE), d));
+            if (l.compareTo(r) > 0) {
+                return new Interval<BigRational>(r, l);
+            }
+            return new Interval<BigRational>(l, r);
+        }
+
+
+        @Override
+        public String toString() {
+            return (exact ? "[" : "(") + c + "/2^" + k + (exact ? "]" : ")");
+        }
+    }
+
+
+    /**
+     * Recursive bisection of an interval.
+     */
+    protected class Isolation extends RecursiveTask<List<Root>> {
+
+
+        final java.math.BigInteger[] q;
+
+
+        final java.math.BigInteger c;
+
+
+        final int k;
+
+
+        /**
+         * @param q polynomial with the roots of the interval mapped to (0,1).
+         * @param c numerator of the left bound.
+         * @param k the interval is (c/2^k, (c+1)/2^k).
+         */
+        Isolation(java.math.BigInteger[] q, java.math.BigInteger c, int k) {
+            this.q = q;
+            this.c = c;
+            this.k = k;
+        }
+
+
+        @Override
+        protected List<Root> compute() {
+            List<Root> R = new ArrayList<Root>();
+            long v = descartesBound(q);
+            if (v == 0L) {
+                return R;
+            }
+            if (v == 1L) {
+                R.add(new Root(c, k, false));
+                return R;
+            }
+            // left half: 2^n q(x/2), right half: 2^n q((x+1)/2)
+            java.math.BigInteger[] ql = scale(q, -1);
+            java.math.BigInteger[] qr = ql.clone();
+            taylorShift(qr, true);
+            java.math.BigInteger c2 = c.shiftLeft(1);
+            Root mid = null;
+            if (qr[0].signum() == 0) { // root at the mid point
+                mid = new Root(c2.add(java.math.BigInteger.ONE), k + 1, true);
+                qr = divideX(qr);
+                ql = divideXm1(ql);
+            }
+            Isolation left = new Isolation(removePowerOfTwo(ql), c2, k + 1);
+            Isolation right = new Isolation(removePowerOfTwo(qr), c2.add(java.math.BigInteger.ONE), k + 1);
+            List<Root> Rl, Rr;
+            if (getPool() != null && q.length > PARALLEL_DEGREE) {
+                left.fork();
+                Rr = right.compute();
+                Rl = left.join();
+            } else {
+                Rl = left.compute();
+                Rr = right.compute();
+            }
+            R.addAll(Rl);
+            if (mid != null) {
+                R.add(mid);
+            }
+            R.addAll(Rr);
+            return R;
+        }
+    }
+
+
+    /**
+     * Convert a rational number to a coefficient.
+     * @param cfac coefficient factory.
+     * @param r rational number.
+     * @return r as element of cfac.
+     */
+    static <C extends RingElem<C> & Rational> C fromRational(RingFactory<C> cfac, BigRational r) {
+        C n = cfac.fromInteger(r.numerator());
+        if (r.denominator().equals(java.math.BigInteger.ONE)) {
+            return n;
+        }
+        return n.divide(cfac.fromInteger(r.denominator()));
+    }
+
+
+    /**
+     * Dense integer coefficients of the squarefree part.
+     * @param f univariate polynomial.
+     * @return coefficients a[i] of x^i of the primitive squarefree part of f.
+     */
+    public java.math.BigInteger[] squarefreeCoefficients(GenPolynomial<C> f) {
+        GenPolynomialRing<BigRational> rfac = new GenPolynomialRing<BigRational>(new BigRational(), f.ring);
+        GenPolynomial<BigRational> fr = rfac.getZERO().copy();
+        for (Monomial<C> m : f) {
+            fr.doPutToMap(m.e, m.c.getRational());
+        }
+        GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), f.ring);
+        GenPolynomial<BigInteger> fi = PolyUtil.integerFromRationalCoefficients(ifac, fr);
+        if (fi.degree(0) > 1L) {
+            SquarefreeAbstract<BigInteger> sqf = SquarefreeFactory.getImplementation(new BigInteger());
+            fi = sqf.squarefreePart(fi);
+        }
+        int n = (int) fi.degree(0);
+        java.math.BigInteger[] a = new java.math.BigInteger[n + 1];
+        for (int i = 0; i <= n; i++) {
+            a[i] = java.math.BigInteger.ZERO;
+        }
+        for (Monomial<BigInteger> m : fi) {
+            a[(int) m.e.getVal(0)] = m.c.getVal();
+        }
+        return a;
+    }
+
+
+    /**
+     * Exponent of a power of two root bound.
+     * @param a coefficients, a[n] != 0.
+     * @return e with |z| &lt; 2^e for all complex roots z.
+     */
+    static int rootBoundExponent(java.math.BigInteger[] a) {
+        int n = a.length - 1;
+        int bn = a[n].bitLength();
+        int d = 0;
+        for (int i = 0; i < n; i++) {
+            d = Math.max(d, a[i].bitLength() - bn + 1);
+        }
+        return d + 1; // 1 + max |a_i/a_n| < 2^(d+1)
+    }
+
+
+    /**
+     * Number of sign variations of (x+1)^n q(1/(x+1)), Descartes bound for
+     * the number of roots of q in (0,1).
+     * @param q coefficients.
+     * @return number of sign variations.
+     */
+    static long descartesBound(java.math.BigInteger[] q) {
+        int n = q.length - 1;
+        java.math.BigInteger[] r = new java.math.BigInteger[n + 1];
+        for (int i = 0; i <= n; i++) {
+            r[i] = q[n - i];
+        }
+        taylorShift(r, true);
+        return signVariations(r);
+    }
+
+
+    /**
+     * Number of sign variations.
+     * @param a coefficients.
+     * @return number of sign changes of the non-zero coefficients.
+     */
+    static long signVariations(java.math.BigInteger[] a) {
+        long v = 0L;
+        int s = 0;
+        for (java.math.BigInteger x : a) {
+            int t = x.signum();
+            if (t == 0) {
+                continue;
+            }
+            if (s != 0 && s != t) {
+                v++;
+            }
+            s = t;
+        }
+        return v;
+    }
+
+
+    /**
+     * Taylor shift by 1 or -1 in place, with additions only.
+     * @param a coefficients of p(x), replaced by the coefficients of p(x+1)
+     *            or p(x-1).
+     * @param plus true for p(x+1), false for p(x-1).
+     */
+    static void taylorShift(java.math.BigInteger[] a, boolean plus) {
+        int n = a.length - 1;
+        for (int i = 0; i < n; i++) {
+            for (int j = n - 1; j >= i; j--) {
+                a[j] = (plus ? a[j].add(a[j + 1]) : a[j].subtract(a[j + 1]));
+            }
+        }
+    }
+
+
+    /**
+     * Scale by a power of 2.
+     * @param a coefficients of p(x).
+     * @param s scale exponent.
+     * @return coefficients of p(2^s x) for s &gt;= 0, or 2^(-s n) p(x/2^(-s))
+     *         for s &lt; 0.
+     */
+    static java.math.BigInteger[] scale(java.math.BigInteger[] a, int s) {
+        int n = a.length - 1;
+        java.math.BigInteger[] b = new java.math.BigInteger[n + 1];
+        for (int i = 0; i <= n; i++) {
+            b[i] = (s >= 0 ? a[i].shiftLeft(s * i) : a[i].shiftLeft(-s * (n - i)));
+        }
+        return b;
+    }
+
+
+    /**
+     * Remove the common power of 2 of all coefficients.
+     * @param a coefficients.
+     * @return a / 2^t for the maximal such t.
+     */
+    static java.math.BigInteger[] removePowerOfTwo(java.math.BigInteger[] a) {
+        int t = Integer.MAX_VALUE;
+        for (java.math.BigInteger x : a) {
+            if (x.signum() != 0) {
+                t = Math.min(t, x.getLowestSetBit());
+                if (t == 0) {
+                    return a;
+                }
+            }
+        }
+        if (t == Integer.MAX_VALUE) {
+            return a;
+        }
+        for (int i = 0; i < a.length; i++) {
+            a[i] = a[i].shiftRight(t);
+        }
+        return a;
+    }
+
+
+    /**
+     * Divide by x.
+     * @param a coefficients with a[0] == 0.
+     * @return coefficients of p(x)/x.
+     */
+    static java.math.BigInteger[] divideX(java.math.BigInteger[] a) {
+        java.math.BigInteger[] b = new java.math.BigInteger[a.length - 1];
+        System.arraycopy(a, 1, b, 0, b.length);
+        return b;
+    }
+
+
+    /**
+     * Divide by x - 1.
+     * @param a coefficients with p(1) == 0.
+     * @return coefficients of p(x)/(x-1).
+     */
+    static java.math.BigInteger[] divideXm1(java.math.BigInteger[] a) {
+        int n = a.length - 1;
+        java.math.BigInteger[] b = new java.math.BigInteger[n];
+        java.math.BigInteger r = java.math.BigInteger.ZERO;
+        for (int i = n; i >= 1; i--) {
+            r = r.add(a[i]);
+            b[i - 1] = r;
+        }
+        return b;
+    }
+
+
+    /**
+     * Derivative.
+     * @param a coefficients of p(x).
+     * @return coefficients of p'(x).
+     */
+    static java.math.BigInteger[] derivative(java.math.BigInteger[] a) {
+        if (a.length <= 1) {
+            return new java.math.BigInteger[] { java.math.BigInteger.ZERO };
+        }
+        java.math.BigInteger[] b = new java.math.BigInteger[a.length - 1];
+        for (int i = 1; i < a.length; i++) {
+            b[i - 1] = a[i].multiply(java.math.BigInteger.valueOf(i));
+        }
+        return b;
+    }
+
+
+    /**
+     * Sum of coefficients.
+     * @param a coefficients.
+     * @return p(1).
+     */
+    static java.math.BigInteger sum(java.math.BigInteger[] a) {
+        java.math.BigInteger s = java.math.BigInteger.ZERO;
+        for (java.math.BigInteger x : a) {
+            s = s.add(x);
+        }
+        return s;
+    }
+
+
+    /**
+     * Evaluate at a rational number.
+     * @param a coefficients.
+     * @param x rational number.
+     * @return p(x).
+     */
+    static BigRational evaluate(java.math.BigInteger[] a, BigRational x) {
+        BigRational s = BigRational.ZERO;
+        for (int i = a.length - 1; i >= 0; i--) {
+            s = s.multiply(x).sum(new BigRational(a[i]));
+        }
+        return s;
+    }
+
+
+    /**
+     * Substitute an affine map.
+     * @param a coefficients of p(x).
+     * @param lo rational number.
+     * @param w rational number.
+     * @return primitive integer coefficients of a multiple of p(lo + w x).
+     */
+    static java.math.BigInteger[] substitute(java.math.BigInteger[] a, BigRational lo, BigRational w) {
+        int n = a.length - 1;
+        BigRational[] s = new BigRational[n + 1];
+        for (int i = 0; i <= n; i++) {
+            s[i] = BigRational.ZERO;
+        }
+        // Horner with the linear polynomial lo + w x
+        for (int i = n; i >= 0; i--) {
+            for (int j = n; j >= 1; j--) {
+                s[j] = s[j].multiply(lo).sum(s[j - 1].multiply(w));
+            }
+            s[0] = s[0].multiply(lo).sum(new BigRational(a[i]));
+        }
+        java.math.BigInteger d = java.math.BigInteger.ONE;
+        for (BigRational x : s) {
+            java.math.BigInteger y = x.denominator();
+            d = d.divide(d.gcd(y)).multiply(y);
+        }
+        java.math.BigInteger[] b = new java.math.BigInteger[n + 1];
+        java.math.BigInteger g = java.math.BigInteger.ZERO;
+        for (int i = 0; i <= n; i++) {
+            b[i] = s[i].numerator().multiply(d.divide(s[i].denominator()));
+            g = g.gcd(b[i]);
+        }
+        if (g.signum() != 0 && !g.equals(java.math.BigInteger.ONE)) {
+            for (int i = 0; i <= n; i++) {
+                b[i] = b[i].divide(g);
+            }
+        }
+        return b;
+    }
+
+}
@@ -12,6 +12,10 @@ import java.util.List;
 import java.util.SortedMap;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -23,6 +27,8 @@ import edu.jas.arith.Modular;
 import edu.jas.arith.ModularRingFactory;
 import edu.jas.arith.PrimeInteger;
 import edu.jas.arith.PrimeList;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.kern.Metrics;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
@@ -53,6 +59,26 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
     private static final boolean debug = logger.isDebugEnabled();
 
 
+    /**
+     * Metrics for tried and unlucky primes and the time for the modular
+     * factorization, the Hensel lifting and the search for factors, which
+     * includes the lifting.
+     */
+    protected static final Metrics.Counter primesUsed = Metrics.counter("factor.primes");
+
+
+    protected static final Metrics.Counter primesUnlucky = Metrics.counter("factor.primes.unlucky");
+
+
+    protected static final Metrics.Timer modularTimer = Metrics.timer("factor.modular");
+
+
+    protected static final Metrics.Timer liftingTimer = Metrics.timer("factor.lifting");
+
+
+    protected static final Metrics.Timer searchTimer = Metrics.timer("factor.search");
+
+
     /**
      * Factorization engine for modular base coefficients.
      */
@@ -73,17 +99,35 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
     }
 
 
+    /**
+     * Number of modular factorizations to compute concurrently.
+     */
+    protected final int threads;
+
+
     /**
      * Constructor.
      * @param cfac coefficient ring factory.
      */
-    @SuppressWarnings("unchecked")
     public FactorInteger(RingFactory<BigInteger> cfac) {
+        this(cfac, 1);
+    }
+
+
+    /**
+     * Constructor.
+     * @param cfac coefficient ring factory.
+     * @param threads number of modular factorizations to compute
+     *            concurrently, 1 for the sequential algorithm.
+     */
+    @SuppressWarnings("unchecked")
+    public FactorInteger(RingFactory<BigInteger> cfac, int threads) {
         super(cfac);
         ModularRingFactory<MOD> mcofac = (ModularRingFactory<MOD>) (Object) new ModLongRing(13, true); // hack
         mfactor = FactorFactory.getImplementation(mcofac); //new FactorModular(mcofac);
         mengine = GCDFactory.getImplementation(mcofac);
         //mengine = GCDFactory.getProxy(mcofac);
+        this.threads = (threads < 1 ? 1 : threads);
     }
 
 
@@ -216,76 +260,102 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
             logger.debug("M   = {}", M);
             logger.info("degv = {}", degv);
         }
-        Iterator<java.math.BigInteger> pit = primes.iterator();
-        pit.next(); // skip p = 2
-        pit.next(); // skip p = 3
-        MOD nf = null;
-        for (int k = 0; k < TT; k++) {
-            if (k == TT - 1) { // -2
-                primes = new PrimeList(PrimeList.Range.medium);
-                pit = primes.iterator();
-            }
-            //if (k == TT + 1) { // -1
-            //    primes = new PrimeList(PrimeList.Range.large);
-            //    pit = primes.iterator();
-            //}
-            while (pit.hasNext()) {
-                java.math.BigInteger p = pit.next();
-                //System.out.println("next run ++++++++++++++++++++++++++++++++++");
-                if (++i >= pn) {
-                    logger.error("prime list exhausted, pn = {}", pn);
-                    throw new ArithmeticException("prime list exhausted");
+        long tm = modularTimer.start();
+        if (threads > 1 && !ComputerThreads.NO_THREADS) {
+            List<List<GenPolynomial<MOD>>> sample = modularFactorsParallel(P, TT);
+            TT = sample.size();
+            modfac = new List[TT];
+            intfac = new List[TT];
+            plist = new BigInteger[TT];
+            for (int k = 0; k < TT; k++) {
+                mlist = sample.get(k);
+                if (mlist.size() <= 1) {
+                    modularTimer.stop(tm);
+                    factors.add(P);
+                    return factors;
                 }
-                if (ModLongRing.MAX_LONG.compareTo(p) > 0) {
-                    cofac = (ModularRingFactory) new ModLongRing(p, true);
-                } else {
-                    cofac = (ModularRingFactory) new ModIntegerRing(p, true);
+                modfac[k] = mlist;
+                plist[k] = ((ModularRingFactory<MOD>) mlist.get(0).ring.coFac).getIntegerModul();
+            }
+        } else {
+            Iterator<java.math.BigInteger> pit = primes.iterator();
+            pit.next(); // skip p = 2
+            pit.next(); // skip p = 3
+            MOD nf = null;
+            for (int k = 0; k < TT; k++) {
+                if (k == TT - 1) { // -2
+                    primes = new PrimeList(PrimeList.Range.medium);
+                    pit = primes.iterator();
                 }
-                logger.info("prime = {}", cofac);
-                nf = cofac.fromInteger(ac.getVal());
-                if (nf.isZERO()) {
-                    logger.info("unlucky prime (nf) = {}", p);
-                    continue;
+                //if (k == TT + 1) { // -1
+                //    primes = new PrimeList(PrimeList.Range.large);
+                //    pit = primes.iterator();
+                //}
+                while (pit.hasNext()) {
+                    java.math.BigInteger p = pit.next();
+                    //System.out.println("next run ++++++++++++++++++++++++++++++++++");
+                    if (++i >= pn) {
+                        logger.error("prime list exhausted, pn = {}", pn);
+                        throw new ArithmeticException("prime list exhausted");
+                    }
+                    if (ModLongRing.MAX_LONG.compareTo(p) > 0) {
+                        cofac = (ModularRingFactory) new ModLongRing(p, true);
+                    } else {
+                        cofac = (ModularRingFactory) new ModIntegerRing(p, true);
+                    }
+                    logger.info("prime = {}", cofac);
+                    primesUsed.inc();
+                    nf = cofac.fromInteger(ac.getVal());
+                    if (nf.isZERO()) {
+                        logger.info("unlucky prime (nf) = {}", p);
+                        primesUnlucky.inc();
+                        continue;
+                    }
+                    // initialize polynomial factory and map polynomial
+                    mfac = new GenPolynomialRing<MOD>(cofac, pfac);
+                    am = PolyUtil.<MOD> fromIntegerCoefficients(mfac, P);
+                    if (!am.degreeVector().equals(degv)) { // always true
+                        logger.info("unlucky prime (deg) = {}", p);
+                        primesUnlucky.inc();
+                        continue;
+                    }
+                    GenPolynomial<MOD> ap = PolyUtil.<MOD> baseDerivative(am);
+                    if (ap.isZERO()) {
+                        logger.info("unlucky prime (a')= {}", p);
+                        primesUnlucky.inc();
+                        continue;
+                    }
+                    GenPolynomial<MOD> g = mengine.baseGcd(am, ap);
+                    if (g.isONE()) {
+                        logger.info("**lucky prime = {}", p);
+                        break;
+                    }
+                    primesUnlucky.inc();
                 }
-                // initialize polynomial factory and map polynomial
-                mfac = new GenPolynomialRing<MOD>(cofac, pfac);
-                am = PolyUtil.<MOD> fromIntegerCoefficients(mfac, P);
-                if (!am.degreeVector().equals(degv)) { // always true
-                    logger.info("unlucky prime (deg) = {}", p);
-                    continue;
+                // now am is squarefree mod p, make monic and factor mod p
+                if (!nf.isONE()) {
+                    //System.out.println("nf = " + nf);
+                    am = am.divide(nf); // make monic
                 }
-                GenPolynomial<MOD> ap = PolyUtil.<MOD> baseDerivative(am);
-                if (ap.isZERO()) {
-                    logger.info("unlucky prime (a')= {}", p);
-                    continue;
+                mlist = mfactor.baseFactorsSquarefree(am);
+                logger.info("modlist  = {}", mlist);
+                if (mlist.size() <= 1) {
+                    modularTimer.stop(tm);
+                    factors.add(P);
+                    return factors;
                 }
-                GenPolynomial<MOD> g = mengine.baseGcd(am, ap);
-                if (g.isONE()) {
-                    logger.info("**lucky prime = {}", p);
-                    break;
+                if (!nf.isONE()) {
+                    GenPolynomial<MOD> mp = mfac.getONE(); //mlist.get(0);
+                    //System.out.println("mp = " + mp);
+                    mp = mp.multiply(nf);
+                    //System.out.println("mp = " + mp);
+                    mlist.add(0, mp); // set(0,mp);
                 }
+                modfac[k] = mlist;
+                plist[k] = cofac.getIntegerModul(); // p
             }
-            // now am is squarefree mod p, make monic and factor mod p
-            if (!nf.isONE()) {
-                //System.out.println("nf = " + nf);
-                am = am.divide(nf); // make monic
-            }
-            mlist = mfactor.baseFactorsSquarefree(am);
-            logger.info("modlist  = {}", mlist);
-            if (mlist.size() <= 1) {
-                factors.add(P);
-                return factors;
-            }
-            if (!nf.isONE()) {
-                GenPolynomial<MOD> mp = mfac.getONE(); //mlist.get(0);
-                //System.out.println("mp = " + mp);
-                mp = mp.multiply(nf);
-                //System.out.println("mp = " + mp);
-                mlist.add(0, mp); // set(0,mp);
-            }
-            modfac[k] = mlist;
-            plist[k] = cofac.getIntegerModul(); // p
         }
+        modularTimer.stop(tm);
 
         // search shortest factor list
         int min = Integer.MAX_VALUE;
@@ -340,6 +410,7 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
             if (debug) {
                 logger.info("lifting shortest from {}", mlist);
             }
+            long ts = searchTimer.start();
             if (P.leadingBaseCoefficient().isONE()) {
                 long t = System.currentTimeMillis();
                 try {
@@ -370,6 +441,7 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
                 t = System.currentTimeMillis() - t;
                 //System.out.println("non monic time = " + t);
             }
+            searchTimer.stop(ts);
             return normalizeFactorization(factors);
         }
 
@@ -388,6 +460,158 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
     }
 
 
+    /**
+     * Modular factorizations for a sample of primes, computed concurrently.
+     * Rounds of primes are factored in parallel until at least TT
+     * factorizations are available. Further rounds are started, up to 2*TT
+     * factorizations, as long as a round reduces the set of possible factor
+     * degrees or the length of the shortest factor list.
+     * @param P squarefree and primitive univariate GenPolynomial.
+     * @param TT minimal number of modular factorizations.
+     * @return list of modular factor lists as computed by
+     *         modularFactors(), if one of the lists has length &le; 1 it is
+     *         the only element.
+     */
+    List<List<GenPolynomial<MOD>>> modularFactorsParallel(final GenPolynomial<BigInteger> P, int TT) {
+        ExecutorService pool = ComputerThreads.getPool();
+        int degi = (int) P.degree(0);
+        int pn = 30; //primes.size();
+        int i = 0;
+        Iterator<java.math.BigInteger> pit = new PrimeList(PrimeList.Range.small).iterator();
+        pit.next(); // skip p = 2
+        pit.next(); // skip p = 3
+        Iterator<java.math.BigInteger> mit = new PrimeList(PrimeList.Range.medium).iterator();
+        boolean medium = true; // one factorization for a medium sized prime
+        List<List<GenPolynomial<MOD>>> sample = new ArrayList<List<GenPolynomial<MOD>>>();
+        BitSet AD = null;
+        int min = Integer.MAX_VALUE;
+        boolean grow = true;
+        while (sample.size() < TT || (grow && sample.size() < 2 * TT)) {
+            List<Callable<List<GenPolynomial<MOD>>>> batch = new ArrayList<Callable<List<GenPolynomial<MOD>>>>();
+            int need = Math.max(threads, TT - sample.size());
+            while (batch.size() < need) {
+                if (++i >= pn) {
+                    break;
+                }
+                final java.math.BigInteger p = (medium && batch.isEmpty() ? mit.next() : pit.next());
+                batch.add(() -> modularFactors(P, p));
+            }
+            if (batch.isEmpty()) {
+                if (sample.isEmpty()) {
+                    logger.error("prime list exhausted, pn = {}", pn);
+                    throw new ArithmeticException("prime list exhausted");
+                }
+                break;
+            }
+            List<Future<List<GenPolynomial<MOD>>>> results;
+            try {
+                results = pool.invokeAll(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("interrupted " + e);
+            }
+            grow = false;
+            for (int k = 0; k < results.size(); k++) {
+                List<GenPolynomial<MOD>> mlist;
+                try {
+                    mlist = results.get(k).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("interrupted " + e);
+                } catch (ExecutionException e) {
+                    throw new RuntimeException(e.getCause());
+                }
+                if (mlist == null) {
+                    continue;
+                }
+                if (medium && k == 0) {
+                    medium = false;
+                }
+                if (mlist.size() <= 1) { // irreducible
+                    sample.clear();
+                    sample.add(mlist);
+                    return sample;
+                }
+                sample.add(mlist);
+                BitSet D = factorDegrees(PolyUtil.<MOD> leadingExpVector(mlist), degi);
+                if (AD == null) {
+                    AD = D;
+                    grow = true;
+                } else {
+                    BitSet A = (BitSet) AD.clone();
+                    AD.and(D);
+                    if (!AD.equals(A)) {
+                        grow = true;
+                    }
+                }
+                if (mlist.size() < min) {
+                    min = mlist.size();
+                    grow = true;
+                }
+            }
+            if (AD != null && AD.cardinality() <= 2) { // only one possible factor
+                break;
+            }
+        }
+        logger.info("#primes = {}, #sample = {}, AD = {}", i, sample.size(), AD);
+        return sample;
+    }
+
+
+    /**
+     * Modular factorization for one prime.
+     * @param P squarefree and primitive univariate GenPolynomial.
+     * @param p prime.
+     * @return list of monic modular factors of P, with the leading coefficient
+     *         of P as first element if it is not one, or null if P is not
+     *         squarefree modulo p.
+     */
+    @SuppressWarnings("unchecked")
+    List<GenPolynomial<MOD>> modularFactors(GenPolynomial<BigInteger> P, java.math.BigInteger p) {
+        ModularRingFactory<MOD> cofac;
+        if (ModLongRing.MAX_LONG.compareTo(p) > 0) {
+            cofac = (ModularRingFactory) new ModLongRing(p, true);
+        } else {
+            cofac = (ModularRingFactory) new ModIntegerRing(p, true);
+        }
+        primesUsed.inc();
+        MOD nf = cofac.fromInteger(P.leadingBaseCoefficient().getVal());
+        if (nf.isZERO()) {
+            logger.info("unlucky prime (nf) = {}", p);
+            primesUnlucky.inc();
+            return null;
+        }
+        // initialize polynomial factory and map polynomial
+        GenPolynomialRing<MOD> mfac = new GenPolynomialRing<MOD>(cofac, P.ring);
+        GenPolynomial<MOD> am = PolyUtil.<MOD> fromIntegerCoefficients(mfac, P);
+        if (!am.degreeVector().equals(P.degreeVector())) {
+            logger.info("unlucky prime (deg) = {}", p);
+            primesUnlucky.inc();
+            return null;
+        }
+        GenPolynomial<MOD> ap = PolyUtil.<MOD> baseDerivative(am);
+        if (ap.isZERO()) {
+            logger.info("unlucky prime (a')= {}", p);
+            primesUnlucky.inc();
+            return null;
+        }
+        GenPolynomial<MOD> g = mengine.baseGcd(am, ap);
+        if (!g.isONE()) {
+            primesUnlucky.inc();
+            return null;
+        }
+        // now am is squarefree mod p, make monic and factor mod p
+        if (!nf.isONE()) {
+            am = am.divide(nf);
+        }
+        List<GenPolynomial<MOD>> mlist = mfactor.baseFactorsSquarefree(am);
+        if (mlist.size() > 1 && !nf.isONE()) {
+            mlist.add(0, mfac.getONE().multiply(nf));
+        }
+        return mlist;
+    }
+
+
     /**
      * BitSet for factor degree list.
      * @param E exponent vector list.
@@ -435,7 +659,9 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
      * @param F = [f_0,...,f_{n-1}] List&lt;GenPolynomial&gt;.
      * @param D bit set of possible factor degrees.
      * @return [g_0,...,g_{n-1}] = lift(C,F), with C = prod_{0,...,n-1} g_i mod
-     *         p**e. <b>Note:</b> does not work in all cases.
+     *         p**e. <b>Note:</b> does not work in all cases. For many modular
+     *         factors the lattice recombination is tried before the subset
+     *         search.
      */
     List<GenPolynomial<BigInteger>> searchFactorsMonic(GenPolynomial<BigInteger> C, BigInteger M,
                                                        List<GenPolynomial<MOD>> F, BitSet D) {
@@ -465,24 +691,38 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
             //nf = ct.ring.coFac.getONE();
         }
         //System.out.println("modlist  = " + mlist); // includes not ldcf
-        ModularRingFactory<MOD> mcfac = (ModularRingFactory<MOD>) ct.ring.coFac;
-        BigInteger m = mcfac.getIntegerModul();
-        long k = 1;
-        BigInteger pi = m;
-        while (pi.compareTo(M) < 0) {
-            k++;
-            pi = pi.multiply(m);
-        }
-        logger.info("p^k = {}^{}", m, k);
+        boolean lattice = (mlist.size() >= LatticeRecombination.getThreshold());
         GenPolynomial<BigInteger> PP = C, P = C;
         // lift via Hensel
-        try {
-            lift = HenselUtil.<MOD> liftHenselMonic(PP, mlist, k);
-            //System.out.println("lift = " + lift);
-        } catch (NoLiftingException e) {
-            throw new RuntimeException(e);
+        long tl = liftingTimer.start();
+        if (lattice) { // one lift for the lattice and the subset search
+            lift = LatticeRecombination.<MOD> lift(PP, mlist, M);
+        } else {
+            ModularRingFactory<MOD> mcfac = (ModularRingFactory<MOD>) ct.ring.coFac;
+            BigInteger m = mcfac.getIntegerModul();
+            long k = 1;
+            BigInteger pi = m;
+            while (pi.compareTo(M) < 0) {
+                k++;
+                pi = pi.multiply(m);
+            }
+            logger.info("p^k = {}^{}", m, k);
+            try {
+                lift = HenselUtil.<MOD> liftHenselTree(PP, mlist, k);
+                //System.out.println("lift = " + lift);
+            } catch (NoLiftingException e) {
+                throw new RuntimeException(e);
+            }
         }
+        liftingTimer.stop(tl);
         logger.info("lifted modlist = {}", lift);
+        if (lattice) {
+            List<GenPolynomial<BigInteger>> lf = LatticeRecombination.<MOD> recombine(PP, mlist, lift);
+            if (lf != null) {
+                return normalizeFactorization(lf);
+            }
+            logger.info("lattice recombination failed, using subset search");
+        }
         GenPolynomialRing<MOD> mpfac = lift.get(0).ring;
 
         // combine trial factors
@@ -562,7 +802,8 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
      * @param F = [f_0,...,f_{n-1}] List&lt;GenPolynomial&gt;.
      * @param D bit set of possible factor degrees.
      * @return [g_0,...,g_{n-1}] = lift(C,F), with C = prod_{0,...,n-1} g_i mod
-     *         p**e.
+     *         p**e. For many modular factors the lattice recombination is
+     *         tried before the subset search.
      */
     List<GenPolynomial<BigInteger>> searchFactorsNonMonic(GenPolynomial<BigInteger> C, BigInteger M,
                                                           List<GenPolynomial<MOD>> F, BitSet D) {
@@ -591,6 +832,13 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         } else {
             nf = ct.ring.coFac.getONE();
         }
+        if (mlist.size() >= LatticeRecombination.getThreshold()) {
+            List<GenPolynomial<BigInteger>> lf = LatticeRecombination.<MOD> recombine(C, mlist);
+            if (lf != null) {
+                return normalizeFactorization(lf);
+            }
+            logger.info("lattice recombination failed, using subset search");
+        }
         //System.out.println("modlist  = " + mlist); // includes not ldcf
         GenPolynomialRing<MOD> mfac = ct.ring;
         GenPolynomial<MOD> Pm = PolyUtil.<MOD> fromIntegerCoefficients(mfac, C);
@@ -627,10 +875,12 @@ public class FactorInteger<MOD extends GcdRingElem<MOD> & Modular> extends Facto
                 //System.out.println("cofactor = " + cofactor);
 
                 // lift via Hensel
+                long tl = liftingTimer.start();
                 try {
                     // ilist = HenselUtil.liftHenselQuadraticFac(PP, M, trial, cofactor);
                     ilist = HenselUtil.<MOD> liftHenselQuadratic(PP, M, trial, cofactor);
                     //ilist = HenselUtil.<MOD> liftHensel(PP, M, trial, cofactor);
+                    liftingTimer.stop(tl);
                 } catch (NoLiftingException e) {
                     // no liftable factors
                     if ( /*debug*/logger.isDebugEnabled()) {
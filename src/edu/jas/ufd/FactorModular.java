@@ -20,6 +20,7 @@ import edu.jas.arith.BigInteger;
 import edu.jas.arith.ModLongRing;
 import edu.jas.arith.Modular;
 import edu.jas.arith.ModularRingFactory;
+import edu.jas.poly.DenseModPolynomial;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.PolyUtil;
@@ -85,6 +86,9 @@ public class FactorModular<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         //if (m.longValue() == 2L) {
         //    logger.warn(this.getClass().getName() + " case p = 2 not implemented");
         //}
+        if (DenseModPolynomial.isApplicable(pfac.coFac)) {
+            return baseDistinctDegreeFactorsDense(P, m);
+        }
         GenPolynomial<MOD> x = pfac.univariate(0);
         GenPolynomial<MOD> h = x;
         GenPolynomial<MOD> f = P;
@@ -108,6 +112,40 @@ public class FactorModular<MOD extends GcdRingElem<MOD> & Modular> extends Facto
     }
 
 
+    /**
+     * GenPolynomial base distinct degree factorization with unboxed
+     * coefficients.
+     * @param P squarefree and monic GenPolynomial over ModLong or ModInt.
+     * @param m modulus.
+     * @return [e_1 -&gt; p_1, ..., e_k -&gt; p_k] with P = prod_{i=1,...,k} p_i
+     *         and p_i has only irreducible factors of degree e_i.
+     */
+    SortedMap<Long, GenPolynomial<MOD>> baseDistinctDegreeFactorsDense(GenPolynomial<MOD> P,
+                    java.math.BigInteger m) {
+        SortedMap<Long, GenPolynomial<MOD>> facs = new TreeMap<Long, GenPolynomial<MOD>>();
+        GenPolynomialRing<MOD> pfac = P.ring;
+        DenseModPolynomial x = DenseModPolynomial.univariate(m.longValue(), 1);
+        DenseModPolynomial h = x;
+        DenseModPolynomial f = DenseModPolynomial.fromGenPolynomial(P);
+        DenseModPolynomial g;
+        long d = 0;
+        while (d + 1 <= f.degree() / 2) {
+            d++;
+            h = h.modPower(m, f);
+            g = h.subtract(x).gcd(f);
+            if (!g.isONE()) {
+                facs.put(d, g.toGenPolynomial(pfac));
+                f = f.divide(g);
+            }
+        }
+        if (!f.isONE()) {
+            d = f.degree();
+            facs.put(d, f.toGenPolynomial(pfac));
+        }
+        return facs;
+    }
+
+
     /**
      * GenPolynomial base equal degree factorization.
      * @param P squarefree and monic GenPolynomial.
@@ -147,6 +185,7 @@ public class FactorModular<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         //GreatestCommonDivisor<MOD> engine = GCDFactory.<MOD> getImplementation(pfac.coFac);
         Power<GenPolynomial<MOD>> pow = new Power<GenPolynomial<MOD>>(pfac);
         GenPolynomial<MOD> g = null;
+        boolean dense = DenseModPolynomial.isApplicable(pfac.coFac);
         int degi = (int) deg; //f.degree(0);
         //System.out.println("deg = " + deg);
         BigInteger di = (new BigInteger(m)).power(deg);
@@ -170,10 +209,21 @@ public class FactorModular<MOD extends GcdRingElem<MOD> & Modular> extends Facto
                 }
                 r = r.monic();
                 //System.out.println("r = " + r);
-                h = pow.modPower(r, d, f).subtract(one);
+                if (dense) {
+                    DenseModPolynomial fd = DenseModPolynomial.fromGenPolynomial(f);
+                    DenseModPolynomial hd = DenseModPolynomial.fromGenPolynomial(r).modPower(d, fd);
+                    h = hd.toGenPolynomial(pfac).subtract(one);
+                } else {
+                    h = pow.modPower(r, d, f).subtract(one);
+                }
                 degi++;
             }
-            g = engine.gcd(h, f);
+            if (dense) {
+                DenseModPolynomial hd = DenseModPolynomial.fromGenPolynomial(h);
+                g = hd.gcd(DenseModPolynomial.fromGenPolynomial(f)).toGenPolynomial(pfac);
+            } else {
+                g = engine.gcd(h, f);
+            }
             //System.out.println("g = " + g);
         } while (g.degree(0) == 0 || g.degree(0) == f.degree(0));
         f = f.divide(g);
@@ -10,6 +10,7 @@ import org.apache.logging.log4j.Logger;
 
 import edu.jas.arith.Modular;
 import edu.jas.arith.ModularRingFactory;
+import edu.jas.poly.DenseModPolynomial;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
@@ -50,6 +51,19 @@ public class GreatestCommonDivisorModEval<MOD extends GcdRingElem<MOD> & Modular
      */
     @Override
     public GenPolynomial<MOD> baseGcd(GenPolynomial<MOD> P, GenPolynomial<MOD> S) {
+        if (S == null || S.isZERO()) {
+            return P;
+        }
+        if (P == null || P.isZERO()) {
+            return S;
+        }
+        GenPolynomialRing<MOD> fac = P.ring;
+        if (fac.nvar == 1 && DenseModPolynomial.isApplicable(fac.coFac) && fac.coFac.isField()) {
+            // unboxed coefficients for ModLong and ModInt
+            DenseModPolynomial p = DenseModPolynomial.fromGenPolynomial(P);
+            DenseModPolynomial s = DenseModPolynomial.fromGenPolynomial(S);
+            return p.gcd(s).toGenPolynomial(fac);
+        }
         // required as recursion base
         return mufd.baseGcd(P, S);
     }
@@ -5,16 +5,27 @@
 package edu.jas.ufd;
 
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import edu.jas.arith.BigInteger;
 import edu.jas.arith.Combinatoric;
+import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
 import edu.jas.arith.ModLongRing;
 import edu.jas.arith.Modular;
 import edu.jas.arith.ModularRingFactory;
 import edu.jas.arith.PrimeList;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.kern.Metrics;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
@@ -39,6 +50,25 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
     private static final boolean debug = logger.isDebugEnabled(); //logger.isInfoEnabled();
 
 
+    /**
+     * Metrics for used, bad and unlucky primes, discarded Chinese remainder
+     * work and the time for modular images.
+     */
+    protected static final Metrics.Counter primesUsed = Metrics.counter("gcd.modular.primes");
+
+
+    protected static final Metrics.Counter primesBad = Metrics.counter("gcd.modular.primes.bad");
+
+
+    protected static final Metrics.Counter primesUnlucky = Metrics.counter("gcd.modular.primes.unlucky");
+
+
+    protected static final Metrics.Counter restarts = Metrics.counter("gcd.modular.restarts");
+
+
+    protected static final Metrics.Timer imageTimer = Metrics.timer("gcd.modular.image");
+
+
     /*
      * Modular gcd algorithm to use.
      */
@@ -51,6 +81,12 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
     protected final GreatestCommonDivisorAbstract<BigInteger> iufd = new GreatestCommonDivisorSubres<BigInteger>();
 
 
+    /*
+     * Number of primes for which modular images are computed concurrently.
+     */
+    protected final int threads;
+
+
     /**
      * Constructor to set recursive algorithm. Use modular evaluation GCD
      * algorithm.
@@ -65,11 +101,23 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
      * @param simple , true if the simple PRS should be used.
      */
     public GreatestCommonDivisorModular(boolean simple) {
+        this(simple, 1);
+    }
+
+
+    /**
+     * Constructor to set recursive algorithm and parallel prime pipeline.
+     * @param simple , true if the simple PRS should be used.
+     * @param threads number of primes to process concurrently, 1 for the
+     *            sequential algorithm.
+     */
+    public GreatestCommonDivisorModular(boolean simple, int threads) {
         if (simple) {
             mufd = new GreatestCommonDivisorSimple<MOD>();
         } else {
             mufd = new GreatestCommonDivisorModEval<MOD>();
         }
+        this.threads = (threads < 1 ? 1 : threads);
     }
 
 
@@ -181,6 +229,9 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
         BigInteger bf = bn.multiply(PolyUtil.factorBound(qdegv));
         BigInteger cf = (af.compareTo(bf) < 0 ? bf : af);
         cf = cf.multiply(cc.multiply(cc.fromInteger(8)));
+        if (threads > 1 && !ComputerThreads.NO_THREADS) {
+            return gcdParallel(P, S, q, r, c, cc, n);
+        }
         //initialize prime list and degree vector
         PrimeList primes = new PrimeList();
         int pn = 10; //primes.size();
@@ -223,23 +274,29 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
             }
             MOD nf = cofac.fromInteger(cc.getVal());
             if (nf.isZERO()) {
+                primesBad.inc();
                 continue;
             }
             // initialize polynomial factory and map polynomials
             mfac = new GenPolynomialRing<MOD>(cofac, fac.nvar, fac.tord, fac.getVars());
             qm = PolyUtil.<MOD> fromIntegerCoefficients(mfac, q);
             if (qm.isZERO() || !qm.degreeVector().equals(qdegv)) {
+                primesBad.inc();
                 continue;
             }
             rm = PolyUtil.<MOD> fromIntegerCoefficients(mfac, r);
             if (rm.isZERO() || !rm.degreeVector().equals(rdegv)) {
+                primesBad.inc();
                 continue;
             }
             if (debug) {
                 logger.info("cofac = {}", cofac.getIntegerModul());
             }
             // compute modular gcd
+            primesUsed.inc();
+            long t = imageTimer.start();
             cm = mufd.gcd(rm, qm);
+            imageTimer.stop(t);
             // test for constant g.c.d
             if (cm.isConstant()) {
                 logger.debug("cm, constant = {}", cm);
@@ -259,14 +316,22 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
             } else { // TL = 3
                 boolean ok = false;
                 if (wdegv.multipleOf(mdegv)) { // TL = 2 // EVMT(wdegv,mdegv)
+                    if (M != null) {
+                        restarts.inc();
+                    }
                     M = null; // init chinese remainder
                     ok = true; // prime ok
                 }
                 if (mdegv.multipleOf(wdegv)) { // TL = 1 // EVMT(mdegv,wdegv)
+                    primesUnlucky.inc();
                     continue; // skip this prime
                 }
                 if (!ok) {
+                    if (M != null) {
+                        restarts.inc();
+                    }
                     M = null; // discard chinese remainder and previous work
+                    primesUnlucky.inc();
                     continue; // prime not ok
                 }
             }
@@ -354,6 +419,215 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
     }
 
 
+    /**
+     * GenPolynomial greatest common divisor, modular algorithm with parallel
+     * prime pipeline. The modular images for a batch of primes are computed
+     * concurrently and combined with a product tree of Chinese remainder
+     * steps.
+     * @param P GenPolynomial.
+     * @param S GenPolynomial.
+     * @param q primitive part of P or S.
+     * @param r primitive part of the other polynomial, deg(r) &le; deg(q).
+     * @param c gcd of the contents of P and S.
+     * @param cc gcd of the leading base coefficients of q and r.
+     * @param n coefficient bound.
+     * @return gcd(P,S).
+     */
+    protected GenPolynomial<BigInteger> gcdParallel(GenPolynomial<BigInteger> P, GenPolynomial<BigInteger> S,
+                    GenPolynomial<BigInteger> q, GenPolynomial<BigInteger> r, BigInteger c, BigInteger cc,
+                    BigInteger n) {
+        GenPolynomialRing<BigInteger> fac = q.ring;
+        ExecutorService pool = ComputerThreads.getPool();
+        Iterator<java.math.BigInteger> pit = new PrimeList().iterator();
+        int pn = 10; //primes.size();
+        int i = 0;
+        ExpVector rdegv = r.degreeVector();
+        ExpVector wdegv = rdegv.subst(0, rdegv.getVal(0) + 1);
+        // +1 seems to be a hack for the unlucky prime test
+        GenPolynomial<ModInteger> cp = null;
+        while (true) {
+            List<Callable<GenPolynomial<MOD>>> batch = new ArrayList<Callable<GenPolynomial<MOD>>>(threads);
+            while (batch.size() < threads && pit.hasNext()) {
+                final java.math.BigInteger p = pit.next();
+                if (p.longValue() == 2L) { // skip 2
+                    continue;
+                }
+                if (++i >= pn) {
+                    break;
+                }
+                batch.add(() -> modularImage(p, q, r, cc));
+            }
+            if (batch.isEmpty()) {
+                logger.warn("prime list exhausted, pn = {}", pn);
+                return iufd.gcd(P, S);
+            }
+            List<Future<GenPolynomial<MOD>>> images;
+            try {
+                images = pool.invokeAll(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("interrupted " + e);
+            }
+            List<GenPolynomial<ModInteger>> good = new ArrayList<GenPolynomial<ModInteger>>(images.size());
+            for (Future<GenPolynomial<MOD>> f : images) {
+                GenPolynomial<MOD> cm;
+                try {
+                    cm = f.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("interrupted " + e);
+                } catch (ExecutionException e) {
+                    // as in the sequential case, errors are not ignored
+                    Throwable t = e.getCause();
+                    if (t instanceof RuntimeException) {
+                        throw (RuntimeException) t;
+                    }
+                    if (t instanceof Error) {
+                        throw (Error) t;
+                    }
+                    throw new RuntimeException(t);
+                }
+                if (cm == null) {
+                    continue;
+                }
+                // test for constant g.c.d
+                if (cm.isConstant()) {
+                    logger.debug("cm, constant = {}", cm);
+                    return fac.getONE().multiply(c);
+                }
+                // test for unlucky prime
+                ExpVector mdegv = cm.degreeVector();
+                if (!wdegv.equals(mdegv)) {
+                    if (wdegv.multipleOf(mdegv)) {
+                        if (cp != null || !good.isEmpty()) {
+                            restarts.inc();
+                        }
+                        cp = null; // discard previous work
+                        good.clear();
+                        wdegv = mdegv;
+                    } else {
+                        if (!mdegv.multipleOf(wdegv)) {
+                            if (cp != null || !good.isEmpty()) {
+                                restarts.inc();
+                            }
+                            cp = null; // discard previous work
+                            good.clear();
+                        }
+                        primesUnlucky.inc();
+                        continue; // prime not ok
+                    }
+                }
+                ModularRingFactory<MOD> cofac = (ModularRingFactory<MOD>) cm.ring.coFac;
+                GenPolynomialRing<ModInteger> mfac = new GenPolynomialRing<ModInteger>(
+                                new ModIntegerRing(cofac.getIntegerModul().getVal()), fac);
+                good.add(PolyUtil.<ModInteger> fromIntegerCoefficients(mfac,
+                                PolyUtil.<MOD> integerFromModularCoefficients(fac, cm)));
+            }
+            if (good.isEmpty()) {
+                continue;
+            }
+            // product tree of chinese remainder steps
+            if (cp != null) {
+                good.add(cp);
+            }
+            while (good.size() > 1) {
+                List<GenPolynomial<ModInteger>> next = new ArrayList<GenPolynomial<ModInteger>>();
+                for (int k = 0; k + 1 < good.size(); k += 2) {
+                    next.add(chineseRemainder(good.get(k), good.get(k + 1)));
+                }
+                if (good.size() % 2 != 0) {
+                    next.add(good.get(good.size() - 1));
+                }
+                good = next;
+            }
+            cp = good.get(0);
+            BigInteger M = ((ModIntegerRing) cp.ring.coFac).getIntegerModul();
+            // test for completion
+            if (n.compareTo(M) <= 0) {
+                if (debug) {
+                    logger.info("done on M = {}, #primes = {}", M, i);
+                }
+                break;
+            }
+            if (!cp.isZERO()) {
+                GenPolynomial<BigInteger> x;
+                x = PolyUtil.<ModInteger> integerFromModularCoefficients(fac, cp);
+                x = basePrimitivePart(x);
+                if (PolyUtil.<BigInteger> baseSparsePseudoRemainder(q, x).isZERO()
+                                && PolyUtil.<BigInteger> baseSparsePseudoRemainder(r, x).isZERO()) {
+                    logger.info("done on exact division, #primes = {}", i);
+                    break;
+                }
+            }
+        }
+        // remove normalization
+        GenPolynomial<BigInteger> g = PolyUtil.<ModInteger> integerFromModularCoefficients(fac, cp);
+        g = basePrimitivePart(g);
+        return g.abs().multiply(c);
+    }
+
+
+    /**
+     * Modular image of the gcd for one prime.
+     * @param p prime.
+     * @param q primitive GenPolynomial.
+     * @param r primitive GenPolynomial.
+     * @param cc normalization factor.
+     * @return cc * gcd(q,r) mod p, or null if p is not suitable.
+     */
+    @SuppressWarnings("unchecked")
+    protected GenPolynomial<MOD> modularImage(java.math.BigInteger p, GenPolynomial<BigInteger> q,
+                    GenPolynomial<BigInteger> r, BigInteger cc) {
+        GenPolynomialRing<BigInteger> fac = q.ring;
+        ModularRingFactory<MOD> cofac;
+        if (ModLongRing.MAX_LONG.compareTo(p) > 0) {
+            cofac = (ModularRingFactory) new ModLongRing(p, true);
+        } else {
+            cofac = (ModularRingFactory) new ModIntegerRing(p, true);
+        }
+        MOD nf = cofac.fromInteger(cc.getVal());
+        if (nf.isZERO()) {
+            primesBad.inc();
+            return null;
+        }
+        GenPolynomialRing<MOD> mfac = new GenPolynomialRing<MOD>(cofac, fac.nvar, fac.tord, fac.getVars());
+        GenPolynomial<MOD> qm = PolyUtil.<MOD> fromIntegerCoefficients(mfac, q);
+        if (qm.isZERO() || !qm.degreeVector().equals(q.degreeVector())) {
+            primesBad.inc();
+            return null;
+        }
+        GenPolynomial<MOD> rm = PolyUtil.<MOD> fromIntegerCoefficients(mfac, r);
+        if (rm.isZERO() || !rm.degreeVector().equals(r.degreeVector())) {
+            primesBad.inc();
+            return null;
+        }
+        primesUsed.inc();
+        long t = imageTimer.start();
+        GenPolynomial<MOD> cm = mufd.gcd(rm, qm);
+        imageTimer.stop(t);
+        return cm.multiply(nf);
+    }
+
+
+    /**
+     * Chinese remainder of two modular polynomials with coprime moduli.
+     * @param A GenPolynomial modulo m1.
+     * @param B GenPolynomial modulo m2.
+     * @return C modulo m1*m2 with C = A mod m1 and C = B mod m2.
+     */
+    static GenPolynomial<ModInteger> chineseRemainder(GenPolynomial<ModInteger> A, GenPolynomial<ModInteger> B) {
+        ModIntegerRing ra = (ModIntegerRing) A.ring.coFac;
+        ModIntegerRing rb = (ModIntegerRing) B.ring.coFac;
+        if (ra.getModul().compareTo(rb.getModul()) < 0) {
+            return chineseRemainder(B, A);
+        }
+        ModIntegerRing rm = new ModIntegerRing(ra.getModul().multiply(rb.getModul()));
+        GenPolynomialRing<ModInteger> mfac = new GenPolynomialRing<ModInteger>(rm, A.ring);
+        ModInteger mi = rb.fromInteger(ra.getModul()).inverse();
+        return PolyUtil.<ModInteger> chineseRemainder(mfac, A, mi, B);
+    }
+
+
     /**
      * Univariate GenPolynomial resultant.
      * @param P univariate GenPolynomial.
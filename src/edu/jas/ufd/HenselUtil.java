@@ -7,6 +7,7 @@ package edu.jas.ufd;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager; 
@@ -17,6 +18,7 @@ import edu.jas.arith.ModIntegerRing;
 import edu.jas.arith.ModLongRing;
 import edu.jas.arith.Modular;
 import edu.jas.arith.ModularRingFactory;
+import edu.jas.kern.Metrics;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
@@ -24,6 +26,7 @@ import edu.jas.poly.Monomial;
 import edu.jas.poly.PolyUtil;
 import edu.jas.structure.GcdRingElem;
 import edu.jas.structure.RingFactory;
+import edu.jas.util.ForkJoinThreadPool;
 
 
 /**
@@ -40,6 +43,12 @@ public class HenselUtil {
     private static final boolean debug = logger.isDebugEnabled();
 
 
+    /**
+     * Metric for Hensel lifting steps.
+     */
+    protected static final Metrics.Counter liftingSteps = Metrics.counter("hensel.steps");
+
+
     /**
      * Modular Hensel lifting algorithm on coefficients. Let p =
      * A.ring.coFac.modul() = B.ring.coFac.modul() and assume C == A*B mod p
@@ -122,6 +131,7 @@ public class HenselUtil {
         GenPolynomial<BigInteger> Eb1;
 
         while (Mq.compareTo(M2) < 0) {
+            liftingSteps.inc();
             // compute E=(C-AB)/q over the integers
             E = C.subtract(Ai.multiply(Bi));
             if (E.isZERO()) {
@@ -343,6 +353,7 @@ public class HenselUtil {
         Bq = PolyUtil.<MOD> fromIntegerCoefficients(qfac, Bi);
 
         while (Mq.compareTo(M2) < 0) {
+            liftingSteps.inc();
             // compute E=(C-AB)/q over the integers
             E = C.subtract(Ai.multiply(Bi));
             if (E.isZERO()) {
@@ -698,6 +709,7 @@ public class HenselUtil {
         //System.out.println("mfac =  " + mfac);
 
         while (Mq.compareTo(M2) < 0) {
+            liftingSteps.inc();
             // compute E=(C-AB)/p mod p^e
             if (debug) {
                 //System.out.println("mfac =  " + Cm.ring);
@@ -1618,6 +1630,7 @@ public class HenselUtil {
         List<GenPolynomial<MOD>> Sp = PolyUtil.fromIntegerCoefficients(mfac, Si);
         //System.out.println("Sp = " + Sp);
         for (int i = 1; i < k; i++) {
+            liftingSteps.inc();
             //System.out.println("i = " + i);
             GenPolynomial<BigInteger> e = fac.getONE();
             for (GenPolynomial<BigInteger> fi : Fi) {
@@ -1784,6 +1797,7 @@ public class HenselUtil {
         List<GenPolynomial<MOD>> Sp = PolyUtil.fromIntegerCoefficients(mfac, Si);
         //System.out.println("Sp = " + Sp);
         for (int i = 1; i < k; i++) {
+            liftingSteps.inc();
             //System.out.println("i = " + i);
             GenPolynomial<BigInteger> e = fac.getONE();
             for (GenPolynomial<BigInteger> fi : Fi) {
@@ -1868,4 +1882,250 @@ public class HenselUtil {
         return lift;
     }
 
+
+    /**
+     * Minimal degree of a subtree for parallel lifting in liftHenselTree().
+     */
+    public static final int TREE_PARALLEL_DEGREE = 48;
+
+
+    /**
+     * Modular Hensel tree lifting algorithm on coefficients. Let p =
+     * f_i.ring.coFac.modul() and assume C == prod_{0,...,n-1} f_i mod p with
+     * gcd(f_i,f_j) == 1 mod p for i != j. The factors are arranged in a
+     * binary tree balanced by degree, each inner node stores the product of
+     * its leaves and Bezout cofactors s, t of its children. In each step the
+     * precision is doubled and all nodes are lifted top down with algorithm
+     * 15.10 of von zur Gathen and Gerhard, the cofactors are lifted together
+     * with the factors and not recomputed. The two subtrees of a node are
+     * lifted in parallel.
+     * @param C monic integer polynomial.
+     * @param F = [f_0,...,f_{n-1}] list of monic modular polynomials.
+     * @param k approximation exponent.
+     * @return [g_0,...,g_{n-1}] with C = prod_{0,...,n-1} g_i mod p^k.
+     */
+    @SuppressWarnings("unchecked")
+    public static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<MOD>> liftHenselTree(
+                    GenPolynomial<BigInteger> C, List<GenPolynomial<MOD>> F, long k)
+                    throws NoLiftingException {
+        if (C == null || C.isZERO() || F == null || F.size() == 0) {
+            throw new IllegalArgumentException("C must be nonzero and F must be nonempty");
+        }
+        GenPolynomialRing<BigInteger> fac = C.ring;
+        if (fac.nvar != 1) { // assert ?
+            throw new IllegalArgumentException("polynomial ring not univariate");
+        }
+        if (!C.leadingBaseCoefficient().isONE()) {
+            throw new IllegalArgumentException("C must be monic");
+        }
+        GenPolynomialRing<MOD> pfac = F.get(0).ring;
+        ModularRingFactory<MOD> PF = (ModularRingFactory<MOD>) pfac.coFac;
+        BigInteger p = PF.getIntegerModul();
+        GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), fac);
+        List<GenPolynomial<MOD>> Fm = new ArrayList<GenPolynomial<MOD>>(F.size());
+        for (GenPolynomial<MOD> f : F) {
+            Fm.add(f.monic());
+        }
+        HenselNode<MOD> root = HenselNode.<MOD> build(Fm, 0, Fm.size());
+        boolean parallel = ForkJoinThreadPool.isParallel();
+
+        // double the precision e until k
+        long e = 1L;
+        while (e < k) {
+            e = Math.min(2L * e, k);
+            GenPolynomialRing<MOD> qfac = new GenPolynomialRing<MOD>(modularRing(p.power(e)), pfac);
+            GenPolynomial<MOD> Cq = PolyUtil.<MOD> fromIntegerCoefficients(qfac, C);
+            TreeLift<MOD> t = new TreeLift<MOD>(root, Cq, ifac, e < k, parallel);
+            if (parallel && root.degree >= TREE_PARALLEL_DEGREE) {
+                ForkJoinThreadPool.invoke(t);
+            } else {
+                t.compute();
+            }
+            if (debug) {
+                logger.info("tree lifted to p^{}", e);
+            }
+        }
+        List<GenPolynomial<MOD>> lift = new ArrayList<GenPolynomial<MOD>>(F.size());
+        root.leaves(lift);
+        return lift;
+    }
+
+
+    /**
+     * Modular ring factory.
+     * @param m modulus.
+     * @return ModLongRing if possible, else ModIntegerRing for modulus m.
+     */
+    @SuppressWarnings("unchecked")
+    static <MOD extends GcdRingElem<MOD> & Modular> ModularRingFactory<MOD> modularRing(BigInteger m) {
+        if (ModLongRing.MAX_LONG.compareTo(m.getVal()) > 0) {
+            return (ModularRingFactory) new ModLongRing(m.getVal());
+        }
+        return (ModularRingFactory) new ModIntegerRing(m.getVal());
+    }
+
+
+    /**
+     * Node of a Hensel factor tree.
+     */
+    static final class HenselNode<MOD extends GcdRingElem<MOD> & Modular> {
+
+
+        /**
+         * Product of the leaves of this node, a factor for leaves.
+         */
+        GenPolynomial<MOD> g;
+
+
+        /**
+         * Bezout cofactors of inner nodes, s*left.g + t*right.g = 1.
+         */
+        GenPolynomial<MOD> s, t;
+
+
+        final HenselNode<MOD> left, right;
+
+
+        final long degree;
+
+
+        HenselNode(GenPolynomial<MOD> g, HenselNode<MOD> left, HenselNode<MOD> right) {
+            this.g = g;
+            this.left = left;
+            this.right = right;
+            this.degree = g.degree(0);
+        }
+
+
+        /**
+         * Build a tree balanced by degree.
+         * @param F list of monic factors mod p.
+         * @param lo first index.
+         * @param hi last index + 1.
+         * @return tree for the factors F[lo..hi).
+         */
+        static <MOD extends GcdRingElem<MOD> & Modular> HenselNode<MOD> build(List<GenPolynomial<MOD>> F,
+                        int lo, int hi) throws NoLiftingException {
+            if (hi - lo == 1) {
+                return new HenselNode<MOD>(F.get(lo), null, null);
+            }
+            long total = 0L;
+            for (int i = lo; i < hi; i++) {
+                total += F.get(i).degree(0);
+            }
+            int mid = lo + 1;
+            long d = F.get(lo).degree(0);
+            while (mid < hi - 1 && 2L * (d + F.get(mid).degree(0)) <= total) {
+                d += F.get(mid).degree(0);
+                mid++;
+            }
+            HenselNode<MOD> l = build(F, lo, mid);
+            HenselNode<MOD> r = build(F, mid, hi);
+            HenselNode<MOD> n = new HenselNode<MOD>(l.g.multiply(r.g), l, r);
+            GenPolynomial<MOD>[] egcd = l.g.egcd(r.g);
+            if (!egcd[0].isConstant() || egcd[0].isZERO()) {
+                throw new NoLiftingException("factors not coprime mod p: " + egcd[0]);
+            }
+            MOD c = egcd[0].leadingBaseCoefficient().inverse();
+            n.s = egcd[1].multiply(c);
+            n.t = egcd[2].multiply(c);
+            return n;
+        }
+
+
+        /**
+         * Collect the leaves from left to right.
+         * @param L list of leaf factors, extended.
+         */
+        void leaves(List<GenPolynomial<MOD>> L) {
+            if (left == null) {
+                L.add(g);
+                return;
+            }
+            left.leaves(L);
+            right.leaves(L);
+        }
+    }
+
+
+    /**
+     * Lifting of a Hensel factor tree to a new precision.
+     */
+    static final class TreeLift<MOD extends GcdRingElem<MOD> & Modular> extends RecursiveAction {
+
+
+        final HenselNode<MOD> node;
+
+
+        final GenPolynomial<MOD> f;
+
+
+        final GenPolynomialRing<BigInteger> ifac;
+
+
+        final boolean bezout;
+
+
+        final boolean parallel;
+
+
+        /**
+         * @param node tree node.
+         * @param f lifted product of the node in the ring of the new
+         *            precision.
+         * @param ifac integer polynomial ring.
+         * @param bezout true, if the cofactors are required later.
+         * @param parallel true, if subtrees may be lifted in parallel.
+         */
+        TreeLift(HenselNode<MOD> node, GenPolynomial<MOD> f, GenPolynomialRing<BigInteger> ifac,
+                        boolean bezout, boolean parallel) {
+            this.node = node;
+            this.f = f;
+            this.ifac = ifac;
+            this.bezout = bezout;
+            this.parallel = parallel;
+        }
+
+
+        /**
+         * Representation in the ring of the new precision.
+         */
+        GenPolynomial<MOD> up(GenPolynomial<MOD> a) {
+            return PolyUtil.<MOD> fromIntegerCoefficients(f.ring, PolyUtil.integerFromModularCoefficients(ifac, a));
+        }
+
+
+        @Override
+        protected void compute() {
+            node.g = f;
+            if (node.left == null) {
+                return;
+            }
+            liftingSteps.inc();
+            // algorithm 15.10 of von zur Gathen and Gerhard, h is monic
+            GenPolynomial<MOD> g = up(node.left.g);
+            GenPolynomial<MOD> h = up(node.right.g);
+            GenPolynomial<MOD> s = up(node.s);
+            GenPolynomial<MOD> t = up(node.t);
+            GenPolynomial<MOD> e = f.subtract(g.multiply(h));
+            GenPolynomial<MOD>[] qr = s.multiply(e).quotientRemainder(h);
+            GenPolynomial<MOD> g1 = g.sum(t.multiply(e)).sum(qr[0].multiply(g));
+            GenPolynomial<MOD> h1 = h.sum(qr[1]);
+            if (bezout) {
+                GenPolynomial<MOD> b = s.multiply(g1).sum(t.multiply(h1)).subtract(f.ring.getONE());
+                GenPolynomial<MOD>[] cd = s.multiply(b).quotientRemainder(h1);
+                node.s = s.subtract(cd[1]);
+                node.t = t.subtract(t.multiply(b)).subtract(cd[0].multiply(g1));
+            }
+            TreeLift<MOD> l = new TreeLift<MOD>(node.left, g1, ifac, bezout, parallel);
+            TreeLift<MOD> r = new TreeLift<MOD>(node.right, h1, ifac, bezout, parallel);
+            if (parallel && node.degree >= TREE_PARALLEL_DEGREE && inForkJoinPool()) {
+                invokeAll(l, r);
+            } else {
+                l.compute();
+                r.compute();
+            }
+        }
+    }
+
 }
@@ -0,0 +1,589 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ufd;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.Modular;
+import edu.jas.arith.ModularRingFactory;
+import edu.jas.kern.Metrics;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.GcdRingElem;
+import edu.jas.structure.Power;
+import edu.jas.vector.LatticeReduction;
+
+
+/**
+ * Lattice based recombination of Hensel lifted factors, knapsack method of
+ * M. van Hoeij, Factoring polynomials and the knapsack problem, 2002. The
+ * power sums of the roots of the lifted factors define a knapsack lattice,
+ * whose short vectors after LLL reduction are the 0-1 vectors of the true
+ * factors. The cost is polynomial in the number of modular factors, in
+ * contrast to the subset search in FactorInteger. Non-monic polynomials are
+ * transformed to monic ones by substitution x = y / lc.
+ * @author Heinz Kredel
+ */
+
+public class LatticeRecombination {
+
+
+    private static final Logger logger = LogManager.getLogger(LatticeRecombination.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Number of modular factors from which on lattice recombination is used
+     * in place of subset search.
+     */
+    private static volatile int threshold = 10;
+
+
+    /**
+     * Metrics for the number of lattice reductions.
+     */
+    protected static final Metrics.Counter reductions = Metrics.counter("factor.lattice.reductions");
+
+
+    protected static final Metrics.Timer latticeTimer = Metrics.timer("factor.lattice");
+
+
+    /**
+     * Recombination of modular factors with a knapsack lattice.
+     * @param C squarefree and primitive univariate polynomial over the
+     *            integers.
+     * @param F = [f_0,...,f_{r-1}] monic pairwise coprime polynomials modulo
+     *            p with C == lc(C) prod_{0,...,r-1} f_i mod p.
+     * @return list of irreducible factors of C, or null if the lattice does
+     *         not determine the factors. In the latter case subset search must
+     *         be used.
+     */
+    public static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<BigInteger>> recombine(
+                    GenPolynomial<BigInteger> C, List<GenPolynomial<MOD>> F) {
+        if (C == null || C.isZERO() || F == null || F.size() == 0) {
+            throw new IllegalArgumentException("C must be nonzero and F must be nonempty");
+        }
+        GenPolynomialRing<BigInteger> pfac = C.ring;
+        if (pfac.nvar != 1) {
+            throw new IllegalArgumentException("polynomial ring not univariate");
+        }
+        List<GenPolynomial<BigInteger>> factors = new ArrayList<GenPolynomial<BigInteger>>();
+        int r = F.size();
+        if (r <= 1) {
+            factors.add(C);
+            return factors;
+        }
+        // transform to monic
+        BigInteger lc = C.leadingBaseCoefficient();
+        GenPolynomial<BigInteger> Cm = C;
+        List<GenPolynomial<MOD>> Fm = F;
+        if (!lc.isONE()) {
+            Cm = monicTransform(C);
+            Fm = new ArrayList<GenPolynomial<MOD>>(r);
+            for (GenPolynomial<MOD> f : F) {
+                MOD a = f.ring.coFac.fromInteger(lc.getVal());
+                Fm.add(substitute(f, a, f.degree(0)));
+            }
+        }
+        // lift once for the lattice and the factor test
+        BigInteger M = Cm.maxNorm().multiply(PolyUtil.factorBound(Cm.degreeVector()));
+        M = M.multiply(new BigInteger(8L));
+        List<GenPolynomial<MOD>> lift = lift(Cm, Fm, M);
+        List<GenPolynomial<BigInteger>> gs = recombine(Cm, Fm, lift);
+        if (gs == null) {
+            return null;
+        }
+        for (GenPolynomial<BigInteger> g : gs) {
+            if (!lc.isONE()) {
+                g = substitute(g, lc, 0L).abs();
+                BigInteger c = g.ring.coFac.getZERO();
+                for (BigInteger a : g.getMap().values()) {
+                    c = c.gcd(a);
+                }
+                g = g.divide(c);
+            }
+            factors.add(g);
+        }
+        return factors;
+    }
+
+
+    /**
+     * Set the number of modular factors from which on lattice recombination
+     * is used.
+     * @param t threshold, at least 2.
+     */
+    public static void setThreshold(int t) {
+        threshold = Math.max(2, t);
+    }
+
+
+    /**
+     * Get the number of modular factors from which on lattice recombination
+     * is used.
+     * @return threshold.
+     */
+    public static int getThreshold() {
+        return threshold;
+    }
+
+
+    /**
+     * Hensel lifting for lattice recombination and factor tests. The factors
+     * are lifted once to the precision for the lattice with the first number
+     * of power sums and for the coefficient bound M.
+     * @param C monic squarefree polynomial.
+     * @param F monic modular factors.
+     * @param M bound on the coefficients of the factors of C.
+     * @return [g_0,...,g_{r-1}] with C = prod_{0,...,r-1} g_i mod p^k and p^k
+     *         &ge; M.
+     */
+    @SuppressWarnings("unchecked")
+    public static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<MOD>> lift(
+                    GenPolynomial<BigInteger> C, List<GenPolynomial<MOD>> F, BigInteger M) {
+        ModularRingFactory<MOD> mcfac = (ModularRingFactory<MOD>) F.get(0).ring.coFac;
+        java.math.BigInteger p = mcfac.getIntegerModul().getVal();
+        int r = F.size();
+        long bits = Math.max(M.getVal().bitLength() + 1L, precision(C, r, firstPowerSums(C, r)));
+        long k = exponent(p, bits);
+        try {
+            return HenselUtil.<MOD> liftHenselTree(C, new ArrayList<GenPolynomial<MOD>>(F), k);
+        } catch (NoLiftingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+
+    /**
+     * Recombination of lifted factors with a knapsack lattice.
+     * @param C monic squarefree polynomial over the integers.
+     * @param F = [f_0,...,f_{r-1}] monic pairwise coprime polynomials modulo
+     *            p with C == prod_{0,...,r-1} f_i mod p.
+     * @param lift = [g_0,...,g_{r-1}] Hensel lifts of F modulo p^k, with p^k
+     *            at least twice the coefficient bound of the factors of C, see
+     *            lift().
+     * @return list of irreducible factors of C, or null if the lattice does
+     *         not determine the factors. In the latter case subset search on
+     *         lift must be used.
+     */
+    public static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<BigInteger>> recombine(
+                    GenPolynomial<BigInteger> C, List<GenPolynomial<MOD>> F, List<GenPolynomial<MOD>> lift) {
+        if (F.size() != lift.size()) {
+            throw new IllegalArgumentException("F and lift must have the same length");
+        }
+        if (F.size() <= 1) {
+            List<GenPolynomial<BigInteger>> factors = new ArrayList<GenPolynomial<BigInteger>>(1);
+            factors.add(C);
+            return factors;
+        }
+        long tl = latticeTimer.start();
+        try {
+            List<int[]> blocks = partition(C, F, lift);
+            if (blocks == null) {
+                return null;
+            }
+            return combine(C, lift, blocks);
+        } finally {
+            latticeTimer.stop(tl);
+        }
+    }
+
+
+    /**
+     * Compute the partition of the modular factors into true factors. The
+     * number of power sums is doubled until the lattice yields a partition.
+     * The given lift is used as long as its precision suffices, else the
+     * factors are lifted further.
+     * @param C monic squarefree polynomial.
+     * @param F monic modular factors.
+     * @param lift Hensel lifts of F modulo p^k.
+     * @return list of index sets, or null if the lattice did not yield a
+     *         partition.
+     */
+    @SuppressWarnings("unchecked")
+    static <MOD extends GcdRingElem<MOD> & Modular> List<int[]> partition(GenPolynomial<BigInteger> C,
+                    List<GenPolynomial<MOD>> F, List<GenPolynomial<MOD>> lift) {
+        int r = F.size();
+        long N = C.degree(0);
+        ModularRingFactory<MOD> mcfac = (ModularRingFactory<MOD>) F.get(0).ring.coFac;
+        java.math.BigInteger p = mcfac.getIntegerModul().getVal();
+        ModularRingFactory<MOD> lcfac = (ModularRingFactory<MOD>) lift.get(0).ring.coFac;
+        java.math.BigInteger P = lcfac.getIntegerModul().getVal();
+        // root bound B = 2^beta, Fujiwara
+        int beta = rootBoundBits(C);
+        int s = firstPowerSums(C, r);
+        while (true) {
+            long bits = precision(C, r, s);
+            if (P.bitLength() < bits) { // lift further, at least double
+                long k = Math.max(exponent(p, bits), 2L * exponent(p, P.bitLength()));
+                try {
+                    lift = HenselUtil.<MOD> liftHenselTree(C, new ArrayList<GenPolynomial<MOD>>(F), k);
+                } catch (NoLiftingException e) {
+                    throw new RuntimeException(e);
+                }
+                lcfac = (ModularRingFactory<MOD>) lift.get(0).ring.coFac;
+                P = lcfac.getIntegerModul().getVal();
+            }
+            if (debug) {
+                logger.debug("lattice: r = {}, s = {}, P = {}", r, s, P);
+            }
+            List<int[]> blocks = partition(lift, P, N, beta, s);
+            if (blocks != null) {
+                logger.info("lattice: r = {}, s = {}, #factors = {}", r, s, blocks.size());
+                return blocks;
+            }
+            if (s >= N) {
+                logger.info("lattice: no partition found, r = {}, s = {}", r, s);
+                return null;
+            }
+            s = (int) Math.min(N, 2L * s);
+        }
+    }
+
+
+    /**
+     * First number of power sums for the lattice.
+     * @param C monic polynomial.
+     * @param r number of modular factors.
+     * @return s with 1 &le; s &le; deg(C).
+     */
+    static int firstPowerSums(GenPolynomial<BigInteger> C, int r) {
+        return (int) Math.min(C.degree(0), Math.max(2, r / 4));
+    }
+
+
+    /**
+     * Precision of the lifted factors for the lattice: the cut off bits, and
+     * the expected length of lattice vectors not belonging to factors exceeds
+     * the LLL approximation factor 2^((r+s-1)/2) times the length of the
+     * factor vectors.
+     * @param C monic polynomial.
+     * @param r number of modular factors.
+     * @param s number of power sums.
+     * @return number of bits of p^k.
+     */
+    static long precision(GenPolynomial<BigInteger> C, int r, int s) {
+        long N = C.degree(0);
+        int beta = rootBoundBits(C);
+        int nbits = 64 - Long.numberOfLeadingZeros(N);
+        long n = r + s;
+        return nbits + (long) beta * s + (n * r) / (2L * s) + n + (64 - Long.numberOfLeadingZeros(r)) + 16L;
+    }
+
+
+    /**
+     * Exponent for a precision.
+     * @param p prime.
+     * @param bits number of bits.
+     * @return least k with bitLength(p^k) &ge; bits.
+     */
+    static long exponent(java.math.BigInteger p, long bits) {
+        long k = 1;
+        java.math.BigInteger P = p;
+        while (P.bitLength() < bits) {
+            P = P.multiply(p);
+            k++;
+        }
+        return k;
+    }
+
+
+    /**
+     * Compute the partition of the lifted factors with the power sums 1 to
+     * s.
+     * @param lift monic lifted factors modulo P.
+     * @param P modulus.
+     * @param N degree of the polynomial.
+     * @param beta 2^beta is a bound for the absolute value of the roots.
+     * @param s number of power sums.
+     * @return list of index sets, or null if the lattice did not yield a
+     *         partition.
+     */
+    static <MOD extends GcdRingElem<MOD> & Modular> List<int[]> partition(List<GenPolynomial<MOD>> lift,
+                    java.math.BigInteger P, long N, int beta, int s) {
+        int r = lift.size();
+        int n = r + s;
+        // |Tr_j(g)| <= N 2^(beta j) < 2^c_j, the lower c_j bits of column j
+        // are cut off, the rounding errors sum up to at most r + 2
+        int nbits = 64 - Long.numberOfLeadingZeros(N);
+        long e = r + 2L;
+        java.math.BigInteger[][] L = new java.math.BigInteger[n][n];
+        for (java.math.BigInteger[] row : L) {
+            Arrays.fill(row, java.math.BigInteger.ZERO);
+        }
+        java.math.BigInteger Ph = P.shiftRight(1);
+        for (int i = 0; i < r; i++) {
+            java.math.BigInteger[] t = powerSums(lift.get(i), P, s);
+            L[i][i] = java.math.BigInteger.ONE;
+            for (int j = 1; j <= s; j++) {
+                java.math.BigInteger c = t[j];
+                if (c.compareTo(Ph) > 0) {
+                    c = c.subtract(P);
+                }
+                L[i][r + j - 1] = round(c, nbits + beta * j);
+            }
+        }
+        for (int j = 1; j <= s; j++) {
+            L[r + j - 1][r + j - 1] = round(P, nbits + beta * j);
+        }
+        LatticeReduction lr = new LatticeReduction(L).reduce();
+        reductions.inc();
+        // drop vectors with long Gram-Schmidt vectors from the end
+        java.math.BigInteger bound2 = java.math.BigInteger.valueOf(r + s * e * e);
+        int t = n;
+        while (t > 0 && lr.isGramSchmidtLonger(t - 1, bound2)) {
+            t--;
+        }
+        if (t == 0) {
+            return null;
+        }
+        // projection to the first r coordinates
+        BigRational[][] A = new BigRational[t][r];
+        for (int i = 0; i < t; i++) {
+            java.math.BigInteger[] v = lr.getVector(i);
+            for (int j = 0; j < r; j++) {
+                A[i][j] = new BigRational(v[j]);
+            }
+        }
+        int rank = rowEchelonForm(A);
+        if (debug) {
+            logger.debug("lattice: t = {}, rank = {}, swaps = {}", t, rank, lr.getSwaps());
+        }
+        // test for a 0-1 partition
+        List<int[]> blocks = new ArrayList<int[]>(rank);
+        int[] count = new int[r];
+        for (int i = 0; i < rank; i++) {
+            int[] b = new int[r];
+            int m = 0;
+            for (int j = 0; j < r; j++) {
+                BigRational a = A[i][j];
+                if (a.isZERO()) {
+                    continue;
+                }
+                if (!a.isONE()) {
+                    return null;
+                }
+                b[m++] = j;
+                count[j]++;
+            }
+            blocks.add(Arrays.copyOf(b, m));
+        }
+        for (int j = 0; j < r; j++) {
+            if (count[j] != 1) {
+                return null;
+            }
+        }
+        return blocks;
+    }
+
+
+    /**
+     * Combine the factors of the blocks and test the integer factors.
+     * @param C monic squarefree polynomial.
+     * @param lift monic lifted factors modulo p^k, p^k at least twice the
+     *            coefficient bound.
+     * @param blocks partition of the factors.
+     * @return list of factors of C, or null if a combination is no factor.
+     */
+    static <MOD extends GcdRingElem<MOD> & Modular> List<GenPolynomial<BigInteger>> combine(
+                    GenPolynomial<BigInteger> C, List<GenPolynomial<MOD>> lift, List<int[]> blocks) {
+        List<GenPolynomial<BigInteger>> factors = new ArrayList<GenPolynomial<BigInteger>>(blocks.size());
+        if (blocks.size() == 1) {
+            factors.add(C);
+            return factors;
+        }
+        GenPolynomialRing<BigInteger> pfac = C.ring;
+        GenPolynomialRing<MOD> mpfac = lift.get(0).ring;
+        GenPolynomial<BigInteger> u = C;
+        for (int[] b : blocks) {
+            List<GenPolynomial<MOD>> flist = new ArrayList<GenPolynomial<MOD>>(b.length);
+            for (int i : b) {
+                flist.add(lift.get(i));
+            }
+            GenPolynomial<MOD> mtrial = Power.<GenPolynomial<MOD>> multiply(mpfac, flist);
+            GenPolynomial<BigInteger> trial = PolyUtil.integerFromModularCoefficients(pfac, mtrial);
+            GenPolynomial<BigInteger>[] qr = PolyUtil.<BigInteger> basePseudoQuotientRemainder(u, trial);
+            if (!qr[1].isZERO()) {
+                logger.info("lattice: no factor {}", trial);
+                return null;
+            }
+            factors.add(trial);
+            u = qr[0];
+        }
+        if (!u.isONE()) {
+            return null;
+        }
+        return factors;
+    }
+
+
+    /**
+     * Rounded quotient by a power of two.
+     * @param a integer.
+     * @param c exponent, c &gt; 0.
+     * @return round(a / 2^c).
+     */
+    static java.math.BigInteger round(java.math.BigInteger a, int c) {
+        return a.add(java.math.BigInteger.ONE.shiftLeft(c - 1)).shiftRight(c);
+    }
+
+
+    /**
+     * Power sums of the roots of a monic polynomial by Newton's identities.
+     * @param f monic modular polynomial of degree d.
+     * @param P modulus.
+     * @param s number of power sums.
+     * @return [d, p_1, ..., p_s] with p_j = sum of the j-th powers of the
+     *         roots of f modulo P.
+     */
+    static <MOD extends GcdRingElem<MOD> & Modular> java.math.BigInteger[] powerSums(GenPolynomial<MOD> f,
+                    java.math.BigInteger P, int s) {
+        int d = (int) f.degree(0);
+        // a[i] = coefficient of x^(d-i)
+        java.math.BigInteger[] a = new java.math.BigInteger[d + 1];
+        Arrays.fill(a, java.math.BigInteger.ZERO);
+        for (Map.Entry<ExpVector, MOD> me : f.getMap().entrySet()) {
+            int e = (int) me.getKey().getVal(0);
+            a[d - e] = me.getValue().getInteger().getVal();
+        }
+        java.math.BigInteger[] ps = new java.math.BigInteger[s + 1];
+        ps[0] = java.math.BigInteger.valueOf(d);
+        for (int j = 1; j <= s; j++) {
+            java.math.BigInteger c = java.math.BigInteger.ZERO;
+            if (j <= d) {
+                c = a[j].multiply(java.math.BigInteger.valueOf(j));
+            }
+            int m = Math.min(j - 1, d);
+            for (int i = 1; i <= m; i++) {
+                if (a[i].signum() != 0) {
+                    c = c.add(a[i].multiply(ps[j - i]));
+                }
+            }
+            ps[j] = c.negate().mod(P);
+        }
+        return ps;
+    }
+
+
+    /**
+     * Bound for the absolute values of the roots of a monic polynomial,
+     * Fujiwara bound 2 max |c_{d-i}|^(1/i) rounded up to a power of two.
+     * @param C monic univariate polynomial.
+     * @return beta with |z| &le; 2^beta for all roots z of C.
+     */
+    static int rootBoundBits(GenPolynomial<BigInteger> C) {
+        long d = C.degree(0);
+        long beta = 0;
+        for (Map.Entry<ExpVector, BigInteger> me : C.getMap().entrySet()) {
+            long i = d - me.getKey().getVal(0);
+            if (i == 0) {
+                continue;
+            }
+            int b = me.getValue().getVal().bitLength();
+            if (i == d) { // Fujiwara uses |c_0/2|^(1/d)
+                b = Math.max(0, b - 1);
+            }
+            beta = Math.max(beta, (b + i - 1) / i);
+        }
+        return (int) beta + 1;
+    }
+
+
+    /**
+     * Transform a polynomial to a monic polynomial.
+     * @param C univariate polynomial with leading coefficient a.
+     * @return a^(deg(C)-1) C(y/a).
+     */
+    static GenPolynomial<BigInteger> monicTransform(GenPolynomial<BigInteger> C) {
+        long d = C.degree(0);
+        BigInteger a = C.leadingBaseCoefficient();
+        GenPolynomial<BigInteger> R = substitute(C.reductum(), a, d - 1L);
+        return R.sum(C.ring.getONE().multiply(C.ring.coFac.getONE(), C.leadingExpVector()));
+    }
+
+
+    /**
+     * Scale the coefficients of a univariate polynomial.
+     * @param f univariate polynomial.
+     * @param a scaling factor.
+     * @param n exponent offset, n = 0 or n &ge; deg(f).
+     * @return sum_e c_e a^(n-e) x^e, if n &ge; deg(f), sum_e c_e a^e x^e if n ==
+     *         0.
+     */
+    static <C extends GcdRingElem<C>> GenPolynomial<C> substitute(GenPolynomial<C> f, C a, long n) {
+        GenPolynomial<C> g = f.ring.getZERO().copy();
+        // powers of a
+        List<C> pw = new ArrayList<C>();
+        pw.add(f.ring.coFac.getONE());
+        for (Map.Entry<ExpVector, C> me : f.getMap().entrySet()) {
+            long e = me.getKey().getVal(0);
+            long i = (n == 0L ? e : n - e);
+            while (pw.size() <= i) {
+                pw.add(pw.get(pw.size() - 1).multiply(a));
+            }
+            g.doPutToMap(me.getKey(), me.getValue().multiply(pw.get((int) i)));
+        }
+        return g;
+    }
+
+
+    /**
+     * Reduced row echelon form over the rational numbers in place.
+     * @param A matrix, rows are modified.
+     * @return rank of A, the first rank rows are the reduced echelon form.
+     */
+    static int rowEchelonForm(BigRational[][] A) {
+        int rows = A.length;
+        if (rows == 0) {
+            return 0;
+        }
+        int cols = A[0].length;
+        int rank = 0;
+        for (int j = 0; j < cols && rank < rows; j++) {
+            int piv = -1;
+            for (int i = rank; i < rows; i++) {
+                if (!A[i][j].isZERO()) {
+                    piv = i;
+                    break;
+                }
+            }
+            if (piv < 0) {
+                continue;
+            }
+            BigRational[] t = A[piv];
+            A[piv] = A[rank];
+            A[rank] = t;
+            BigRational inv = t[j].inverse();
+            for (int l = j; l < cols; l++) {
+                t[l] = t[l].multiply(inv);
+            }
+            for (int i = 0; i < rows; i++) {
+                if (i == rank || A[i][j].isZERO()) {
+                    continue;
+                }
+                BigRational c = A[i][j];
+                for (int l = j; l < cols; l++) {
+                    A[i][l] = A[i][l].subtract(c.multiply(t[l]));
+                }
+            }
+            rank++;
+        }
+        return rank;
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+
+/**
+ * Channel codec interface. Encodes and decodes the objects sent over a
+ * SocketChannel. Codecs may keep per session state, like tables of already
+ * transmitted rings, so every channel obtains its own instance by
+ * <code>create()</code>. Both ends of a channel must use the same codec.
+ * @author Heinz Kredel
+ * @see SocketChannel
+ * @see ChannelFactory
+ */
+
+public interface ChannelCodec {
+
+
+    /**
+     * Create a codec for a new channel.
+     * @return codec with fresh session state.
+     */
+    public ChannelCodec create();
+
+
+    /**
+     * Write an object. Called with the lock on out held.
+     * @param out stream to the socket.
+     * @param v object to send.
+     * @throws IOException
+     */
+    public void write(ObjectOutputStream out, Object v) throws IOException;
+
+
+    /**
+     * Read an object. Called with the lock on in held.
+     * @param in stream from the socket.
+     * @return object received.
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    public Object read(ObjectInputStream in) throws IOException, ClassNotFoundException;
+
+}
@@ -74,6 +74,12 @@ public class ChannelFactory extends Thread {
     private volatile boolean srvstart = false;
 
 
+    /**
+     * codec prototype for new channels.
+     */
+    private volatile ChannelCodec codec = SocketChannel.DEFAULT_CODEC;
+
+
     /**
      * Constructs a ChannelFactory on the DEFAULT_PORT.
      */
@@ -121,6 +127,24 @@ public class ChannelFactory extends Thread {
     }
 
 
+    /**
+     * Set the codec for new channels. Both ends must use the same codec.
+     * @param c codec prototype, every channel uses c.create().
+     */
+    public void setCodec(ChannelCodec c) {
+        codec = (c == null ? SocketChannel.DEFAULT_CODEC : c);
+    }
+
+
+    /**
+     * Get the codec for new channels.
+     * @return codec prototype.
+     */
+    public ChannelCodec getCodec() {
+        return codec;
+    }
+
+
     /**
      * thread initialization and start.
      */
@@ -173,7 +197,7 @@ public class ChannelFactory extends Thread {
         logger.debug("connecting to {}", h);
         while (c == null) {
             try {
-                c = new SocketChannel(new Socket(h, p));
+                c = new SocketChannel(new Socket(h, p), codec.create());
             } catch (IOException e) {
                 //System.out.println(e);
                 // wait server ready
@@ -223,7 +247,7 @@ public class ChannelFactory extends Thread {
                 }
                 //logger.debug("Socket = {}", s);
                 logger.debug("connection accepted");
-                SocketChannel c = new SocketChannel(s);
+                SocketChannel c = new SocketChannel(s, codec.create());
                 buf.put(c);
             } catch (IOException e) {
                 //logger.debug("ChannelFactory IO terminating");
@@ -287,3 +287,127 @@ class DHTTransportPlain<K, V> extends DHTTransport<K, V> {
     }
 
 }
+
+
+/**
+ * Transport container for a batch of key value pairs of a distributed version
+ * of a HashTable. The entries are coalesced by the sender, so there is at most
+ * one entry per key.
+ */
+class DHTTransportBatch<K, V> extends DHTTransport<K, V> {
+
+
+    protected final java.util.List<DHTTransport<K, V>> entries;
+
+
+    /**
+     * Constructs a new DHTTransport batch container.
+     * @param entries list of key value containers.
+     */
+    public DHTTransportBatch(java.util.List<DHTTransport<K, V>> entries) {
+        this.entries = entries;
+    }
+
+
+    /**
+     * Get the key from this DHTTransport Container.
+     */
+    public K key() throws IOException, ClassNotFoundException {
+        throw new UnsupportedOperationException("batch has no single key");
+    }
+
+
+    /**
+     * Get the value from this DHTTransport Container.
+     */
+    public V value() throws IOException, ClassNotFoundException {
+        throw new UnsupportedOperationException("batch has no single value");
+    }
+
+
+    /**
+     * Number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return super.toString() + "(" + entries.size() + ")";
+    }
+
+}
+
+
+/**
+ * Transport container to subscribe to a key range of a distributed version of
+ * a HashTable. The range is from low inclusive to high exclusive, a null bound
+ * is unbounded. Keys must be Comparable.
+ */
+class DHTTransportSubscribe<K, V> extends DHTTransport<K, V> {
+
+
+    protected final K low;
+
+
+    protected final K high;
+
+
+    /**
+     * Constructs a new DHTTransport subscribe container.
+     * @param low lower bound or null.
+     * @param high upper bound or null.
+     */
+    public DHTTransportSubscribe(K low, K high) {
+        this.low = low;
+        this.high = high;
+    }
+
+
+    /**
+     * Test if a key is in the subscribed range.
+     * @param key
+     * @return true if low &le; key &lt; high.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object key) {
+        if (low != null && ((Comparable<Object>) low).compareTo(key) > 0) {
+            return false;
+        }
+        if (high != null && ((Comparable<Object>) high).compareTo(key) <= 0) {
+            return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Get the key from this DHTTransport Container.
+     */
+    public K key() throws IOException, ClassNotFoundException {
+        throw new UnsupportedOperationException("this should not happen");
+    }
+
+
+    /**
+     * Get the value from this DHTTransport Container.
+     */
+    public V value() throws IOException, ClassNotFoundException {
+        throw new UnsupportedOperationException("this should not happen");
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return super.toString() + "[" + low + "," + high + ")";
+    }
+
+}
@@ -10,7 +10,9 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -22,7 +24,13 @@ import org.apache.logging.log4j.LogManager;
 
 /**
  * Distributed version of a HashTable. Implemented with a SortedMap / TreeMap to
- * keep the sequence order of elements.
+ * keep the sequence order of elements. Puts can be batched: with a flush
+ * interval &gt; 0 the key value pairs are coalesced per key and sent as one
+ * message per interval. A client can subscribe to a key range and then only
+ * receives the entries in this range. The entries already stored in the
+ * server are requested by subscribe() or by init(), so subscribe() should be
+ * called before init() to avoid receiving all entries.
+ * @see ShardedDistHashTable
  * @author Heinz Kredel
  */
 
@@ -47,6 +55,27 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
     protected DHTListener<K, V> listener = null;
 
 
+    /**
+     * Pending puts, coalesced per key, if batching is enabled.
+     */
+    protected final Map<K, V> pending = new LinkedHashMap<K, V>();
+
+
+    /**
+     * Flush interval in milliseconds, 0 for no batching.
+     */
+    protected volatile long flushInterval = 0L;
+
+
+    protected DHTFlusher<K, V> flusher = null;
+
+
+    /**
+     * Set if the stored entries have been requested from the server.
+     */
+    protected volatile boolean requested = false;
+
+
     /**
      * Constructs a new DistHashTable.
      * @param host name or IP of server host.
@@ -96,10 +125,21 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
      * @param sc SocketChannel to use.
      */
     public DistHashTable(SocketChannel sc) {
+        this(sc, new TreeMap<K, V>());
+    }
+
+
+    /**
+     * DistHashTable. The channel factory of sc is not owned by this table and
+     * is not terminated by terminate().
+     * @param sc SocketChannel to use.
+     * @param list local sorted map, may be shared by several tables.
+     */
+    protected DistHashTable(SocketChannel sc, SortedMap<K, V> list) {
         cf = null;
         channel = sc;
         //theList = new ConcurrentSkipListMap<K, V>(); // Java 1.6
-        theList = new TreeMap<K, V>();
+        theList = list;
         listener = new DHTListener<K, V>(channel, theList);
         // listener.start() is in initialize()
     }
@@ -245,6 +285,9 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
     public void putWait(K key, V value) {
         //V o = 
         put(key, value); // = send
+        if (flushInterval > 0L) {
+            flush();
+        }
         // assume key does not change multiple times before test:
         while (!value.equals(getWait(key))) {
             //System.out.print("#");
@@ -263,6 +306,12 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
         if (key == null || value == null) {
             throw new NullPointerException("null keys or values not allowed");
         }
+        if (flushInterval > 0L) {
+            synchronized (pending) {
+                pending.put(key, value); // coalesce
+            }
+            return null;
+        }
         try {
             DHTTransport<K, V> tc = DHTTransport.<K, V> create(key, value);
             channel.send(tc);
@@ -278,6 +327,120 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
     }
 
 
+    /**
+     * Set the flush interval for batched puts.
+     * @param millis interval in milliseconds, 0 sends every put immediately.
+     */
+    public void setFlushInterval(long millis) {
+        if (millis <= 0L) {
+            flushInterval = 0L;
+            flush();
+            stopFlusher();
+            return;
+        }
+        flushInterval = millis;
+        synchronized (pending) {
+            if (flusher == null) {
+                flusher = new DHTFlusher<K, V>(this);
+                flusher.start();
+            }
+        }
+    }
+
+
+    /**
+     * Get the flush interval.
+     * @return interval in milliseconds, 0 if batching is disabled.
+     */
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+
+    /**
+     * Send the pending puts as one batch.
+     */
+    public void flush() {
+        List<DHTTransport<K, V>> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<DHTTransport<K, V>>(pending.size());
+            try {
+                for (Map.Entry<K, V> me : pending.entrySet()) {
+                    batch.add(DHTTransport.<K, V> create(me.getKey(), me.getValue()));
+                }
+            } catch (IOException e) {
+                logger.info("flush, exception {}", e);
+                e.printStackTrace();
+                return;
+            }
+            pending.clear();
+        }
+        try {
+            channel.send(new DHTTransportBatch<K, V>(batch));
+            if (debug) {
+                logger.debug("flushed {} entries", batch.size());
+            }
+        } catch (IOException e) {
+            logger.info("send, exception {}", e);
+            e.printStackTrace();
+        }
+    }
+
+
+    /**
+     * Subscribe to a key range. Only entries with low &le; key &lt; high are
+     * received and kept in the local list. Keys must be Comparable.
+     * @param low lower bound or null for unbounded.
+     * @param high upper bound or null for unbounded.
+     */
+    public void subscribe(K low, K high) {
+        DHTTransportSubscribe<K, V> r = new DHTTransportSubscribe<K, V>(low, high);
+        listener.setRange(r);
+        synchronized (theList) {
+            Iterator<K> it = theList.keySet().iterator();
+            while (it.hasNext()) {
+                if (!r.contains(it.next())) {
+                    it.remove();
+                }
+            }
+        }
+        try {
+            channel.send(r); // server replies with the entries in the range
+            requested = true;
+        } catch (IOException e) {
+            logger.info("send, exception {}", e);
+            e.printStackTrace();
+        }
+    }
+
+
+    /**
+     * Stop the flusher thread.
+     */
+    protected void stopFlusher() {
+        DHTFlusher<K, V> f;
+        synchronized (pending) {
+            f = flusher;
+            flusher = null;
+        }
+        if (f == null) {
+            return;
+        }
+        f.setDone();
+        try {
+            while (f.isAlive()) {
+                f.interrupt();
+                f.join(100);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
     /**
      * Get value under key from DHT. Blocks until the object is send and
      * received from the server (actually it blocks until some value under key
@@ -325,6 +488,9 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
      */
     @Override
     public void clear() {
+        synchronized (pending) {
+            pending.clear();
+        }
         synchronized (theList) {
             theList.clear();
         }
@@ -359,6 +525,16 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
         synchronized (theList) {
             listener.start();
         }
+        if (requested) {
+            return;
+        }
+        try { // request all entries
+            channel.send(new DHTTransportSubscribe<K, V>(null, null));
+            requested = true;
+        } catch (IOException e) {
+            logger.info("send, exception {}", e);
+            e.printStackTrace();
+        }
     }
 
 
@@ -366,6 +542,8 @@ public class DistHashTable<K, V> extends AbstractMap<K, V> /* implements Map<K,V
      * Terminate the list thread.
      */
     public void terminate() {
+        stopFlusher();
+        flush();
         if (cf != null) {
             cf.terminate();
         }
@@ -416,6 +594,9 @@ class DHTListener<K, V> extends Thread {
     private boolean goon;
 
 
+    private volatile DHTTransportSubscribe<K, V> range = null;
+
+
     DHTListener(SocketChannel s, SortedMap<K, V> list) {
         channel = s;
         theList = list;
@@ -433,6 +614,11 @@ class DHTListener<K, V> extends Thread {
     }
 
 
+    void setRange(DHTTransportSubscribe<K, V> r) {
+        range = r;
+    }
+
+
     /**
      * run.
      */
@@ -467,10 +653,26 @@ class DHTListener<K, V> extends Thread {
                     }
                     continue;
                 }
+                if (o instanceof DHTTransportBatch) {
+                    List<DHTTransport<K, V>> batch = ((DHTTransportBatch<K, V>) o).entries;
+                    logger.info("receive, batch of {}", batch.size());
+                    DHTTransportSubscribe<K, V> r = range;
+                    synchronized (theList) {
+                        for (DHTTransport<K, V> bc : batch) {
+                            K key = bc.key();
+                            if (r == null || r.contains(key)) {
+                                theList.put(key, bc.value());
+                            }
+                        }
+                        theList.notifyAll();
+                    }
+                    continue;
+                }
                 if (o instanceof DHTTransport) {
                     tc = (DHTTransport<K, V>) o;
                     K key = tc.key();
-                    if (key != null) {
+                    DHTTransportSubscribe<K, V> r = range;
+                    if (key != null && (r == null || r.contains(key))) {
                         logger.info("receive, put(key={})", key);
                         V val = tc.value();
                         synchronized (theList) {
@@ -496,3 +698,46 @@ class DHTListener<K, V> extends Thread {
     }
 
 }
+
+
+/**
+ * Thread to send the batched puts of a DistHashTable periodically.
+ */
+class DHTFlusher<K, V> extends Thread {
+
+
+    private final DistHashTable<K, V> table;
+
+
+    private volatile boolean goon;
+
+
+    DHTFlusher(DistHashTable<K, V> t) {
+        table = t;
+        goon = true;
+        setDaemon(true);
+    }
+
+
+    void setDone() {
+        goon = false;
+    }
+
+
+    /**
+     * run.
+     */
+    @Override
+    public void run() {
+        while (goon) {
+            try {
+                Thread.sleep(Math.max(1L, table.getFlushInterval()));
+            } catch (InterruptedException e) {
+                goon = false;
+                break;
+            }
+            table.flush();
+        }
+    }
+
+}
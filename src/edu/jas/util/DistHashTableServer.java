@@ -18,8 +18,12 @@ import org.apache.logging.log4j.Logger;
 
 
 /**
- * Server for the distributed version of a list. TODO: redistribute list for
- * late coming clients, removal of elements.
+ * Server for the distributed version of a list. Batches of puts are stored and
+ * rebroadcast as one message, clients with a key range subscription only get
+ * the entries in their range. The stored entries are sent to a late coming
+ * client when its subscription arrives, restricted to the subscribed range.
+ * For sharding run one server per shard, see ShardedDistHashTable. TODO:
+ * removal of elements.
  * @author Heinz Kredel
  */
 
@@ -131,8 +135,6 @@ public class DistHashTableServer<K> extends Thread {
         SocketChannel channel = null;
         DHTBroadcaster<K> s = null;
         mythread = Thread.currentThread();
-        Entry<K, DHTTransport> e;
-        DHTTransport tc;
         while (goon) {
             //logger.debug("list server {} go on", this);
             try {
@@ -145,34 +147,16 @@ public class DistHashTableServer<K> extends Thread {
                     //logger.info("list server {} interrupted", this);
                 } else {
                     s = new DHTBroadcaster<K>(channel, servers, /*listElem,*/theList);
-                    int ls = 0;
                     synchronized (servers) {
                         if (goon) {
                             servers.add(s);
-                            ls = theList.size();
                             s.start();
                         }
                     }
                     if (debug) {
                         logger.info("server {} started {}", s, s.isAlive());
                     }
-                    if (ls > 0) {
-                        //logger.debug("sending {} list elements", ls);
-                        synchronized (theList) {
-                            Iterator<Entry<K, DHTTransport>> it = theList.entrySet().iterator();
-                            for (int i = 0; i < ls; i++) {
-                                e = it.next();
-                                // n = e.getKey(); // findbugs, already in tc
-                                tc = e.getValue();
-                                //DHTTransport tc = (DHTTransport) o;                             
-                                try {
-                                    s.sendChannel(tc);
-                                } catch (IOException ioe) {
-                                    // stop s
-                                }
-                            }
-                        }
-                    }
+                    // the list elements are sent after the subscription of the client
                 }
             } catch (InterruptedException end) {
                 goon = false;
@@ -305,6 +289,12 @@ class DHTBroadcaster<K> extends Thread /*implements Runnable*/ {
     volatile boolean goon = true;
 
 
+    /**
+     * Subscribed key range, null for all keys.
+     */
+    volatile DHTTransportSubscribe range = null;
+
+
     /**
      * DHTBroadcaster.
      * @param s SocketChannel to use.
@@ -338,6 +328,64 @@ class DHTBroadcaster<K> extends Thread /*implements Runnable*/ {
     }
 
 
+    /**
+     * sendChannel, filtered by the subscribed key range.
+     * @param tc DHTTransport.
+     * @param key of tc or null.
+     * @param keys of the entries if tc is a batch.
+     * @throws IOException
+     */
+    @SuppressWarnings("unchecked")
+    public void sendChannel(DHTTransport tc, K key, List<K> keys) throws IOException {
+        DHTTransportSubscribe r = range;
+        if (r == null || tc instanceof DHTTransportClear) {
+            sendChannel(tc);
+            return;
+        }
+        if (keys == null) {
+            if (key == null || r.contains(key)) {
+                sendChannel(tc);
+            }
+            return;
+        }
+        List<DHTTransport<K, Object>> entries = ((DHTTransportBatch<K, Object>) tc).entries;
+        List<DHTTransport<K, Object>> sel = new ArrayList<DHTTransport<K, Object>>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (r.contains(keys.get(i))) {
+                sel.add(entries.get(i));
+            }
+        }
+        if (!sel.isEmpty()) {
+            sendChannel(new DHTTransportBatch<K, Object>(sel));
+        }
+    }
+
+
+    /**
+     * Send the stored entries in a key range as one message, for a late
+     * coming client.
+     * @param r subscribed key range.
+     * @throws IOException
+     */
+    @SuppressWarnings("unchecked")
+    public void sendEntries(DHTTransportSubscribe r) throws IOException {
+        List<DHTTransport<K, Object>> batch = new ArrayList<DHTTransport<K, Object>>();
+        synchronized (theList) {
+            for (Entry<K, DHTTransport> e : theList.entrySet()) {
+                if (r.contains(e.getKey())) {
+                    batch.add((DHTTransport<K, Object>) e.getValue());
+                }
+            }
+            if (debug) {
+                logger.debug("sending {} of {} list elements", batch.size(), theList.size());
+            }
+            if (!batch.isEmpty()) {
+                sendChannel(new DHTTransportBatch<K, Object>(batch));
+            }
+        }
+    }
+
+
     /**
      * broadcast.
      * @param o DHTTransport element to broadcast.
@@ -356,6 +404,7 @@ class DHTBroadcaster<K> extends Thread /*implements Runnable*/ {
         //}
         tc = (DHTTransport<K, Object>) o;
         K key = null;
+        List<K> keys = null;
         synchronized (theList) {
             //test
             //Object x = theList.get( tc.key );
@@ -363,7 +412,15 @@ class DHTBroadcaster<K> extends Thread /*implements Runnable*/ {
             //   logger.info("theList duplicate key {}", tc.key );
             //}
             try {
-                if (!(o instanceof DHTTransportClear)) {
+                if (o instanceof DHTTransportBatch) {
+                    List<DHTTransport> entries = ((DHTTransportBatch) o).entries;
+                    keys = new ArrayList<K>(entries.size());
+                    for (DHTTransport bc : entries) {
+                        K k = (K) bc.key();
+                        keys.add(k);
+                        theList.put(k, bc);
+                    }
+                } else if (!(o instanceof DHTTransportClear)) {
                     key = tc.key();
                     theList.put(key, tc);
                 }
@@ -378,7 +435,11 @@ class DHTBroadcaster<K> extends Thread /*implements Runnable*/ {
                 e.printStackTrace();
             }
         }
-        logger.info("sending key={} to {} nodes", key, bcaster.size());
+        if (keys != null) {
+            logger.info("sending batch of {} keys to {} nodes", keys.size(), bcaster.size());
+        } else {
+            logger.info("sending key={} to {} nodes", key, bcaster.size());
+        }
         List<DHTBroadcaster<K>> bccopy = null;
         synchronized (bcaster) {
             bccopy = new ArrayList<DHTBroadcaster<K>>(bcaster);
@@ -390,7 +451,7 @@ class DHTBroadcaster<K> extends Thread /*implements Runnable*/ {
                 if (debug) {
                     logger.debug("bcasting to {}", br);
                 }
-                br.sendChannel(tc);
+                br.sendChannel(tc, key, keys);
             } catch (IOException e) {
                 logger.info("bcaster, IOexception {}", e);
                 synchronized (bcaster) {
@@ -437,6 +498,12 @@ class DHTBroadcaster<K> extends Thread /*implements Runnable*/ {
                     goon = false;
                     break; //continue;
                 }
+                if (o instanceof DHTTransportSubscribe) {
+                    range = (DHTTransportSubscribe) o;
+                    logger.info("receive, subscribe {}", range);
+                    sendEntries(range);
+                    continue;
+                }
                 if (o instanceof DHTTransportClear) {
                     logger.info("receive, clear");
                     synchronized (theList) {
@@ -0,0 +1,400 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+import edu.jas.kern.ComputerThreads;
+import edu.jas.kern.PreemptingException;
+
+
+/**
+ * Thread pool using a work stealing executor. Drop in replacement for
+ * ThreadPool without a global monitor. Jobs are kept in a lock free deque
+ * and taken from the front or back according to the strategy, the workers
+ * are supplied by an ExecutorService, by default a ForkJoinPool. A virtual
+ * thread per task executor can be selected for I/O bound jobs, if the
+ * running Java version provides one. Termination detection counts the
+ * pending and running jobs with an atomic counter. Fork-join tasks of the
+ * algorithms are run with the static methods isParallel() and invoke().
+ * @author Heinz Kredel
+ */
+
+public class ForkJoinThreadPool extends ThreadPool {
+
+
+    /**
+     * Executor kinds.
+     */
+    public static enum Mode {
+        FORKJOIN, VIRTUAL
+    };
+
+
+    /**
+     * Executor which runs the workers.
+     */
+    protected final ExecutorService executor;
+
+
+    /**
+     * True, if the executor was created by this pool.
+     */
+    protected final boolean ownExecutor;
+
+
+    /**
+     * Work queue / stack, strategy is applied on removal.
+     */
+    protected final ConcurrentLinkedDeque<Runnable> jobdeque;
+
+
+    /**
+     * Number of queued and running jobs.
+     */
+    protected final AtomicInteger pending;
+
+
+    /**
+     * Number of running jobs.
+     */
+    protected final AtomicInteger running;
+
+
+    private static final Logger logger = LogManager.getLogger(ForkJoinThreadPool.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Constructs a new ForkJoinThreadPool with strategy
+     * StrategyEnumeration.FIFO and size DEFAULT_SIZE.
+     */
+    public ForkJoinThreadPool() {
+        this(StrategyEnumeration.FIFO, DEFAULT_SIZE);
+    }
+
+
+    /**
+     * Constructs a new ForkJoinThreadPool with size DEFAULT_SIZE.
+     * @param strategy for job processing.
+     */
+    public ForkJoinThreadPool(StrategyEnumeration strategy) {
+        this(strategy, DEFAULT_SIZE);
+    }
+
+
+    /**
+     * Constructs a new ForkJoinThreadPool with strategy
+     * StrategyEnumeration.FIFO.
+     * @param size of the pool.
+     */
+    public ForkJoinThreadPool(int size) {
+        this(StrategyEnumeration.FIFO, size);
+    }
+
+
+    /**
+     * Constructs a new ForkJoinThreadPool.
+     * @param strategy for job processing.
+     * @param size of the pool.
+     */
+    public ForkJoinThreadPool(StrategyEnumeration strategy, int size) {
+        this(strategy, size, Mode.FORKJOIN);
+    }
+
+
+    /**
+     * Constructs a new ForkJoinThreadPool.
+     * @param strategy for job processing.
+     * @param size of the pool, parallelism of the ForkJoinPool.
+     * @param mode of the executor, VIRTUAL falls back to FORKJOIN if virtual
+     *            threads are not available.
+     */
+    public ForkJoinThreadPool(StrategyEnumeration strategy, int size, Mode mode) {
+        this(strategy, size, newExecutor(strategy, size, mode), true);
+    }
+
+
+    /**
+     * Constructs a new ForkJoinThreadPool with a given executor.
+     * @param strategy for job processing.
+     * @param size of the pool.
+     * @param executor to run the jobs, it is not shut down by this pool.
+     */
+    public ForkJoinThreadPool(StrategyEnumeration strategy, int size, ExecutorService executor) {
+        this(strategy, size, executor, false);
+    }
+
+
+    /**
+     * Constructs a new ForkJoinThreadPool.
+     * @param strategy for job processing.
+     * @param size of the pool.
+     * @param executor to run the jobs.
+     * @param own true, if the executor is shut down by this pool.
+     */
+    protected ForkJoinThreadPool(StrategyEnumeration strategy, int size, ExecutorService executor,
+                    boolean own) {
+        super(strategy, size);
+        this.executor = executor;
+        this.ownExecutor = own;
+        jobdeque = new ConcurrentLinkedDeque<Runnable>();
+        pending = new AtomicInteger(0);
+        running = new AtomicInteger(0);
+        logger.info("size = {}, strategy = {}, executor = {}", size, strategy, executor);
+    }
+
+
+    /**
+     * Create an executor.
+     * @param strategy for job processing.
+     * @param size parallelism.
+     * @param mode of the executor.
+     * @return new executor service.
+     */
+    static ExecutorService newExecutor(StrategyEnumeration strategy, int size, Mode mode) {
+        if (mode == Mode.VIRTUAL) {
+            ExecutorService ve = newVirtualExecutor();
+            if (ve != null) {
+                return ve;
+            }
+            logger.warn("virtual threads not available, using ForkJoinPool");
+        }
+        int p = (size <= 0 ? 1 : size);
+        // async mode for FIFO, local LIFO otherwise
+        return new ForkJoinPool(p, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null,
+                        strategy == StrategyEnumeration.FIFO);
+    }
+
+
+    /**
+     * Create a virtual thread per task executor if available.
+     * @return new executor service or null.
+     */
+    static ExecutorService newVirtualExecutor() {
+        try {
+            Method m = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (Exception e) { // NoSuchMethod, IllegalAccess, InvocationTarget, preview
+            logger.debug("no virtual threads: {}", e.toString());
+        }
+        return null;
+    }
+
+
+    /**
+     * Test if virtual threads are available.
+     * @return true if a virtual thread per task executor can be created.
+     */
+    public static boolean hasVirtualThreads() {
+        ExecutorService ve = newVirtualExecutor();
+        if (ve == null) {
+            return false;
+        }
+        ve.shutdown();
+        return true;
+    }
+
+
+    /**
+     * Test if fork-join tasks should be run in parallel.
+     * @return true, if threads are not disabled and the common ForkJoinPool
+     *         has more than one worker, else false.
+     */
+    public static boolean isParallel() {
+        return !ComputerThreads.NO_THREADS && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+
+    /**
+     * Run a fork-join task and wait for its result. Inside a ForkJoinPool
+     * the task is run in the calling worker, else on the common ForkJoinPool.
+     * @param t fork-join task.
+     * @return result of t.
+     */
+    public static <T> T invoke(ForkJoinTask<T> t) {
+        if (ForkJoinTask.inForkJoinPool()) {
+            return t.invoke();
+        }
+        return ForkJoinPool.commonPool().invoke(t);
+    }
+
+
+    /**
+     * Thread initialization, the executor starts its threads on demand.
+     */
+    @Override
+    public void init() {
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return "ForkJoinThreadPool( size=" + getNumber() + ", running=" + running.get() + ", "
+                        + getStrategy() + ", jobs=" + jobdeque.size() + ")";
+    }
+
+
+    /**
+     * Terminates the threads.
+     */
+    @Override
+    public void terminate() {
+        while (hasJobs()) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!ownExecutor) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(100L, TimeUnit.MILLISECONDS)) {
+                logger.debug("waiting for termination in {}", this);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Cancels the threads.
+     * @return number of canceled jobs.
+     */
+    @Override
+    public int cancel() {
+        shutdown = true;
+        int s = 0;
+        Runnable job;
+        while ((job = jobdeque.pollFirst()) != null) {
+            pending.decrementAndGet();
+            s++;
+        }
+        if (s > 0) {
+            logger.info("jobs canceled: {}", s);
+        }
+        if (ownExecutor) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1000L, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return s;
+    }
+
+
+    /**
+     * adds a job to the workpile.
+     * @param job
+     */
+    @Override
+    public void addJob(Runnable job) {
+        if (shutdown) {
+            throw new RejectedExecutionException("pool is shut down");
+        }
+        pending.incrementAndGet();
+        jobdeque.addLast(job);
+        try {
+            executor.execute(new Worker());
+        } catch (RejectedExecutionException e) {
+            if (jobdeque.removeLastOccurrence(job)) {
+                pending.decrementAndGet();
+            }
+            throw e;
+        }
+        logger.debug("adding job");
+    }
+
+
+    /**
+     * get a job for processing.
+     * @return next job according to the strategy or null.
+     */
+    @Override
+    protected Runnable getJob() {
+        if (strategy == StrategyEnumeration.LIFO) {
+            return jobdeque.pollLast(); // LIFO
+        }
+        return jobdeque.pollFirst(); // FIFO
+    }
+
+
+    /**
+     * check if there are jobs for processing.
+     */
+    @Override
+    public boolean hasJobs() {
+        return pending.get() > 0;
+    }
+
+
+    /**
+     * check if there are more than n jobs for processing.
+     * @param n Integer
+     * @return true, if there are possibly more than n jobs.
+     */
+    @Override
+    public boolean hasJobs(int n) {
+        return pending.get() > n;
+    }
+
+
+    /**
+     * Worker task, every added job submits one worker which runs the next job
+     * selected by the strategy.
+     */
+    class Worker implements Runnable {
+
+
+        /**
+         * Run the next job.
+         */
+        public void run() {
+            Runnable job = getJob();
+            if (job == null) { // canceled
+                return;
+            }
+            running.incrementAndGet();
+            try {
+                if (debug) {
+                    logger.info("working");
+                }
+                job.run();
+            } catch (PreemptingException e) {
+                logger.debug("caught {}", e);
+            } catch (RuntimeException e) {
+                logger.warn("caught {}", e);
+                e.printStackTrace();
+            } finally {
+                running.decrementAndGet();
+                pending.decrementAndGet();
+            }
+        }
+    }
+
+}
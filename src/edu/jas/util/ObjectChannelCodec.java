@@ -0,0 +1,59 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+
+/**
+ * Object channel codec. Uses Java object serialization, the default codec of
+ * SocketChannel.
+ * @author Heinz Kredel
+ */
+
+public class ObjectChannelCodec implements ChannelCodec {
+
+
+    /**
+     * Create a codec for a new channel.
+     * @return this, the codec has no state.
+     */
+    public ChannelCodec create() {
+        return this;
+    }
+
+
+    /**
+     * Write an object.
+     * @param out stream to the socket.
+     * @param v object to send.
+     */
+    public void write(ObjectOutputStream out, Object v) throws IOException {
+        out.writeObject(v);
+    }
+
+
+    /**
+     * Read an object.
+     * @param in stream from the socket.
+     * @return object received.
+     */
+    public Object read(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        return in.readObject();
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+
+}
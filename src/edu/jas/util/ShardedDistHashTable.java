@@ -0,0 +1,353 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Sharded distributed version of a HashTable. The key space is partitioned by
+ * the key hash codes over several DistHashTableServer instances, every put is
+ * sent only to the servers of its shard. Each shard can be replicated on
+ * several servers, a put is then sent to all replicas of the shard, so the
+ * entries are still available if one replica fails. The replicas of a shard
+ * are not synchronized among each other, a replica server which is restarted
+ * does not recover the entries from the other replicas. The entries received
+ * from all servers are kept in one local SortedMap, so the usual get and
+ * getWait methods work unchanged. Batching and key range subscriptions are
+ * passed to all servers. All servers are connected with one ChannelFactory,
+ * which is terminated once by terminate().
+ * @author Heinz Kredel
+ */
+
+public class ShardedDistHashTable<K, V> extends AbstractMap<K, V> {
+
+
+    private static final Logger logger = LogManager.getLogger(ShardedDistHashTable.class);
+
+
+    protected final SortedMap<K, V> theList;
+
+
+    protected final ChannelFactory cf;
+
+
+    /**
+     * Tables for all servers, replica j of shard i at index i*replicas+j.
+     */
+    protected final List<DistHashTable<K, V>> shards;
+
+
+    /**
+     * Number of replicas per shard.
+     */
+    protected final int replicas;
+
+
+    /**
+     * ShardedDistHashTable.
+     * @param hosts names or IPs of server hosts, one per shard.
+     * @param ports server ports, one per shard.
+     */
+    public ShardedDistHashTable(String[] hosts, int[] ports) {
+        this(new ChannelFactory(ports[0] + 1), hosts, ports);
+    }
+
+
+    /**
+     * ShardedDistHashTable.
+     * @param cf ChannelFactory to use.
+     * @param hosts names or IPs of server hosts, one per shard.
+     * @param ports server ports, one per shard.
+     */
+    public ShardedDistHashTable(ChannelFactory cf, String[] hosts, int[] ports) {
+        this(cf, hosts, ports, 1);
+    }
+
+
+    /**
+     * ShardedDistHashTable with replicated shards.
+     * @param cf ChannelFactory to use.
+     * @param hosts names or IPs of server hosts, the replicas of a shard are
+     *            consecutive.
+     * @param ports server ports, one per host.
+     * @param replicas number of replicas per shard.
+     */
+    public ShardedDistHashTable(ChannelFactory cf, String[] hosts, int[] ports, int replicas) {
+        if (hosts == null || ports == null || hosts.length != ports.length || hosts.length == 0) {
+            throw new IllegalArgumentException("one host and port per server required");
+        }
+        if (replicas < 1 || hosts.length % replicas != 0) {
+            throw new IllegalArgumentException("number of servers must be a multiple of replicas " + replicas);
+        }
+        this.cf = cf;
+        this.replicas = replicas;
+        theList = new TreeMap<K, V>();
+        shards = new ArrayList<DistHashTable<K, V>>(hosts.length);
+        cf.init();
+        for (int i = 0; i < hosts.length; i++) {
+            SocketChannel sc;
+            try {
+                sc = cf.getChannel(hosts[i], ports[i]);
+            } catch (IOException e) {
+                e.printStackTrace();
+                throw new RuntimeException(e);
+            }
+            shards.add(new DistHashTable<K, V>(sc, theList));
+        }
+        logger.info("{} shards, {} replicas", shards(), replicas);
+    }
+
+
+    /**
+     * Shard of a key.
+     * @param key
+     * @return index of the shard for key.
+     */
+    public int shard(Object key) {
+        return Math.floorMod(key.hashCode(), shards());
+    }
+
+
+    /**
+     * Number of shards.
+     */
+    public int shards() {
+        return shards.size() / replicas;
+    }
+
+
+    /**
+     * Number of replicas per shard.
+     */
+    public int replicas() {
+        return replicas;
+    }
+
+
+    /**
+     * Tables for the replicas of the shard of a key.
+     * @param key
+     * @return list of the tables of the replica servers.
+     */
+    protected List<DistHashTable<K, V>> replicasOf(Object key) {
+        int i = shard(key) * replicas;
+        return shards.subList(i, i + replicas);
+    }
+
+
+    /**
+     * Hash code.
+     */
+    @Override
+    public int hashCode() {
+        return theList.hashCode();
+    }
+
+
+    /**
+     * Equals.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return theList.equals(o);
+    }
+
+
+    /**
+     * Get the entries as Set.
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        synchronized (theList) {
+            return theList.entrySet();
+        }
+    }
+
+
+    /**
+     * Get the values as Collection.
+     */
+    @Override
+    public Collection<V> values() {
+        synchronized (theList) {
+            return new ArrayList<V>(theList.values());
+        }
+    }
+
+
+    /**
+     * Get the internal list, convert from Collection.
+     */
+    public List<V> getValueList() {
+        synchronized (theList) {
+            return new ArrayList<V>(theList.values());
+        }
+    }
+
+
+    /**
+     * Get the internal sorted map. For synchronization purpose in normalform.
+     */
+    public SortedMap<K, V> getList() {
+        return theList;
+    }
+
+
+    /**
+     * Size of the (local) list.
+     */
+    @Override
+    public int size() {
+        synchronized (theList) {
+            return theList.size();
+        }
+    }
+
+
+    /**
+     * Put object to the shard of the key. Returns immediately.
+     * @param key
+     * @param value
+     */
+    @Override
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException("null keys or values not allowed");
+        }
+        for (DistHashTable<K, V> s : replicasOf(key)) {
+            s.put(key, value);
+        }
+        return null;
+    }
+
+
+    /**
+     * Put object to the shard of the key. Blocks until the key value pair is
+     * received back from the server.
+     * @param key
+     * @param value
+     */
+    public void putWait(K key, V value) {
+        List<DistHashTable<K, V>> rs = replicasOf(key);
+        for (int j = 1; j < rs.size(); j++) {
+            DistHashTable<K, V> s = rs.get(j);
+            s.put(key, value);
+            if (s.getFlushInterval() > 0L) {
+                s.flush();
+            }
+        }
+        rs.get(0).putWait(key, value);
+    }
+
+
+    /**
+     * Get value under key from the local list.
+     * @param key
+     * @return the value stored under the key or null.
+     */
+    @Override
+    public V get(Object key) {
+        synchronized (theList) {
+            return theList.get(key);
+        }
+    }
+
+
+    /**
+     * Get value under key. Blocks until some value under key is received.
+     * @param key
+     * @return the value stored under the key.
+     */
+    public V getWait(K key) {
+        return replicasOf(key).get(0).getWait(key);
+    }
+
+
+    /**
+     * Set the flush interval for batched puts on all shards.
+     * @param millis interval in milliseconds, 0 for no batching.
+     */
+    public void setFlushInterval(long millis) {
+        for (DistHashTable<K, V> s : shards) {
+            s.setFlushInterval(millis);
+        }
+    }
+
+
+    /**
+     * Send the pending puts of all shards.
+     */
+    public void flush() {
+        for (DistHashTable<K, V> s : shards) {
+            s.flush();
+        }
+    }
+
+
+    /**
+     * Subscribe to a key range on all shards.
+     * @param low lower bound or null for unbounded.
+     * @param high upper bound or null for unbounded.
+     */
+    public void subscribe(K low, K high) {
+        for (DistHashTable<K, V> s : shards) {
+            s.subscribe(low, high);
+        }
+    }
+
+
+    /**
+     * Clear the list on all shards.
+     */
+    @Override
+    public void clear() {
+        for (DistHashTable<K, V> s : shards) {
+            s.clear();
+        }
+    }
+
+
+    /**
+     * Initialize and start the list threads.
+     */
+    public void init() {
+        for (DistHashTable<K, V> s : shards) {
+            s.init();
+        }
+    }
+
+
+    /**
+     * Terminate the list threads and the channel factory.
+     */
+    public void terminate() {
+        for (DistHashTable<K, V> s : shards) {
+            s.terminate();
+        }
+        cf.terminate();
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return "ShardedDistHashTable(" + shards() + ", " + replicas + ", " + theList.size() + ")";
+    }
+
+}
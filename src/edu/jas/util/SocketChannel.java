@@ -39,12 +39,35 @@ public class SocketChannel {
     private final Socket soc;
 
 
+    /*
+     * Codec for the objects.
+     */
+    private final ChannelCodec codec;
+
+
+    /**
+     * Default codec, Java object serialization.
+     */
+    public static final ChannelCodec DEFAULT_CODEC = new ObjectChannelCodec();
+
+
     /**
      * Constructs a socket channel on the given socket s.
      * @param s A socket object.
      */
     public SocketChannel(Socket s) throws IOException {
+        this(s, DEFAULT_CODEC);
+    }
+
+
+    /**
+     * Constructs a socket channel on the given socket s.
+     * @param s A socket object.
+     * @param c codec for the objects, must be the same on both ends.
+     */
+    public SocketChannel(Socket s, ChannelCodec c) throws IOException {
         soc = s;
+        codec = (c == null ? DEFAULT_CODEC : c);
         out = new ObjectOutputStream(s.getOutputStream());
         out.flush();
         in = new ObjectInputStream(s.getInputStream());
@@ -59,12 +82,20 @@ public class SocketChannel {
     }
 
 
+    /**
+     * Get the codec.
+     */
+    public ChannelCodec getCodec() {
+        return codec;
+    }
+
+
     /**
      * Sends an object
      */
     public void send(Object v) throws IOException {
         synchronized (out) {
-            out.writeObject(v);
+            codec.write(out, v);
             out.flush();
         }
     }
@@ -76,7 +107,7 @@ public class SocketChannel {
     public Object receive() throws IOException, ClassNotFoundException {
         Object v = null;
         synchronized (in) {
-            v = in.readObject();
+            v = codec.read(in);
         }
         return v;
     }
@@ -0,0 +1,100 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+
+/**
+ * Tagged channel codec. Frames the messages of a TaggedSocketChannel and
+ * delegates the message bodies to the sub class, so a codec for message
+ * bodies works with plain and tagged socket channels.
+ * @author Heinz Kredel
+ * @see TaggedSocketChannel
+ */
+
+public abstract class TaggedChannelCodec implements ChannelCodec {
+
+
+    /**
+     * Frame kind for untagged messages.
+     */
+    protected static final byte PLAIN = 0;
+
+
+    /**
+     * Frame kind for tagged messages.
+     */
+    protected static final byte TAGGED = 1;
+
+
+    /**
+     * Write an object.
+     * @param out stream to the socket.
+     * @param v object to send.
+     */
+    public void write(ObjectOutputStream out, Object v) throws IOException {
+        if (v instanceof TaggedMessage) {
+            TaggedMessage tm = (TaggedMessage) v;
+            out.writeByte(TAGGED);
+            out.writeInt(tm.tag);
+            writeMessage(out, tm.msg);
+            return;
+        }
+        out.writeByte(PLAIN);
+        writeMessage(out, v);
+    }
+
+
+    /**
+     * Read an object.
+     * @param in stream from the socket.
+     * @return object received.
+     */
+    public Object read(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        byte kind = in.readByte();
+        switch (kind) {
+        case TAGGED:
+            int tag = in.readInt();
+            return new TaggedMessage(tag, readMessage(in));
+        case PLAIN:
+            return readMessage(in);
+        default:
+            throw new IOException("unknown frame kind " + kind);
+        }
+    }
+
+
+    /**
+     * Write a message body.
+     * @param out stream to the socket.
+     * @param v message to send.
+     * @throws IOException
+     */
+    protected abstract void writeMessage(ObjectOutputStream out, Object v) throws IOException;
+
+
+    /**
+     * Read a message body.
+     * @param in stream from the socket.
+     * @return message received.
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    protected abstract Object readMessage(ObjectInputStream in) throws IOException, ClassNotFoundException;
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+
+}
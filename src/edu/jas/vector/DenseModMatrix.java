@@ -0,0 +1,836 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.ModInt;
+import edu.jas.arith.ModIntRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.arith.ModularNotInvertibleException;
+import edu.jas.structure.NotInvertibleException;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+import edu.jas.util.ForkJoinThreadPool;
+
+
+/**
+ * Dense matrix with entries modulo a small modulus. Entries are stored unboxed
+ * in a row major long array. The modulus of ModLongRing and ModIntRing is less
+ * than 2^31, so products fit into a long and sums of products are reduced
+ * lazily. Multiplication switches to Strassen's algorithm above a cutoff,
+ * elimination steps are distributed over a fork-join pool for large
+ * matrices. Used by GenMatrix and LinAlg as fast path for ModLong and ModInt
+ * coefficients. Objects of this class are mutable, the elimination methods
+ * work in place.
+ * @author Heinz Kredel
+ */
+
+public final class DenseModMatrix implements Serializable {
+
+
+    /**
+     * Dimension from which on Strassen multiplication is used.
+     */
+    public static int STRASSEN_CUTOFF = 128;
+
+
+    /**
+     * Number of entry operations from which on elimination steps are run in
+     * parallel.
+     */
+    public static int PARALLEL_CUTOFF = 1 << 15;
+
+
+    /**
+     * Minimal number of rows or columns per parallel task.
+     */
+    private static final int GRAIN = 16;
+
+
+    /**
+     * The modulus.
+     */
+    public final long modul;
+
+
+    /**
+     * Number of rows.
+     */
+    public final int rows;
+
+
+    /**
+     * Number of columns.
+     */
+    public final int cols;
+
+
+    /**
+     * Entries, val[i*cols+j] is the entry at row i, column j, in [0,modul).
+     */
+    final long[] val;
+
+
+    /**
+     * Number of products which can be summed without overflow.
+     */
+    private final long lazy;
+
+
+    /**
+     * Constructor for zero matrix.
+     * @param m modulus, 1 &lt; m &lt; 2^31.
+     * @param r number of rows.
+     * @param c number of columns.
+     */
+    public DenseModMatrix(long m, int r, int c) {
+        this(m, r, c, new long[r * c]);
+    }
+
+
+    /**
+     * Constructor, uses the array without copy.
+     * @param m modulus.
+     * @param r number of rows.
+     * @param c number of columns.
+     * @param v reduced entries in row major order.
+     */
+    private DenseModMatrix(long m, int r, int c, long[] v) {
+        if (m <= 1L || m > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("modul out of range " + m);
+        }
+        modul = m;
+        rows = r;
+        cols = c;
+        val = v;
+        long p = (m - 1L) * (m - 1L);
+        lazy = Math.max(1L, (Long.MAX_VALUE - m) / Math.max(p, 1L));
+    }
+
+
+    /**
+     * Test if the entries of a matrix ring can be represented.
+     * @param cf coefficient factory.
+     * @return true if cf is a ModLongRing or ModIntRing, else false.
+     */
+    public static boolean isApplicable(RingFactory<?> cf) {
+        return cf instanceof ModLongRing || cf instanceof ModIntRing;
+    }
+
+
+    /**
+     * Modulus of a coefficient factory.
+     * @param cf ModLongRing or ModIntRing coefficient factory.
+     * @return modulus of cf.
+     */
+    static long modul(RingFactory<?> cf) {
+        if (cf instanceof ModLongRing) {
+            return ((ModLongRing) cf).modul;
+        }
+        if (cf instanceof ModIntRing) {
+            return ((ModIntRing) cf).modul;
+        }
+        throw new IllegalArgumentException("no ModLongRing or ModIntRing " + cf);
+    }
+
+
+    /**
+     * Value of a coefficient.
+     * @param c ModLong or ModInt coefficient.
+     * @return value of c in [0,modul).
+     */
+    static long value(RingElem<?> c) {
+        if (c instanceof ModLong) {
+            return ((ModLong) c).val;
+        }
+        if (c instanceof ModInt) {
+            return ((ModInt) c).val;
+        }
+        throw new IllegalArgumentException("no ModLong or ModInt " + c);
+    }
+
+
+    /**
+     * Conversion from GenMatrix.
+     * @param A matrix with ModLong or ModInt entries.
+     * @return dense matrix of A.
+     */
+    public static <C extends RingElem<C>> DenseModMatrix fromGenMatrix(GenMatrix<C> A) {
+        GenMatrixRing<C> ring = A.ring;
+        long m = modul(ring.coFac);
+        int c = ring.cols;
+        long[] v = new long[ring.rows * c];
+        int i = 0;
+        for (ArrayList<C> row : A.matrix) {
+            int j = i * c;
+            for (C e : row) {
+                v[j++] = value(e);
+            }
+            i++;
+        }
+        return new DenseModMatrix(m, ring.rows, c, v);
+    }
+
+
+    /**
+     * Conversion to GenMatrix.
+     * @param ring matrix ring with ModLong or ModInt coefficients of the same
+     *            modulus and dimensions.
+     * @return GenMatrix of this.
+     */
+    public <C extends RingElem<C>> GenMatrix<C> toGenMatrix(GenMatrixRing<C> ring) {
+        return new GenMatrix<C>(ring, toRows(ring.coFac));
+    }
+
+
+    /**
+     * Conversion to rows of ring elements.
+     * @param cf ModLongRing or ModIntRing coefficient factory.
+     * @return list of rows of this.
+     */
+    <C extends RingElem<C>> ArrayList<ArrayList<C>> toRows(RingFactory<C> cf) {
+        if (modul(cf) != modul) {
+            throw new IllegalArgumentException("moduli differ " + cf + ", " + modul);
+        }
+        C zero = cf.getZERO();
+        ArrayList<ArrayList<C>> m = new ArrayList<ArrayList<C>>(rows);
+        for (int i = 0; i < rows; i++) {
+            ArrayList<C> row = new ArrayList<C>(cols);
+            int o = i * cols;
+            for (int j = 0; j < cols; j++) {
+                long a = val[o + j];
+                row.add(a == 0L ? zero : cf.fromInteger(a));
+            }
+            m.add(row);
+        }
+        return m;
+    }
+
+
+    /**
+     * Copy the entries of this to a GenMatrix, the rows of A are replaced.
+     * @param A matrix with the same coefficient factory and dimensions.
+     */
+    <C extends RingElem<C>> void copyTo(GenMatrix<C> A) {
+        ArrayList<ArrayList<C>> m = toRows(A.ring.coFac);
+        for (int i = 0; i < rows; i++) {
+            A.matrix.set(i, m.get(i));
+        }
+    }
+
+
+    /**
+     * Get entry.
+     * @param i row index.
+     * @param j column index.
+     * @return entry at row i, column j.
+     */
+    public long get(int i, int j) {
+        return val[i * cols + j];
+    }
+
+
+    /**
+     * Set entry, mutates this matrix.
+     * @param i row index.
+     * @param j column index.
+     * @param a new entry.
+     */
+    public void set(int i, int j, long a) {
+        a %= modul;
+        val[i * cols + j] = (a < 0L ? a + modul : a);
+    }
+
+
+    /**
+     * Copy this matrix.
+     * @return copy of this.
+     */
+    public DenseModMatrix copy() {
+        return new DenseModMatrix(modul, rows, cols, Arrays.copyOf(val, val.length));
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object B) {
+        if (!(B instanceof DenseModMatrix)) {
+            return false;
+        }
+        DenseModMatrix b = (DenseModMatrix) B;
+        return modul == b.modul && rows == b.rows && cols == b.cols && Arrays.equals(val, b.val);
+    }
+
+
+    /**
+     * Hash code for this matrix.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Arrays.hashCode(val) + rows) + (int) modul;
+    }
+
+
+    /**
+     * String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer("[");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                s.append(", ");
+            }
+            s.append("[");
+            for (int j = 0; j < cols; j++) {
+                if (j > 0) {
+                    s.append(",");
+                }
+                s.append(val[i * cols + j]);
+            }
+            s.append("]");
+        }
+        s.append("]");
+        return s.toString();
+    }
+
+
+    /**
+     * Sum of matrices.
+     * @param b other matrix of the same dimensions.
+     * @return this+b.
+     */
+    public DenseModMatrix sum(DenseModMatrix b) {
+        long[] v = new long[val.length];
+        for (int i = 0; i < v.length; i++) {
+            long s = val[i] + b.val[i];
+            v[i] = (s >= modul ? s - modul : s);
+        }
+        return new DenseModMatrix(modul, rows, cols, v);
+    }
+
+
+    /**
+     * Difference of matrices.
+     * @param b other matrix of the same dimensions.
+     * @return this-b.
+     */
+    public DenseModMatrix subtract(DenseModMatrix b) {
+        long[] v = new long[val.length];
+        for (int i = 0; i < v.length; i++) {
+            long s = val[i] - b.val[i];
+            v[i] = (s < 0L ? s + modul : s);
+        }
+        return new DenseModMatrix(modul, rows, cols, v);
+    }
+
+
+    /**
+     * Product of matrices. Uses Strassen's algorithm if all dimensions are
+     * even and at least STRASSEN_CUTOFF.
+     * @param b other matrix with b.rows == this.cols.
+     * @return this*b.
+     */
+    public DenseModMatrix multiply(DenseModMatrix b) {
+        if (cols != b.rows) {
+            throw new IllegalArgumentException("dimensions do not match " + cols + " != " + b.rows);
+        }
+        if (rows >= STRASSEN_CUTOFF && cols >= STRASSEN_CUTOFF && b.cols >= STRASSEN_CUTOFF
+                        && (rows & 1) == 0 && (cols & 1) == 0 && (b.cols & 1) == 0) {
+            return multiplyStrassen(b);
+        }
+        return multiplyClassic(b);
+    }
+
+
+    /**
+     * Product of matrices, classical algorithm with lazy reduction. Rows of
+     * the result are computed in parallel for large matrices.
+     * @param b other matrix with b.rows == this.cols.
+     * @return this*b.
+     */
+    public DenseModMatrix multiplyClassic(final DenseModMatrix b) {
+        final DenseModMatrix c = new DenseModMatrix(modul, rows, b.cols);
+        long work = (long) rows * cols * b.cols;
+        forRows(0, rows, work, new RowTask() {
+
+
+            public void run(int lo, int hi) {
+                long[] acc = new long[b.cols];
+                for (int i = lo; i < hi; i++) {
+                    multiplyRow(i, b, c, acc);
+                }
+            }
+        });
+        return c;
+    }
+
+
+    /**
+     * Compute one row of a product.
+     * @param i row index.
+     * @param b right factor.
+     * @param c product, row i is overwritten.
+     * @param acc accumulator of length b.cols.
+     */
+    private void multiplyRow(int i, DenseModMatrix b, DenseModMatrix c, long[] acc) {
+        int n = b.cols;
+        Arrays.fill(acc, 0L);
+        long cnt = 0L;
+        int ao = i * cols;
+        for (int k = 0; k < cols; k++) {
+            long a = val[ao + k];
+            if (a == 0L) {
+                continue;
+            }
+            if (++cnt > lazy) {
+                for (int j = 0; j < n; j++) {
+                    acc[j] %= modul;
+                }
+                cnt = 1L;
+            }
+            int bo = k * n;
+            for (int j = 0; j < n; j++) {
+                acc[j] += a * b.val[bo + j];
+            }
+        }
+        int co = i * n;
+        for (int j = 0; j < n; j++) {
+            c.val[co + j] = acc[j] % modul;
+        }
+    }
+
+
+    /**
+     * Product of matrices, one level of Strassen's algorithm, the seven
+     * products are computed recursively by multiply().
+     * @param b other matrix with b.rows == this.cols, all dimensions even.
+     * @return this*b.
+     */
+    DenseModMatrix multiplyStrassen(DenseModMatrix b) {
+        int m = rows / 2;
+        int k = cols / 2;
+        int n = b.cols / 2;
+        DenseModMatrix a11 = block(0, 0, m, k), a12 = block(0, k, m, k);
+        DenseModMatrix a21 = block(m, 0, m, k), a22 = block(m, k, m, k);
+        DenseModMatrix b11 = b.block(0, 0, k, n), b12 = b.block(0, n, k, n);
+        DenseModMatrix b21 = b.block(k, 0, k, n), b22 = b.block(k, n, k, n);
+
+        DenseModMatrix m1 = a11.sum(a22).multiply(b11.sum(b22));
+        DenseModMatrix m2 = a21.sum(a22).multiply(b11);
+        DenseModMatrix m3 = a11.multiply(b12.subtract(b22));
+        DenseModMatrix m4 = a22.multiply(b21.subtract(b11));
+        DenseModMatrix m5 = a11.sum(a12).multiply(b22);
+        DenseModMatrix m6 = a21.subtract(a11).multiply(b11.sum(b12));
+        DenseModMatrix m7 = a12.subtract(a22).multiply(b21.sum(b22));
+
+        DenseModMatrix c = new DenseModMatrix(modul, rows, b.cols);
+        c.setBlock(0, 0, m1.sum(m4).subtract(m5).sum(m7));
+        c.setBlock(0, n, m3.sum(m5));
+        c.setBlock(m, 0, m2.sum(m4));
+        c.setBlock(m, n, m1.subtract(m2).sum(m3).sum(m6));
+        return c;
+    }
+
+
+    /**
+     * Sub matrix.
+     * @param r first row.
+     * @param c first column.
+     * @param nr number of rows.
+     * @param nc number of columns.
+     * @return the nr x nc block at (r,c).
+     */
+    DenseModMatrix block(int r, int c, int nr, int nc) {
+        long[] v = new long[nr * nc];
+        for (int i = 0; i < nr; i++) {
+            System.arraycopy(val, (r + i) * cols + c, v, i * nc, nc);
+        }
+        return new DenseModMatrix(modul, nr, nc, v);
+    }
+
+
+    /**
+     * Set sub matrix, mutates this matrix.
+     * @param r first row.
+     * @param c first column.
+     * @param b block to set.
+     */
+    void setBlock(int r, int c, DenseModMatrix b) {
+        for (int i = 0; i < b.rows; i++) {
+            System.arraycopy(b.val, i * b.cols, val, (r + i) * cols + c, b.cols);
+        }
+    }
+
+
+    /**
+     * LU decomposition in place, same algorithm and result as
+     * LinAlg.decompositionLU().
+     * @return permutation vector P, empty if the matrix is degenerate.
+     */
+    public List<Integer> decompositionLU() {
+        final int N = rows;
+        final int M = cols;
+        int NM = Math.min(N, M);
+        List<Integer> P = new ArrayList<Integer>(NM + 1);
+        for (int i = 0; i <= NM; i++) {
+            P.add(i);
+        }
+        for (int i = 0; i < NM; i++) {
+            int imax = -1;
+            for (int k = i; k < N; k++) {
+                if (val[k * M + i] != 0L) {
+                    imax = k;
+                    break; // first
+                }
+            }
+            if (imax < 0) {
+                P.clear();
+                return P; //failure, matrix is degenerate
+            }
+            if (imax != i) {
+                int j = P.get(i);
+                P.set(i, P.get(imax));
+                P.set(imax, j);
+                swapRows(i, imax);
+                P.set(NM, P.get(NM) + 1);
+            }
+            final int ii = i;
+            final long dd = inverse(val[i * M + i], modul);
+            long work = (long) (N - i) * (M - i);
+            forRows(i + 1, N, work, new RowTask() {
+
+
+                public void run(int lo, int hi) {
+                    int io = ii * M;
+                    for (int j = lo; j < hi; j++) {
+                        int jo = j * M;
+                        long d = (val[jo + ii] * dd) % modul;
+                        val[jo + ii] = d;
+                        if (d == 0L) {
+                            continue;
+                        }
+                        long nd = modul - d;
+                        for (int k = ii + 1; k < M; k++) {
+                            val[jo + k] = (val[jo + k] + nd * val[io + k]) % modul;
+                        }
+                    }
+                }
+            });
+        }
+        return P;
+    }
+
+
+    /**
+     * Row echelon form in place. The pivot rows are normalized to leading
+     * coefficient 1 and the entries below the pivots are eliminated.
+     * @return this in row echelon form.
+     */
+    public DenseModMatrix rowEchelonForm() {
+        final int N = rows;
+        final int M = cols;
+        int kmax = 0;
+        for (int i = 0; i < N && kmax < M;) {
+            int imax = -1;
+            for (int k = i; k < N; k++) {
+                if (val[k * M + kmax] != 0L) {
+                    imax = k;
+                    break; // first
+                }
+            }
+            if (imax < 0) {
+                kmax++;
+                continue;
+            }
+            if (imax != i) {
+                swapRows(i, imax);
+            }
+            final int io = i * M;
+            final int kk = kmax;
+            long dd = inverse(val[io + kk], modul);
+            for (int k = kk; k < M; k++) {
+                val[io + k] = (val[io + k] * dd) % modul;
+            }
+            long work = (long) (N - i) * (M - kk);
+            forRows(i + 1, N, work, new RowTask() {
+
+
+                public void run(int lo, int hi) {
+                    for (int j = lo; j < hi; j++) {
+                        int jo = j * M;
+                        long f = val[jo + kk];
+                        if (f == 0L) {
+                            continue;
+                        }
+                        long nf = modul - f;
+                        for (int k = kk; k < M; k++) {
+                            val[jo + k] = (val[jo + k] + nf * val[io + k]) % modul;
+                        }
+                    }
+                }
+            });
+            i++;
+            kmax++;
+        }
+        return this;
+    }
+
+
+    /**
+     * Rank of this matrix, this is not modified.
+     * @return rank of this.
+     */
+    public int rank() {
+        return copy().rowEchelonForm().rankRE();
+    }
+
+
+    /**
+     * Rank of a matrix in row echelon form.
+     * @return number of non zero rows.
+     */
+    public int rankRE() {
+        int r = 0;
+        for (int i = 0; i < rows; i++) {
+            int o = i * cols;
+            for (int j = i; j < cols; j++) {
+                if (val[o + j] != 0L) {
+                    r++;
+                    break;
+                }
+            }
+        }
+        return r;
+    }
+
+
+    /**
+     * Null space basis by column operations in place, same algorithm and
+     * result as LinAlg.nullSpaceBasis(). This is replaced by the matrix A-I
+     * and the non zero rows are returned.
+     * @return list of the indexes of the non zero rows of this, the basis
+     *         vectors.
+     */
+    public List<Integer> nullSpaceBasis() {
+        final int N = rows;
+        final int M = cols;
+        for (int i = 0; i < N; i++) {
+            final int io = i * M;
+            int imax = -1;
+            for (int k = i; k < M; k++) {
+                if (val[io + k] != 0L) {
+                    imax = k;
+                    break;
+                }
+            }
+            if (imax < 0) {
+                // check for left pivot, same selection as generic version
+                long maxA = 0L;
+                for (int k = 0; k < i; k++) {
+                    long absA = val[io + k];
+                    if (absA > maxA) {
+                        boolean iszero = true;
+                        for (int m = 0; m < i; m++) {
+                            if (val[m * M + k] != 0L) {
+                                iszero = false;
+                                break;
+                            }
+                        }
+                        if (iszero) {
+                            imax = k;
+                            maxA = 1L;
+                        }
+                    }
+                }
+                if (imax < 0) { // complete zero row
+                    continue;
+                }
+            }
+            //normalize column imax
+            long mp = inverse(val[io + imax], modul);
+            for (int k = 0; k < N; k++) {
+                int o = k * M + imax;
+                val[o] = (val[o] * mp) % modul;
+            }
+            //pivoting columns
+            if (imax != i) {
+                for (int k = 0; k < N; k++) {
+                    int o = k * M;
+                    long b = val[o + i];
+                    val[o + i] = val[o + imax];
+                    val[o + imax] = b;
+                }
+            }
+            //eliminate rest of row i via column operations
+            final int ii = i;
+            long work = (long) N * M;
+            forRows(0, M, work, new RowTask() {
+
+
+                public void run(int lo, int hi) {
+                    for (int j = lo; j < hi; j++) {
+                        if (j == ii) {
+                            continue;
+                        }
+                        long mm = val[io + j];
+                        if (mm == 0L) {
+                            continue;
+                        }
+                        long nm = modul - mm;
+                        for (int k = 0; k < N; k++) {
+                            int o = k * M;
+                            val[o + j] = (val[o + j] + nm * val[o + ii]) % modul;
+                        }
+                    }
+                }
+            });
+        }
+        // convert to A-I
+        for (int i = 0; i < Math.min(N, M); i++) {
+            int o = i * M + i;
+            val[o] = (val[o] == 0L ? modul - 1L : val[o] - 1L);
+        }
+        List<Integer> nz = new ArrayList<Integer>();
+        for (int i = 0; i < N; i++) {
+            int o = i * M;
+            for (int k = 0; k < M; k++) {
+                if (val[o + k] != 0L) {
+                    nz.add(i);
+                    break;
+                }
+            }
+        }
+        return nz;
+    }
+
+
+    /**
+     * Swap two rows, mutates this matrix.
+     * @param i row index.
+     * @param j row index.
+     */
+    void swapRows(int i, int j) {
+        int io = i * cols;
+        int jo = j * cols;
+        for (int k = 0; k < cols; k++) {
+            long t = val[io + k];
+            val[io + k] = val[jo + k];
+            val[jo + k] = t;
+        }
+    }
+
+
+    /**
+     * Task on a range of rows or columns.
+     */
+    interface RowTask {
+
+
+        /**
+         * Run on index range.
+         * @param lo first index.
+         * @param hi last index + 1.
+         */
+        void run(int lo, int hi);
+    }
+
+
+    /**
+     * Run a task on an index range, in parallel on the common fork-join pool
+     * if the work is large enough. The task must write disjoint entries for
+     * disjoint ranges.
+     * @param lo first index.
+     * @param hi last index + 1.
+     * @param work estimated number of entry operations.
+     * @param t task.
+     */
+    static void forRows(int lo, int hi, long work, RowTask t) {
+        if (hi - lo < 2 * GRAIN || work < PARALLEL_CUTOFF || !ForkJoinThreadPool.isParallel()) {
+            t.run(lo, hi);
+            return;
+        }
+        ForkJoinThreadPool.invoke(new RangeAction(lo, hi, t));
+    }
+
+
+    /**
+     * Fork-join action splitting an index range.
+     */
+    static final class RangeAction extends RecursiveAction {
+
+
+        final int lo;
+
+
+        final int hi;
+
+
+        final RowTask task;
+
+
+        RangeAction(int lo, int hi, RowTask task) {
+            this.lo = lo;
+            this.hi = hi;
+            this.task = task;
+        }
+
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= GRAIN) {
+                task.run(lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new RangeAction(lo, mid, task), new RangeAction(mid, hi, task));
+        }
+    }
+
+
+    /**
+     * Modular inverse.
+     * @param a element in [0,m).
+     * @param m modulus.
+     * @return b with a*b = 1 mod m.
+     */
+    public static long inverse(long a, long m) {
+        if (a == 0L) {
+            throw new NotInvertibleException("zero is not invertible");
+        }
+        long x = a;
+        long y = m;
+        long x1 = 1L;
+        long y1 = 0L;
+        while (y != 0L) {
+            long q = x / y;
+            long r = x - q * y;
+            x = y;
+            y = r;
+            long r1 = x1 - q * y1;
+            x1 = y1;
+            y1 = r1;
+        }
+        if (x != 1L) {
+            throw new ModularNotInvertibleException("element not invertible, gcd != 1", new BigInteger(m),
+                            new BigInteger(x), new BigInteger(m / x));
+        }
+        return (x1 < 0L ? x1 + m : x1);
+    }
+
+}
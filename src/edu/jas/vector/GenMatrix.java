@@ -861,6 +861,11 @@ public class GenMatrix<C extends RingElem<C>> implements AlgebraElem<GenMatrix<C
      * @return this * S.
      */
     public GenMatrix<C> multiply(GenMatrix<C> S) {
+        if (DenseModMatrix.isApplicable(ring.coFac)) {
+            GenMatrixRing<C> pr = ring.product(S.ring);
+            DenseModMatrix P = DenseModMatrix.fromGenMatrix(this).multiply(DenseModMatrix.fromGenMatrix(S));
+            return P.toGenMatrix(pr);
+        }
         int na = ring.blocksize;
         int nb = ring.blocksize;
         //System.out.println("#blocks = " + (matrix.size()/na) + ", na = " + na 
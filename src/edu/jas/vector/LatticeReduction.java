@@ -0,0 +1,320 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.arith.BigRational;
+
+
+/**
+ * Lattice basis reduction. Integral LLL algorithm with exact arithmetic and
+ * reduction parameter 3/4, see H. Cohen, A course in computational algebraic
+ * number theory, algorithm 2.6.7. The Gram-Schmidt data is kept as integers
+ * d_i and lambda_ij, so no rational numbers appear during the reduction.
+ * Objects of this class are mutable, the basis is reduced in place.
+ * @author Heinz Kredel
+ */
+
+public class LatticeReduction {
+
+
+    private static final Logger logger = LogManager.getLogger(LatticeReduction.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Basis vectors, rows of the matrix.
+     */
+    protected final BigInteger[][] b;
+
+
+    /**
+     * Number of basis vectors.
+     */
+    public final int rows;
+
+
+    /**
+     * Dimension of the ambient space.
+     */
+    public final int cols;
+
+
+    /**
+     * Gram determinants, d[0] = 1, d[i] for the first i vectors.
+     */
+    protected final BigInteger[] d;
+
+
+    /**
+     * Integral Gram-Schmidt coefficients lambda_ij = d_j mu_ij, j &lt; i.
+     */
+    protected final BigInteger[][] lambda;
+
+
+    /**
+     * Number of swaps in the last reduction.
+     */
+    protected long swaps;
+
+
+    /**
+     * Constructor.
+     * @param basis linearly independent integer vectors as rows, the array is
+     *            copied.
+     */
+    public LatticeReduction(BigInteger[][] basis) {
+        rows = basis.length;
+        cols = (rows == 0 ? 0 : basis[0].length);
+        b = new BigInteger[rows][];
+        for (int i = 0; i < rows; i++) {
+            if (basis[i].length != cols) {
+                throw new IllegalArgumentException("vectors of different length");
+            }
+            b[i] = Arrays.copyOf(basis[i], cols);
+        }
+        d = new BigInteger[rows + 1];
+        lambda = new BigInteger[rows][rows];
+    }
+
+
+    /**
+     * Constructor.
+     * @param basis linearly independent vectors as rows of a matrix over
+     *            BigInteger.
+     */
+    public LatticeReduction(GenMatrix<edu.jas.arith.BigInteger> basis) {
+        this(toArray(basis));
+    }
+
+
+    /**
+     * Convert a matrix to an array.
+     * @param A matrix over BigInteger.
+     * @return array of rows of A.
+     */
+    static BigInteger[][] toArray(GenMatrix<edu.jas.arith.BigInteger> A) {
+        BigInteger[][] a = new BigInteger[A.ring.rows][A.ring.cols];
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < a[i].length; j++) {
+                a[i][j] = A.get(i, j).getVal();
+            }
+        }
+        return a;
+    }
+
+
+    /**
+     * LLL reduce the basis.
+     * @return this, with reduced basis.
+     */
+    public LatticeReduction reduce() {
+        swaps = 0;
+        if (rows == 0) {
+            return this;
+        }
+        d[0] = BigInteger.ONE;
+        d[1] = dot(b[0], b[0]);
+        if (d[1].signum() == 0) {
+            throw new IllegalArgumentException("vectors are linearly dependent");
+        }
+        int k = 1; // 0-based index of b_{k+1} in Cohen's notation
+        int kmax = 0;
+        final BigInteger three = BigInteger.valueOf(3L);
+        while (k < rows) {
+            if (k > kmax) {
+                kmax = k;
+                incremental(k);
+            }
+            reduce(k, k - 1);
+            // Lovasz condition: d_k d_{k-2} < 3/4 d_{k-1}^2 - lambda^2
+            BigInteger l = lambda[k][k - 1];
+            BigInteger lhs = d[k + 1].multiply(d[k - 1]).shiftLeft(2);
+            BigInteger rhs = d[k].multiply(d[k]).multiply(three).subtract(l.multiply(l).shiftLeft(2));
+            if (lhs.compareTo(rhs) < 0) {
+                swap(k, kmax);
+                if (k > 1) {
+                    k--;
+                }
+            } else {
+                for (int j = k - 2; j >= 0; j--) {
+                    reduce(k, j);
+                }
+                k++;
+            }
+        }
+        if (debug) {
+            logger.debug("LLL rows = {}, swaps = {}", rows, swaps);
+        }
+        return this;
+    }
+
+
+    /**
+     * Incremental Gram-Schmidt for vector k.
+     */
+    void incremental(int k) {
+        for (int j = 0; j <= k; j++) {
+            BigInteger u = dot(b[k], b[j]);
+            for (int i = 0; i < j; i++) {
+                u = d[i + 1].multiply(u).subtract(lambda[k][i].multiply(lambda[j][i])).divide(d[i]);
+            }
+            if (j < k) {
+                lambda[k][j] = u;
+            } else {
+                if (u.signum() == 0) {
+                    throw new IllegalArgumentException("vectors are linearly dependent");
+                }
+                d[k + 1] = u;
+            }
+        }
+    }
+
+
+    /**
+     * Size reduction of vector k by vector l.
+     */
+    void reduce(int k, int l) {
+        BigInteger dl = d[l + 1];
+        BigInteger lk = lambda[k][l];
+        if (lk.abs().shiftLeft(1).compareTo(dl) <= 0) {
+            return;
+        }
+        // q = round(lambda_kl / d_l)
+        BigInteger[] qr = lk.shiftLeft(1).add(dl).divideAndRemainder(dl.shiftLeft(1));
+        BigInteger q = qr[0];
+        if (qr[1].signum() < 0) { // floor for negative values
+            q = q.subtract(BigInteger.ONE);
+        }
+        BigInteger[] bk = b[k];
+        BigInteger[] bl = b[l];
+        for (int i = 0; i < cols; i++) {
+            if (bl[i].signum() != 0) {
+                bk[i] = bk[i].subtract(q.multiply(bl[i]));
+            }
+        }
+        lambda[k][l] = lk.subtract(q.multiply(dl));
+        for (int i = 0; i < l; i++) {
+            lambda[k][i] = lambda[k][i].subtract(q.multiply(lambda[l][i]));
+        }
+    }
+
+
+    /**
+     * Swap vectors k and k-1.
+     */
+    void swap(int k, int kmax) {
+        swaps++;
+        BigInteger[] t = b[k];
+        b[k] = b[k - 1];
+        b[k - 1] = t;
+        for (int j = 0; j < k - 1; j++) {
+            BigInteger s = lambda[k][j];
+            lambda[k][j] = lambda[k - 1][j];
+            lambda[k - 1][j] = s;
+        }
+        BigInteger l = lambda[k][k - 1];
+        BigInteger B = d[k - 1].multiply(d[k + 1]).add(l.multiply(l)).divide(d[k]);
+        for (int i = k + 1; i <= kmax; i++) {
+            BigInteger s = lambda[i][k];
+            lambda[i][k] = d[k + 1].multiply(lambda[i][k - 1]).subtract(l.multiply(s)).divide(d[k]);
+            lambda[i][k - 1] = B.multiply(s).add(l.multiply(lambda[i][k])).divide(d[k + 1]);
+        }
+        d[k] = B;
+    }
+
+
+    /**
+     * Scalar product.
+     */
+    static BigInteger dot(BigInteger[] x, BigInteger[] y) {
+        BigInteger s = BigInteger.ZERO;
+        for (int i = 0; i < x.length; i++) {
+            if (x[i].signum() != 0 && y[i].signum() != 0) {
+                s = s.add(x[i].multiply(y[i]));
+            }
+        }
+        return s;
+    }
+
+
+    /**
+     * Get the basis vector.
+     * @param i index, 0 &le; i &lt; rows.
+     * @return b_i, not copied.
+     */
+    public BigInteger[] getVector(int i) {
+        return b[i];
+    }
+
+
+    /**
+     * Get the reduced basis.
+     * @return array of basis vectors, not copied.
+     */
+    public BigInteger[][] getBasis() {
+        return b;
+    }
+
+
+    /**
+     * Squared norm of a Gram-Schmidt vector of the reduced basis.
+     * @param i index, 0 &le; i &lt; rows.
+     * @return |b*_i|^2 = d_{i+1} / d_i.
+     */
+    public BigRational gramSchmidtNormSquare(int i) {
+        return new BigRational(new edu.jas.arith.BigInteger(d[i + 1]), new edu.jas.arith.BigInteger(d[i]));
+    }
+
+
+    /**
+     * Test if a Gram-Schmidt vector of the reduced basis is longer than a
+     * bound.
+     * @param i index, 0 &le; i &lt; rows.
+     * @param bound2 squared bound.
+     * @return true, if |b*_i|^2 &gt; bound2, else false.
+     */
+    public boolean isGramSchmidtLonger(int i, BigInteger bound2) {
+        return d[i + 1].compareTo(bound2.multiply(d[i])) > 0;
+    }
+
+
+    /**
+     * Number of swaps of the last reduction.
+     * @return number of swaps.
+     */
+    public long getSwaps() {
+        return swaps;
+    }
+
+
+    /**
+     * Squared norm of a vector.
+     * @param x vector.
+     * @return x . x.
+     */
+    public static BigInteger normSquare(BigInteger[] x) {
+        return dot(x, x);
+    }
+
+
+    /**
+     * LLL reduction of a basis.
+     * @param basis linearly independent integer vectors as rows.
+     * @return LLL reduced basis of the lattice spanned by the rows.
+     */
+    public static BigInteger[][] lll(BigInteger[][] basis) {
+        return new LatticeReduction(basis).reduce().getBasis();
+    }
+
+}
@@ -61,6 +61,15 @@ public class LinAlg<C extends RingElem<C>> implements Serializable {
         if (N != M) {
             logger.warn("nosquare matrix");
         }
+        if (DenseModMatrix.isApplicable(ring.coFac)) {
+            DenseModMatrix D = DenseModMatrix.fromGenMatrix(A);
+            List<Integer> P = D.decompositionLU();
+            D.copyTo(A);
+            if (P.isEmpty()) {
+                logger.warn("matrix is degenerate");
+            }
+            return P;
+        }
         List<Integer> P = new ArrayList<Integer>(NM + 1);
         for (int i = 0; i <= NM; i++) {
             P.add(i); //Unit permutation matrix, P[NM] initialized with NM
@@ -277,6 +286,15 @@ public class LinAlg<C extends RingElem<C>> implements Serializable {
         List<GenVector<C>> nspb = new ArrayList<GenVector<C>>();
         GenVectorModul<C> vfac = new GenVectorModul<C>(ring.coFac, M);
         ArrayList<ArrayList<C>> mat = A.matrix;
+        if (DenseModMatrix.isApplicable(ring.coFac)) {
+            DenseModMatrix D = DenseModMatrix.fromGenMatrix(A);
+            List<Integer> nz = D.nullSpaceBasis();
+            D.copyTo(A);
+            for (Integer i : nz) {
+                nspb.add(new GenVector<C>(vfac, mat.get(i)));
+            }
+            return nspb;
+        }
         for (int i = 0; i < N; i++) {
             C maxA, absA;
             // search privot imax
@@ -409,6 +427,11 @@ public class LinAlg<C extends RingElem<C>> implements Serializable {
         if (N != M) {
             logger.warn("nosquare matrix");
         }
+        if (DenseModMatrix.isApplicable(ring.coFac)) {
+            DenseModMatrix D = DenseModMatrix.fromGenMatrix(A);
+            D.rowEchelonForm().copyTo(A);
+            return A;
+        }
         int kmax = 0;
         ArrayList<ArrayList<C>> mat = A.matrix;
         for (int i = 0; i < N;) {
@@ -447,9 +470,13 @@ public class LinAlg<C extends RingElem<C>> implements Serializable {
                 mat.get(i).set(k, d);
             }
             for (int j = i + 1; j < N; j++) {
+                C f = mat.get(j).get(kmax);
+                if (f.isZERO()) {
+                    continue;
+                }
                 for (int k = kmax; k < M; k++) {
-                    // A[j][k] -= A[j][k] * A[i][k];
-                    C a = mat.get(j).get(k).multiply(mat.get(i).get(k));
+                    // A[j][k] -= A[j][kmax] * A[i][k];
+                    C a = f.multiply(mat.get(i).get(k));
                     if (a.isZERO()) {
                         continue;
                     }
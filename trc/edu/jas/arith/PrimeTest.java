@@ -12,6 +12,8 @@ import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import edu.jas.kern.ComputerThreads;
+
 
 /**
  * PrimeInteger and PrimeList tests with JUnit.
@@ -53,6 +55,7 @@ public class PrimeTest extends TestCase {
 
     @Override
     protected void tearDown() {
+        ComputerThreads.terminate();
     }
 
 
@@ -360,4 +363,60 @@ public class PrimeTest extends TestCase {
         }
     }
 
+
+    /**
+     * Test concurrent rho and elliptic curve factorization.
+     */
+    public void testFactorParallel() {
+        java.util.Random rnd = new java.util.Random(4711);
+        java.math.BigInteger p = java.math.BigInteger.probablePrime(40, rnd);
+        java.math.BigInteger q = java.math.BigInteger.probablePrime(44, rnd);
+        java.math.BigInteger N = p.pow(2).multiply(q).multiply(java.math.BigInteger.valueOf(12L));
+        //System.out.println("N = " + N);
+        for (int t = 1; t <= 3; t += 2) {
+            PrimeIntegerParallel pi = new PrimeIntegerParallel(t);
+            SortedMap<java.math.BigInteger, Integer> ff = pi.factors(N);
+            //System.out.println("ff = " + ff);
+            assertEquals("factors: " + ff, 4, ff.size());
+            assertEquals("p^2: " + ff, Integer.valueOf(2), ff.get(p));
+            assertEquals("q: " + ff, Integer.valueOf(1), ff.get(q));
+            assertEquals("2^2: " + ff, Integer.valueOf(2), ff.get(java.math.BigInteger.valueOf(2L)));
+        }
+        assertEquals("PrimeInteger.factors: ", new PrimeIntegerParallel(1).factors(N), PrimeInteger.factors(N));
+
+        // perfect power
+        java.math.BigInteger[] pp = PrimeIntegerParallel.perfectPower(p.multiply(q).pow(6));
+        assertEquals("root(N): ", p.multiply(q), pp[0]);
+        assertEquals("exp(N): ", java.math.BigInteger.valueOf(6L), pp[1]);
+        assertNull("no perfect power: ", PrimeIntegerParallel.perfectPower(p.multiply(q)));
+
+        // time limit and cancellation
+        p = java.math.BigInteger.probablePrime(120, rnd);
+        q = java.math.BigInteger.probablePrime(130, rnd);
+        N = p.multiply(q);
+        PrimeIntegerParallel pi = new PrimeIntegerParallel(2);
+        pi.setTimeLimit(500L);
+        try {
+            pi.factors(N);
+            fail("TimeExceededException expected");
+        } catch (edu.jas.kern.TimeExceededException e) {
+            // pass
+        }
+        pi = new PrimeIntegerParallel(1);
+        final int[] calls = new int[1];
+        pi.setProgress(new PrimeIntegerParallel.Progress() {
+
+
+            public boolean progress(String method, java.math.BigInteger n, long work) {
+                return ++calls[0] < 3;
+            }
+        });
+        try {
+            pi.factors(N);
+            fail("CancellationException expected");
+        } catch (java.util.concurrent.CancellationException e) {
+            assertEquals("progress calls: ", 3, calls[0]);
+        }
+    }
+
 }
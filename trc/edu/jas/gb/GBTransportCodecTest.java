@@ -0,0 +1,214 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+import edu.jas.arith.BigComplex;
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.structure.RingElem;
+import edu.jas.util.ChannelCodec;
+import edu.jas.util.ObjectChannelCodec;
+
+
+/**
+ * GB transport codec tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class GBTransportCodecTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>GBTransportCodecTest</CODE> object.
+     * @param name String.
+     */
+    public GBTransportCodecTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GBTransportCodecTest.class);
+        return suite;
+    }
+
+
+    int rl = 4;
+
+
+    int kl = 50;
+
+
+    int ll = 7;
+
+
+    int el = 5;
+
+
+    float q = 0.5f;
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Send messages through a codec and receive them with a second codec.
+     * @param codec prototype.
+     * @param msgs messages.
+     * @param rec received messages.
+     * @return number of bytes transmitted.
+     */
+    int transmit(ChannelCodec codec, List<Object> msgs, List<Object> rec)
+                    throws IOException, ClassNotFoundException {
+        ChannelCodec wc = codec.create();
+        ChannelCodec rc = codec.create();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bos);
+        for (Object m : msgs) {
+            wc.write(out, m);
+        }
+        out.close();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        for (int i = 0; i < msgs.size(); i++) {
+            rec.add(rc.read(in));
+        }
+        in.close();
+        return bos.size();
+    }
+
+
+    /**
+     * Round trip polynomial messages.
+     * @param fac polynomial ring.
+     * @return [codec bytes, serialization bytes].
+     */
+    @SuppressWarnings("unchecked")
+    <C extends RingElem<C>> int[] roundTrip(GenPolynomialRing<C> fac) throws Exception {
+        List<Object> msgs = new ArrayList<Object>();
+        List<GenPolynomial<C>> P = new ArrayList<GenPolynomial<C>>();
+        for (int i = 0; i < 10; i++) {
+            GenPolynomial<C> p = fac.random(kl, ll, el, q);
+            P.add(p);
+            msgs.add(new GBTransportMessPoly<C>(p));
+        }
+        msgs.add(new GBTransportMessPoly<C>(fac.getZERO()));
+        msgs.add(new GBTransportMessPairIndex(3, 1, 2));
+        msgs.add(new GBTransportMessPair<C>(new Pair<C>(P.get(0), P.get(1), 0, 1)));
+        msgs.add(new GBTransportMessReq());
+        msgs.add(new GBTransportMessEnd());
+        msgs.add(new GBTransportMess());
+        msgs.add("other object");
+
+        List<Object> rec = new ArrayList<Object>();
+        int cb = transmit(new GBTransportCodec(), msgs, rec);
+        assertEquals("#msgs ", msgs.size(), rec.size());
+        for (int i = 0; i < P.size(); i++) {
+            GenPolynomial<C> r = ((GBTransportMessPoly<C>) rec.get(i)).pol;
+            assertEquals("p == r ", P.get(i), r);
+            assertEquals("ring ", fac, r.ring);
+            assertTrue("same ring ", r.ring == ((GBTransportMessPoly<C>) rec.get(0)).pol.ring);
+        }
+        int k = P.size();
+        assertTrue("zero ", ((GBTransportMessPoly<C>) rec.get(k++)).pol.isZERO());
+        GBTransportMessPairIndex pi = (GBTransportMessPairIndex) rec.get(k++);
+        assertEquals("i ", 3, pi.i);
+        assertEquals("j ", 1, pi.j);
+        assertEquals("s ", 3, pi.s);
+        Pair<C> pair = ((GBTransportMessPair<C>) rec.get(k++)).pair;
+        assertEquals("pi ", P.get(0), pair.pi);
+        assertEquals("pj ", P.get(1), pair.pj);
+        assertEquals("i,j ", 1, pair.j);
+        assertTrue("req ", rec.get(k++) instanceof GBTransportMessReq);
+        assertTrue("end ", rec.get(k++) instanceof GBTransportMessEnd);
+        assertEquals("mess ", GBTransportMess.class, rec.get(k++).getClass());
+        assertEquals("object ", "other object", rec.get(k++));
+
+        List<Object> orec = new ArrayList<Object>();
+        int ob = transmit(new ObjectChannelCodec(), msgs, orec);
+        assertEquals("#msgs ", msgs.size(), orec.size());
+        //System.out.println("codec = " + cb + ", serialization = " + ob);
+        return new int[] { cb, ob };
+    }
+
+
+    /**
+     * Test codec with BigRational coefficients.
+     */
+    public void testRationalCodec() throws Exception {
+        BigRational coeff = new BigRational();
+        GenPolynomialRing<BigRational> fac = new GenPolynomialRing<BigRational>(coeff, rl);
+        int[] b = roundTrip(fac);
+        assertTrue("codec < serialization " + b[0] + ", " + b[1], b[0] < b[1]);
+    }
+
+
+    /**
+     * Test codec with BigInteger coefficients.
+     */
+    public void testIntegerCodec() throws Exception {
+        BigInteger coeff = new BigInteger();
+        GenPolynomialRing<BigInteger> fac = new GenPolynomialRing<BigInteger>(coeff, rl);
+        int[] b = roundTrip(fac);
+        assertTrue("codec < serialization " + b[0] + ", " + b[1], b[0] < b[1]);
+    }
+
+
+    /**
+     * Test codec with ModLong coefficients.
+     */
+    public void testModLongCodec() throws Exception {
+        ModLongRing coeff = new ModLongRing(2147483647L);
+        GenPolynomialRing<ModLong> fac = new GenPolynomialRing<ModLong>(coeff, rl);
+        int[] b = roundTrip(fac);
+        assertTrue("codec < serialization " + b[0] + ", " + b[1], b[0] < b[1]);
+    }
+
+
+    /**
+     * Test codec with serialized coefficients.
+     */
+    public void testObjectCodec() throws Exception {
+        BigComplex coeff = new BigComplex();
+        GenPolynomialRing<BigComplex> fac = new GenPolynomialRing<BigComplex>(coeff, rl);
+        roundTrip(fac);
+    }
+
+}
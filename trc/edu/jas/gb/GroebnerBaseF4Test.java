@@ -0,0 +1,200 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.PolynomialList;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * Groebner base F4 tests with JUnit.
+ * @author Heinz Kredel
+ */
+public class GroebnerBaseF4Test extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>GroebnerBaseF4Test</CODE> object.
+     * @param name String.
+     */
+    public GroebnerBaseF4Test(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GroebnerBaseF4Test.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<ModLong> fac;
+
+
+    List<GenPolynomial<ModLong>> L, G;
+
+
+    GroebnerBaseAbstract<ModLong> bb;
+
+
+    GroebnerBaseAbstract<ModLong> bbs;
+
+
+    GenPolynomial<ModLong> a, b, c, d;
+
+
+    int rl = 4;
+
+
+    int kl = 7;
+
+
+    int ll = 7;
+
+
+    int el = 3;
+
+
+    float q = 0.2f;
+
+
+    @Override
+    protected void setUp() {
+        ModLongRing coeff = new ModLongRing(32003);
+        fac = new GenPolynomialRing<ModLong>(coeff, rl);
+        a = b = c = d = null;
+        bb = new GroebnerBaseF4<ModLong>();
+        bbs = new GroebnerBaseSeq<ModLong>();
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = d = null;
+        fac = null;
+        bb = null;
+        bbs = null;
+    }
+
+
+    /**
+     * Test F4 GBase.
+     */
+    public void testF4GBase() {
+        L = new ArrayList<GenPolynomial<ModLong>>();
+
+        a = fac.random(kl, ll, el, q);
+        b = fac.random(kl, ll, el, q);
+        c = fac.random(kl, ll, el, q);
+        d = fac.random(kl, ll, el, q);
+
+        if (a.isZERO() || b.isZERO() || c.isZERO() || d.isZERO()) {
+            return;
+        }
+
+        L.add(a);
+        G = bb.GB(L);
+        assertTrue("isGB( { a } )", bb.isGB(G));
+
+        L.add(b);
+        G = bb.GB(L);
+        assertTrue("isGB( { a, b } )", bb.isGB(G));
+
+        L.add(c);
+        G = bb.GB(L);
+        assertTrue("isGB( { a, b, c } )", bb.isGB(G));
+
+        L.add(d);
+        G = bb.GB(L);
+        assertTrue("isGB( { a, b, c, d } )", bb.isGB(G));
+        assertEquals("GB(L) == GBseq(L)", new HashSet<GenPolynomial<ModLong>>(bbs.GB(L)),
+                        new HashSet<GenPolynomial<ModLong>>(G));
+    }
+
+
+    /**
+     * Test F4 GBase of Katsura 4.
+     */
+    @SuppressWarnings("unchecked")
+    public void testKatsura4GBase() {
+        String exam = "Mod 32003 (u0,u1,u2,u3,u4) G " + "( "
+                        + "( u0 + 2 u1 + 2 u2 + 2 u3 + 2 u4 - 1 ), "
+                        + "( u0**2 + 2 u1**2 + 2 u2**2 + 2 u3**2 + 2 u4**2 - u0 ), "
+                        + "( 2 u0 u1 + 2 u1 u2 + 2 u2 u3 + 2 u3 u4 - u1 ), "
+                        + "( u1**2 + 2 u0 u2 + 2 u1 u3 + 2 u2 u4 - u2 ), "
+                        + "( 2 u1 u2 + 2 u0 u3 + 2 u1 u4 - u3 ) " + ") ";
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        PolynomialList<ModLong> F = null;
+        try {
+            F = (PolynomialList<ModLong>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        //System.out.println("F = " + F);
+
+        G = bb.GB(F.list);
+        assertTrue("isGB( GB(Katsura4) )", bb.isGB(G));
+        assertEquals("GB(Katsura4) == GBseq(Katsura4)",
+                        new HashSet<GenPolynomial<ModLong>>(bbs.GB(F.list)), new HashSet<GenPolynomial<ModLong>>(G));
+    }
+
+
+    /**
+     * Test F4 GBase of Trinks 7 with rational coefficients.
+     */
+    @SuppressWarnings("unchecked")
+    public void testTrinks7GBase() {
+        String exam = "(B,S,T,Z,P,W) L " + "( " + "( 45 P + 35 S - 165 B - 36 ), "
+                        + "( 35 P + 40 Z + 25 T - 27 S ), " + "( 15 W + 25 S P + 30 Z - 18 T - 165 B**2 ), "
+                        + "( - 9 W + 15 T P + 20 S Z ), " + "( P W + 2 T Z - 11 B**3 ), "
+                        + "( 99 W - 11 B S + 3 B**2 ), " + "( B**2 + 33/50 B + 2673/10000 ) " + ") ";
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        PolynomialList<BigRational> F = null;
+        try {
+            F = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        GroebnerBaseAbstract<BigRational> bq = new GroebnerBaseF4<BigRational>();
+        List<GenPolynomial<BigRational>> Gq = bq.GB(F.list);
+        assertTrue("isGB( GB(Trinks7) )", bq.isGB(Gq));
+        assertEquals("#GB(Trinks7) == 6", 6, Gq.size());
+    }
+
+}
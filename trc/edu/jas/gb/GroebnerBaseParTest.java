@@ -245,6 +245,14 @@ public class GroebnerBaseParTest extends TestCase {
         G = bbpar.GB(F.list);
         assertTrue("isGB( GB(Trinks7) )", bbpar.isGB(G));
         assertEquals("#GB(Trinks7) == 6", 6, G.size());
+
+        GroebnerBaseAbstract<BigRational> bbcon = new GroebnerBaseParallel<BigRational>(threads,
+                        new OrderedConcurrentPairlist<BigRational>());
+        List<GenPolynomial<BigRational>> Gc = bbcon.GB(F.list);
+        ((GroebnerBaseParallel<BigRational>) bbcon).terminate();
+        assertTrue("isGB( GB(Trinks7) )", bbpar.isGB(Gc));
+        assertTrue("G.containsAll(Gc)", G.containsAll(Gc));
+        assertTrue("Gc.containsAll(G)", Gc.containsAll(G));
         //PolynomialList<BigRational> trinks = new PolynomialList<BigRational>(F.ring,G);
         //System.out.println("G = " + trinks);
     }
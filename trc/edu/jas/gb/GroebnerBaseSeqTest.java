@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import edu.jas.arith.BigRational;
+import edu.jas.kern.Metrics;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.GenPolynomialTokenizer;
@@ -417,4 +418,48 @@ public class GroebnerBaseSeqTest extends TestCase {
         assertEquals("isGBsimple(G) == isGBidem(G)", bb.isGB(G), bb.isGB(G, false));
     }
 
+
+
+    /**
+     * Test Trinks7 GBase metrics.
+     */
+    @SuppressWarnings("unchecked")
+    public void testTrinks7GBaseMetrics() {
+        String exam = "(B,S,T,Z,P,W) L " + "( " + "( 45 P + 35 S - 165 B - 36 ), "
+                        + "( 35 P + 40 Z + 25 T - 27 S ), " + "( 15 W + 25 S P + 30 Z - 18 T - 165 B**2 ), "
+                        + "( - 9 W + 15 T P + 20 S Z ), " + "( P W + 2 T Z - 11 B**3 ), "
+                        + "( 99 W - 11 B S + 3 B**2 ), " + "( B**2 + 33/50 B + 2673/10000 ) " + ") ";
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        try {
+            F = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        Metrics.Counter created = Metrics.counter("gb.pairs.created");
+        Metrics.Counter removed = Metrics.counter("gb.pairs.removed");
+        Metrics.Counter zero = Metrics.counter("gb.reductions.zero");
+        Metrics.Timer red = Metrics.timer("gb.reductions");
+        Metrics.Timer gb = Metrics.timer("gb.time");
+        Metrics.reset();
+        G = bb.GB(F.list);
+        assertEquals("not active ", 0L, created.get());
+        try {
+            Metrics.setActive();
+            G = bb.GB(F.list);
+        } finally {
+            Metrics.setNotActive();
+        }
+        //System.out.println("metrics = " + Metrics.toText());
+        assertEquals("#GB(Trinks7) == 6", 6, G.size());
+        assertTrue("#created > 0 ", created.get() > 0L);
+        assertTrue("#removed <= #created ", removed.get() <= created.get());
+        assertTrue("#reductions <= #removed ", red.getCount() <= removed.get());
+        assertTrue("#zero <= #reductions ", zero.get() <= red.getCount());
+        assertEquals("#gb == 1 ", 1L, gb.getCount());
+        Metrics.reset();
+    }
+
 }
@@ -0,0 +1,241 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+import edu.jas.arith.BigRational;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.OrderedPolynomialList;
+import edu.jas.poly.PolynomialList;
+import edu.jas.poly.TermOrderByName;
+
+
+/**
+ * Groebner base signature based parallel iterative GB tests with JUnit.
+ * @author Heinz Kredel
+ */
+
+public class GroebnerBaseSigParIterTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>GroebnerBaseSigParIterTest</CODE> object.
+     * @param name String.
+     */
+    public GroebnerBaseSigParIterTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GroebnerBaseSigParIterTest.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<BigRational> fac;
+
+
+    List<GenPolynomial<BigRational>> L, G, Gp;
+
+
+    PolynomialList<BigRational> F;
+
+
+    GroebnerBaseAbstract<BigRational> bb;
+
+
+    List<GroebnerBaseSigParIter<BigRational>> bbpar;
+
+
+    GenPolynomial<BigRational> a, b, c, d, e;
+
+
+    int kl = 3;
+
+
+    int ll = 5;
+
+
+    int el = 3;
+
+
+    float q = 0.2f;
+
+
+    int threads = 3;
+
+
+    @Override
+    protected void setUp() {
+        BigRational coeff = new BigRational(9);
+        String[] vars = new String[] { "u", "x", "y", "z" };
+        fac = new GenPolynomialRing<BigRational>(coeff, vars, TermOrderByName.IGRLEX);
+        a = b = c = d = e = null;
+        bb = new GroebnerBaseSeqIter<BigRational>();
+        bbpar = new ArrayList<GroebnerBaseSigParIter<BigRational>>();
+        bbpar.add(new GroebnerBaseSigParIter<BigRational>(threads, new GroebnerBaseF5zSigSeqIter<BigRational>()));
+        bbpar.add(new GroebnerBaseSigParIter<BigRational>(threads, new GroebnerBaseGGVSigSeqIter<BigRational>()));
+        bbpar.add(new GroebnerBaseSigParIter<BigRational>(threads, new GroebnerBaseArriSigSeqIter<BigRational>()));
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = d = e = null;
+        fac = null;
+        bb.terminate();
+        bb = null;
+        for (GroebnerBaseSigParIter<BigRational> bp : bbpar) {
+            bp.terminate();
+        }
+        bbpar = null;
+    }
+
+
+    /**
+     * Test parallel GBase.
+     */
+    public void testParallelGBase() {
+        L = new ArrayList<GenPolynomial<BigRational>>();
+        a = fac.parse("x^4 + 4/5 x^2 - 12/25 u * x - 183/175");
+        b = fac.parse("x^3 * y + 40/7 x^3 + 4/5 x * y - 12/25 u * y + 183/2450 u^2 + 32/7 x - 96/35 u");
+        c = fac.parse("u^2 * x + 14 y + 80");
+        d = fac.parse("y^2 - 5/4 x^2 - 1");
+        e = fac.parse("z");
+        L.add(a);
+        L.add(b);
+        L.add(c);
+        L.add(d);
+        L.add(e);
+        G = OrderedPolynomialList.<BigRational> sort(bb.GB(L));
+        for (GroebnerBaseSigParIter<BigRational> bp : bbpar) {
+            Gp = bp.GB(L);
+            assertTrue("isGB( { a, b, c, d, e } ): " + bp, bb.isGB(Gp));
+            Gp = OrderedPolynomialList.<BigRational> sort(Gp);
+            assertEquals("GB == GBp: " + bp, G, Gp);
+        }
+    }
+
+
+    /**
+     * Test random parallel GBase.
+     */
+    public void testRandomParallelGBase() {
+        L = new ArrayList<GenPolynomial<BigRational>>();
+        a = fac.random(kl, ll, el, q);
+        b = fac.random(kl, ll, el, q);
+        c = fac.univariate(0);
+        d = fac.random(kl, ll, el, q);
+        L.add(a);
+        L.add(b);
+        L.add(c);
+        L.add(d);
+        G = OrderedPolynomialList.<BigRational> sort(bb.GB(L));
+        for (GroebnerBaseSigParIter<BigRational> bp : bbpar) {
+            Gp = bp.GB(L);
+            assertTrue("isGB( { a, b, c, d } ): " + bp, bb.isGB(Gp));
+            Gp = OrderedPolynomialList.<BigRational> sort(Gp);
+            assertEquals("GB == GBp: " + bp, G, Gp);
+        }
+    }
+
+
+    /**
+     * Test Trinks7 GBase.
+     */
+    @SuppressWarnings({ "unchecked", "cast" })
+    public void testTrinks7GBase() {
+        String exam = "(B,S,T,Z,P,W) L " + "( " + "( P W + 2 T Z - 11 B**3 ), "
+                        + "( 45 P + 35 S - 165 B - 36 ), " + "( 35 P + 40 Z + 25 T - 27 S ), "
+                        + "( 15 W + 25 S P + 30 Z - 18 T - 165 B**2 ), " + "( - 9 W + 15 T P + 20 S Z ), "
+                        + "( 99 W - 11 B S + 3 B**2 ), " + ") ";
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        try {
+            F = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        G = OrderedPolynomialList.<BigRational> sort(bb.GB(F.list));
+        assertEquals("#GB(Trinks7) == 6", 6, G.size());
+        for (GroebnerBaseSigParIter<BigRational> bp : bbpar) {
+            Gp = bp.GB(F.list);
+            assertTrue("isGB( GB(Trinks7) ): " + bp, bb.isGB(Gp));
+            Gp = OrderedPolynomialList.<BigRational> sort(Gp);
+            assertEquals("GB == GBp: " + bp, G, Gp);
+        }
+    }
+
+
+    /**
+     * Test signature indexes.
+     */
+    public void testSigIndex() {
+        SyzygyList syz = new SyzygyList();
+        List<ExpVector> lsyz = new ArrayList<ExpVector>();
+        for (int i = 0; i < 20; i++) {
+            ExpVector e = ExpVector.random(4, 4L, 0.5f);
+            syz.add(e);
+            lsyz.add(e);
+        }
+        assertEquals("#syz == #lsyz", lsyz.size(), syz.size());
+        for (int i = 0; i < 50; i++) {
+            ExpVector f = ExpVector.random(4, 6L, 0.7f);
+            boolean div = false;
+            for (ExpVector e : lsyz) {
+                if (f.multipleOf(e)) {
+                    div = true;
+                    break;
+                }
+            }
+            assertEquals("hasDivisor(" + f + ")", div, syz.hasDivisor(f));
+        }
+
+        SigReductionSeq<BigRational> sred = new SigReductionSeq<BigRational>();
+        List<SigPoly<BigRational>> Gs = new ArrayList<SigPoly<BigRational>>();
+        SigPolyIndex<BigRational> idx = new SigPolyIndex<BigRational>();
+        for (int i = 0; i < 20; i++) {
+            GenPolynomial<BigRational> s = fac.random(1, 1, el, q);
+            GenPolynomial<BigRational> p = fac.random(kl, ll, el, q);
+            if (p.isZERO()) {
+                continue;
+            }
+            SigPoly<BigRational> sp = new SigPoly<BigRational>(s, p);
+            assertEquals("isSigRedundant(" + sp + ")", sred.isSigRedundant(Gs, sp), idx.isSigRedundant(sp));
+            Gs.add(sp);
+            idx.add(sp);
+            assertTrue("isSigRedundant(" + sp + ")", s.isZERO() || idx.isSigRedundant(sp));
+        }
+    }
+
+}
@@ -157,6 +157,38 @@ public class PairListTest extends TestCase {
     }
 
 
+    /**
+     * Test and compare random OrderedPairlist and OrderedConcurrentPairlist.
+     */
+    public void testRandomConcurrentPL() {
+        pairlist = new OrderedPairlist<BigRational>(fac);
+        PairList<BigRational> cpl = new OrderedConcurrentPairlist<BigRational>(fac);
+
+        for (int i = 0; i < 7; i++) {
+            a = fac.random(kl, ll, el, q);
+            if (a.isZERO()) {
+                continue;
+            }
+            pairlist.put(a);
+            cpl.put(a);
+        }
+        assertEquals("#put ", pairlist.putCount(), cpl.putCount());
+        while (pairlist.hasNext() && cpl.hasNext()) {
+            Pair<BigRational> pair = pairlist.removeNext();
+            Pair<BigRational> cpair = cpl.removeNext();
+            if (pair == null || cpair == null) {
+                assertTrue("pair == cpair == null ", pair == cpair);
+                continue;
+            }
+            boolean t = (pair.i == cpair.i) && (pair.j == cpair.j);
+            assertTrue("pair == cpair ", t);
+        }
+        boolean t = pairlist.hasNext() || cpl.hasNext();
+        assertFalse("#pairlist == #cpl ", t);
+        assertEquals("#rem ", pairlist.remCount(), cpl.remCount());
+    }
+
+
     /**
      * Test and compare random OrderedPairlist and OrderedSyzPairlist.
      */
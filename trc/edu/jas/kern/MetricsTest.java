@@ -0,0 +1,185 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.kern;
+
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * Metrics tests with JUnit.
+ * @author Heinz Kredel
+ */
+public class MetricsTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>MetricsTest</CODE> object.
+     * @param name String.
+     */
+    public MetricsTest(String name) {
+        super(name);
+    }
+
+
+    /*
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(MetricsTest.class);
+        return suite;
+    }
+
+
+    @Override
+    protected void setUp() {
+        Metrics.reset();
+    }
+
+
+    @Override
+    protected void tearDown() {
+        Metrics.setNotActive();
+        Metrics.reset();
+    }
+
+
+    /**
+     * Tests counter.
+     */
+    public void testCounter() {
+        Metrics.Counter c = Metrics.counter("test.counter");
+        assertTrue("same counter ", c == Metrics.counter("test.counter"));
+        assertFalse("not active ", Metrics.isActive());
+        c.inc();
+        c.add(5);
+        assertEquals("not counted ", 0L, c.get());
+
+        Metrics.setActive();
+        assertTrue("is active ", Metrics.isActive());
+        c.inc();
+        c.add(5);
+        assertEquals("counted ", 6L, c.get());
+        assertEquals("snapshot ", 6L, Metrics.snapshot().get("test.counter"));
+        assertTrue("text ", Metrics.toText().contains("test.counter = 6"));
+
+        Metrics.reset();
+        assertTrue("reset ", c.isZERO());
+        try {
+            Metrics.timer("test.counter");
+            fail("different type of metric");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Tests histogram and timer.
+     */
+    public void testHistogram() {
+        Metrics.Histogram h = Metrics.histogram("test.histogram");
+        Metrics.Timer t = Metrics.timer("test.timer");
+        long t0 = t.start();
+        assertEquals("not active ", 0L, t0);
+        t.stop(t0);
+        h.record(7L);
+        assertTrue("not recorded ", h.isZERO() && t.isZERO());
+
+        Metrics.setActive();
+        for (long v = 1L; v <= 100L; v++) {
+            h.record(v);
+        }
+        assertEquals("count ", 100L, h.getCount());
+        assertEquals("sum ", 5050L, h.getSum());
+        assertEquals("min ", 1L, h.getMin());
+        assertEquals("max ", 100L, h.getMax());
+        assertEquals("mean ", 50.5, h.getMean(), 1e-9);
+        long q = h.quantileBound(0.5);
+        assertTrue("median bound " + q, 50L <= q && q <= 64L);
+        assertEquals("max bound ", 128L, h.quantileBound(1.0));
+
+        t0 = t.start();
+        assertTrue("active ", t0 != 0L);
+        t.stop(t0);
+        assertEquals("timer count ", 1L, t.getCount());
+        assertTrue("timer sum ", t.getSum() >= 0L);
+    }
+
+
+    /**
+     * Tests listener.
+     */
+    public void testListener() {
+        final List<String> seen = new ArrayList<String>();
+        MetricsListener l = new MetricsListener() {
+
+
+            public synchronized void update(Metrics.Metric m, long v) {
+                seen.add(m.name + "=" + v);
+            }
+        };
+        Metrics.Counter c = Metrics.counter("test.listener");
+        Metrics.addListener(l);
+        try {
+            c.add(3);
+            assertTrue("not active ", seen.isEmpty());
+            Metrics.setActive();
+            c.add(3);
+            Metrics.histogram("test.listener.histogram").record(4L);
+            assertEquals("seen ", 2, seen.size());
+            assertEquals("counter ", "test.listener=3", seen.get(0));
+            assertEquals("histogram ", "test.listener.histogram=4", seen.get(1));
+        } finally {
+            Metrics.removeListener(l);
+        }
+        c.inc();
+        assertEquals("removed ", 2, seen.size());
+    }
+
+
+    /**
+     * Tests MBean.
+     */
+    public void testMBean() throws Exception {
+        Metrics.Counter c = Metrics.counter("test.mbean");
+        Metrics.registerMBean();
+        try {
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            ObjectName on = new ObjectName(Metrics.MBEAN_NAME);
+            assertTrue("registered ", mbs.isRegistered(on));
+            MetricsMXBean mb = JMX.newMXBeanProxy(mbs, on, MetricsMXBean.class);
+            assertFalse("not active ", mb.isActive());
+            mb.setActive(true);
+            assertTrue("is active ", Metrics.isActive());
+            c.add(42);
+            Map<String, Long> cs = mb.getCounters();
+            assertEquals("counter ", Long.valueOf(42L), cs.get("test.mbean"));
+            mb.reset();
+            assertEquals("reset ", 0L, c.get());
+        } finally {
+            Metrics.unregisterMBean();
+        }
+    }
+
+}
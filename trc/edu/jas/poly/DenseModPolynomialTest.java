@@ -0,0 +1,159 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import edu.jas.arith.ModInt;
+import edu.jas.arith.ModIntRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * DenseModPolynomial tests with JUnit.
+ * @author Heinz Kredel
+ */
+public class DenseModPolynomialTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>DenseModPolynomialTest</CODE> object.
+     * @param name String.
+     */
+    public DenseModPolynomialTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(DenseModPolynomialTest.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<ModLong> fac;
+
+
+    GenPolynomial<ModLong> a, b, c;
+
+
+    int kl = 10;
+
+
+    int ll = 12;
+
+
+    int el = 9;
+
+
+    float q = 0.5f;
+
+
+    @Override
+    protected void setUp() {
+        fac = new GenPolynomialRing<ModLong>(new ModLongRing(2147483647L), 1);
+        a = b = c = null;
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = null;
+        fac = null;
+    }
+
+
+    /**
+     * Test conversion and arithmetic.
+     */
+    public void testArithmetic() {
+        for (int i = 0; i < 10; i++) {
+            a = fac.random(kl, ll, el, q);
+            b = fac.random(kl, ll, el, q);
+            DenseModPolynomial ad = DenseModPolynomial.fromGenPolynomial(a);
+            DenseModPolynomial bd = DenseModPolynomial.fromGenPolynomial(b);
+            assertEquals("conv(conv(a)) == a", a, ad.toGenPolynomial(fac));
+            assertEquals("deg(a) == deg(conv(a))", a.isZERO() ? -1 : a.degree(0), ad.degree());
+
+            assertEquals("a+b", a.sum(b), ad.sum(bd).toGenPolynomial(fac));
+            assertEquals("a-b", a.subtract(b), ad.subtract(bd).toGenPolynomial(fac));
+            assertEquals("-a", a.negate(), ad.negate().toGenPolynomial(fac));
+            assertEquals("a*b", a.multiply(b), ad.multiply(bd).toGenPolynomial(fac));
+            assertTrue("a-a == 0", ad.subtract(ad).isZERO());
+
+            if (b.isZERO()) {
+                continue;
+            }
+            GenPolynomial<ModLong>[] qr = a.quotientRemainder(b);
+            DenseModPolynomial[] qrd = ad.quotientRemainder(bd);
+            assertEquals("a/b", qr[0], qrd[0].toGenPolynomial(fac));
+            assertEquals("a%b", qr[1], qrd[1].toGenPolynomial(fac));
+            assertEquals("a%b", qr[1], ad.remainder(bd).toGenPolynomial(fac));
+        }
+    }
+
+
+    /**
+     * Test gcd and modular power.
+     */
+    public void testGcdPower() {
+        for (int i = 0; i < 5; i++) {
+            a = fac.random(kl, ll, el, q);
+            b = fac.random(kl, ll, el, q);
+            c = fac.random(kl, ll / 2, el / 2, q);
+            if (a.isZERO() || b.isZERO() || c.isZERO()) {
+                continue;
+            }
+            DenseModPolynomial ad = DenseModPolynomial.fromGenPolynomial(a.multiply(c));
+            DenseModPolynomial bd = DenseModPolynomial.fromGenPolynomial(b.multiply(c));
+            DenseModPolynomial g = ad.gcd(bd);
+            assertEquals("lc(gcd) == 1", 1L, g.leadingCoefficient());
+            assertTrue("gcd | a", ad.remainder(g).isZERO());
+            assertTrue("gcd | b", bd.remainder(g).isZERO());
+            assertTrue("c | gcd", g.remainder(DenseModPolynomial.fromGenPolynomial(c)).isZERO());
+
+            DenseModPolynomial p = DenseModPolynomial.fromGenPolynomial(a);
+            DenseModPolynomial m = DenseModPolynomial.fromGenPolynomial(b);
+            if (m.degree() == 0) {
+                continue;
+            }
+            DenseModPolynomial r = new DenseModPolynomial(p.modul, 1L);
+            for (int e = 0; e <= 13; e++) {
+                assertEquals("a^e mod b", r, p.modPower(e, m));
+                r = r.multiply(p).remainder(m);
+            }
+        }
+    }
+
+
+    /**
+     * Test ModInt coefficients.
+     */
+    public void testModInt() {
+        GenPolynomialRing<ModInt> ifac = new GenPolynomialRing<ModInt>(new ModIntRing(65521), 1);
+        GenPolynomial<ModInt> x = ifac.random(kl, ll, el, q);
+        GenPolynomial<ModInt> y = ifac.random(kl, ll, el, q);
+        DenseModPolynomial xd = DenseModPolynomial.fromGenPolynomial(x);
+        DenseModPolynomial yd = DenseModPolynomial.fromGenPolynomial(y);
+        assertEquals("conv(conv(x)) == x", x, xd.toGenPolynomial(ifac));
+        assertEquals("x*y", x.multiply(y), xd.multiply(yd).toGenPolynomial(ifac));
+    }
+
+}
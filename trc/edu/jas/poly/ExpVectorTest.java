@@ -737,6 +737,78 @@ public class ExpVectorTest extends TestCase {
     }
 
 
+    /**
+     * Test ExpVectorPacked, compare with ExpVectorLong.
+     */
+    public void testPacked() {
+        a = new ExpVectorPacked(10);
+        b = new ExpVectorPacked(10);
+        assertEquals("10e = 10e", a, b);
+        assertEquals("length( 10e ) = 10", a.length(), 10);
+        assertTrue("isZERO( ( 10e ) )", a.isZERO());
+
+        String s = "(0,0,0,0,0,0,0,0,0,0)";
+        a = new ExpVectorPacked(s);
+        String t = a.toString().substring(0, s.length());
+        assertEquals("stringConstr = toString", s, t);
+        assertTrue("isZERO( ( 10e ) )", a.isZERO());
+
+        for (int k = 0; k < 50; k++) {
+            int n = 1 + k % 11;
+            ExpVector al = ExpVector.random(n, 20, 0.5f);
+            ExpVector bl = ExpVector.random(n, 20, 0.5f);
+            if (k % 5 == 0) {
+                bl = bl.subst(n - 1, -bl.getVal(n - 1) - 1); // negative entry
+            }
+            if (k % 7 == 0) {
+                bl = al.subst(0, al.getVal(0) + 1);
+            }
+            a = ExpVectorPacked.valueOf(al);
+            b = ExpVectorPacked.valueOf(bl);
+            t = a.toString();
+            assertEquals("parse(toString(a)) == a", a, new ExpVectorPacked(t));
+            assertEquals("long(a) == al", al, ExpVectorLong.valueOf(a));
+            assertEquals("tdeg(a)", al.totalDeg(), a.totalDeg());
+            assertEquals("signum(b)", bl.signum(), b.signum());
+
+            assertEquals("a+b", al.sum(bl), ExpVectorLong.valueOf(a.sum(b)));
+            assertEquals("a-b", al.subtract(bl), ExpVectorLong.valueOf(a.subtract(b)));
+            assertEquals("-b", bl.negate(), ExpVectorLong.valueOf(b.negate()));
+            assertEquals("tdeg(a-b)", al.subtract(bl).totalDeg(), a.subtract(b).totalDeg());
+            assertEquals("lcm(a,b)", al.lcm(bl), ExpVectorLong.valueOf(a.lcm(b)));
+            assertEquals("gcd(a,b)", al.gcd(bl), ExpVectorLong.valueOf(a.gcd(b)));
+            assertEquals("tdeg(lcm(a,b))", al.lcm(bl).totalDeg(), a.lcm(b).totalDeg());
+            assertEquals("a | b", al.multipleOf(bl), a.multipleOf(b));
+            assertEquals("lcm(a,b) | b", al.lcm(bl).multipleOf(bl), a.lcm(b).multipleOf(b));
+            assertEquals("b | a", bl.multipleOf(al), b.multipleOf(a));
+
+            assertEquals("invLex", al.invLexCompareTo(bl), a.invLexCompareTo(b));
+            assertEquals("invGrad", al.invGradCompareTo(bl), a.invGradCompareTo(b));
+            assertEquals("revInvLex", al.revInvLexCompareTo(bl), a.revInvLexCompareTo(b));
+            assertEquals("revInvGrad", al.revInvGradCompareTo(bl), a.revInvGradCompareTo(b));
+            assertEquals("invTdeg", al.invTdegCompareTo(bl), a.invTdegCompareTo(b));
+            assertEquals("revLexInvTdeg", al.revLexInvTdegCompareTo(bl), a.revLexInvTdegCompareTo(b));
+            assertEquals("invLex(b,a)", bl.invLexCompareTo(al), b.invLexCompareTo(a));
+            assertEquals("revInvGrad(b,a)", bl.revInvGradCompareTo(al), b.revInvGradCompareTo(a));
+            assertEquals("invLex(a,a)", 0, a.invLexCompareTo(a.copy()));
+        }
+
+        a = ExpVectorPacked.valueOf(ExpVector.random(10, 20, 0.5f));
+        c = a.reverse();
+        d = c.reverse(0);
+        assertEquals("rev(rev(a),0) == a", a, d);
+        d = a.subst(3, 7);
+        assertEquals("subst(a)", 7, d.getVal(3));
+        assertEquals("tdeg(subst(a))", a.totalDeg() - a.getVal(3) + 7, d.totalDeg());
+        try {
+            a = new ExpVectorPacked(3, 1, ExpVectorPacked.maxPacked);
+            fail("exponent to large");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+
     /**
      * Test weight degree, long, integer, short and byte.
      */
@@ -778,6 +778,176 @@ public class GenPolynomialTest extends TestCase {
         assertFalse("tcf(charPol(A)) == 0: " + cf, cf.trailingBaseCoefficient().isZERO());
     }
 
+
+    /**
+     * Test array terms representation.
+     */
+    public void testArrayTerms() {
+        BigRational rf = new BigRational();
+        GenPolynomialRing<BigRational> tf = new GenPolynomialRing<BigRational>(rf, rl);
+        GenPolynomialRing<BigRational> af = new GenPolynomialRing<BigRational>(rf, tf);
+        af.setArrayTerms(true);
+        assertTrue("af.isArrayTerms()", af.isArrayTerms());
+        assertFalse("tf.isArrayTerms()", tf.isArrayTerms());
+        assertTrue("copy.isArrayTerms()", af.copy().isArrayTerms());
+
+        for (int i = 0; i < 5; i++) {
+            GenPolynomial<BigRational> a = tf.random(kl, ll, el, q);
+            GenPolynomial<BigRational> b = tf.random(kl, ll, el, q);
+            GenPolynomial<BigRational> aa = af.copy(a);
+            GenPolynomial<BigRational> ba = af.copy(b);
+            assertTrue("array map", aa.val instanceof TermArrayMap);
+            assertEquals("a == aa", a, aa);
+            assertEquals("aa == a", aa, a);
+            assertEquals("hash(a) == hash(aa)", a.hashCode(), aa.hashCode());
+            assertEquals("lt(a) == lt(aa)", a.leadingExpVector(), aa.leadingExpVector());
+            assertEquals("red(a) == red(aa)", a.reductum(), aa.reductum());
+
+            assertEquals("a+b", a.sum(b), aa.sum(ba));
+            assertEquals("a-b", a.subtract(b), aa.subtract(ba));
+            assertTrue("a-a == 0", aa.subtract(aa).isZERO());
+            assertEquals("-a", a.negate(), aa.negate());
+            assertEquals("a*b", a.multiply(b), aa.multiply(ba));
+            assertEquals("a*b mixed", a.multiply(b), aa.multiply(b));
+
+            BigRational c = rf.random(kl);
+            ExpVector e = ExpVector.random(rl, el, q);
+            assertEquals("a-c*b", a.subtractMultiple(c, b), aa.subtractMultiple(c, ba));
+            assertEquals("a-c*x^e*b", a.subtractMultiple(c, e, b), aa.subtractMultiple(c, e, ba));
+
+            if (!b.isZERO()) {
+                GenPolynomial<BigRational> d = a.multiply(b);
+                GenPolynomial<BigRational> da = aa.multiply(ba);
+                GenPolynomial<BigRational>[] qr = da.quotientRemainder(ba);
+                assertEquals("(a*b)/b", a.monic(), qr[0].monic());
+                assertTrue("(a*b)%b", qr[1].isZERO());
+                assertEquals("d == da", d, da);
+            }
+
+            List<Map.Entry<ExpVector, BigRational>> es = new ArrayList<Map.Entry<ExpVector, BigRational>>(
+                            aa.val.entrySet());
+            Iterator<Map.Entry<ExpVector, BigRational>> it = a.val.entrySet().iterator();
+            for (Map.Entry<ExpVector, BigRational> me : es) {
+                assertEquals("entry(a) == entry(aa)", it.next(), me);
+            }
+        }
+
+        // keys keep the exponent vector type
+        TermArrayMap<BigRational> tm = new TermArrayMap<BigRational>(tf.tord);
+        for (int i = 0; i < 5; i++) {
+            ExpVector e = ExpVector.random(rl, el, q);
+            tm.put(ExpVectorPacked.valueOf(e), rf.random(kl));
+            assertNotNull("get(e)", tm.get(ExpVectorPacked.valueOf(e)));
+        }
+        for (ExpVector e : tm.keySet()) {
+            assertTrue("packed key " + e, e instanceof ExpVectorPacked);
+            assertNotNull("get(e)", tm.get(e));
+        }
+    }
+
+
+    /**
+     * Test heap multiplication and division.
+     */
+    public void testHeapMultiplyDivide() {
+        BigInteger rf = new BigInteger();
+        GenPolynomialRing<BigInteger> pf = new GenPolynomialRing<BigInteger>(rf, rl);
+        for (int i = 0; i < 5; i++) {
+            GenPolynomial<BigInteger> a = pf.random(kl, ll, el, q);
+            GenPolynomial<BigInteger> b = pf.random(kl, ll, el, q);
+            if (b.isZERO()) {
+                continue;
+            }
+            // term by term product
+            GenPolynomial<BigInteger> c = pf.getZERO();
+            for (Monomial<BigInteger> m : a) {
+                c = c.sum(b.multiply(m.c, m.e));
+            }
+            GenPolynomial<BigInteger> d = a.multiply(b);
+            assertEquals("a*b == sum(a_i*b)", c, d);
+            assertEquals("a*b == b*a", d, b.multiply(a));
+
+            b = b.sum(pf.getONE().multiply(rf.getONE(), b.leadingExpVector().sum(ExpVector.create(rl, 0, 1))));
+            d = a.multiply(b);
+            GenPolynomial<BigInteger>[] qr = d.quotientRemainder(b);
+            assertEquals("(a*b)/b == a", a, qr[0]);
+            assertTrue("(a*b)%b == 0", qr[1].isZERO());
+            assertEquals("divide(a*b,b) == a", a, d.divide(b));
+            assertTrue("remainder(a*b,b) == 0", d.remainder(b).isZERO());
+
+            GenPolynomial<BigInteger> e = pf.random(kl, ll, el, q);
+            c = d.sum(e);
+            qr = c.quotientRemainder(b);
+            assertEquals("c == q*b + r", c, qr[0].multiply(b).sum(qr[1]));
+            assertEquals("r == remainder(c,b)", qr[1], c.remainder(b));
+            if (!qr[1].isZERO()) {
+                assertFalse("lt(b) not | lt(r)", qr[1].leadingExpVector().multipleOf(b.leadingExpVector()));
+            }
+        }
+
+        // zero divisors
+        ModIntegerRing mf = new ModIntegerRing(12);
+        GenPolynomialRing<ModInteger> mpf = new GenPolynomialRing<ModInteger>(mf, new String[] { "x", "y" });
+        GenPolynomial<ModInteger> a = mpf.parse("4 x + 3 y");
+        GenPolynomial<ModInteger> b = mpf.parse("3 x + 4");
+        assertEquals("a*b", mpf.parse("9 x y + 4 x"), a.multiply(b));
+    }
+
+
+    /**
+     * Test geobucket accumulator.
+     */
+    public void testGeoBucket() {
+        BigInteger rf = new BigInteger();
+        String[] vars = new String[] { "a", "b", "c", "d" };
+        GenPolynomialRing<BigInteger> pf = new GenPolynomialRing<BigInteger>(rf, vars);
+        GeoBucket<BigInteger> gb = new GeoBucket<BigInteger>(pf);
+        assertTrue("gb == 0", gb.isZERO());
+        assertNull("lm(0) == null", gb.leadingMonomial());
+        assertTrue("p(0) == 0", gb.getPolynomial().isZERO());
+
+        GenPolynomial<BigInteger> s = pf.getZERO();
+        for (int i = 0; i < 30; i++) {
+            GenPolynomial<BigInteger> a = pf.random(kl, ll * (i % 5 + 1), el, q);
+            ExpVector e = ExpVector.random(vars.length, 3, q);
+            BigInteger x = rf.random(kl);
+            if (i % 3 == 0) {
+                gb.add(a);
+                s = s.sum(a);
+            } else {
+                gb.subtractMultiple(x, e, a);
+                s = s.subtractMultiple(x, e, a);
+            }
+            if (i % 7 == 0) {
+                assertEquals("lt(gb) == lt(s)", s.leadingExpVector(), gb.leadingExpVector());
+            }
+        }
+        assertEquals("gb == s", s, gb.getPolynomial());
+        assertTrue("len(gb) >= len(s)", gb.length() >= s.length());
+
+        // extract all terms in order
+        GenPolynomial<BigInteger> r = pf.getZERO().copy();
+        Monomial<BigInteger> m;
+        ExpVector f = null;
+        while ((m = gb.pollLeadingMonomial()) != null) {
+            if (f != null) {
+                assertTrue("descending terms", pf.tord.getAscendComparator().compare(f, m.e) > 0);
+            }
+            f = m.e;
+            r.doPutToMap(m.e, m.c);
+        }
+        assertEquals("r == s", s, r);
+        assertTrue("gb == 0", gb.isZERO());
+
+        // cancellation of leading terms and scaling
+        GenPolynomial<BigInteger> a = pf.random(kl, ll, el, q);
+        gb = new GeoBucket<BigInteger>(a);
+        gb.multiply(rf.fromInteger(3));
+        assertEquals("3 a", a.multiply(rf.fromInteger(3)), gb.getPolynomial());
+        gb.subtractMultiple(rf.fromInteger(3), a);
+        assertTrue("3 a - 3 a == 0", gb.isZERO());
+    }
+
 }
 
 
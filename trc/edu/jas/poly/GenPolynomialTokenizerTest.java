@@ -1068,4 +1068,93 @@ public class GenPolynomialTokenizerTest extends TestCase {
         assertTrue("len == 7: ", variables.length == 7);
     }
 
+
+    /**
+     * Test stream parser.
+     */
+    public void testStreamParser() {
+        String[] vars = new String[] { "x", "y", "z" };
+        GenPolynomialRing<BigRational> rfac = new GenPolynomialRing<BigRational>(new BigRational(), vars);
+        List<GenPolynomial<BigRational>> L = new ArrayList<GenPolynomial<BigRational>>();
+        StringBuilder sb = new StringBuilder("( ");
+        for (int i = 0; i < 7; i++) {
+            GenPolynomial<BigRational> a = rfac.random(5, 9, 4, 0.5f);
+            if (i == 2) {
+                a = rfac.getZERO();
+            }
+            L.add(a);
+            if (i > 0) {
+                sb.append(", # comment\n");
+            }
+            sb.append(a.toString());
+        }
+        sb.append(" )");
+        GenPolynomialStreamParser<BigRational> sp = new GenPolynomialStreamParser<BigRational>(rfac,
+                        new StringReader(sb.toString()), 16);
+        assertEquals("L == stream(L)", L, sp.toList());
+        assertFalse("no more", sp.hasNext());
+
+        // sequence, products and powers
+        String exam = "3/4 x^2 y - 6/8 y x**2 + 2 x*z, (x + y)^2 - x^2 - y^2 - 2 x y, -{ 1/2 } z (y - 1) x^0 "
+                        + ", .5 x /2";
+        sp = new GenPolynomialStreamParser<BigRational>(rfac, new StringReader(exam));
+        List<GenPolynomial<BigRational>> P = new ArrayList<GenPolynomial<BigRational>>();
+        while (sp.hasNext()) {
+            P.add(sp.next());
+        }
+        assertEquals("#P == 4", 4, P.size());
+        assertEquals("P(0) ", rfac.parse("2 x z"), P.get(0));
+        assertTrue("P(1) == 0", P.get(1).isZERO());
+        assertEquals("P(2) ", rfac.parse("- 1/2 y z + 1/2 z"), P.get(2));
+        assertEquals("P(3) ", rfac.parse("1/4 x"), P.get(3));
+
+        // with array terms and other coefficients
+        GenPolynomialRing<ModInteger> mfac = new GenPolynomialRing<ModInteger>(
+                        new edu.jas.arith.ModIntegerRing(19), vars);
+        mfac.setArrayTerms(true);
+        GenPolynomial<ModInteger> m = mfac.random(5, 20, 4, 0.5f);
+        GenPolynomialStreamParser<ModInteger> mp = new GenPolynomialStreamParser<ModInteger>(mfac,
+                        new StringReader(m.toString()));
+        assertEquals("m == stream(m)", m, mp.next());
+        assertFalse("no more", mp.hasNext());
+
+        String[] errors = new String[] { "x +", "( x, y", "x y z w", "x ^", "x + (y", "x ; y" };
+        for (String e : errors) {
+            try {
+                sp = new GenPolynomialStreamParser<BigRational>(rfac, new StringReader(e));
+                sp.toList();
+                fail("no error for " + e);
+            } catch (InvalidExpressionException ex) {
+                // pass
+            }
+        }
+    }
+
+
+    /**
+     * Test stream parser with many terms.
+     */
+    public void testStreamParserLarge() {
+        String[] vars = new String[] { "x", "y", "z", "w" };
+        GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), vars);
+        GenPolynomial<BigInteger> a = ifac.parse("(x + 2 y - 3 z + w + 1)^12");
+        GenPolynomial<BigInteger> b = a.multiply(ifac.parse("x - y"));
+        StringBuilder sb = new StringBuilder();
+        sb.append(b.toString()).append(", ");
+        // unordered terms with duplicates
+        for (Monomial<BigInteger> m : a) {
+            sb.append(" - ").append(ifac.valueOf(m.c, m.e).multiply(ifac.parse("y")).toString());
+        }
+        for (Monomial<BigInteger> m : a) {
+            sb.append(" + ").append(ifac.valueOf(m.c, m.e).multiply(ifac.parse("x")).toString());
+        }
+        GenPolynomialStreamParser<BigInteger> sp = new GenPolynomialStreamParser<BigInteger>(ifac,
+                        new StringReader(sb.toString()));
+        GenPolynomial<BigInteger> c = sp.next();
+        assertEquals("b == stream(b)", b, c);
+        c = sp.next();
+        assertEquals("b == stream(sum(b))", b, c);
+        assertFalse("no more", sp.hasNext());
+    }
+
 }
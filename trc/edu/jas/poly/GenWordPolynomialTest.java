@@ -833,4 +833,41 @@ public class GenWordPolynomialTest extends TestCase {
         }
     }
 
+
+
+    /**
+     * Test word geobucket accumulator.
+     */
+    public void testWordGeoBucket() {
+        BigInteger rf = new BigInteger();
+        WordFactory wf = new WordFactory("abcdef");
+        GenWordPolynomialRing<BigInteger> fac = new GenWordPolynomialRing<BigInteger>(rf, wf);
+        WordGeoBucket<BigInteger> gb = new WordGeoBucket<BigInteger>(fac);
+        assertTrue("gb == 0", gb.isZERO());
+
+        GenWordPolynomial<BigInteger> s = fac.getZERO();
+        for (int i = 0; i < 30; i++) {
+            GenWordPolynomial<BigInteger> a = fac.random(kl, ll * (i % 5 + 1), el);
+            if (i % 3 == 0) {
+                gb.add(a);
+                s = s.sum(a);
+            } else {
+                gb.subtract(a);
+                s = s.subtract(a);
+            }
+            if (i % 7 == 0) {
+                assertEquals("lt(gb) == lt(s)", s.leadingWord(), gb.leadingWord());
+            }
+        }
+        assertEquals("gb == s", s, gb.getPolynomial());
+
+        GenWordPolynomial<BigInteger> r = fac.getZERO().copy();
+        WordMonomial<BigInteger> m;
+        while ((m = gb.pollLeadingMonomial()) != null) {
+            r.doPutToMap(m.e, m.c);
+        }
+        assertEquals("r == s", s, r);
+        assertTrue("gb == 0", gb.isZERO());
+    }
+
 }
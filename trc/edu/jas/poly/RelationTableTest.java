@@ -436,4 +436,48 @@ public class RelationTableTest extends TestCase {
         assertEquals("rel1 == rel2: ", ring.table, ring2.table);
     }
 
+
+    /**
+     * Test relation cache.
+     */
+    public void testRelationCache() {
+        RelationGenerator<BigRational> wl = new WeylRelations<BigRational>();
+        wl.generate(ring);
+        table = ring.table;
+        int ts = table.size();
+        RelationCache<BigRational> cache = table.getCache();
+        assertTrue("cache empty: " + cache, cache.size() == 0);
+
+        BigRational cfac = new BigRational(1);
+        GenSolvablePolynomialRing<BigRational> ring2 = new GenSolvablePolynomialRing<BigRational>(cfac, rl,
+                        ring.tord, ring.getVars());
+        wl.generate(ring2);
+        ring2.table.getCache().setBound(0); // no caching
+
+        GenSolvablePolynomial<BigRational> a, b;
+        GenPolynomial<BigRational> c, d;
+        for (int i = 1; i < 5; i++) {
+            a = (GenSolvablePolynomial<BigRational>) ring.univariate(0, i + 1).sum(ring.univariate(1, i));
+            b = (GenSolvablePolynomial<BigRational>) ring.univariate(3, i + 2).sum(ring.univariate(4, 2));
+            c = b.multiply(a).sum(a.multiply(b));
+            a = (GenSolvablePolynomial<BigRational>) ring2.univariate(0, i + 1).sum(ring2.univariate(1, i));
+            b = (GenSolvablePolynomial<BigRational>) ring2.univariate(3, i + 2).sum(ring2.univariate(4, 2));
+            d = b.multiply(a).sum(a.multiply(b));
+            assertEquals("c == d ", c.toString(), d.toString());
+        }
+        //System.out.println("cache = " + cache);
+        assertEquals("table size unchanged ", ts, table.size());
+        assertTrue("cache not empty: " + cache, cache.size() > 0);
+        assertTrue("cache hits: " + cache, cache.hits() > 0);
+        assertTrue("cache misses: " + cache, cache.misses() > 0);
+        assertTrue("no cache: " + ring2.table.getCache(), ring2.table.getCache().size() == 0);
+
+        cache.setBound(2);
+        a = ring.univariate(0, 7);
+        b = ring.univariate(3, 7);
+        c = b.multiply(a).sum(a.multiply(b));
+        assertTrue("cache bounded: " + cache, cache.size() <= 2);
+        assertTrue("cache evictions: " + cache, cache.evictions() > 0);
+    }
+
 }
@@ -5,6 +5,9 @@
 package edu.jas.poly;
 
 
+import java.util.ArrayList;
+import java.util.List;
+
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
@@ -707,4 +710,44 @@ public class TermOrderTest extends TestCase {
         }
     }
 
+
+    /**
+     * Test compare of packed exponents.
+     */
+    public void testCompareDescend() {
+        float q = (float) 0.5;
+        int r = 6;
+        List<TermOrder> tos = new ArrayList<TermOrder>();
+        for (int ev = TermOrder.LEX; ev <= TermOrder.REVITDEG; ev++) {
+            tos.add(new TermOrder(ev));
+        }
+        for (int ev1 = TermOrder.LEX; ev1 <= TermOrder.REVITDG; ev1++) {
+            for (int ev2 = TermOrder.LEX; ev2 <= TermOrder.REVITDG; ev2++) {
+                try {
+                    tos.add(new TermOrder(ev1, ev2, r, 2));
+                    tos.add(new TermOrder(ev1, ev2, r, 3, true));
+                } catch (IllegalArgumentException e) {
+                    // combination not defined
+                }
+            }
+        }
+        tos.add(new TermOrder(new long[][] { { 1, 2, 3, 1, 2, 3 }, { 1, 1, 1, 1, 1, 1 } }));
+
+        long[] ab = new long[2 * r + 1];
+        for (TermOrder to : tos) {
+            for (int i = 0; i < 10; i++) {
+                a = ExpVector.random(r, 5, q);
+                b = (i % 3 == 0) ? a.subst(r - 1, i) : ExpVector.random(r, 5, q);
+                System.arraycopy(a.getVal(), 0, ab, 1, r);
+                System.arraycopy(b.getVal(), 0, ab, r + 1, r);
+                int x = to.getDescendComparator().compare(a, b);
+                int y = to.compareDescend(ab, 1, ab, r + 1, r);
+                assertEquals("compare(a,b) == compareDescend(a,b): " + to, Integer.signum(x),
+                                Integer.signum(y));
+                y = to.compareDescend(ab, 1, ab, 1, r);
+                assertEquals("compareDescend(a,a) == 0: " + to, 0, y);
+            }
+        }
+    }
+
 }
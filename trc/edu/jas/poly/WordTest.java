@@ -450,5 +450,57 @@ public class WordTest extends TestCase {
         //System.out.println("wc3 = " + wc3);
         assertTrue("wfs.contract(w3): " + wc3 + ", " + wfs, (wc3 == null));
     }
+
+
+    /**
+     * Test word index.
+     */
+    public void testWordIndex() {
+        WordFactory wf = new WordFactory("abc");
+        for (int t = 0; t < 20; t++) {
+            Word[] ws = new Word[5 + t % 7];
+            for (int i = 0; i < ws.length; i++) {
+                ws[i] = wf.random(1 + (i + t) % 4);
+            }
+            WordIndex wi = new WordIndex(ws);
+            assertEquals("#wi == #ws", ws.length, wi.size());
+            for (int s = 0; s < 10; s++) {
+                Word e = wf.random(3 + s);
+                int k = -1;
+                java.util.BitSet bs = new java.util.BitSet();
+                for (int i = 0; i < ws.length; i++) {
+                    if (e.multipleOf(ws[i])) {
+                        if (k < 0) {
+                            k = i;
+                        }
+                        bs.set(i);
+                    }
+                }
+                int[] d = wi.divisor(e);
+                if (k < 0) {
+                    assertTrue("no divisor: " + e, d == null);
+                } else {
+                    assertEquals("divisor: " + e, k, d[0]);
+                    assertEquals("position: " + e, e.val.indexOf(ws[k].val), d[1]);
+                    Word[] lr = e.divideWordAt(ws[k], d[1]);
+                    assertEquals("l*w*r == e", e, lr[0].multiply(ws[k]).multiply(lr[1]));
+                }
+                assertEquals("divisors: " + e, bs, wi.divisors(e));
+            }
+        }
+        // overlaps
+        for (int t = 0; t < 100; t++) {
+            String x = wf.random(1 + t % 5).val;
+            String y = wf.random(1 + t % 7).val;
+            int l = 0;
+            for (int i = 1; i <= Math.min(x.length(), y.length()); i++) {
+                if (y.endsWith(x.substring(0, i))) {
+                    l = i;
+                    break;
+                }
+            }
+            assertEquals("shortestOverlap(" + x + "," + y + ")", l, Word.shortestOverlap(x, y));
+        }
+    }
     
 }
@@ -503,6 +503,59 @@ public class MultiVarPowerSeriesTest extends TestCase {
         assertEquals("fromPolynomial(asPolynomial(s)) = s ", a, b);
     }
 
+
+    /**
+     * Test bounded coefficient caches.
+     */
+    public void testCoefficientCache() {
+        int n = 8;
+        a = fac.getEXP(0).multiply(fac.getSIN(1));
+        try {
+            CoefficientCache.setDefault(n / 2, BoundedCoefficientCache.Eviction.LRU);
+            b = fac.getEXP(0).multiply(fac.getSIN(1));
+        } finally {
+            CoefficientCache.setDefault(0, null);
+        }
+        assertTrue("bounded cache ", b.lazyCoeffs.coeffCache instanceof BoundedCoefficientCache);
+        for (int i = 0; i < n; i++) {
+            assertEquals("lru(a) == a ", a.homogeneousPart(i), b.homogeneousPart(i));
+        }
+        assertTrue("#cache <= bound ", b.lazyCoeffs.coeffCache.size() <= n / 2);
+        for (ExpVector i : new ExpVectorIterable(rl, true, n)) {
+            assertEquals("lru(a) == a ", a.coefficient(i), b.coefficient(i));
+        }
+
+        // shared between threads
+        c = fac.getEXP(1).multiply(fac.getCOS(0));
+        d = fac.getEXP(1).multiply(fac.getCOS(0));
+        final MultiVarPowerSeries<BigRational> g = d;
+        final int m = n;
+        Thread[] th = new Thread[4];
+        for (int k = 0; k < th.length; k++) {
+            th[k] = new Thread() {
+
+
+                @Override
+                public void run() {
+                    for (int i = 0; i < m; i++) {
+                        g.homogeneousPart(i);
+                    }
+                }
+            };
+            th[k].start();
+        }
+        for (int k = 0; k < th.length; k++) {
+            try {
+                th[k].join();
+            } catch (InterruptedException ex) {
+                fail("" + ex);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals("shared(c) == c ", c.homogeneousPart(i), d.homogeneousPart(i));
+        }
+    }
+
 }
 
 
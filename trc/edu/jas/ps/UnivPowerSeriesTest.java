@@ -10,6 +10,10 @@ import java.util.List;
 import java.util.Set;
 
 import edu.jas.arith.BigRational;
+import edu.jas.arith.ModInteger;
+import edu.jas.arith.ModIntegerRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
 import edu.jas.kern.ComputerThreads;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
@@ -348,4 +352,159 @@ public class UnivPowerSeriesTest extends TestCase {
         assertEquals("fromVector(asVector(s)) = s ", a, b);
     }
 
+
+    /**
+     * Test coefficient caches.
+     */
+    public void testCoefficientCache() {
+        int n = 60;
+        a = fac.getEXP().multiply(fac.getSIN());
+        try {
+            CoefficientCache.setDefault(n / 2, BoundedCoefficientCache.Eviction.WINDOW);
+            b = fac.getEXP().multiply(fac.getSIN());
+            CoefficientCache.setDefault(n / 2, BoundedCoefficientCache.Eviction.LRU);
+            c = fac.getEXP().multiply(fac.getSIN());
+        } finally {
+            CoefficientCache.setDefault(0, null);
+        }
+        assertTrue("bounded cache ", b.lazyCoeffs.coeffCache instanceof BoundedCoefficientCache);
+        assertFalse("not pinned ", b.lazyCoeffs.coeffCache.isPinned());
+        for (int i = 0; i < n; i++) {
+            assertEquals("window(a) == a ", a.coefficient(i), b.coefficient(i));
+            assertEquals("lru(a) == a ", a.coefficient(i), c.coefficient(i));
+        }
+        assertTrue("#cache <= bound ", b.lazyCoeffs.coeffCache.size() <= n / 2);
+        assertTrue("#cache <= bound ", c.lazyCoeffs.coeffCache.size() <= n / 2);
+
+        b.pin();
+        assertTrue("pinned ", b.lazyCoeffs.coeffCache.isPinned());
+        for (int i = 0; i < n; i++) {
+            assertEquals("pin(a) == a ", a.coefficient(i), b.coefficient(i));
+        }
+        assertEquals("#cache == n ", n, b.lazyCoeffs.coeffCache.size());
+
+        // shared between threads
+        d = fac.getEXP().multiply(fac.getCOS());
+        e = fac.getEXP().multiply(fac.getCOS());
+        final UnivPowerSeries<BigRational> f = e;
+        final int m = n;
+        Thread[] th = new Thread[4];
+        for (int k = 0; k < th.length; k++) {
+            th[k] = new Thread() {
+
+
+                @Override
+                public void run() {
+                    for (int i = m - 1; i >= 0; i--) {
+                        f.coefficient(i);
+                    }
+                }
+            };
+            th[k].start();
+        }
+        try {
+            for (int k = 0; k < th.length; k++) {
+                th[k].join();
+            }
+        } catch (InterruptedException ex) {
+            fail("" + ex);
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals("d == e ", d.coefficient(i), e.coefficient(i));
+        }
+    }
+
+
+    /**
+     * Test eager truncated arithmetic.
+     */
+    public void testEagerTruncated() {
+        int n = 80;
+        UnivPowerSeriesRing<BigRational> efac = new UnivPowerSeriesRing<BigRational>(cfac);
+        efac.setEager(n);
+        assertTrue("eager ", efac.isEager());
+        a = fac.random(kl);
+        b = fac.random(kl);
+        UnivPowerSeries<BigRational> ea = efac.fromCoefficients(a.coefficients(n));
+        UnivPowerSeries<BigRational> eb = efac.fromCoefficients(b.coefficients(n));
+
+        c = a.multiply(b);
+        d = ea.multiply(eb);
+        assertEquals("a*b == a*b ", c.coefficients(n), d.coefficients(n));
+        assertTrue("eager cache ", d.lazyCoeffs.coeffCache.size() >= n);
+        // lazy beyond the eager order
+        c = fac.fromCoefficients(a.coefficients(n)).multiply(fac.fromCoefficients(b.coefficients(n)));
+        assertEquals("a*b(n+5) == a*b(n+5) ", c.coefficient(n + 5), d.coefficient(n + 5));
+
+        c = fac.ONE.sum(a.shift(1));
+        d = efac.ONE.sum(ea.shift(1));
+        e = d.inverse();
+        assertEquals("1/c == 1/c ", c.inverse().coefficients(n), e.coefficients(n));
+        assertTrue("1/c * c == 1 ", e.multiply(d).isONE());
+        c = fac.ONE.sum(fac.fromCoefficients(a.coefficients(n)).shift(1));
+        assertEquals("1/c(n+2) == 1/c(n+2) ", c.inverse().coefficient(n + 2), e.coefficient(n + 2));
+
+        e = d.sqrt();
+        assertEquals("sqrt(c) == sqrt(c) ", c.sqrt().coefficients(n), e.coefficients(n));
+        assertEquals("sqrt(c)^2 == c ", d.coefficients(n), e.multiply(e).coefficients(n));
+
+        e = d.log();
+        assertEquals("log(c) == log(c) ", c.log().coefficients(n), e.coefficients(n));
+        assertEquals("exp(log(c)) == c ", d.coefficients(n), e.exp().coefficients(n));
+
+        UnivPowerSeries<BigRational> x = fac.ONE.shift(1);
+        assertEquals("exp(x) == exp ", fac.getEXP().coefficients(n), efac.ONE.shift(1).exp().coefficients(n));
+        assertEquals("exp(x) == exp ", fac.getEXP().coefficients(20), x.exp().coefficients(20));
+
+        UnivPowerSeries<BigRational> g = a.shift(1);
+        UnivPowerSeries<BigRational> eg = ea.shift(1);
+        c = b.compose(g);
+        d = eb.compose(eg);
+        assertEquals("b(g) == b(g) ", c.coefficients(30), d.coefficients(30));
+        assertEquals("b(g) == b(g) ", c.coefficients(n).get(n - 1), d.coefficients(n).get(n - 1));
+
+        g = x.sum(a.shift(2));
+        eg = efac.ONE.shift(1).sum(ea.shift(2));
+        c = g.reversion();
+        d = eg.reversion();
+        assertEquals("rev(g) == rev(g) ", c.coefficients(20), d.coefficients(20));
+        assertEquals("g(rev(g)) == x ", x.coefficients(n), eg.compose(d).coefficients(n));
+        assertEquals("rev(g)(g) == x ", x.coefficients(20), c.compose(g).coefficients(20));
+    }
+
+
+    /**
+     * Test eager truncated arithmetic with modular coefficients.
+     */
+    public void testEagerTruncatedModular() {
+        int n = 300;
+        ModLongRing mfac = new ModLongRing(2147483629L); // < 2^31
+        UnivPowerSeriesRing<ModLong> lfac = new UnivPowerSeriesRing<ModLong>(mfac);
+        UnivPowerSeriesRing<ModLong> efac = new UnivPowerSeriesRing<ModLong>(mfac);
+        efac.setEager(n);
+        UnivPowerSeries<ModLong> ma = lfac.random(kl);
+        UnivPowerSeries<ModLong> mb = lfac.random(kl);
+        UnivPowerSeries<ModLong> ea = efac.fromCoefficients(ma.coefficients(n));
+        UnivPowerSeries<ModLong> eb = efac.fromCoefficients(mb.coefficients(n));
+
+        // transform product
+        assertEquals("a*b == a*b ", ma.multiply(mb).coefficients(n), ea.multiply(eb).coefficients(n));
+        UnivPowerSeries<ModLong> mc = lfac.ONE.sum(ma.shift(1));
+        UnivPowerSeries<ModLong> ec = efac.ONE.sum(ea.shift(1));
+        assertEquals("1/c == 1/c ", mc.inverse().coefficients(n), ec.inverse().coefficients(n));
+        assertEquals("log(c) == log(c) ", mc.log().coefficients(n), ec.log().coefficients(n));
+        assertEquals("exp(log(c)) == c ", ec.coefficients(n), ec.log().exp().coefficients(n));
+
+        // no transform modulus, Karatsuba product
+        ModIntegerRing ifac = new ModIntegerRing("4611686018427387847", true);
+        UnivPowerSeriesRing<ModInteger> ilfac = new UnivPowerSeriesRing<ModInteger>(ifac);
+        UnivPowerSeriesRing<ModInteger> iefac = new UnivPowerSeriesRing<ModInteger>(ifac);
+        iefac.setEager(n);
+        UnivPowerSeries<ModInteger> ia = ilfac.random(kl);
+        UnivPowerSeries<ModInteger> ib = ilfac.random(kl);
+        UnivPowerSeries<ModInteger> ja = iefac.fromCoefficients(ia.coefficients(n));
+        UnivPowerSeries<ModInteger> jb = iefac.fromCoefficients(ib.coefficients(n));
+        assertEquals("a*b == a*b ", ia.multiply(ib).coefficients(n), ja.multiply(jb).coefficients(n));
+    }
+
 }
@@ -619,4 +619,75 @@ public class RealRootTest extends TestCase {
         assertTrue("some |a(dd)| < eps ", t);
     }
 
+
+    /**
+     * Test real root isolation with Descartes' rule of signs.
+     */
+    public void testRealRootIsolationDescartes() {
+        RealRootsAbstract<BigRational> rs = new RealRootsSturm<BigRational>();
+        RealRootsAbstract<BigRational> rd = new RealRootsDescartes<BigRational>();
+        for (int k = 0; k < 5; k++) {
+            a = dfac.random(kl, ll * 2, el * 2, q);
+            if (k == 1) {
+                a = a.multiply(dfac.univariate(0)); // root 0
+            }
+            if (k == 2) {
+                a = a.multiply(a).multiply(dfac.parse("x^2 - 2")); // multiple roots
+            }
+            //System.out.println("a = " + a);
+            List<Interval<BigRational>> Rs = rs.realRoots(a);
+            List<Interval<BigRational>> Rd = rd.realRoots(a);
+            //System.out.println("Rd = " + Rd);
+            assertEquals("#roots(a) ", Rs.size(), Rd.size());
+            BigRational left = null;
+            for (Interval<BigRational> v : Rd) {
+                if (v.left.compareTo(v.right) < 0) {
+                    assertEquals("#root(v) == 1 " + v, 1L, rs.realRootCount(v, a));
+                }
+                assertEquals("#root(v) == 1 " + v, 1L, rd.realRootCount(v, a));
+                assertTrue("sorted " + Rd, left == null || left.compareTo(v.left) <= 0);
+                left = v.right;
+            }
+            if (Rd.size() > 1) {
+                Interval<BigRational> v = new Interval<BigRational>(Rd.get(0).left,
+                                Rd.get(Rd.size() - 1).right);
+                assertEquals("#root(v) " + v, rs.realRootCount(v, a), rd.realRootCount(v, a));
+            }
+        }
+    }
+
+
+    /**
+     * Test real root isolation with Descartes' rule of signs for polynomials
+     * with many roots, p = (x-0)*(x-1/2)*(x+2)*(x-3/4)*...
+     */
+    public void testRealRootIsolationDescartesMany() {
+        final int N = 60;
+        e = dfac.univariate(0);
+        List<BigRational> Rn = new ArrayList<BigRational>(N);
+        a = dfac.getONE();
+        for (int i = 0; i < N; i++) {
+            BigRational r = new BigRational(i * (1 - 2 * (i % 2)), (i % 3) + 1);
+            Rn.add(r);
+            a = a.multiply(e.subtract(dfac.getONE().multiply(r)));
+        }
+        a = a.multiply(dfac.parse("x^2 + 1"));
+        Collections.sort(Rn);
+        //System.out.println("a = " + a);
+
+        RealRootsAbstract<BigRational> rd = new RealRootsDescartes<BigRational>();
+        List<Interval<BigRational>> R = rd.realRoots(a);
+        //System.out.println("R = " + R);
+        assertEquals("#roots ", N, R.size());
+        for (int i = 0; i < N; i++) {
+            assertTrue("root in interval " + R.get(i), R.get(i).contains(Rn.get(i)));
+        }
+        RealRootsAbstract<BigRational> rs = new RealRootsDescartes<BigRational>(false);
+        assertEquals("par == seq ", R, rs.realRoots(a));
+
+        BigRational M = rd.realRootBound(a);
+        Interval<BigRational> v = new Interval<BigRational>(M.negate(), M);
+        assertEquals("#roots(M) ", N, rd.realRootCount(v, a));
+    }
+
 }
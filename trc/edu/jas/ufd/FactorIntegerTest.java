@@ -15,10 +15,13 @@ import junit.framework.TestSuite;
 
 import edu.jas.arith.BigInteger;
 import edu.jas.arith.ModInteger;
+import edu.jas.arith.ModIntegerRing;
 import edu.jas.kern.ComputerThreads;
+import edu.jas.kern.Metrics;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
 import edu.jas.poly.TermOrder;
 import edu.jas.poly.TermOrderByName;
 
@@ -249,6 +252,44 @@ public class FactorIntegerTest extends TestCase {
     }
 
 
+    /**
+     * Test integer factorization with concurrent modular factorizations.
+     */
+    public void testIntegerFactorizationParallel() {
+        TermOrder to = new TermOrder(TermOrder.INVLEX);
+        BigInteger cfac = new BigInteger(4);
+        String[] vars = new String[] { "x" };
+        GenPolynomialRing<BigInteger> pfac = new GenPolynomialRing<BigInteger>(cfac, 1, to, vars);
+        FactorInteger<ModInteger> fac = new FactorInteger<ModInteger>(cfac, 4);
+
+        for (int i = 1; i < 3; i++) {
+            GenPolynomial<BigInteger> b = pfac.random(kl * 2, ll * i, el * (i + 1), q);
+            GenPolynomial<BigInteger> c = pfac.random(kl, ll * i, el * (i + 2), q);
+            GenPolynomial<BigInteger> d = pfac.random(kl, ll * i, el * (i + 1), q);
+            GenPolynomial<BigInteger> a = c.multiply(b).multiply(d);
+            if (a.isConstant()) {
+                continue;
+            }
+            SortedMap<GenPolynomial<BigInteger>, Long> sm = fac.baseFactors(a);
+            //System.out.println("sm = " + sm);
+            assertTrue("prod(factor(a)) = a", fac.isFactorization(a, sm));
+            assertEquals("factors(a) == factors_seq(a)", new FactorInteger<ModInteger>().baseFactors(a), sm);
+        }
+        GenPolynomial<BigInteger> a = pfac.parse("( x^8 - 40 x^6 + 352 x^4 - 960 x^2 + 576 )");
+        Metrics.Counter primes = Metrics.counter("factor.primes");
+        Metrics.reset();
+        List<GenPolynomial<BigInteger>> F;
+        try {
+            Metrics.setActive();
+            F = fac.baseFactorsSquarefree(a);
+        } finally {
+            Metrics.setNotActive();
+        }
+        assertEquals("#factors(a) == 1", 1, F.size());
+        assertTrue("#primes > 0 ", primes.get() > 0L);
+    }
+
+
     /**
      * Test bi-variate integer factorization.
      */
@@ -764,4 +805,54 @@ public class FactorIntegerTest extends TestCase {
         assertTrue("#facs < 2, sm: " + sm, sm.size() >= 2);
     }
 
+
+    /**
+     * Test integer factorization with lattice recombination.
+     */
+    public void testIntegerFactorizationLattice() {
+        TermOrder to = new TermOrder(TermOrder.INVLEX);
+        BigInteger cfac = new BigInteger(4);
+        String[] vars = new String[] { "x" };
+        GenPolynomialRing<BigInteger> pfac = new GenPolynomialRing<BigInteger>(cfac, 1, to, vars);
+        FactorInteger<ModInteger> fac = new FactorInteger<ModInteger>();
+
+        // Swinnerton-Dyer polynomial of sqrt(2), sqrt(3), sqrt(5), sqrt(7),
+        // splits in 8 quadratic factors modulo every prime
+        String sd = "( x^16 - 136 x^14 + 6476 x^12 - 141912 x^10 + 1513334 x^8 - 7453176 x^6"
+                        + " + 13950764 x^4 - 5596840 x^2 + 46225 )";
+        GenPolynomial<BigInteger> a = pfac.parse(sd);
+        GenPolynomial<BigInteger> b = pfac.parse(sd.replace("x", "(x+1)"));
+        GenPolynomial<BigInteger> c = a.multiply(b);
+        List<GenPolynomial<BigInteger>> F = fac.baseFactorsSquarefree(c);
+        //System.out.println("F = " + F);
+        assertEquals("#factors(c) == 2: " + F, 2, F.size());
+        assertTrue("a in factors(c): " + F, F.contains(a));
+        assertTrue("b in factors(c): " + F, F.contains(b));
+
+        // non monic
+        b = fac.engine.basePrimitivePart(pfac.parse(sd.replace("x", "(2 x - 1)")));
+        c = a.multiply(b);
+        F = fac.baseFactorsSquarefree(c);
+        //System.out.println("F = " + F);
+        assertEquals("#factors(c) == 2: " + F, 2, F.size());
+        assertTrue("prod(factor(c)) = c", fac.isFactorization(c, F));
+
+        // irreducible, three times the degree
+        b = pfac.parse(sd.replace("x", "(x-1)"));
+        c = a.multiply(pfac.parse(sd.replace("x", "(x+1)"))).multiply(b);
+        F = fac.baseFactorsSquarefree(c);
+        assertEquals("#factors(c) == 3: " + F, 3, F.size());
+
+        // direct recombination of the modular factors
+        ModIntegerRing mcfac = new ModIntegerRing(32003, true);
+        GenPolynomialRing<ModInteger> mfac = new GenPolynomialRing<ModInteger>(mcfac, pfac);
+        List<GenPolynomial<ModInteger>> mlist = new FactorModular<ModInteger>(mcfac)
+                        .baseFactorsSquarefree(PolyUtil.<ModInteger> fromIntegerCoefficients(mfac, c));
+        assertEquals("#mod factors(c) == 24: " + mlist, 24, mlist.size());
+        F = LatticeRecombination.<ModInteger> recombine(c, mlist);
+        assertNotNull("lattice recombination: ", F);
+        assertEquals("#factors(c) == 3: " + F, 3, F.size());
+        assertTrue("prod(factor(c)) = c", fac.isFactorization(c, F));
+    }
+
 }
@@ -12,6 +12,7 @@ import edu.jas.arith.BigInteger;
 import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
 import edu.jas.arith.PrimeList;
+import edu.jas.kern.ComputerThreads;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.PolyUtil;
@@ -185,6 +186,49 @@ public class GCDModularTest extends TestCase {
     }
 
 
+    /**
+     * Test modular algorithm gcd with parallel prime pipeline.
+     */
+    public void testModularParallelGcd() {
+        GreatestCommonDivisorAbstract<BigInteger> ufd_p = new GreatestCommonDivisorModular<ModInteger>(false, 4);
+        GreatestCommonDivisorAbstract<BigInteger> ufd_m = new GreatestCommonDivisorModular<ModInteger>();
+        GreatestCommonDivisorAbstract<BigInteger> ufd = new GreatestCommonDivisorPrimitive<BigInteger>();
+
+        GenPolynomial<BigInteger> a, b, c, d, e;
+
+        GenPolynomialRing<BigInteger> dfac = new GenPolynomialRing<BigInteger>(new BigInteger(), 3, to);
+
+        for (int i = 0; i < 3; i++) {
+            a = dfac.random(kl, ll + i, el + i, q);
+            b = dfac.random(kl, ll + i, el + i, q);
+            c = dfac.random(kl * (i + 2), ll + i, el + i, q);
+            c = c.multiply(dfac.univariate(0));
+
+            if (a.isZERO() || b.isZERO() || c.isZERO()) {
+                // skip for this turn
+                continue;
+            }
+            a = a.multiply(c);
+            b = b.multiply(c);
+
+            d = ufd_p.gcd(a, b);
+
+            c = ufd.basePrimitivePart(c).abs();
+            e = PolyUtil.<BigInteger> baseSparsePseudoRemainder(d, c);
+            assertTrue("c | gcd(ac,bc) " + e, e.isZERO());
+
+            e = PolyUtil.<BigInteger> baseSparsePseudoRemainder(a, d);
+            assertTrue("gcd(a,b) | a" + e, e.isZERO());
+
+            e = PolyUtil.<BigInteger> baseSparsePseudoRemainder(b, d);
+            assertTrue("gcd(a,b) | b" + e, e.isZERO());
+
+            assertEquals("gcd_p(a,b) == gcd_m(a,b)", ufd_m.gcd(a, b), d);
+        }
+        ComputerThreads.terminate();
+    }
+
+
     /**
      * Test modular algorithm gcd with simple PRS recursive algorithm.
      */
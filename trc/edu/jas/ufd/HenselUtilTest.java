@@ -1452,4 +1452,89 @@ public class HenselUtilTest extends TestCase {
         }
     }
 
+
+    /**
+     * Test Hensel tree lifting.
+     */
+    public void testHenselTreeLifting() {
+        // x^24 - 1 splits into 24 linear factors mod 73
+        java.math.BigInteger p = new java.math.BigInteger("73");
+        BigInteger m = new BigInteger(p);
+        ModIntegerRing pm = new ModIntegerRing(p, true);
+        GenPolynomialRing<ModInteger> mfac = new GenPolynomialRing<ModInteger>(pm, 1, to,
+                        new String[] { "x" });
+        dfac = new GenPolynomialRing<BigInteger>(m, mfac);
+        FactorModular<ModInteger> mengine = new FactorModular<ModInteger>(pm);
+
+        c = dfac.parse("x^24 - 1");
+        List<GenPolynomial<ModInteger>> A = mengine.baseFactorsSquarefree(PolyUtil.fromIntegerCoefficients(mfac, c));
+        A = PolyUtil.monic(A);
+        assertEquals("#A == 24 ", 24, A.size());
+        long k = 9;
+        BigInteger pi = m.power(k - 1);
+        try {
+            List<GenPolynomial<ModInteger>> lift = HenselUtil.<ModInteger> liftHenselTree(c, A, k);
+            assertEquals("#lift == #A ", A.size(), lift.size());
+            List<GenPolynomial<BigInteger>> L = PolyUtil.integerFromModularCoefficients(dfac, lift);
+            assertTrue("prod(lift(L)) = c: " + c, HenselUtil.isHenselLift(c, m, pi, L));
+            // monic lifts are unique
+            List<GenPolynomial<ModInteger>> llift = HenselUtil.<ModInteger> liftHenselMonic(c, A, k);
+            assertEquals("tree lift == linear lift ", llift, lift);
+            for (int i = 0; i < A.size(); i++) {
+                assertEquals("lift(a) == a mod p ", A.get(i), PolyUtil.fromIntegerCoefficients(mfac, L.get(i)));
+            }
+        } catch (NoLiftingException e) {
+            fail("" + e);
+        }
+
+        // random factors
+        p = new java.math.BigInteger("268435399");
+        m = new BigInteger(p);
+        pm = new ModIntegerRing(p, true);
+        mfac = new GenPolynomialRing<ModInteger>(pm, 1, to, new String[] { "x" });
+        dfac = new GenPolynomialRing<BigInteger>(m, mfac);
+        List<GenPolynomial<BigInteger>> Ai = new ArrayList<GenPolynomial<BigInteger>>();
+        A = new ArrayList<GenPolynomial<ModInteger>>();
+        c = dfac.getONE();
+        for (int i = 0; i < 7; i++) {
+            a = dfac.random(kl, ll, el + i, q);
+            if (a.degree(0) < 1) {
+                a = dfac.univariate(0, i + 1).sum(dfac.fromInteger(i + 2));
+            }
+            a.doPutToMap(a.leadingExpVector(), m.getONE());
+            GenPolynomial<ModInteger> ap = PolyUtil.fromIntegerCoefficients(mfac, a);
+            boolean coprime = true;
+            for (GenPolynomial<ModInteger> bp : A) {
+                coprime = coprime && ap.gcd(bp).isONE();
+            }
+            if (!coprime) {
+                continue;
+            }
+            Ai.add(a);
+            A.add(ap);
+            c = c.multiply(a);
+        }
+        BigInteger mi = c.maxNorm();
+        for (GenPolynomial<BigInteger> ai : Ai) {
+            if (ai.maxNorm().compareTo(mi) > 0) {
+                mi = ai.maxNorm();
+            }
+        }
+        k = 1;
+        pi = m;
+        while (pi.compareTo(mi) < 0) {
+            k++;
+            pi = pi.multiply(m);
+        }
+        k++;
+        try {
+            List<GenPolynomial<ModInteger>> lift = HenselUtil.<ModInteger> liftHenselTree(c, A, k);
+            List<GenPolynomial<BigInteger>> L = PolyUtil.integerFromModularCoefficients(dfac, lift);
+            assertTrue("prod(lift(L)) = c: " + c, HenselUtil.isHenselLift(c, m, pi, L));
+            assertEquals("lift(a_i) == a_i ", Ai, L);
+        } catch (NoLiftingException e) {
+            fail("" + e);
+        }
+    }
+
 }
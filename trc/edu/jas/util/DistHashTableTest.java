@@ -313,4 +313,144 @@ public class DistHashTableTest extends TestCase {
         assertTrue("#l2=="+loops, l2.size() == loops );
     }
 
+
+    /**
+     * Tests batched puts and key range subscription.
+     */
+    public void testDistHashTable7() {
+        l1 = new DistHashTable<Integer,Integer>(host);
+        l1.init();
+        l2 = new DistHashTable<Integer,Integer>(host);
+        l2.init();
+        l2.subscribe( Integer.valueOf(4), Integer.valueOf(8) );
+        l1.setFlushInterval(50);
+        assertTrue("flush>0", l1.getFlushInterval() == 50 );
+
+        int i = 0, loops = 10;
+        while ( i < loops ) {
+            Integer x = Integer.valueOf( ++i );
+            l1.put( x, Integer.valueOf(-i) );
+            l1.put( x, x ); // coalesced
+        }
+        for ( i = 1; i <= loops; i++ ) {
+            Integer x = Integer.valueOf(i);
+            assertEquals("l1(i)==v(i)", x, l1.getWait(x) );
+        }
+        assertTrue("#l1=="+loops, l1.size() == loops );
+        for ( i = 4; i < 8; i++ ) {
+            Integer x = Integer.valueOf(i);
+            assertEquals("l2(i)==v(i)", x, l2.getWait(x) );
+        }
+        l1.putWait( Integer.valueOf(11), Integer.valueOf(11) );
+        l1.putWait( Integer.valueOf(5), Integer.valueOf(55) );
+        assertEquals("l2(5)==55", Integer.valueOf(55), l2.getWait(Integer.valueOf(5)) ); // FIFO channel
+        assertTrue("#l2==4 " + l2.size(), l2.size() == 4 );
+        assertTrue("l2(11)==null", l2.get(Integer.valueOf(11)) == null );
+        l1.setFlushInterval(0);
+    }
+
+
+    /**
+     * Tests sharded DistHashTable.
+     */
+    public void testDistHashTable8() {
+        int port2 = DistHashTableServer.DEFAULT_PORT + 10;
+        DistHashTableServer<Integer> dls2 = new DistHashTableServer<Integer>(port2);
+        dls2.init();
+        String[] hosts = new String[] { host, host };
+        int[] ports = new int[] { DistHashTableServer.DEFAULT_PORT, port2 };
+        ShardedDistHashTable<Integer,Integer> s1 = new ShardedDistHashTable<Integer,Integer>(hosts, ports);
+        s1.init();
+        ShardedDistHashTable<Integer,Integer> s2 = new ShardedDistHashTable<Integer,Integer>(hosts, ports);
+        s2.init();
+        try {
+            assertTrue("#shards==2", s1.shards() == 2 );
+            s1.setFlushInterval(20);
+            int i = 0, loops = 10;
+            while ( i < loops ) {
+                Integer x = Integer.valueOf( ++i );
+                s1.put( x, x );
+            }
+            s1.flush();
+            for ( i = 1; i <= loops; i++ ) {
+                Integer x = Integer.valueOf(i);
+                assertEquals("s2(i)==v(i)", x, s2.getWait(x) );
+                assertEquals("s1(i)==v(i)", x, s1.getWait(x) );
+            }
+            assertTrue("#s2=="+loops, s2.size() == loops );
+            assertTrue("#dls==2", dls.size() == 2 && dls2.size() == 2 );
+        } finally {
+            s1.terminate();
+            s2.terminate();
+            dls2.terminate();
+        }
+    }
+
+
+    /**
+     * Tests DistHashTable late client with subscription.
+     */
+    public void testDistHashTable9() {
+        l1 = new DistHashTable<Integer,Integer>(host);
+        l1.init();
+        int i = 0, loops = 10;
+        while ( i < loops ) {
+            Integer x = Integer.valueOf( ++i );
+            l1.putWait( x, x );
+        }
+        assertTrue("#l1=="+loops, l1.size() == loops );
+
+        l2 = new DistHashTable<Integer,Integer>(host);
+        l2.subscribe( Integer.valueOf(4), Integer.valueOf(8) ); // before init
+        l2.init();
+        for ( i = 4; i < 8; i++ ) {
+            Integer x = Integer.valueOf(i);
+            assertEquals("l2(i)==v(i)", x, l2.getWait(x) );
+        }
+        l1.putWait( Integer.valueOf(11), Integer.valueOf(11) );
+        l1.putWait( Integer.valueOf(5), Integer.valueOf(55) );
+        assertEquals("l2(5)==55", Integer.valueOf(55), l2.getWait(Integer.valueOf(5)) ); // FIFO channel
+        assertTrue("#l2==4 " + l2.size(), l2.size() == 4 );
+        assertTrue("l2(3)==null", l2.get(Integer.valueOf(3)) == null );
+    }
+
+
+    /**
+     * Tests replicated ShardedDistHashTable.
+     */
+    public void testDistHashTable10() {
+        int port2 = DistHashTableServer.DEFAULT_PORT + 10;
+        DistHashTableServer<Integer> dls2 = new DistHashTableServer<Integer>(port2);
+        dls2.init();
+        String[] hosts = new String[] { host, host };
+        int[] ports = new int[] { DistHashTableServer.DEFAULT_PORT, port2 };
+        ShardedDistHashTable<Integer,Integer> s1
+            = new ShardedDistHashTable<Integer,Integer>(new ChannelFactory(), hosts, ports, 2);
+        s1.init();
+        try {
+            assertTrue("#shards==1", s1.shards() == 1 );
+            assertTrue("#replicas==2", s1.replicas() == 2 );
+            int i = 0, loops = 10;
+            while ( i < loops ) {
+                Integer x = Integer.valueOf( ++i );
+                s1.putWait( x, x );
+            }
+            assertTrue("#s1=="+loops, s1.size() == loops );
+            // each replica got all entries, a client of one replica sees all
+            l2 = new DistHashTable<Integer,Integer>(host, port2);
+            l2.init();
+            for ( i = 1; i <= loops; i++ ) {
+                Integer x = Integer.valueOf(i);
+                assertEquals("l2(i)==v(i)", x, l2.getWait(x) );
+            }
+        } finally {
+            if ( l2 != null ) {
+                l2.terminate();
+                l2 = null;
+            }
+            s1.terminate();
+            dls2.terminate();
+        }
+    }
+
 }
@@ -0,0 +1,259 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.util;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * ForkJoinThreadPool tests with JUnit.
+ * @author Heinz Kredel
+ */
+public class ForkJoinThreadPoolTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>ForkJoinThreadPoolTest</CODE> object.
+     * @param name String.
+     */
+    public ForkJoinThreadPoolTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ForkJoinThreadPoolTest.class);
+        return suite;
+    }
+
+
+    static final int JOBS = 10; // number of jobs to start
+
+
+    private ThreadPool p1;
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+        if (p1 != null) {
+            p1.terminate();
+            p1 = null;
+        }
+    }
+
+
+    /**
+     * Tests if the created pool has correct size and no jobs.
+     */
+    public void testPoolEmpty() {
+        p1 = new ForkJoinThreadPool(0);
+        assertTrue("not empty pool ", p1.getNumber() == 0);
+        p1.terminate();
+
+        p1 = new ForkJoinThreadPool();
+        assertTrue("# empty pool ", p1.getNumber() == ThreadPool.DEFAULT_SIZE);
+        assertFalse("no jobs ", p1.hasJobs());
+        assertFalse("more than 0 jobs ", p1.hasJobs(0));
+    }
+
+
+    /**
+     * Tests if all jobs are run and terminated.
+     */
+    public void testPoolJobs() {
+        p1 = new ForkJoinThreadPool(4);
+        final AtomicInteger cnt = new AtomicInteger(0);
+        int n = JOBS * p1.getNumber();
+        for (int i = 0; i < n; i++) {
+            p1.addJob(new Runnable() {
+
+
+                public void run() {
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                    }
+                    cnt.incrementAndGet();
+                }
+            });
+        }
+        assertTrue("more than 10 jobs ", p1.hasJobs(JOBS));
+        p1.terminate();
+        assertFalse("no jobs ", p1.hasJobs());
+        assertEquals("all jobs done ", n, cnt.get());
+    }
+
+
+    /**
+     * Tests FIFO and LIFO strategies with one worker.
+     */
+    public void testPoolStrategy() throws InterruptedException {
+        for (StrategyEnumeration s : new StrategyEnumeration[] { StrategyEnumeration.FIFO,
+                StrategyEnumeration.LIFO }) {
+            p1 = new ForkJoinThreadPool(s, 1);
+            assertTrue("strategy ", p1.getStrategy() == s);
+            final CountDownLatch gate = new CountDownLatch(1);
+            final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+            p1.addJob(new Runnable() { // block the single worker
+
+
+                public void run() {
+                    try {
+                        gate.await();
+                    } catch (InterruptedException e) {
+                    }
+                }
+            });
+            while (p1.getStrategy() == StrategyEnumeration.LIFO
+                            && ((ForkJoinThreadPool) p1).running.get() == 0) {
+                Thread.sleep(1);
+            }
+            for (int i = 0; i < JOBS; i++) {
+                final int k = i;
+                p1.addJob(new Runnable() {
+
+
+                    public void run() {
+                        order.add(k);
+                    }
+                });
+            }
+            gate.countDown();
+            p1.terminate();
+            assertEquals("all jobs done ", JOBS, order.size());
+            for (int i = 0; i < JOBS; i++) {
+                int k = (s == StrategyEnumeration.FIFO ? i : JOBS - 1 - i);
+                assertEquals("order " + s, k, (int) order.get(i));
+            }
+        }
+    }
+
+
+    /**
+     * Tests virtual thread mode, falls back to ForkJoinPool if not available.
+     */
+    public void testPoolVirtual() {
+        p1 = new ForkJoinThreadPool(StrategyEnumeration.FIFO, 2, ForkJoinThreadPool.Mode.VIRTUAL);
+        final AtomicInteger cnt = new AtomicInteger(0);
+        for (int i = 0; i < JOBS; i++) {
+            p1.addJob(new Runnable() {
+
+
+                public void run() {
+                    cnt.incrementAndGet();
+                }
+            });
+        }
+        p1.terminate();
+        assertFalse("no jobs ", p1.hasJobs());
+        assertEquals("all jobs done ", JOBS, cnt.get());
+    }
+
+
+    /**
+     * Tests cancel of queued jobs.
+     */
+    public void testPoolCancel() {
+        p1 = new ForkJoinThreadPool(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        p1.addJob(new Runnable() {
+
+
+            public void run() {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                }
+            }
+        });
+        for (int i = 0; i < JOBS; i++) {
+            p1.addJob(new Runnable() {
+
+
+                public void run() {
+                }
+            });
+        }
+        int s = p1.cancel();
+        gate.countDown();
+        assertTrue("canceled jobs " + s, s >= JOBS - 1);
+        assertFalse("no jobs ", p1.hasJobs());
+    }
+
+
+    /**
+     * Tests fork-join tasks.
+     */
+    public void testForkJoinTask() {
+        RecursiveTask<Long> t = new Sum(0, 10000);
+        long s = ForkJoinThreadPool.invoke(t);
+        assertEquals("sum ", 10000L * 9999L / 2L, s);
+        boolean p = ForkJoinThreadPool.isParallel();
+        assertEquals("parallel ", ForkJoinPool.getCommonPoolParallelism() > 1, p);
+    }
+
+
+    /**
+     * Sum of a range of numbers.
+     */
+    static class Sum extends RecursiveTask<Long> {
+
+
+        final int lo;
+
+
+        final int hi;
+
+
+        Sum(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+
+        @Override
+        protected Long compute() {
+            if (hi - lo < 100) {
+                long s = 0L;
+                for (int i = lo; i < hi; i++) {
+                    s += i;
+                }
+                return s;
+            }
+            int m = (lo + hi) >>> 1;
+            Sum l = new Sum(lo, m);
+            l.fork();
+            long s = new Sum(m, hi).compute();
+            return s + l.join();
+        }
+    }
+
+}
@@ -751,4 +751,105 @@ public class GenMatrixTest extends TestCase {
         assertTrue("rank1 == rank2: ", r1 == r2);
     }
 
+
+    /**
+     * Test dense modular matrices.
+     */
+    public void testDenseModMatrix() {
+        ModLongRing cfac = new ModLongRing(32003);
+        int n = 64;
+        GenMatrixRing<ModLong> mfac = new GenMatrixRing<ModLong>(cfac, n, n);
+        GenMatrix<ModLong> A, B, C, D;
+        A = mfac.random(kl, q);
+        B = mfac.random(kl, q);
+
+        // multiplication, classic and Strassen
+        C = A.multiplySimple(B);
+        D = A.multiply(B);
+        assertEquals("A*B == A*_s B: ", C, D);
+        DenseModMatrix a = DenseModMatrix.fromGenMatrix(A);
+        DenseModMatrix b = DenseModMatrix.fromGenMatrix(B);
+        int cut = DenseModMatrix.STRASSEN_CUTOFF;
+        try {
+            DenseModMatrix.STRASSEN_CUTOFF = 8;
+            DenseModMatrix c = a.multiply(b);
+            assertEquals("strassen(A*B) == A*B: ", C, c.toGenMatrix(mfac));
+        } finally {
+            DenseModMatrix.STRASSEN_CUTOFF = cut;
+        }
+        assertEquals("toGen(fromGen(A)) == A: ", A, a.toGenMatrix(mfac));
+
+        // LU decomposition and solve
+        LinAlg<ModLong> lu = new LinAlg<ModLong>();
+        GenVectorModul<ModLong> vfac = new GenVectorModul<ModLong>(cfac, n);
+        GenVector<ModLong> x = vfac.random(kl, q);
+        GenVector<ModLong> y = new BasicLinAlg<ModLong>().rightProduct(x, A);
+        C = A.copy();
+        List<Integer> P = lu.decompositionLU(C);
+        if (!P.isEmpty()) {
+            GenVector<ModLong> z = lu.solveLU(C, P, y);
+            assertEquals("A*z == y: ", y, new BasicLinAlg<ModLong>().rightProduct(z, A));
+        }
+
+        // row echelon form and rank
+        C = A.multiply(mfac.random(kl, 0.1f)); // rank deficient
+        long r = a.rank();
+        assertTrue("0 <= rank <= n: ", 0 <= r && r <= n);
+        D = lu.rowEchelonForm(C.copy());
+        long s = lu.rankRE(D);
+        assertEquals("rank(RE) == rank: ", DenseModMatrix.fromGenMatrix(C).rank(), s);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < Math.min(i, n); j++) {
+                assertTrue("RE lower zero: ", D.get(i, j).isZERO());
+            }
+        }
+        List<GenVector<ModLong>> ns = lu.nullSpaceBasis(C.transpose(mfac.transpose()));
+        assertEquals("rank + dim ker == n ", n, s + ns.size());
+    }
+
+
+    /**
+     * Test LLL lattice reduction.
+     */
+    public void testLatticeReduction() {
+        java.math.BigInteger[][] b = new java.math.BigInteger[][] {
+                { java.math.BigInteger.valueOf(1), java.math.BigInteger.valueOf(1),
+                  java.math.BigInteger.valueOf(1) },
+                { java.math.BigInteger.valueOf(-1), java.math.BigInteger.valueOf(0),
+                  java.math.BigInteger.valueOf(2) },
+                { java.math.BigInteger.valueOf(3), java.math.BigInteger.valueOf(5),
+                  java.math.BigInteger.valueOf(6) } };
+        LatticeReduction lr = new LatticeReduction(b).reduce();
+        //System.out.println("lll = " + Arrays.toString(lr.getBasis()));
+        assertEquals("|b_0|^2 == 1: ", java.math.BigInteger.ONE, LatticeReduction.normSquare(lr.getVector(0)));
+        BigRational d = new BigRational(1);
+        for (int i = 0; i < lr.rows; i++) {
+            d = d.multiply(lr.gramSchmidtNormSquare(i));
+        }
+        assertEquals("det(L)^2 == 9: ", new BigRational(9), d);
+
+        // random lattice of full rank
+        int n = 8;
+        GenMatrixRing<edu.jas.arith.BigInteger> mfac = new GenMatrixRing<edu.jas.arith.BigInteger>(
+                        new edu.jas.arith.BigInteger(), n, n);
+        GenMatrix<edu.jas.arith.BigInteger> A = mfac.random(kl * 5, 0.9f);
+        A = A.sum(mfac.getONE().multiply(new edu.jas.arith.BigInteger(1L << 20)));
+        lr = new LatticeReduction(A).reduce();
+        BigRational g = new BigRational(LatticeReduction.normSquare(lr.getVector(0)));
+        BigRational dr = new BigRational(1);
+        for (int i = 0; i < n; i++) {
+            BigRational gs = lr.gramSchmidtNormSquare(i);
+            dr = dr.multiply(gs);
+            // |b_0|^2 <= 2^i |b*_i|^2
+            assertTrue("LLL reduced: ", g.compareTo(gs.multiply(new BigRational(1L << i))) <= 0);
+        }
+        LatticeReduction lr2 = new LatticeReduction(lr.getBasis()).reduce();
+        assertEquals("no swaps for reduced basis: ", 0L, lr2.getSwaps());
+        BigRational d2 = new BigRational(1);
+        for (int i = 0; i < n; i++) {
+            d2 = d2.multiply(lr2.gramSchmidtNormSquare(i));
+        }
+        assertEquals("det(L) invariant: ", dr, d2);
+    }
+
 }